@@ -0,0 +1,194 @@
+package group10.backendco2.service;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.dto.RouteModeResponse;
+import group10.backendco2.model.CarburantFossile;
+import group10.backendco2.model.ModeTransport;
+import group10.backendco2.model.SourceElectrique;
+import group10.backendco2.model.SourceEnergie;
+import group10.backendco2.repository.CarburantFossileRepository;
+import group10.backendco2.repository.ModeTransportRepository;
+import group10.backendco2.repository.SourceElectriqueRepository;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Données partagées par les benchmarks : réponses Google Maps Directions
+ * enregistrées et catalogue des facteurs d’émission en mémoire.
+ *
+ * Les réponses enregistrées se trouvent dans
+ * {@code src/main/resources/fixtures/directions/<mode>.json} (trajet Gare
+ * Part-Dieu → Campus LyonTech La Doua, avec itinéraires alternatifs) et sont
+ * partagées avec le bouchon {@link group10.backendco2.stub.DirectionsStubServer}.
+ * Le catalogue reprend les modes de transport et prix de la base de
+ * production.
+ */
+final class BenchmarkFixtures {
+
+  /**
+   * Modes Google Maps dans l’ordre où {@link GoogleMapService} les interroge.
+   */
+  static final String[] GOOGLE_MODES = {"driving", "walking", "bicycling",
+                                        "transit"};
+
+  /**
+   * Origine du trajet enregistré.
+   */
+  static final String ORIGIN = "Gare Part-Dieu, Lyon";
+
+  /**
+   * Destination du trajet enregistré.
+   */
+  static final String DESTINATION = "Campus LyonTech La Doua, Villeurbanne";
+
+  /**
+   * Classe utilitaire.
+   */
+  private BenchmarkFixtures() {}
+
+  /**
+   * Lit la réponse Directions enregistrée pour un mode.
+   *
+   * @param mode le mode Google Maps
+   * @return le corps JSON de la réponse
+   */
+  static String directionsJson(String mode) {
+    String path = "/fixtures/directions/" + mode + ".json";
+    try (InputStream in = BenchmarkFixtures.class.getResourceAsStream(path)) {
+      if (in == null) {
+        throw new IllegalStateException("Fixture introuvable : " + path);
+      }
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Analyse les réponses enregistrées de tous les modes, comme le ferait
+   * {@link GoogleMapService#fetchAllTransportModes(String, String)}.
+   *
+   * @return les itinéraires de tous les modes
+   */
+  static List<RouteModeResponse> routes() {
+    DirectionsResponseParser parser = new DirectionsResponseParser();
+    List<RouteModeResponse> routes = new ArrayList<>();
+    for (String mode : GOOGLE_MODES) {
+      try {
+        routes.addAll(parser.parse(directionsJson(mode), mode));
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return routes;
+  }
+
+  /**
+   * Construit un catalogue des facteurs d’émission chargé en mémoire.
+   *
+   * @return le catalogue, déjà chargé
+   */
+  static EmissionFactorCatalog catalog() {
+    SourceEnergie essence = new SourceEnergie(1L, "Essence", 2280f);
+    SourceEnergie gazole = new SourceEnergie(2L, "Gazole", 2510f);
+    SourceEnergie electricite = new SourceEnergie(3L, "Électricité", 52f);
+    SourceEnergie musculaire = new SourceEnergie(4L, "Musculaire", 0f);
+
+    List<ModeTransport> modes = List.of(
+        mode("Voiture thermique", 6.5f, null, essence),
+        mode("Voiture électrique", 17f, null, electricite),
+        mode("Taxi", 7f, 2.1f, gazole), mode("Marche", 0f, null, musculaire),
+        mode("Vélo", 0f, null, musculaire),
+        mode("Vélo électrique", 1.1f, null, electricite),
+        mode("Bus", 35f, 0.12f, gazole), mode("Tram", 160f, 0.12f, electricite),
+        mode("Metro subway", 250f, 0.12f, electricite),
+        mode("TER", 420f, 0.10f, electricite),
+        mode("TGV", 1900f, 0.09f, electricite),
+        mode("Ferry", 900f, 0.30f, gazole));
+
+    ModeTransportRepository modeRepository = mock(ModeTransportRepository.class);
+    CarburantFossileRepository carburantRepository =
+        mock(CarburantFossileRepository.class);
+    SourceElectriqueRepository electriqueRepository =
+        mock(SourceElectriqueRepository.class);
+    when(modeRepository.findAll()).thenReturn(modes);
+    when(carburantRepository.findAll())
+        .thenReturn(List.of(new CarburantFossile("SP95", 1.85f, 0.75f, essence),
+                            new CarburantFossile("Gazole", 1.70f, 0.84f, gazole)));
+    when(electriqueRepository.findAll())
+        .thenReturn(List.of(new SourceElectrique(3L, 0.25f, electricite)));
+
+    EmissionFactorCatalog catalog = new EmissionFactorCatalog(
+        modeRepository, carburantRepository, electriqueRepository);
+    catalog.refresh();
+    return catalog;
+  }
+
+  /**
+   * Construit un service d’émissions dont les appels Google Maps renvoient
+   * les itinéraires enregistrés, sans accès réseau ni base de données.
+   *
+   * @param googleMapService le service Google Maps à utiliser
+   * @param catalog le catalogue des facteurs d’émission
+   * @return le service d’émissions
+   */
+  static TransportEmissionService service(GoogleMapService googleMapService,
+                                          EmissionFactorCatalog catalog) {
+    TransportEmissionService service = new TransportEmissionService();
+    ReflectionTestUtils.setField(service, "googleMapService", googleMapService);
+    ReflectionTestUtils.setField(service, "emissionFactorCatalog", catalog);
+    return service;
+  }
+
+  /**
+   * Service Google Maps renvoyant toujours les mêmes itinéraires.
+   */
+  static final class FixedGoogleMapService extends GoogleMapService {
+
+    /**
+     * Itinéraires renvoyés.
+     */
+    private final List<RouteModeResponse> routes;
+
+    /**
+     * Constructeur du service.
+     *
+     * @param routes les itinéraires renvoyés
+     */
+    FixedGoogleMapService(List<RouteModeResponse> routes) {
+      this.routes = List.copyOf(routes);
+    }
+
+    @Override
+    public RouteSummary fetchRouteSummary(String origin, String destination) {
+      return new RouteSummary(Map.of(MODE_DRIVING, routes));
+    }
+  }
+
+  /**
+   * Crée un mode de transport.
+   *
+   * @param nom le nom du mode
+   * @param consommation la consommation moyenne aux 100 km
+   * @param tarifPublic le tarif public au km, ou null
+   * @param source la source d’énergie
+   * @return le mode de transport
+   */
+  private static ModeTransport mode(String nom, float consommation,
+                                    Float tarifPublic, SourceEnergie source) {
+    ModeTransport mode = new ModeTransport();
+    mode.setNom(nom);
+    mode.setConsommationMoyenne(consommation);
+    mode.setTarifPublicParKm(tarifPublic);
+    mode.setSourceEnergie(source);
+    return mode;
+  }
+}
@@ -0,0 +1,96 @@
+package group10.backendco2.service;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JMH de l’analyse des durées textuelles Google Maps : l’ancienne
+ * analyse par découpage et expressions régulières, reproduite ici comme
+ * référence, face à {@link DurationTextParser}. Le profil {@code benchmark}
+ * ajoute {@code -prof gc} : {@code gc.alloc.rate.norm} doit être nul pour
+ * {@link #parser}.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class DurationTextBenchmark {
+
+  /**
+   * Durée à analyser, du trajet urbain au trajet de plusieurs jours.
+   */
+  @Param({"13 mins", "1 hour 5 mins", "2 hours", "1 day 1 hour 5 mins"})
+  public String text;
+
+  /**
+   * Analyse par {@link DurationTextParser}.
+   *
+   * @return la durée en minutes
+   */
+  @Benchmark
+  public int parser() {
+    return DurationTextParser.parseMinutes(text);
+  }
+
+  /**
+   * Ancienne analyse, par découpage et expressions régulières.
+   *
+   * @return la durée en minutes
+   */
+  @Benchmark
+  public int legacy() {
+    return legacyMinutes(text);
+  }
+
+  /**
+   * Ancienne analyse d’une durée textuelle, telle qu’elle était faite par
+   * {@code TransportEmissionService.extractMinutesFromText}.
+   *
+   * @param durationText la durée
+   * @return la durée en minutes, 0 si elle est illisible
+   */
+  static int legacyMinutes(String durationText) {
+    int totalMinutes = 0;
+
+    try {
+      durationText = durationText.toLowerCase();
+
+      if (durationText.contains("day")) {
+        String[] parts = durationText.split("day");
+        String daysPart = parts[0].replaceAll("[^0-9]", "").trim();
+        totalMinutes += Integer.parseInt(daysPart) * 24 * 60;
+        if (parts.length > 1)
+          durationText = parts[1];
+      }
+
+      if (durationText.contains("hour")) {
+        String[] parts = durationText.split("hour");
+        String hoursPart = parts[0].replaceAll("[^0-9]", "").trim();
+        totalMinutes += Integer.parseInt(hoursPart) * 60;
+        if (parts.length > 1)
+          durationText = parts[1];
+      }
+
+      if (durationText.contains("min")) {
+        String mins = durationText.replaceAll("[^0-9]", "").trim();
+        if (!mins.isEmpty())
+          totalMinutes += Integer.parseInt(mins);
+      }
+    } catch (RuntimeException e) {
+      return 0;
+    }
+
+    return totalMinutes;
+  }
+}
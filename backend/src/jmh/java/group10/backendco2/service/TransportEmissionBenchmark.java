@@ -0,0 +1,220 @@
+package group10.backendco2.service;
+
+import group10.backendco2.dto.TransportEmissionDto;
+import group10.backendco2.model.ModeTransport;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks JMH du calcul des émissions de {@link TransportEmissionService}.
+ *
+ * Chaque benchmark mesure le débit et la latence moyenne ; le profil
+ * {@code benchmark} du build ajoute {@code -prof gc} pour le taux
+ * d’allocation. Les appels Google Maps sont remplacés par les réponses
+ * enregistrées de {@link BenchmarkFixtures} et le catalogue est en mémoire :
+ * seul le calcul est mesuré.
+ *
+ * Les méthodes privées sont appelées par des {@link MethodHandle} statiques,
+ * que le JIT traite comme des appels directs.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 2, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Benchmark)
+public class TransportEmissionBenchmark {
+
+  /**
+   * Accès à {@code extractMinutesFromText(String)}.
+   */
+  private static final MethodHandle EXTRACT_MINUTES = privateMethod(
+      "extractMinutesFromText", float.class, String.class);
+
+  /**
+   * Accès à {@code matchesGoogleMode(String, String)}.
+   */
+  private static final MethodHandle MATCHES_GOOGLE_MODE = privateMethod(
+      "matchesGoogleMode", boolean.class, String.class, String.class);
+
+  /**
+   * Accès à {@code filterMostEfficientModes(List)}.
+   */
+  private static final MethodHandle FILTER_MOST_EFFICIENT = privateMethod(
+      "filterMostEfficientModes", List.class, List.class);
+
+  /**
+   * Service Google Maps renvoyant les itinéraires enregistrés.
+   */
+  private BenchmarkFixtures.FixedGoogleMapService googleMapService;
+
+  /**
+   * Service mesuré.
+   */
+  private TransportEmissionService service;
+
+  /**
+   * Noms des modes du catalogue.
+   */
+  private String[] modeNames;
+
+  /**
+   * Modes du catalogue.
+   */
+  private List<ModeTransport> modes;
+
+  /**
+   * Résultats non filtrés d’une recherche : trois alternatives par mode.
+   */
+  private List<TransportEmissionDto> unfilteredEmissions;
+
+  /**
+   * Durées Google Maps représentatives, du trajet urbain au trajet de
+   * plusieurs jours.
+   */
+  @State(Scope.Benchmark)
+  public static class Durations {
+
+    /**
+     * Durée à analyser.
+     */
+    @Param({"13 mins", "1 hour 5 mins", "2 hours", "1 day 1 hour 5 mins"})
+    public String text;
+  }
+
+  /**
+   * Prépare le service et ses données.
+   */
+  @Setup
+  public void setUp() {
+    googleMapService =
+        new BenchmarkFixtures.FixedGoogleMapService(BenchmarkFixtures.routes());
+    EmissionFactorCatalog catalog = BenchmarkFixtures.catalog();
+    service = BenchmarkFixtures.service(googleMapService, catalog);
+    modes = catalog.getModes();
+    modeNames =
+        modes.stream().map(ModeTransport::getNom).toArray(String[]::new);
+
+    List<TransportEmissionDto> filtered = service.calculateMultiModeEmissions(
+        BenchmarkFixtures.ORIGIN, BenchmarkFixtures.DESTINATION);
+    unfilteredEmissions = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      unfilteredEmissions.addAll(filtered);
+    }
+  }
+
+  /**
+   * Arrête l’exécuteur du service Google Maps.
+   */
+  @TearDown
+  public void tearDown() {
+    googleMapService.shutdown();
+  }
+
+  /**
+   * Recherche multimodale complète : analyse des itinéraires, correspondance
+   * avec le catalogue, calcul des émissions et des prix, filtrage.
+   *
+   * @return les émissions calculées
+   */
+  @Benchmark
+  public List<TransportEmissionDto> calculateMultiModeEmissions() {
+    return service.calculateMultiModeEmissions(BenchmarkFixtures.ORIGIN,
+                                               BenchmarkFixtures.DESTINATION);
+  }
+
+  /**
+   * Filtrage des modes les plus efficaces sur une liste contenant des
+   * doublons.
+   *
+   * @return la liste filtrée
+   * @throws Throwable si l’appel échoue
+   */
+  @Benchmark
+  @SuppressWarnings("unchecked")
+  public List<TransportEmissionDto> filterMostEfficientModes()
+      throws Throwable {
+    return (List<TransportEmissionDto>)FILTER_MOST_EFFICIENT.invokeExact(
+        service, unfilteredEmissions);
+  }
+
+  /**
+   * Analyse d’une durée textuelle Google Maps.
+   *
+   * @param durations la durée à analyser
+   * @return la durée en minutes
+   * @throws Throwable si l’appel échoue
+   */
+  @Benchmark
+  public float extractMinutesFromText(Durations durations) throws Throwable {
+    return (float)EXTRACT_MINUTES.invokeExact(service, durations.text);
+  }
+
+  /**
+   * Correspondance de chaque mode du catalogue avec chaque mode Google Maps.
+   *
+   * @param blackhole puits des résultats
+   * @throws Throwable si l’appel échoue
+   */
+  @Benchmark
+  public void matchesGoogleMode(Blackhole blackhole) throws Throwable {
+    for (String googleMode : BenchmarkFixtures.GOOGLE_MODES) {
+      for (String modeName : modeNames) {
+        blackhole.consume(
+            (boolean)MATCHES_GOOGLE_MODE.invokeExact(service, modeName,
+                                                     googleMode));
+      }
+    }
+  }
+
+  /**
+   * Calcul de la consommation et du prix pour chaque mode du catalogue.
+   *
+   * @param blackhole puits des résultats
+   */
+  @Benchmark
+  public void calculerConsoEtPrix(Blackhole blackhole) {
+    for (ModeTransport mode : modes) {
+      blackhole.consume(service.calculerConsoEtPrix(mode, 4.62f));
+    }
+  }
+
+  /**
+   * Obtient un accès à une méthode privée de
+   * {@link TransportEmissionService}.
+   *
+   * @param name le nom de la méthode
+   * @param returnType le type de retour
+   * @param parameterTypes les types des paramètres
+   * @return le handle de la méthode
+   */
+  private static MethodHandle privateMethod(String name, Class<?> returnType,
+                                            Class<?>... parameterTypes) {
+    try {
+      return MethodHandles
+          .privateLookupIn(TransportEmissionService.class,
+                           MethodHandles.lookup())
+          .findVirtual(TransportEmissionService.class, name,
+                       MethodType.methodType(returnType, parameterTypes));
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+}
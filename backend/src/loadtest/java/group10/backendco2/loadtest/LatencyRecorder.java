@@ -0,0 +1,106 @@
+package group10.backendco2.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Enregistre les latences et codes HTTP d’une opération.
+ *
+ * Toutes les latences sont conservées (en microsecondes) puis triées à la
+ * fin du test : les percentiles sont exacts, sans histogramme approché.
+ * Les appels sont synchronisés, leur coût est négligeable devant un
+ * aller-retour HTTP.
+ */
+final class LatencyRecorder {
+
+  /**
+   * Latences enregistrées, en microsecondes.
+   */
+  private long[] latencies = new long[1024];
+
+  /**
+   * Nombre de latences enregistrées.
+   */
+  private int count;
+
+  /**
+   * Nombre de réponses en erreur (hors 2xx, ou sans réponse).
+   */
+  private int errors;
+
+  /**
+   * Nombre de réponses par code HTTP ; 0 pour une requête sans réponse.
+   */
+  private final Map<Integer, Integer> statuses = new TreeMap<>();
+
+  /**
+   * Enregistre une requête.
+   *
+   * @param elapsedNanos la durée de la requête, en nanosecondes
+   * @param status le code HTTP, ou 0 si aucune réponse n’a été reçue
+   */
+  synchronized void record(long elapsedNanos, int status) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, count * 2);
+    }
+    latencies[count++] = elapsedNanos / 1_000;
+    if (status < 200 || status >= 300) {
+      errors++;
+    }
+    statuses.merge(status, 1, Integer::sum);
+  }
+
+  /**
+   * Calcule la synthèse des requêtes enregistrées.
+   *
+   * @param seconds la durée de la mesure, en secondes
+   * @return la synthèse
+   */
+  synchronized Summary summarize(double seconds) {
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    double mean = count == 0 ? 0 : Arrays.stream(sorted).average().orElse(0);
+    return new Summary(count, errors, count == 0 ? 0 : (double)errors / count,
+                       seconds > 0 ? count / seconds : 0,
+                       count == 0 ? 0 : sorted[0] / 1000.0,
+                       percentile(sorted, 50), percentile(sorted, 95),
+                       percentile(sorted, 99),
+                       count == 0 ? 0 : sorted[count - 1] / 1000.0,
+                       mean / 1000.0, new TreeMap<>(statuses));
+  }
+
+  /**
+   * Calcule un percentile par la méthode du rang le plus proche.
+   *
+   * @param sorted les latences triées, en microsecondes
+   * @param percentile le percentile, entre 0 et 100
+   * @return la latence au percentile, en millisecondes (0 si aucune)
+   */
+  static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int rank = (int)Math.ceil(percentile / 100 * sorted.length);
+    return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)] / 1000.0;
+  }
+
+  /**
+   * Synthèse des requêtes d’une opération ; latences en millisecondes.
+   *
+   * @param requests le nombre de requêtes
+   * @param errors le nombre de requêtes en erreur
+   * @param errorRate la proportion de requêtes en erreur
+   * @param throughput le débit, en requêtes par seconde
+   * @param min la latence minimale
+   * @param p50 la latence médiane
+   * @param p95 le 95e percentile
+   * @param p99 le 99e percentile
+   * @param max la latence maximale
+   * @param mean la latence moyenne
+   * @param statuses le nombre de réponses par code HTTP
+   */
+  record Summary(int requests, int errors, double errorRate, double throughput,
+                 double min, double p50, double p95, double p99, double max,
+                 double mean, Map<Integer, Integer> statuses) {}
+}
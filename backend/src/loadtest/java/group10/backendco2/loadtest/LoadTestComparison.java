@@ -0,0 +1,154 @@
+package group10.backendco2.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compare deux résultats de {@link LoadTestRunner}, par exemple une
+ * exécution avec threads de plateforme et une avec threads virtuels, ou deux
+ * commits.
+ *
+ * Pour chaque opération présente dans les deux fichiers, affiche le débit,
+ * les percentiles et le taux d’erreurs de chacun avec leur écart relatif, et
+ * écrit la comparaison en JSON à côté du second fichier.
+ *
+ * Propriétés : {@code loadtest.baseline} et {@code loadtest.candidate},
+ * chemins des deux fichiers de résultats.
+ */
+public final class LoadTestComparison {
+
+  /**
+   * Indicateurs comparés, dans l’ordre d’affichage.
+   */
+  private static final List<String> METRICS =
+      List.of("throughput", "p50", "p95", "p99", "max", "errorRate");
+
+  /**
+   * Classe utilitaire.
+   */
+  private LoadTestComparison() {}
+
+  /**
+   * Point d’entrée.
+   *
+   * @param args ignorés (configuration par propriétés {@code loadtest.*})
+   * @throws IOException si un fichier ne peut être lu ou écrit
+   */
+  public static void main(String[] args) throws IOException {
+    String baseline = System.getProperty("loadtest.baseline", "");
+    String candidate = System.getProperty("loadtest.candidate", "");
+    if (baseline.isBlank() || candidate.isBlank()) {
+      throw new IllegalArgumentException(
+          "Indiquer -Dloadtest.baseline=<fichier> et "
+          + "-Dloadtest.candidate=<fichier>");
+    }
+    Path output = compare(Path.of(baseline), Path.of(candidate));
+    System.out.println("Comparaison : " + output.toAbsolutePath());
+  }
+
+  /**
+   * Compare deux fichiers de résultats.
+   *
+   * @param baselineFile les résultats de référence
+   * @param candidateFile les résultats comparés
+   * @return le fichier de comparaison écrit
+   * @throws IOException si un fichier ne peut être lu ou écrit
+   */
+  static Path compare(Path baselineFile, Path candidateFile)
+      throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    JsonNode baseline = mapper.readTree(baselineFile.toFile());
+    JsonNode candidate = mapper.readTree(candidateFile.toFile());
+
+    System.out.printf(Locale.ROOT, "référence : %s (%s)%ncomparé   : %s (%s)%n",
+                      baseline.path("label").asText(),
+                      baseline.path("commit").asText(),
+                      candidate.path("label").asText(),
+                      candidate.path("commit").asText());
+    System.out.printf(Locale.ROOT, "%n%-12s %-10s %12s %12s %9s%n",
+                      "opération", "indicateur", "référence", "comparé",
+                      "écart");
+
+    Map<String, Object> operations = new LinkedHashMap<>();
+    Iterator<Map.Entry<String, JsonNode>> entries =
+        baseline.path("operations").fields();
+    while (entries.hasNext()) {
+      Map.Entry<String, JsonNode> entry = entries.next();
+      JsonNode other = candidate.path("operations").path(entry.getKey());
+      if (other.isMissingNode()) {
+        continue;
+      }
+      operations.put(entry.getKey(),
+                     compareOperation(entry.getKey(), entry.getValue(), other));
+    }
+    operations.put("total", compareOperation("total", baseline.path("total"),
+                                             candidate.path("total")));
+
+    Map<String, Object> comparison = new LinkedHashMap<>();
+    comparison.put("baseline", baselineFile.toString());
+    comparison.put("candidate", candidateFile.toString());
+    comparison.put("operations", operations);
+    comparison.put("server",
+                   Map.of("baseline", baseline.path("server"), "candidate",
+                          candidate.path("server")));
+
+    Path output = candidateFile.resolveSibling(
+        "comparison-" + baseline.path("label").asText() + "-vs-" +
+        candidate.path("label").asText() + ".json");
+    Files.createDirectories(output.toAbsolutePath().getParent());
+    mapper.writerWithDefaultPrettyPrinter().writeValue(output.toFile(),
+                                                       comparison);
+    return output;
+  }
+
+  /**
+   * Compare les indicateurs d’une opération et les affiche.
+   *
+   * @param name le nom de l’opération
+   * @param baseline les indicateurs de référence
+   * @param candidate les indicateurs comparés
+   * @return pour chaque indicateur présent, les deux valeurs et l’écart
+   *     relatif
+   */
+  private static Map<String, Object> compareOperation(String name,
+                                                      JsonNode baseline,
+                                                      JsonNode candidate) {
+    Map<String, Object> result = new LinkedHashMap<>();
+    for (String metric : METRICS) {
+      if (!baseline.has(metric) || !candidate.has(metric)) {
+        continue;
+      }
+      double before = baseline.get(metric).asDouble();
+      double after = candidate.get(metric).asDouble();
+      Double change = relativeChange(before, after);
+      result.put(metric, Map.of("baseline", before, "candidate", after,
+                                "change", change == null ? "n/a" : change));
+      System.out.printf(Locale.ROOT, "%-12s %-10s %12.2f %12.2f %9s%n", name,
+                        metric, before, after,
+                        change == null
+                            ? "n/a"
+                            : String.format(Locale.ROOT, "%+.1f%%",
+                                            change * 100));
+    }
+    return result;
+  }
+
+  /**
+   * Calcule l’écart relatif entre deux valeurs.
+   *
+   * @param before la valeur de référence
+   * @param after la valeur comparée
+   * @return l’écart relatif, ou null si la référence est nulle
+   */
+  static Double relativeChange(double before, double after) {
+    return before == 0 ? null : (after - before) / before;
+  }
+}
@@ -0,0 +1,94 @@
+package group10.backendco2.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Configuration d’un test de charge, lue dans les propriétés système
+ * {@code loadtest.*} (voir le profil Maven {@code loadtest}).
+ *
+ * @param baseUrl URL de l’application testée
+ * @param virtualUsers nombre d’utilisateurs virtuels simultanés
+ * @param accounts nombre de comptes créés par le jeu de données
+ * @param password mot de passe des comptes
+ * @param warmup durée de la chauffe, non mesurée
+ * @param duration durée de la mesure
+ * @param thinkTime pause entre deux requêtes d’un utilisateur virtuel
+ * @param mix poids de chaque opération
+ * @param distinctPairs nombre de couples origine/destination différents
+ *     recherchés (plus il est grand, moins le cache d’itinéraires sert)
+ * @param outputDirectory répertoire des résultats
+ * @param label libellé de l’exécution, repris dans le nom du fichier
+ */
+record LoadTestConfig(String baseUrl, int virtualUsers, int accounts,
+                      String password, Duration warmup, Duration duration,
+                      Duration thinkTime, Map<Operation, Integer> mix,
+                      int distinctPairs, Path outputDirectory, String label) {
+
+  /**
+   * Répartition par défaut des opérations.
+   */
+  static final String DEFAULT_MIX =
+      "search:50,history:20,simulations:15,trajets:10,login:5";
+
+  /**
+   * Lit la configuration dans les propriétés système.
+   *
+   * @return la configuration
+   */
+  static LoadTestConfig fromSystemProperties() {
+    return new LoadTestConfig(
+        property("base-url", "http://localhost:8080")
+            .replaceAll("/+$", ""),
+        Integer.parseInt(property("users", "20")),
+        Integer.parseInt(property("accounts", "50")),
+        property("password", "loadtest"),
+        Duration.ofSeconds(Long.parseLong(property("warmup-seconds", "30"))),
+        Duration.ofSeconds(Long.parseLong(property("duration-seconds", "120"))),
+        Duration.ofMillis(Long.parseLong(property("think-time-ms", "0"))),
+        parseMix(property("mix", DEFAULT_MIX)),
+        Integer.parseInt(property("distinct-pairs", "200")),
+        Path.of(property("output", "target/loadtest")),
+        property("label", "local"));
+  }
+
+  /**
+   * Analyse une répartition de la forme {@code search:50,history:20}.
+   *
+   * @param mix la répartition
+   * @return le poids de chaque opération citée
+   * @throws IllegalArgumentException si la répartition est invalide
+   */
+  static Map<Operation, Integer> parseMix(String mix) {
+    Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+    for (String entry : mix.split(",")) {
+      String[] parts = entry.split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Répartition invalide : " + entry);
+      }
+      int weight = Integer.parseInt(parts[1].trim());
+      if (weight < 0) {
+        throw new IllegalArgumentException("Poids négatif : " + entry);
+      }
+      weights.put(Operation.fromKey(parts[0]), weight);
+    }
+    if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+      throw new IllegalArgumentException("Répartition vide : " + mix);
+    }
+    return weights;
+  }
+
+  /**
+   * Lit une propriété {@code loadtest.<name>}, vide considérée absente.
+   *
+   * @param name le nom de la propriété, sans préfixe
+   * @param defaultValue la valeur par défaut
+   * @return la valeur
+   */
+  private static String property(String name, String defaultValue) {
+    String value = System.getProperty("loadtest." + name);
+    return value == null || value.isBlank() ? defaultValue : value.trim();
+  }
+}
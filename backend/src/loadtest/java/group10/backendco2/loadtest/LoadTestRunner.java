@@ -0,0 +1,385 @@
+package group10.backendco2.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Test de charge de bout en bout de l’API REST.
+ *
+ * Des utilisateurs virtuels (un thread virtuel chacun) jouent en boucle
+ * fermée une répartition pondérée de requêtes : connexion, recherche
+ * d’émissions, historique, simulations et création de trajets. Après une
+ * chauffe non mesurée, chaque requête est chronométrée ; le test rapporte
+ * par opération les percentiles p50/p95/p99, le débit et le taux d’erreurs,
+ * ainsi que le CPU, le GC et le tas du serveur relevés par l’actuator.
+ *
+ * Les résultats sont écrits en JSON dans
+ * {@code target/loadtest/loadtest-<libellé>-<horodatage>.json}, avec le
+ * commit testé, pour comparer deux exécutions.
+ *
+ * Le serveur doit tourner avec le profil Spring {@code loadtest} (base H2,
+ * bouchon Directions et jeu de données).
+ */
+public final class LoadTestRunner {
+
+  /**
+   * Délai d’attente du démarrage du serveur.
+   */
+  private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+  /**
+   * Période d’échantillonnage des jauges du serveur.
+   */
+  private static final Duration SAMPLING_PERIOD = Duration.ofSeconds(1);
+
+  /**
+   * Configuration du test.
+   */
+  private final LoadTestConfig config;
+
+  /**
+   * Client HTTP partagé par les utilisateurs virtuels.
+   */
+  private final HttpClient client;
+
+  /**
+   * Requêtes de l’API.
+   */
+  private final RestApiClient api;
+
+  /**
+   * Latences enregistrées, par opération.
+   */
+  private final Map<Operation, LatencyRecorder> recorders =
+      new EnumMap<>(Operation.class);
+
+  /**
+   * Opérations tirées au sort, répétées selon leur poids.
+   */
+  private final Operation[] weightedOperations;
+
+  /**
+   * Constructeur.
+   *
+   * @param config la configuration du test
+   */
+  LoadTestRunner(LoadTestConfig config) {
+    this.config = config;
+    this.client = HttpClient.newBuilder()
+                      .connectTimeout(Duration.ofSeconds(5))
+                      .executor(Executors.newVirtualThreadPerTaskExecutor())
+                      .build();
+    this.api = new RestApiClient(client, config);
+    List<Operation> operations = new ArrayList<>();
+    config.mix().forEach((operation, weight) -> {
+      for (int i = 0; i < weight; i++) {
+        operations.add(operation);
+      }
+    });
+    this.weightedOperations = operations.toArray(Operation[] ::new);
+    for (Operation operation : Operation.values()) {
+      recorders.put(operation, new LatencyRecorder());
+    }
+  }
+
+  /**
+   * Point d’entrée.
+   *
+   * @param args ignorés (configuration par propriétés {@code loadtest.*})
+   * @throws Exception si le test ne peut aller à son terme
+   */
+  public static void main(String[] args) throws Exception {
+    LoadTestConfig config = LoadTestConfig.fromSystemProperties();
+    Path report = new LoadTestRunner(config).run();
+    System.out.println("Résultats : " + report.toAbsolutePath());
+  }
+
+  /**
+   * Déroule le test et écrit ses résultats.
+   *
+   * @return le fichier de résultats
+   * @throws Exception si le test ne peut aller à son terme
+   */
+  Path run() throws Exception {
+    System.out.printf(Locale.ROOT,
+                      "%s : %d utilisateurs, chauffe %ds, mesure %ds, %s%n",
+                      config.baseUrl(), config.virtualUsers(),
+                      config.warmup().toSeconds(),
+                      config.duration().toSeconds(), config.mix());
+    RestApiClient.Session monitor = awaitServer();
+    ServerMetrics metrics =
+        new ServerMetrics(client, config.baseUrl(), monitor.token());
+
+    long start = System.nanoTime();
+    long measureStart = start + config.warmup().toNanos();
+    long end = measureStart + config.duration().toNanos();
+
+    Map<String, List<Double>> samples = new LinkedHashMap<>();
+    Map<String, Double> countersBefore;
+    try (ExecutorService users = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < config.virtualUsers(); i++) {
+        int account = i % config.accounts();
+        users.submit(() -> virtualUser(account, measureStart, end));
+      }
+      sleepUntil(measureStart);
+      countersBefore = metrics.counters();
+      while (System.nanoTime() < end) {
+        for (String gauge : ServerMetrics.GAUGES.keySet()) {
+          Double value = metrics.gauge(gauge);
+          if (value != null) {
+            samples.computeIfAbsent(gauge, k -> new ArrayList<>()).add(value);
+          }
+        }
+        sleepUntil(Math.min(end, System.nanoTime()
+                                     + SAMPLING_PERIOD.toNanos()));
+      }
+    }
+    Map<String, Double> countersAfter = metrics.counters();
+
+    double seconds = config.duration().toNanos() / 1e9;
+    Map<String, Object> report = report(seconds, countersBefore,
+                                        countersAfter, samples);
+    return write(report);
+  }
+
+  /**
+   * Boucle d’un utilisateur virtuel : se connecte, puis enchaîne les
+   * opérations tirées au sort jusqu’à la fin du test.
+   *
+   * @param account l’indice du compte utilisé
+   * @param measureStart début de la mesure ({@link System#nanoTime()})
+   * @param end fin du test ({@link System#nanoTime()})
+   */
+  private void virtualUser(int account, long measureStart, long end) {
+    RestApiClient.Session session = null;
+    while (System.nanoTime() < end) {
+      Operation operation =
+          session == null ? Operation.LOGIN : nextOperation();
+      long begin = System.nanoTime();
+      int status;
+      try {
+        if (operation == Operation.LOGIN) {
+          RestApiClient.Login login = api.login(account);
+          status = login.status();
+          if (login.session() != null) {
+            session = login.session();
+          }
+        } else {
+          status = api.execute(operation, session);
+        }
+      } catch (IOException e) {
+        status = 0;
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      long finished = System.nanoTime();
+      if (begin >= measureStart && finished <= end) {
+        recorders.get(operation).record(finished - begin, status);
+      }
+      if (!config.thinkTime().isZero()) {
+        sleepUntil(finished + config.thinkTime().toNanos());
+      }
+    }
+  }
+
+  /**
+   * Tire au sort une opération selon la répartition configurée.
+   *
+   * @return l’opération
+   */
+  private Operation nextOperation() {
+    return weightedOperations[ThreadLocalRandom.current().nextInt(
+        weightedOperations.length)];
+  }
+
+  /**
+   * Attend que le serveur accepte les connexions du jeu de données.
+   *
+   * @return une session, utilisée pour lire les métriques
+   * @throws IOException si le serveur n’est pas prêt à temps
+   * @throws InterruptedException si le thread est interrompu
+   */
+  private RestApiClient.Session awaitServer()
+      throws IOException, InterruptedException {
+    long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+    while (true) {
+      try {
+        RestApiClient.Login login = api.login(0);
+        if (login.session() != null) {
+          return login.session();
+        }
+      } catch (IOException e) {
+        // Serveur pas encore démarré
+      }
+      if (System.nanoTime() > deadline) {
+        throw new IOException("Serveur indisponible ou jeu de données absent "
+                              + "(profil Spring loadtest ?) : "
+                              + config.baseUrl());
+      }
+      Thread.sleep(1000);
+    }
+  }
+
+  /**
+   * Construit le rapport du test.
+   *
+   * @param seconds durée de la mesure, en secondes
+   * @param before compteurs du serveur au début de la mesure
+   * @param after compteurs du serveur à la fin de la mesure
+   * @param samples jauges du serveur échantillonnées pendant la mesure
+   * @return le rapport, prêt à être sérialisé
+   */
+  private Map<String, Object> report(double seconds, Map<String, Double> before,
+                                     Map<String, Double> after,
+                                     Map<String, List<Double>> samples) {
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("label", config.label());
+    report.put("commit", gitCommit());
+    report.put("finishedAt", Instant.now().toString());
+
+    Map<String, Object> settings = new LinkedHashMap<>();
+    settings.put("baseUrl", config.baseUrl());
+    settings.put("virtualUsers", config.virtualUsers());
+    settings.put("warmupSeconds", config.warmup().toSeconds());
+    settings.put("durationSeconds", config.duration().toSeconds());
+    settings.put("thinkTimeMs", config.thinkTime().toMillis());
+    settings.put("distinctPairs", config.distinctPairs());
+    Map<String, Integer> mix = new LinkedHashMap<>();
+    config.mix().forEach((operation, weight) -> mix.put(operation.key(),
+                                                        weight));
+    settings.put("mix", mix);
+    report.put("config", settings);
+
+    Map<String, Object> operations = new LinkedHashMap<>();
+    int requests = 0;
+    int errors = 0;
+    System.out.printf(Locale.ROOT, "%n%-12s %8s %7s %9s %9s %9s %9s %9s%n",
+                      "opération", "requêtes", "erreurs", "req/s", "p50 ms",
+                      "p95 ms", "p99 ms", "max ms");
+    for (Map.Entry<Operation, LatencyRecorder> entry : recorders.entrySet()) {
+      LatencyRecorder.Summary summary = entry.getValue().summarize(seconds);
+      if (summary.requests() == 0) {
+        continue;
+      }
+      requests += summary.requests();
+      errors += summary.errors();
+      operations.put(entry.getKey().key(), summary);
+      System.out.printf(Locale.ROOT,
+                        "%-12s %8d %6.2f%% %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                        entry.getKey().key(), summary.requests(),
+                        summary.errorRate() * 100, summary.throughput(),
+                        summary.p50(), summary.p95(), summary.p99(),
+                        summary.max());
+    }
+    Map<String, Object> total = new LinkedHashMap<>();
+    total.put("requests", requests);
+    total.put("errors", errors);
+    total.put("errorRate", requests == 0 ? 0 : (double)errors / requests);
+    total.put("throughput", requests / seconds);
+    report.put("total", total);
+    report.put("operations", operations);
+
+    Map<String, Object> server = new LinkedHashMap<>();
+    Map<String, Double> deltas = new LinkedHashMap<>();
+    before.forEach((name, value) -> {
+      Double last = after.get(name);
+      deltas.put(name, value == null || last == null ? null : last - value);
+    });
+    server.put("counters", deltas);
+    Map<String, Object> gauges = new LinkedHashMap<>();
+    samples.forEach((name, values) -> gauges.put(
+        name, Map.of("mean",
+                     values.stream().mapToDouble(Double::doubleValue)
+                         .average().orElse(0),
+                     "max",
+                     values.stream().mapToDouble(Double::doubleValue)
+                         .max().orElse(0))));
+    server.put("gauges", gauges);
+    report.put("server", server);
+
+    System.out.printf(Locale.ROOT,
+                      "%ntotal : %d requêtes, %.1f req/s, %.2f%% d’erreurs%n"
+                          + "serveur : %s%n",
+                      requests, requests / seconds,
+                      requests == 0 ? 0 : 100.0 * errors / requests, server);
+    return report;
+  }
+
+  /**
+   * Écrit le rapport dans le répertoire des résultats.
+   *
+   * @param report le rapport
+   * @return le fichier écrit
+   * @throws IOException si l’écriture échoue
+   */
+  private Path write(Map<String, Object> report) throws IOException {
+    Files.createDirectories(config.outputDirectory());
+    String timestamp = LocalDateTime.now().format(
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+    Path file = config.outputDirectory().resolve(
+        "loadtest-" + config.label() + "-" + timestamp + ".json");
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(
+        file.toFile(), report);
+    return file;
+  }
+
+  /**
+   * Retourne le commit courant, pour situer les résultats.
+   *
+   * @return l’identifiant abrégé du commit, ou null hors dépôt git
+   */
+  private static String gitCommit() {
+    try {
+      Process git =
+          new ProcessBuilder("git", "rev-parse", "--short", "HEAD").start();
+      try (InputStream out = git.getInputStream()) {
+        String commit = new String(out.readAllBytes(), StandardCharsets.UTF_8)
+                            .trim();
+        return git.waitFor(5, TimeUnit.SECONDS) && git.exitValue() == 0
+                   ? commit
+                   : null;
+      }
+    } catch (IOException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+
+  /**
+   * Attend jusqu’à un instant donné.
+   *
+   * @param deadline l’instant ({@link System#nanoTime()})
+   */
+  private static void sleepUntil(long deadline) {
+    long remaining = deadline - System.nanoTime();
+    if (remaining > 0) {
+      try {
+        TimeUnit.NANOSECONDS.sleep(remaining);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
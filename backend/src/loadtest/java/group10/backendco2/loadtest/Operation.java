@@ -0,0 +1,58 @@
+package group10.backendco2.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Opérations de l’API REST jouées par les utilisateurs virtuels.
+ */
+enum Operation {
+
+  /**
+   * {@code POST /auth/login}.
+   */
+  LOGIN,
+
+  /**
+   * {@code GET /transports/search}, via le bouchon Directions.
+   */
+  SEARCH,
+
+  /**
+   * {@code GET /transports/search/async}, variante non bloquante de
+   * {@link #SEARCH}.
+   */
+  SEARCH_ASYNC,
+
+  /**
+   * {@code GET /history}, première page de l’historique.
+   */
+  HISTORY,
+
+  /**
+   * {@code POST /simulations}, qui recalcule les émissions du trajet.
+   */
+  SIMULATIONS,
+
+  /**
+   * {@code POST /trajets}.
+   */
+  TRAJETS;
+
+  /**
+   * Retourne le nom de l’opération dans la configuration et les résultats.
+   *
+   * @return le nom, en minuscules
+   */
+  String key() { return name().toLowerCase(Locale.ROOT); }
+
+  /**
+   * Retrouve une opération par son nom.
+   *
+   * @param key le nom de l’opération
+   * @return l’opération
+   * @throws IllegalArgumentException si le nom est inconnu
+   */
+  static Operation fromKey(String key) {
+    return valueOf(key.trim().toUpperCase(Locale.ROOT));
+  }
+}
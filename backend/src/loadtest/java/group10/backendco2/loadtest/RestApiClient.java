@@ -0,0 +1,271 @@
+package group10.backendco2.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.stub.LoadTestDataSeeder;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Requêtes de l’API REST jouées par un utilisateur virtuel.
+ *
+ * Chaque méthode renvoie le code HTTP de la réponse ; le corps n’est lu que
+ * lorsque la suite du scénario en a besoin (token de connexion).
+ */
+final class RestApiClient {
+
+  /**
+   * Délai maximal d’une requête.
+   */
+  private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+  /**
+   * Modes de transport choisis pour les simulations.
+   */
+  private static final String[] MODES = {"Voiture thermique", "Tram", "Bus",
+                                         "Vélo", "Metro subway"};
+
+  /**
+   * Client HTTP partagé.
+   */
+  private final HttpClient client;
+
+  /**
+   * Configuration du test.
+   */
+  private final LoadTestConfig config;
+
+  /**
+   * Lecteur et écrivain JSON.
+   */
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  /**
+   * Constructeur.
+   *
+   * @param client le client HTTP partagé
+   * @param config la configuration du test
+   */
+  RestApiClient(HttpClient client, LoadTestConfig config) {
+    this.client = client;
+    this.config = config;
+  }
+
+  /**
+   * Session d’un utilisateur virtuel.
+   *
+   * @param account l’indice du compte utilisé
+   * @param token le dernier token JWT obtenu
+   * @param userId l’identifiant de l’utilisateur
+   */
+  record Session(int account, String token, long userId) {}
+
+  /**
+   * Résultat d’une connexion.
+   *
+   * @param status le code HTTP
+   * @param session la session ouverte, ou null en cas d’échec
+   */
+  record Login(int status, Session session) {}
+
+  /**
+   * Joue une opération authentifiée ou publique, hors connexion.
+   *
+   * @param operation l’opération
+   * @param session la session de l’utilisateur virtuel
+   * @return le code HTTP
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  int execute(Operation operation, Session session)
+      throws IOException, InterruptedException {
+    return switch (operation) {
+      case SEARCH -> search("/transports/search");
+      case SEARCH_ASYNC -> search("/transports/search/async");
+      case HISTORY -> history(session);
+      case SIMULATIONS -> simulation(session);
+      case TRAJETS -> trajet(session);
+      case LOGIN -> throw new IllegalArgumentException(
+          "La connexion passe par login(int)");
+    };
+  }
+
+  /**
+   * Se connecte avec un compte du jeu de données.
+   *
+   * @param account l’indice du compte
+   * @return le code HTTP et la session ouverte
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  Login login(int account) throws IOException, InterruptedException {
+    String email = String.format(LoadTestDataSeeder.EMAIL_PATTERN, account);
+    HttpResponse<String> response = client.send(
+        post("/auth/login", Map.of("email", email, "motDePasse",
+                                   config.password()),
+             null),
+        HttpResponse.BodyHandlers.ofString());
+    if (response.statusCode() != 200) {
+      return new Login(response.statusCode(), null);
+    }
+    JsonNode body = mapper.readTree(response.body());
+    return new Login(200, new Session(account, body.path("token").asText(),
+                                      body.path("user").path("id").asLong()));
+  }
+
+  /**
+   * Recherche les émissions d’un trajet parmi {@code distinctPairs}.
+   *
+   * @param endpoint le chemin de recherche, synchrone ou non
+   * @return le code HTTP
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  private int search(String endpoint)
+      throws IOException, InterruptedException {
+    int pair = ThreadLocalRandom.current().nextInt(config.distinctPairs());
+    String path = endpoint + "?origine=" + encode(origin(pair))
+                  + "&destination=" + encode(destination(pair));
+    return discard(request(path, null).GET().build());
+  }
+
+  /**
+   * Lit la première page de l’historique.
+   *
+   * @param session la session
+   * @return le code HTTP
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  private int history(Session session)
+      throws IOException, InterruptedException {
+    return discard(request("/history?size=20", session.token()).GET().build());
+  }
+
+  /**
+   * Enregistre une simulation.
+   *
+   * @param session la session
+   * @return le code HTTP
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  private int simulation(Session session)
+      throws IOException, InterruptedException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int pair = random.nextInt(config.distinctPairs());
+    return discard(post(
+        "/simulations",
+        Map.of("utilisateurId", session.userId(), "origine", origin(pair),
+               "destination", destination(pair), "modeTransport",
+               MODES[random.nextInt(MODES.length)], "frequency", "daily",
+               "duration", 30),
+        session.token()));
+  }
+
+  /**
+   * Crée un trajet.
+   *
+   * @param session la session
+   * @return le code HTTP
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  private int trajet(Session session) throws IOException, InterruptedException {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    int pair = random.nextInt(config.distinctPairs());
+    return discard(post("/trajets",
+                        Map.of("origine", origin(pair), "destination",
+                               destination(pair), "distance",
+                               1 + random.nextInt(30), "co2",
+                               random.nextInt(2000)),
+                        session.token()));
+  }
+
+  /**
+   * Construit une requête POST JSON.
+   *
+   * @param path le chemin
+   * @param body le corps, sérialisé en JSON
+   * @param token le token JWT, ou null
+   * @return la requête
+   * @throws IOException si le corps ne peut être sérialisé
+   */
+  private HttpRequest post(String path, Map<String, Object> body, String token)
+      throws IOException {
+    return request(path, token)
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofByteArray(
+            mapper.writeValueAsBytes(body)))
+        .build();
+  }
+
+  /**
+   * Prépare une requête.
+   *
+   * @param path le chemin, avec sa chaîne de requête
+   * @param token le token JWT, ou null
+   * @return la requête à compléter
+   */
+  private HttpRequest.Builder request(String path, String token) {
+    HttpRequest.Builder builder =
+        HttpRequest.newBuilder(URI.create(config.baseUrl() + path))
+            .timeout(TIMEOUT);
+    if (token != null) {
+      builder.header("Authorization", "Bearer " + token);
+    }
+    return builder;
+  }
+
+  /**
+   * Envoie une requête en lisant sa réponse sans la conserver.
+   *
+   * @param request la requête
+   * @return le code HTTP
+   * @throws IOException si la requête échoue
+   * @throws InterruptedException si le thread est interrompu
+   */
+  private int discard(HttpRequest request)
+      throws IOException, InterruptedException {
+    return client.send(request, HttpResponse.BodyHandlers.discarding())
+        .statusCode();
+  }
+
+  /**
+   * Retourne l’origine d’un couple recherché.
+   *
+   * @param pair l’indice du couple
+   * @return l’adresse d’origine
+   */
+  private static String origin(int pair) {
+    return "Adresse " + pair + ", Lyon";
+  }
+
+  /**
+   * Retourne la destination d’un couple recherché.
+   *
+   * @param pair l’indice du couple
+   * @return l’adresse de destination
+   */
+  private static String destination(int pair) {
+    return "Adresse " + pair + ", Villeurbanne";
+  }
+
+  /**
+   * Encode un paramètre de requête.
+   *
+   * @param value la valeur
+   * @return la valeur encodée
+   */
+  private static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
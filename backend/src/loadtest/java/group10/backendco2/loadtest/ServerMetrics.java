@@ -0,0 +1,129 @@
+package group10.backendco2.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Lecture des métriques du serveur testé par {@code /actuator/metrics}.
+ *
+ * Les compteurs (GC, allocations, temps CPU) sont relevés avant et après la
+ * mesure et leur différence est rapportée ; les jauges (CPU, tas, threads)
+ * sont échantillonnées pendant la mesure pour en garder la moyenne et le
+ * maximum.
+ */
+final class ServerMetrics {
+
+  /**
+   * Jauges échantillonnées, avec leur éventuel filtre {@code tag}.
+   */
+  static final Map<String, String> GAUGES = Map.of(
+      "process.cpu.usage", "", "system.cpu.usage", "",
+      "jvm.memory.used", "area:heap", "jvm.threads.live", "");
+
+  /**
+   * Client HTTP partagé avec les utilisateurs virtuels.
+   */
+  private final HttpClient client;
+
+  /**
+   * URL de l’application testée.
+   */
+  private final String baseUrl;
+
+  /**
+   * Token utilisé pour accéder à l’actuator.
+   */
+  private final String token;
+
+  /**
+   * Lecteur JSON.
+   */
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  /**
+   * Constructeur.
+   *
+   * @param client le client HTTP
+   * @param baseUrl l’URL de l’application testée
+   * @param token un token JWT valide
+   */
+  ServerMetrics(HttpClient client, String baseUrl, String token) {
+    this.client = client;
+    this.baseUrl = baseUrl;
+    this.token = token;
+  }
+
+  /**
+   * Relève les compteurs cumulés du serveur.
+   *
+   * @return les compteurs, null pour ceux que le serveur n’expose pas
+   */
+  Map<String, Double> counters() {
+    Map<String, Double> counters = new LinkedHashMap<>();
+    counters.put("gcPauses", read("jvm.gc.pause", "", "COUNT"));
+    counters.put("gcPauseSeconds", read("jvm.gc.pause", "", "TOTAL_TIME"));
+    counters.put("gcAllocatedBytes",
+                 read("jvm.gc.memory.allocated", "", "COUNT"));
+    counters.put("processCpuSeconds", read("process.cpu.time", "", "VALUE"));
+    return counters;
+  }
+
+  /**
+   * Relève la valeur courante d’une jauge.
+   *
+   * @param name le nom de la métrique
+   * @return la valeur, ou null si elle n’est pas exposée
+   */
+  Double gauge(String name) {
+    return read(name, GAUGES.getOrDefault(name, ""), "VALUE");
+  }
+
+  /**
+   * Lit une statistique d’une métrique.
+   *
+   * @param name le nom de la métrique
+   * @param tag le filtre {@code clé:valeur}, ou vide
+   * @param statistic la statistique ({@code VALUE}, {@code COUNT}...)
+   * @return la valeur, ou null si la métrique est absente ou illisible
+   */
+  private Double read(String name, String tag, String statistic) {
+    String url = baseUrl + "/actuator/metrics/" + name;
+    if (!tag.isEmpty()) {
+      url += "?tag=" + URLEncoder.encode(tag, StandardCharsets.UTF_8);
+    }
+    HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                              .header("Authorization", "Bearer " + token)
+                              .timeout(Duration.ofSeconds(5))
+                              .GET()
+                              .build();
+    try {
+      HttpResponse<String> response =
+          client.send(request, HttpResponse.BodyHandlers.ofString());
+      if (response.statusCode() != 200) {
+        return null;
+      }
+      for (JsonNode measurement :
+           mapper.readTree(response.body()).path("measurements")) {
+        if (statistic.equals(measurement.path("statistic").asText())) {
+          return measurement.path("value").asDouble();
+        }
+      }
+      return null;
+    } catch (IOException e) {
+      return null;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    }
+  }
+}
@@ -0,0 +1,104 @@
+package group10.backendco2.common;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.Date;
+
+/**
+ * Position dans une liste triée par date décroissante puis identifiant
+ * décroissant (pagination par clé).
+ *
+ * Le curseur est transmis au client sous une forme opaque (Base64 URL) : il
+ * ne contient que la date et l’identifiant du dernier élément renvoyé. Une
+ * date absente est représentée par une clé de tri nulle ; les éléments sans
+ * date sont placés en tête de liste.
+ *
+ * @param sortKey la date du dernier élément (millisecondes pour un
+ *     {@link Date}, jours depuis l’époque pour un {@link LocalDate}), ou null
+ * @param id l’identifiant du dernier élément
+ */
+public record KeysetCursor(Long sortKey, long id) {
+
+  /**
+   * Valeur encodée d’une clé de tri absente.
+   */
+  private static final String NO_SORT_KEY = "-";
+
+  /**
+   * Crée un curseur à partir d’une date et d’un identifiant.
+   *
+   * @param date la date du dernier élément, ou null
+   * @param id l’identifiant du dernier élément
+   * @return le curseur
+   */
+  public static KeysetCursor of(Date date, Long id) {
+    return new KeysetCursor(date != null ? date.getTime() : null, id);
+  }
+
+  /**
+   * Crée un curseur à partir d’une date locale et d’un identifiant.
+   *
+   * @param date la date du dernier élément, ou null
+   * @param id l’identifiant du dernier élément
+   * @return le curseur
+   */
+  public static KeysetCursor of(LocalDate date, Long id) {
+    return new KeysetCursor(date != null ? date.toEpochDay() : null, id);
+  }
+
+  /**
+   * Indique si le dernier élément n’avait pas de date.
+   *
+   * @return true si la clé de tri est absente
+   */
+  public boolean isUndated() { return sortKey == null; }
+
+  /**
+   * Retourne la clé de tri sous forme de {@link Date}.
+   *
+   * @return la date, ou null si elle est absente
+   */
+  public Date date() { return sortKey != null ? new Date(sortKey) : null; }
+
+  /**
+   * Retourne la clé de tri sous forme de {@link LocalDate}.
+   *
+   * @return la date locale, ou null si elle est absente
+   */
+  public LocalDate localDate() {
+    return sortKey != null ? LocalDate.ofEpochDay(sortKey) : null;
+  }
+
+  /**
+   * Encode le curseur sous sa forme opaque.
+   *
+   * @return le curseur encodé
+   */
+  public String encode() {
+    String raw = (sortKey != null ? sortKey.toString() : NO_SORT_KEY) + ":" + id;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(
+        raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Décode un curseur opaque.
+   *
+   * @param encoded le curseur encodé
+   * @return le curseur
+   * @throws IllegalArgumentException si le curseur est invalide
+   */
+  public static KeysetCursor decode(String encoded) {
+    try {
+      String raw = new String(Base64.getUrlDecoder().decode(encoded),
+                              StandardCharsets.UTF_8);
+      int separator = raw.indexOf(':');
+      String sortKey = raw.substring(0, separator);
+      long id = Long.parseLong(raw.substring(separator + 1));
+      return new KeysetCursor(
+          NO_SORT_KEY.equals(sortKey) ? null : Long.valueOf(sortKey), id);
+    } catch (RuntimeException e) {
+      throw new IllegalArgumentException("Curseur invalide : " + encoded, e);
+    }
+  }
+}
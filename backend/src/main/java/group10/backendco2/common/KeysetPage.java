@@ -0,0 +1,116 @@
+package group10.backendco2.common;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Page de résultats obtenue par pagination par clé.
+ *
+ * Les contrôleurs renvoient {@link #items()} comme corps de réponse et, s’il
+ * reste des éléments, le curseur de la page suivante dans l’en-tête
+ * {@value #NEXT_CURSOR_HEADER}.
+ *
+ * @param items les éléments de la page
+ * @param nextCursor le curseur de la page suivante, ou null s’il s’agit de la
+ *     dernière page
+ * @param <T> type des éléments
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+  /**
+   * En-tête HTTP portant le curseur de la page suivante.
+   */
+  public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+  /**
+   * Construit une page à partir des éléments lus en base. La requête doit
+   * avoir demandé {@code size + 1} éléments : la présence du dernier indique
+   * qu’une page suivante existe.
+   *
+   * @param fetched les éléments lus, au plus {@code size + 1}
+   * @param size la taille de la page
+   * @param cursorOf fonction donnant le curseur d’un élément
+   * @param <T> type des éléments
+   * @return la page
+   */
+  public static <T> KeysetPage<T> of(List<T> fetched, int size,
+                                     Function<T, KeysetCursor> cursorOf) {
+    if (fetched.size() <= size) {
+      return new KeysetPage<>(fetched, null);
+    }
+    List<T> items = fetched.subList(0, size);
+    return new KeysetPage<>(
+        List.copyOf(items), cursorOf.apply(items.get(size - 1)).encode());
+  }
+
+  /**
+   * Lit les {@code size + 1} éléments qui suivent un curseur, dans l’ordre de
+   * {@link KeysetCursor} : les éléments sans date d’abord, par identifiant
+   * décroissant, puis les éléments datés, par date puis identifiant
+   * décroissants.
+   *
+   * Les deux groupes sont lus par des requêtes distinctes, triées sur les
+   * seules colonnes de l’index : une requête unique triant les dates nulles
+   * en tête devrait trier une expression et ne pourrait pas suivre l’index.
+   * Les éléments datés ne sont lus que si les éléments sans date ne
+   * remplissent pas la page.
+   *
+   * @param after le curseur de la page précédente, ou null pour la première
+   * @param size la taille de la page
+   * @param undated lit les éléments sans date qui suivent l’identifiant
+   *     donné (null pour les premiers), dans la limite donnée
+   * @param dated lit les éléments datés qui suivent le curseur daté donné
+   *     (null pour les premiers), dans la limite donnée
+   * @param <T> type des éléments
+   * @return les éléments lus, au plus {@code size + 1}
+   */
+  public static <T> List<T> fetch(
+      KeysetCursor after, int size,
+      BiFunction<Long, Pageable, List<T>> undated,
+      BiFunction<KeysetCursor, Pageable, List<T>> dated) {
+    int limit = size + 1;
+    if (after != null && !after.isUndated()) {
+      return dated.apply(after, PageRequest.of(0, limit));
+    }
+    List<T> fetched = new ArrayList<>(
+        undated.apply(after != null ? after.id() : null,
+                      PageRequest.of(0, limit)));
+    if (fetched.size() < limit) {
+      fetched.addAll(
+          dated.apply(null, PageRequest.of(0, limit - fetched.size())));
+    }
+    return fetched;
+  }
+
+  /**
+   * Applique une transformation aux éléments de la page en conservant son
+   * curseur.
+   *
+   * @param mapper la transformation
+   * @param <R> type des éléments transformés
+   * @return la page transformée
+   */
+  public <R> KeysetPage<R> map(Function<T, R> mapper) {
+    return new KeysetPage<>(items.stream().map(mapper).toList(), nextCursor);
+  }
+
+  /**
+   * Construit la réponse HTTP de la page : les éléments dans le corps et, le
+   * cas échéant, le curseur suivant dans l’en-tête
+   * {@value #NEXT_CURSOR_HEADER}.
+   *
+   * @return la réponse HTTP
+   */
+  public ResponseEntity<List<T>> toResponseEntity() {
+    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+    if (nextCursor != null) {
+      response.header(NEXT_CURSOR_HEADER, nextCursor);
+    }
+    return response.body(items);
+  }
+}
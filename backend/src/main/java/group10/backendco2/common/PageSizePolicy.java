@@ -0,0 +1,50 @@
+package group10.backendco2.common;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Règle de taille des pages renvoyées par les listes paginées.
+ *
+ * Une taille absente prend la valeur par défaut ; une taille demandée est
+ * ramenée entre 1 et la taille maximale configurée, afin de borner la taille
+ * des réponses quelle que soit la requête du client.
+ */
+@Component
+public class PageSizePolicy {
+
+  /**
+   * Taille utilisée lorsque le client n’en précise pas.
+   */
+  private final int defaultSize;
+
+  /**
+   * Taille maximale acceptée.
+   */
+  private final int maxSize;
+
+  /**
+   * Constructeur de la règle de taille des pages.
+   *
+   * @param defaultSize taille par défaut
+   * @param maxSize taille maximale
+   */
+  public PageSizePolicy(@Value("${pagination.default-size:50}") int defaultSize,
+                        @Value("${pagination.max-size:200}") int maxSize) {
+    this.maxSize = Math.max(1, maxSize);
+    this.defaultSize = Math.min(Math.max(1, defaultSize), this.maxSize);
+  }
+
+  /**
+   * Détermine la taille de page effective.
+   *
+   * @param requested la taille demandée, ou null
+   * @return la taille effective, entre 1 et la taille maximale
+   */
+  public int resolve(Integer requested) {
+    if (requested == null) {
+      return defaultSize;
+    }
+    return Math.min(Math.max(1, requested), maxSize);
+  }
+}
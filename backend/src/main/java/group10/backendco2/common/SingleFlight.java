@@ -0,0 +1,119 @@
+package group10.backendco2.common;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Regroupe les calculs identiques exécutés en même temps.
+ *
+ * Le premier appelant d’une clé exécute le calcul ; les appelants suivants
+ * qui arrivent avant la fin attendent et reçoivent le même résultat (ou la
+ * même exception). Rien n’est conservé une fois le calcul terminé : il ne
+ * s’agit pas d’un cache.
+ *
+ * @param <K> type de la clé
+ * @param <V> type du résultat
+ */
+public class SingleFlight<K, V> {
+
+  /**
+   * Calculs en cours, indexés par clé.
+   */
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Exécute {@code supplier} pour la clé donnée, ou attend le résultat du
+   * calcul déjà en cours pour cette clé.
+   *
+   * @param key la clé identifiant le calcul
+   * @param supplier le calcul à exécuter
+   * @return le résultat partagé du calcul
+   */
+  public V execute(K key, Supplier<V> supplier) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      return await(existing);
+    }
+
+    try {
+      V value = supplier.get();
+      created.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      created.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, created);
+    }
+  }
+
+  /**
+   * Variante asynchrone de {@link #execute} : démarre {@code supplier} pour la
+   * clé donnée, ou rejoint le calcul déjà en cours pour cette clé (qu’il ait
+   * été lancé de façon synchrone ou non). Aucun thread n’attend le résultat.
+   *
+   * @param key la clé identifiant le calcul
+   * @param supplier le calcul asynchrone à démarrer
+   * @return le résultat partagé du calcul (une copie propre à chaque
+   *     appelant, qui peut donc la compléter ou l’annuler sans effet sur les
+   *     autres)
+   */
+  public CompletableFuture<V> executeAsync(
+      K key, Supplier<CompletableFuture<V>> supplier) {
+    CompletableFuture<V> created = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+    if (existing != null) {
+      return existing.copy();
+    }
+
+    CompletableFuture<V> source;
+    try {
+      source = supplier.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, created);
+      created.completeExceptionally(e);
+      throw e;
+    }
+    source.whenComplete((value, error) -> {
+      inFlight.remove(key, created);
+      if (error != null) {
+        created.completeExceptionally(error);
+      } else {
+        created.complete(value);
+      }
+    });
+    return created.copy();
+  }
+
+  /**
+   * Retourne le nombre de calculs actuellement en cours.
+   *
+   * @return le nombre de clés en cours de calcul
+   */
+  public int inFlightCount() { return inFlight.size(); }
+
+  /**
+   * Attend la fin d’un calcul en cours et relance son exception éventuelle.
+   *
+   * @param future le calcul en cours
+   * @return le résultat du calcul
+   */
+  private V await(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException runtime) {
+        throw runtime;
+      }
+      if (e.getCause() instanceof Error error) {
+        throw error;
+      }
+      throw e;
+    }
+  }
+}
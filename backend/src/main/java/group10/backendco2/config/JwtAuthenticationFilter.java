@@ -2,7 +2,10 @@ package group10.backendco2.config;
 
 import group10.backendco2.model.Utilisateur;
 import group10.backendco2.repository.UtilisateurRepository;
+import group10.backendco2.service.AuthenticationCache;
+import group10.backendco2.service.AuthenticationCache.CachedAuthentication;
 import group10.backendco2.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,6 +30,11 @@ import org.springframework.web.filter.OncePerRequestFilter;
  *   <li>Configurer le contexte de sécurité de Spring si le token est
  * valide</li>
  * </ul>
+ *
+ * Le token n’est vérifié qu’une fois par requête ; l’utilisateur authentifié
+ * est ensuite conservé dans {@link AuthenticationCache}, ce qui évite la
+ * lecture du token et l’accès à la base pour les requêtes suivantes. Chaque
+ * requête reçoit son propre exemplaire de l’utilisateur.
  */
 
 @Component
@@ -43,6 +51,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
    */
   @Autowired private UtilisateurRepository utilisateurRepository;
 
+  /**
+   * Cache des utilisateurs déjà authentifiés, indexé par token.
+   */
+  @Autowired private AuthenticationCache authenticationCache;
+
   /**
    * Intercepte chaque requête HTTP pour vérifier la présence d’un token JWT
    * valide. Si un token est trouvé et authentifié, configure le contexte de
@@ -70,22 +83,43 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     String token = authHeader.substring(7);
 
-    if (jwtService.validateToken(token)) {
-      String email = jwtService.getEmailFromToken(token);
-      String role = jwtService.getRoleFromToken(token);
+    CachedAuthentication cached =
+        authenticationCache.get(token).orElseGet(() -> authenticate(token));
 
-      Utilisateur user = utilisateurRepository.findByEmail(email).orElse(null);
-      if (user != null) {
-        UsernamePasswordAuthenticationToken authentication =
-            new UsernamePasswordAuthenticationToken(
-                user, null, List.of(new SimpleGrantedAuthority(role)));
+    if (cached != null) {
+      UsernamePasswordAuthenticationToken authentication =
+          new UsernamePasswordAuthenticationToken(
+              cached.user().toUtilisateur(), null,
+              List.of(new SimpleGrantedAuthority(cached.role())));
 
-        authentication.setDetails(
-            new WebAuthenticationDetailsSource().buildDetails(request));
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-      }
+      authentication.setDetails(
+          new WebAuthenticationDetailsSource().buildDetails(request));
+      SecurityContextHolder.getContext().setAuthentication(authentication);
     }
 
     filterChain.doFilter(request, response);
   }
+
+  /**
+   * Vérifie un token absent du cache, charge son utilisateur et enregistre le
+   * résultat dans le cache.
+   *
+   * @param token le token JWT
+   * @return l’authentification, ou null si le token est invalide ou si
+   *     l’utilisateur n’existe pas
+   */
+  private CachedAuthentication authenticate(String token) {
+    Claims claims = jwtService.parseClaims(token).orElse(null);
+    if (claims == null) {
+      return null;
+    }
+    long generation = authenticationCache.generation();
+    Utilisateur user =
+        utilisateurRepository.findByEmail(claims.getSubject()).orElse(null);
+    if (user == null) {
+      return null;
+    }
+    return authenticationCache.put(token, user, claims.get("role", String.class),
+                                   claims.getExpiration(), generation);
+  }
 }
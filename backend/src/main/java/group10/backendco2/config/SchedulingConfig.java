@@ -0,0 +1,13 @@
+package group10.backendco2.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Active l’exécution des tâches planifiées ({@code @Scheduled}), comme le
+ * préchauffage du cache des itinéraires
+ * ({@link group10.backendco2.service.DirectionsCachePrewarmer}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {}
@@ -1,5 +1,6 @@
 package group10.backendco2.config;
 
+import group10.backendco2.common.KeysetPage;
 import java.util.List;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -57,6 +58,7 @@ public class SecurityConfig {
    *   <li>Désactive CSRF (stateless)</li>
    *   <li>Active CORS avec la config définie</li>
    *   <li>Autorise certains endpoints en public</li>
+   *   <li>Réserve les métriques Prometheus aux administrateurs</li>
    *   <li>Protège tous les autres endpoints par authentification JWT</li>
    * </ul>
    *
@@ -74,10 +76,14 @@ public class SecurityConfig {
             auth
             -> auth.requestMatchers(
                        "/auth/**", "/transports", "/transports/search",
+                       "/transports/search/async", "/transports/search/stream",
                        "/transports/search/save", "/v3/api-docs/**",
                        "/swagger-ui/**", "/swagger-ui.html", "/webjars/**",
-                       "/comparer/", "/swagger-resources/**", "/simulations")
+                       "/comparer/", "/swagger-resources/**", "/simulations",
+                       "/actuator/health")
                    .permitAll()
+                   .requestMatchers("/actuator/prometheus", "/actuator/metrics/**")
+                   .hasAuthority("Admin")
                    .anyRequest()
                    .authenticated())
         .addFilterBefore(jwtAuthFilter,
@@ -101,6 +107,7 @@ public class SecurityConfig {
     config.setAllowedMethods(
         List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
     config.setAllowedHeaders(List.of("*"));
+    config.setExposedHeaders(List.of(KeysetPage.NEXT_CURSOR_HEADER));
     config.setAllowCredentials(true);
 
     UrlBasedCorsConfigurationSource source =
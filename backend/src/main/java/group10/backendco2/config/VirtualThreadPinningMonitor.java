@@ -0,0 +1,146 @@
+package group10.backendco2.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Diagnostic de l’épinglage des threads virtuels, activé par
+ * {@code diagnostics.virtual-threads.pinning.enabled=true}.
+ *
+ * Un thread virtuel qui bloque (E/S, attente d’un verrou) dans un bloc
+ * {@code synchronized} ou une méthode native reste épinglé à son thread
+ * porteur, qui ne peut plus servir d’autres requêtes. Ce moniteur suit en
+ * continu l’événement JFR {@code jdk.VirtualThreadPinned} dans l’application
+ * elle-même :
+ * <ul>
+ *   <li>chaque épinglage au-delà du seuil est journalisé avec le haut de sa
+ * pile d’appels, pour retrouver le {@code synchronized} en cause</li>
+ *   <li>sa durée alimente le timer Micrometer
+ * {@code jvm.threads.virtual.pinned}</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "diagnostics.virtual-threads.pinning.enabled",
+                       havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+  /**
+   * Logger pour le moniteur d’épinglage.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+  /**
+   * Événement JFR émis lorsqu’un thread virtuel bloque en étant épinglé.
+   */
+  static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+  /**
+   * Durée d’épinglage à partir de laquelle un événement est émis.
+   */
+  private final Duration threshold;
+
+  /**
+   * Nombre de cadres de pile journalisés par épinglage.
+   */
+  private final int stackDepth;
+
+  /**
+   * Durées des épinglages.
+   */
+  private final Timer pinned;
+
+  /**
+   * Flux JFR en cours, null tant que le moniteur n’est pas démarré.
+   */
+  private RecordingStream stream;
+
+  /**
+   * Constructeur du moniteur.
+   *
+   * @param thresholdMs durée d’épinglage minimale signalée, en millisecondes
+   * @param stackDepth nombre de cadres de pile journalisés
+   * @param meterRegistry registre Micrometer recevant les durées
+   */
+  public VirtualThreadPinningMonitor(
+      @Value("${diagnostics.virtual-threads.pinning.threshold-ms:20}")
+      long thresholdMs,
+      @Value("${diagnostics.virtual-threads.pinning.stack-depth:8}")
+      int stackDepth,
+      MeterRegistry meterRegistry) {
+    this.threshold = Duration.ofMillis(thresholdMs);
+    this.stackDepth = stackDepth;
+    this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                      .description("Durée des épinglages de threads virtuels")
+                      .register(meterRegistry);
+  }
+
+  /**
+   * Démarre le suivi des épinglages.
+   */
+  @PostConstruct
+  public void start() {
+    stream = new RecordingStream();
+    stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+    stream.onEvent(PINNED_EVENT, this::onPinned);
+    stream.startAsync();
+    logger.info("Suivi de l’épinglage des threads virtuels au-delà de {} ms",
+                threshold.toMillis());
+  }
+
+  /**
+   * Arrête le suivi des épinglages.
+   */
+  @PreDestroy
+  public void stop() {
+    if (stream != null) {
+      stream.close();
+    }
+  }
+
+  /**
+   * Enregistre et journalise un épinglage.
+   *
+   * @param event l’événement JFR
+   */
+  void onPinned(RecordedEvent event) {
+    pinned.record(event.getDuration());
+    logger.warn("Thread virtuel épinglé {} ms :{}",
+                event.getDuration().toMillis(),
+                describe(event.getStackTrace(), stackDepth));
+  }
+
+  /**
+   * Formate le haut d’une pile d’appels, un cadre par ligne.
+   *
+   * @param stackTrace la pile d’appels, ou null
+   * @param depth le nombre de cadres à garder
+   * @return les cadres formatés, chacun précédé d’un saut de ligne
+   */
+  static String describe(RecordedStackTrace stackTrace, int depth) {
+    if (stackTrace == null) {
+      return " (pile indisponible)";
+    }
+    List<RecordedFrame> frames = stackTrace.getFrames();
+    return frames.stream()
+        .limit(depth)
+        .map(frame
+             -> "\n\tat " + frame.getMethod().getType().getName() + "." +
+                    frame.getMethod().getName() + ":" + frame.getLineNumber())
+        .collect(Collectors.joining());
+  }
+}
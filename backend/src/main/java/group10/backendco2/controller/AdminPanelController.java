@@ -1,5 +1,6 @@
 package group10.backendco2.controller;
 
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.model.ModeTransport;
 import group10.backendco2.model.Utilisateur;
 import group10.backendco2.service.ModeTransportService;
@@ -21,6 +22,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -45,11 +47,18 @@ public class AdminPanelController {
   /** Service métier pour la gestion des modes de transport. */
   @Autowired private ModeTransportService transportService;
 
+  /** Règle de taille des pages de la liste des utilisateurs. */
+  @Autowired private PageSizePolicy pageSizePolicy;
+
   /**
-   * Récupère tous les utilisateurs de la base.
+   * Récupère une page d'utilisateurs, du plus récemment inscrit au plus
+   * ancien. S'il en reste, le curseur de la page suivante est renvoyé dans
+   * l'en-tête {@code X-Next-Cursor}.
    *
-   * @return une réponse contenant la liste des utilisateurs ou une erreur
-   *     serveur
+   * @param cursor le curseur de la page à lire, absent pour la première page
+   * @param size la taille de page souhaitée
+   * @return une réponse contenant la page d'utilisateurs, 400 si le curseur
+   *     est invalide ou une erreur serveur
    */
 
   @GetMapping("/users")
@@ -59,14 +68,19 @@ public class AdminPanelController {
                   @ApiResponse(responseCode = "200",
                                description = "Liste des utilisateurs récupérée")
                   ,
+                      @ApiResponse(responseCode = "400",
+                                   description = "Curseur invalide"),
                       @ApiResponse(responseCode = "500",
                                    description = "Erreur serveur")
                 })
   public ResponseEntity<List<Utilisateur>>
-  getUsers() {
+  getUsers(@RequestParam(required = false) String cursor,
+           @RequestParam(required = false) Integer size) {
     try {
-      List<Utilisateur> users = userService.findAll();
-      return ResponseEntity.ok(users);
+      return userService.findPage(cursor, pageSizePolicy.resolve(size))
+          .toResponseEntity();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
     } catch (Exception e) {
       return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
     }
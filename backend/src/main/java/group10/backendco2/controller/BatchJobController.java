@@ -0,0 +1,150 @@
+package group10.backendco2.controller;
+
+import group10.backendco2.dto.LotCalculDto;
+import group10.backendco2.dto.RoutePairRequest;
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.Utilisateur;
+import group10.backendco2.service.BatchEmissionService;
+import group10.backendco2.service.BatchJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Contrôleur REST des calculs d’émissions par lot exécutés en arrière-plan,
+ * pour les lots trop longs pour {@code /transports/search/batch}.
+ *
+ * Fournit des endpoints pour :
+ * <ul>
+ *   <li>Soumettre un lot de trajets</li>
+ *   <li>Suivre l’avancement d’un lot</li>
+ *   <li>Télécharger le résultat d’un lot terminé</li>
+ * </ul>
+ * Un utilisateur n’a accès qu’aux lots qu’il a soumis.
+ */
+@RestController
+@RequestMapping("/transports/jobs")
+@RequiredArgsConstructor
+public class BatchJobController {
+  /**
+   * Service des calculs par lot en arrière-plan.
+   */
+  private final BatchJobService batchJobService;
+
+  /**
+   * Soumet un lot de trajets, calculé ensuite en arrière-plan.
+   *
+   * @param currentUser l'utilisateur connecté
+   * @param pairs les trajets
+   * @return l’état du lot (202), avec son adresse dans l’en-tête
+   *     {@code Location}, ou 400 si le lot est invalide
+   */
+  @Operation(summary = "Soumettre un lot de trajets calculé en arrière-plan")
+  @ApiResponses(value =
+                {
+                  @ApiResponse(responseCode = "202", description = "Lot soumis")
+                  ,
+                      @ApiResponse(responseCode = "400",
+                                   description = "Lot vide, trop grand ou "
+                                                 + "incomplet")
+                })
+  @PostMapping
+  public ResponseEntity<LotCalculDto>
+  submit(@AuthenticationPrincipal Utilisateur currentUser,
+         @RequestBody List<RoutePairRequest> pairs) {
+    LotCalcul lot;
+    try {
+      lot = batchJobService.submit(pairs, currentUser);
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
+    return ResponseEntity.accepted()
+        .location(URI.create("/transports/jobs/" + lot.getId()))
+        .body(LotCalculDto.of(lot));
+  }
+
+  /**
+   * Obtient l’état d’avancement d’un lot.
+   *
+   * @param currentUser l'utilisateur connecté
+   * @param id l'identifiant du lot
+   * @return l’état du lot, ou 404 s’il n’existe pas pour cet utilisateur
+   */
+  @Operation(summary = "Obtenir l'état d'avancement d'un lot")
+  @GetMapping("/{id}")
+  public ResponseEntity<LotCalculDto>
+  getStatus(@AuthenticationPrincipal Utilisateur currentUser,
+            @PathVariable Long id) {
+    return batchJobService.find(id, currentUser)
+        .map(LotCalculDto::of)
+        .map(ResponseEntity::ok)
+        .orElse(ResponseEntity.notFound().build());
+  }
+
+  /**
+   * Télécharge le résultat d’un lot terminé, dans l’ordre des trajets
+   * soumis, au même format que {@code /transports/search/batch}.
+   *
+   * @param currentUser l'utilisateur connecté
+   * @param id l'identifiant du lot
+   * @param format {@code ndjson} ou {@code csv}
+   * @param response la réponse HTTP
+   * @throws IOException si l’écriture de la réponse échoue
+   */
+  @Operation(summary = "Télécharger le résultat d'un lot terminé")
+  @ApiResponses(value =
+                {
+                  @ApiResponse(responseCode = "200",
+                               description = "Émissions de chaque trajet")
+                  ,
+                      @ApiResponse(responseCode = "404",
+                                   description = "Lot inconnu")
+                  ,
+                      @ApiResponse(responseCode = "409",
+                                   description = "Lot pas encore terminé")
+                })
+  @GetMapping("/{id}/result")
+  public void
+  getResult(@AuthenticationPrincipal Utilisateur currentUser,
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+    BatchEmissionService.Format outputFormat;
+    try {
+      outputFormat = BatchEmissionService.Format.fromName(format);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpStatus.BAD_REQUEST.value(), "Format inconnu");
+      return;
+    }
+    Optional<LotCalcul> lot = batchJobService.find(id, currentUser);
+    if (lot.isEmpty()) {
+      response.sendError(HttpStatus.NOT_FOUND.value());
+      return;
+    }
+    if (lot.get().getStatut() != LotCalcul.Statut.Termine) {
+      response.sendError(HttpStatus.CONFLICT.value(), "Lot en cours");
+      return;
+    }
+    response.setContentType(outputFormat.contentType());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    batchJobService.writeResult(lot.get(), outputFormat,
+                                response.getOutputStream());
+  }
+}
@@ -1,5 +1,8 @@
 package group10.backendco2.controller;
 
+import group10.backendco2.common.KeysetCursor;
+import group10.backendco2.common.KeysetPage;
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.dto.HistoriqueDto;
 import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.HistoriqueTrajet;
@@ -22,7 +25,10 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 
@@ -50,17 +56,25 @@ public class HistoriqueController {
      */
     private final TrajetRepository trajetRepository;
 
+    /**
+     * Règle de taille des pages de l'historique.
+     */
+    private final PageSizePolicy pageSizePolicy;
+
 
     /**
      * Constructeur de la classe HistoriqueController.
      *
      * @param historiqueRepository le dépôt HistoriqueTrajetRepository
      * @param trajetRepository le dépôt TrajetRepository
+     * @param pageSizePolicy la règle de taille des pages
      */
     public HistoriqueController(HistoriqueTrajetRepository historiqueRepository,
-                                TrajetRepository trajetRepository) {
+                                TrajetRepository trajetRepository,
+                                PageSizePolicy pageSizePolicy) {
         this.historiqueRepository = historiqueRepository;
         this.trajetRepository = trajetRepository;
+        this.pageSizePolicy = pageSizePolicy;
     }
 
     /**
@@ -91,46 +105,94 @@ public class HistoriqueController {
     }
 
     /**
-     * Obtient l'historique des trajets de l'utilisateur connecté.
+     * Obtient une page de l'historique des trajets de l'utilisateur connecté,
+     * du plus récent au plus ancien. S'il reste des trajets, le curseur de la
+     * page suivante est renvoyé dans l'en-tête {@code X-Next-Cursor}.
      *
      * @param currentUser l'utilisateur connecté
-     * @return la liste des trajets historiques de l'utilisateur
+     * @param cursor le curseur de la page à lire, absent pour la première page
+     * @param size la taille de page souhaitée
+     * @return la page de trajets historiques, ou 400 si le curseur est invalide
      */
     @GetMapping
     @Operation(summary = "Obtenir l'historique de l'utilisateur connecté")
-    public List<HistoriqueDto> getHistory(@AuthenticationPrincipal Utilisateur currentUser) {
-
-        List<HistoriqueTrajet> historique = historiqueRepository.findByUtilisateurId(currentUser.getId());
-
-        return historique.stream().map(h -> {
-            Trajet trajet = trajetRepository.findByIdWithModes(h.getTrajet().getId())
-                    .orElseThrow(() -> new RuntimeException("Trajet introuvable"));
-
-            List<TransportEmissionDto> modes = new ArrayList<>();
-            for (ModeTransport mt : trajet.getModesTransport()) {
-                if (mt.getSourceEnergie() != null && mt.getTypeTransport() != null) {
-                    float co2 = mt.getSourceEnergie().getEmission() * mt.getConsommationMoyenne();
-                    modes.add(new TransportEmissionDto(
-                            mt.getNom(),
-                            co2,
-                            trajet.getDistance().floatValue(),
-                            0f,
-                            null,
-                            mt.getTypeTransport().getNom()
-                    ));
-                }
-            }
+    public ResponseEntity<List<HistoriqueDto>> getHistory(
+            @AuthenticationPrincipal Utilisateur currentUser,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+
+        int pageSize = pageSizePolicy.resolve(size);
+        Long userId = currentUser.getId();
+
+        KeysetCursor after;
+        try {
+            after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        List<Long> ids = KeysetPage.fetch(after, pageSize,
+                (afterId, limit) -> afterId == null
+                        ? historiqueRepository.findUndatedPageIds(userId, limit)
+                        : historiqueRepository.findUndatedPageIdsAfter(userId, afterId, limit),
+                (dated, limit) -> dated == null
+                        ? historiqueRepository.findDatedPageIds(userId, limit)
+                        : historiqueRepository.findPageIdsAfter(userId, dated.date(), dated.id(), limit));
+        if (ids.isEmpty()) {
+            return ResponseEntity.ok(List.of());
+        }
 
-            return new HistoriqueDto(
-                    h.getId(),
-                    trajet.getOrigine(),
-                    trajet.getDestination(),
-                    h.getDateRealisation(),
-                    modes,
-                    trajet.getContrainte() 
-            );
+        Map<Long, HistoriqueTrajet> byId = new HashMap<>();
+        for (HistoriqueTrajet h : historiqueRepository.findAllWithTrajetAndModesByIdIn(ids)) {
+            byId.put(h.getId(), h);
+        }
+        List<HistoriqueTrajet> ordered = ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        KeysetPage<HistoriqueTrajet> page = KeysetPage.of(ordered, pageSize,
+                h -> KeysetCursor.of(h.getDateRealisation(), h.getId()));
+
+        return new KeysetPage<>(
+                page.items().stream()
+                        .filter(h -> h.getTrajet() != null)
+                        .map(this::toDto)
+                        .collect(Collectors.toList()),
+                page.nextCursor()).toResponseEntity();
+    }
+
+    /**
+     * Convertit un trajet historique entièrement chargé en {@link HistoriqueDto}.
+     *
+     * @param h le trajet historique, avec son trajet et ses modes de transport
+     * @return le DTO correspondant
+     */
+    private HistoriqueDto toDto(HistoriqueTrajet h) {
+        Trajet trajet = h.getTrajet();
+
+        List<TransportEmissionDto> modes = new ArrayList<>();
+        for (ModeTransport mt : trajet.getModesTransport()) {
+            if (mt.getSourceEnergie() != null && mt.getTypeTransport() != null) {
+                float co2 = mt.getSourceEnergie().getEmission() * mt.getConsommationMoyenne();
+                modes.add(new TransportEmissionDto(
+                        mt.getNom(),
+                        co2,
+                        trajet.getDistance().floatValue(),
+                        0f,
+                        null,
+                        mt.getTypeTransport().getNom()
+                ));
+            }
+        }
 
-        }).collect(Collectors.toList());
+        return new HistoriqueDto(
+                h.getId(),
+                trajet.getOrigine(),
+                trajet.getDestination(),
+                h.getDateRealisation(),
+                modes,
+                trajet.getContrainte()
+        );
     }
 
     /**
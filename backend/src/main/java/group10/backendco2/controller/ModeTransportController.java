@@ -1,18 +1,26 @@
 package group10.backendco2.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import group10.backendco2.dto.RoutePairRequest;
 import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.ModeTransport;
 import group10.backendco2.model.Trajet;
 import group10.backendco2.repository.TrajetRepository;
+import group10.backendco2.service.BatchEmissionService;
 import group10.backendco2.service.GoogleMapService;
 import group10.backendco2.service.ModeTransportService;
 import group10.backendco2.service.TransportEmissionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -25,6 +33,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Contrôleur REST pour gérer les modes de transport.
@@ -36,7 +45,8 @@ import org.springframework.web.bind.annotation.RestController;
  *   <li>Mettre à jour un mode de transport existant (Administrateur
  * uniquement)</li> <li>Supprimer un mode de transport par ID (Administrateur
  * uniquement)</li> <li>Rechercher les émissions de CO₂ en fonction de l'origine
- * et de la destination</li>
+ * et de la destination, en bloc ou au fil de l’eau</li> <li>Calculer les
+ * émissions d’un lot de trajets</li>
  * </ul>
  */
 @RestController
@@ -60,6 +70,10 @@ public class ModeTransportController {
    * Service métier gérant les opérations liées aux émissions de transport.
    */
   @Autowired private TransportEmissionService emissionService;
+  /**
+   * Service métier gérant les recherches d’émissions par lot.
+   */
+  @Autowired private BatchEmissionService batchEmissionService;
 
   /**
    * Récupère tous les modes de transport disponibles dans la base.
@@ -189,6 +203,140 @@ public class ModeTransportController {
 
     return result;
   }
+  /**
+   * Variante non bloquante de {@link #searchEmissions} : la requête est
+   * traitée en mode asynchrone par Spring MVC, et aucun thread n’est retenu
+   * pendant les appels à Google Maps.
+   *
+   * @param origine point de départ
+   * @param destination point d'arrivée
+   * @return la liste des émissions de transport, disponible à la fin de la
+   *     recherche
+   */
+  @Operation(summary = "Rechercher les émissions de CO₂ sans bloquer de "
+                       + "thread pendant les appels Google Maps")
+  @ApiResponses(value =
+                {
+                  @ApiResponse(responseCode = "200",
+                               description =
+                                   "Liste des émissions de transport renvoyée")
+                  ,
+                      @ApiResponse(responseCode = "400",
+                                   description = "Entrée invalide")
+                })
+  @GetMapping("/search/async")
+  public CompletableFuture<List<TransportEmissionDto>>
+  searchEmissionsAsync(@RequestParam String origine,
+                       @RequestParam String destination) {
+    return emissionService.calculateMultiModeEmissionsAsync(origine,
+                                                            destination);
+  }
+  /**
+   * Recherche les émissions de CO₂ en envoyant les résultats au fil de l’eau
+   * (Server-Sent Events) :
+   * <ul>
+   *   <li>un événement {@code mode} par émission, dès que son mode Google Maps
+   * est récupéré et calculé</li>
+   *   <li>un événement {@code result} final contenant la liste filtrée, la
+   * même que celle de {@link #searchEmissions}</li>
+   * </ul>
+   *
+   * @param origine point de départ
+   * @param destination point d'arrivée
+   * @return le flux d’événements, fermé après l’événement {@code result}
+   */
+  @Operation(summary = "Rechercher les émissions de CO₂ en recevant chaque "
+                       + "mode dès qu'il est calculé (Server-Sent Events)")
+  @ApiResponses(value =
+                {
+                  @ApiResponse(responseCode = "200",
+                               description = "Flux d'événements mode puis "
+                                             + "result")
+                  ,
+                      @ApiResponse(responseCode = "400",
+                                   description = "Entrée invalide")
+                })
+  @GetMapping(path = "/search/stream",
+              produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter
+  streamEmissions(@RequestParam String origine,
+                  @RequestParam String destination) {
+    SseEmitter emitter = new SseEmitter();
+    emissionService
+        .streamMultiModeEmissions(
+            origine, destination,
+            emissions
+            -> emissions.forEach(dto -> send(emitter, "mode", dto)))
+        .whenComplete((result, error) -> {
+          if (error != null) {
+            emitter.completeWithError(error);
+          } else {
+            send(emitter, "result", result);
+            emitter.complete();
+          }
+        });
+    return emitter;
+  }
+  /**
+   * Envoie un événement JSON sur un flux Server-Sent Events. Une erreur
+   * d’envoi signifie que le client est parti : Spring ferme alors le flux de
+   * lui-même, et la recherche se termine sans destinataire.
+   *
+   * @param emitter le flux
+   * @param name le nom de l’événement
+   * @param data le contenu de l’événement
+   */
+  private static void send(SseEmitter emitter, String name, Object data) {
+    try {
+      emitter.send(SseEmitter.event().name(name).data(
+          data, MediaType.APPLICATION_JSON));
+    } catch (IOException | IllegalStateException e) {
+      // Client déconnecté ou flux déjà fermé.
+    }
+  }
+  /**
+   * Calcule les émissions d’un lot de trajets (jusqu’à
+   * {@code batch.max-pairs}) et les renvoie au fil de l’eau, dans l’ordre des
+   * trajets reçus. Voir {@link BatchEmissionService}.
+   *
+   * La réponse est écrite directement par le thread (virtuel) de la requête,
+   * et n’est donc pas soumise au délai des requêtes asynchrones.
+   *
+   * @param pairs les trajets
+   * @param format {@code ndjson} (une ligne JSON par trajet) ou {@code csv}
+   *     (une ligne par émission)
+   * @param response la réponse HTTP
+   * @throws IOException si l’écriture de la réponse échoue
+   */
+  @Operation(summary = "Calculer les émissions de CO₂ d'un lot de trajets "
+                       + "(NDJSON ou CSV, dans l'ordre des trajets)")
+  @ApiResponses(value =
+                {
+                  @ApiResponse(responseCode = "200",
+                               description = "Émissions de chaque trajet")
+                  ,
+                      @ApiResponse(responseCode = "400",
+                                   description = "Lot vide, trop grand, "
+                                                 + "incomplet ou format "
+                                                 + "inconnu")
+                })
+  @PostMapping("/search/batch")
+  public void
+  searchEmissionsBatch(@RequestBody List<RoutePairRequest> pairs,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+    BatchEmissionService.Format outputFormat;
+    try {
+      outputFormat = BatchEmissionService.Format.fromName(format);
+      batchEmissionService.validate(pairs);
+    } catch (IllegalArgumentException e) {
+      response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+      return;
+    }
+    response.setContentType(outputFormat.contentType());
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    batchEmissionService.write(pairs, outputFormat, response.getOutputStream());
+  }
   /**
    * Enregistre un trajet à partir des données de recherche.
    *
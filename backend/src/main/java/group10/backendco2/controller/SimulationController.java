@@ -1,5 +1,6 @@
 package group10.backendco2.controller;
 
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.dto.SimulationRequest;
 import group10.backendco2.model.Simulation;
 import group10.backendco2.service.SimulationService;
@@ -12,6 +13,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -32,6 +34,10 @@ public class SimulationController {
    * carbone.
    */
   private final SimulationService simulationService;
+  /**
+   * Règle de taille des pages de simulations.
+   */
+  private final PageSizePolicy pageSizePolicy;
   /**
    * Enregistre une nouvelle simulation d'empreinte carbone.
    *
@@ -47,18 +53,29 @@ public class SimulationController {
     return ResponseEntity.ok("✅ Simulation enregistrée avec succès.");
   }
   /**
-   * Récupère les simulations enregistrées d’un utilisateur.
+   * Récupère une page des simulations enregistrées d’un utilisateur, de la
+   * plus récente à la plus ancienne. S’il en reste, le curseur de la page
+   * suivante est renvoyé dans l’en-tête {@code X-Next-Cursor}.
    *
    * @param userId l'identifiant de l'utilisateur
-   * @return une liste de simulations associées à l'utilisateur
+   * @param cursor le curseur de la page à lire, absent pour la première page
+   * @param size la taille de page souhaitée
+   * @return une page de simulations associées à l'utilisateur, ou 400 si le
+   *     curseur est invalide
    */
   @GetMapping("/{userId}")
   @Operation(
       summary = "Récupérer les simulations enregistrées d’un utilisateur")
   public ResponseEntity<List<Simulation>>
-  getSimulationsByUser(@PathVariable Long userId) {
-    List<Simulation> simulations =
-        simulationService.getSimulationsByUser(userId);
-    return ResponseEntity.ok(simulations);
+  getSimulationsByUser(@PathVariable Long userId,
+                       @RequestParam(required = false) String cursor,
+                       @RequestParam(required = false) Integer size) {
+    try {
+      return simulationService
+          .getSimulationsPage(userId, cursor, pageSizePolicy.resolve(size))
+          .toResponseEntity();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
   }
 }
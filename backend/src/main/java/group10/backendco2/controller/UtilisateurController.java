@@ -1,5 +1,6 @@
 package group10.backendco2.controller;
 
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.dto.UserUpdateRequest;
 import group10.backendco2.model.Utilisateur;
 import group10.backendco2.service.UtilisateurService;
@@ -43,13 +44,20 @@ public class UtilisateurController {
    * Service métier gérant les opérations liées aux utilisateurs.
    */
   private final UtilisateurService userService;
+  /**
+   * Règle de taille des pages de la liste des utilisateurs.
+   */
+  private final PageSizePolicy pageSizePolicy;
   /**
    * Constructeur pour initialiser le service UtilisateurService.
    *
    * @param userService le service UtilisateurService à injecter
+   * @param pageSizePolicy la règle de taille des pages
    */
-  public UtilisateurController(UtilisateurService userService) {
+  public UtilisateurController(UtilisateurService userService,
+                               PageSizePolicy pageSizePolicy) {
     this.userService = userService;
+    this.pageSizePolicy = pageSizePolicy;
   }
   /**
    * Récupère les informations de l'utilisateur actuel.
@@ -114,19 +122,32 @@ public class UtilisateurController {
         .orElse(ResponseEntity.notFound().build());
   }
   /**
-   * Récupère tous les utilisateurs.
+   * Récupère une page d'utilisateurs, du plus récemment inscrit au plus
+   * ancien. S'il en reste, le curseur de la page suivante est renvoyé dans
+   * l'en-tête {@code X-Next-Cursor}.
    *
-   * @return la liste de tous les utilisateurs enregistrés
+   * @param cursor le curseur de la page à lire, absent pour la première page
+   * @param size la taille de page souhaitée
+   * @return la page d'utilisateurs, ou 400 si le curseur est invalide
    */
   @GetMapping
   @Operation(
       summary = "Obtenir tous les utilisateurs",
-      description = "Renvoie la liste de tous les utilisateurs enregistrés")
+      description = "Renvoie une page des utilisateurs enregistrés ; le "
+                    + "curseur de la page suivante figure dans l'en-tête "
+                    + "X-Next-Cursor")
   @ApiResponse(responseCode = "200",
                description = "Liste des utilisateurs renvoyée")
-  public List<Utilisateur>
-  getAll() {
-    return userService.findAll(); // à sécuriser plus tard (admin uniquement)
+  public ResponseEntity<List<Utilisateur>>
+  getAll(@RequestParam(required = false) String cursor,
+         @RequestParam(required = false) Integer size) {
+    // à sécuriser plus tard (admin uniquement)
+    try {
+      return userService.findPage(cursor, pageSizePolicy.resolve(size))
+          .toResponseEntity();
+    } catch (IllegalArgumentException e) {
+      return ResponseEntity.badRequest().build();
+    }
   }
   /**
    * Change le rôle d'un utilisateur (Administrateur uniquement).
@@ -0,0 +1,89 @@
+package group10.backendco2.dto;
+
+import group10.backendco2.model.LotCalcul;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * DTO représentant l'état d'avancement d'un calcul par lot en arrière-plan.
+ *
+ * @param id l'identifiant du lot
+ * @param statut l'état d'avancement du lot
+ * @param total le nombre de trajets du lot
+ * @param traites le nombre de trajets calculés
+ * @param echecs le nombre de trajets abandonnés
+ * @param progression le pourcentage de trajets traités
+ * @param dateCreation l'instant de soumission
+ * @param dateDebut l'instant du premier calcul
+ * @param dateFin l'instant où le dernier trajet a été traité
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "État d'avancement d'un calcul par lot")
+public class LotCalculDto {
+
+  /**
+   * Identifiant du lot.
+   */
+  @Schema(description = "ID du lot", example = "1")
+  private Long id;
+  /**
+   * État d'avancement du lot.
+   */
+  @Schema(description = "État du lot", example = "EnCours")
+  private LotCalcul.Statut statut;
+  /**
+   * Nombre de trajets du lot.
+   */
+  @Schema(description = "Nombre de trajets", example = "50000")
+  private int total;
+  /**
+   * Nombre de trajets calculés.
+   */
+  @Schema(description = "Trajets calculés", example = "12000")
+  private int traites;
+  /**
+   * Nombre de trajets abandonnés après plusieurs tentatives.
+   */
+  @Schema(description = "Trajets abandonnés", example = "3")
+  private int echecs;
+  /**
+   * Pourcentage de trajets traités (calculés ou abandonnés).
+   */
+  @Schema(description = "Pourcentage de trajets traités", example = "24.0")
+  private double progression;
+  /**
+   * Instant de soumission.
+   */
+  private Instant dateCreation;
+  /**
+   * Instant du premier calcul.
+   */
+  private Instant dateDebut;
+  /**
+   * Instant où le dernier trajet a été traité.
+   */
+  private Instant dateFin;
+
+  /**
+   * Construit le DTO d'un lot.
+   *
+   * @param lot le lot
+   * @return l'état d'avancement du lot
+   */
+  public static LotCalculDto of(LotCalcul lot) {
+    int done = lot.getTraites() + lot.getEchecs();
+    double progression =
+        lot.getTotal() == 0 ? 100.0 : 100.0 * done / lot.getTotal();
+    return new LotCalculDto(lot.getId(), lot.getStatut(), lot.getTotal(),
+                            lot.getTraites(), lot.getEchecs(), progression,
+                            lot.getDateCreation(), lot.getDateDebut(),
+                            lot.getDateFin());
+  }
+}
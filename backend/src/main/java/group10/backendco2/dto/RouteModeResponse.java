@@ -13,6 +13,7 @@ import lombok.Setter;
  * @param mode le mode de transport utilisé
  * @param distanceKm la distance en kilomètres
  * @param estimatedTime le temps estimé de trajet
+ * @param durationSeconds la durée de trajet en secondes
  * @param transitModes les modes de transport transit avec distances associées
  * @param transitStepLabels l'étiquette textuelle des étapes de transit
  * @param transitStepLabelsVerbose la liste détaillée des étapes de transit
@@ -37,6 +38,12 @@ public class RouteModeResponse {
    */
   @Schema(description = "Temps estimé de trajet", example = "3h45")
   private String estimatedTime;
+  /**
+   * Durée de trajet en secondes, telle que fournie par Google Maps (null si
+   * elle est inconnue).
+   */
+  @Schema(description = "Durée de trajet en secondes", example = "13500")
+  private Integer durationSeconds;
   /**
    * Modes de transport transit avec distances associées.
    */
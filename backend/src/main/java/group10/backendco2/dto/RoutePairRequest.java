@@ -0,0 +1,34 @@
+package group10.backendco2.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Représente un trajet d’une recherche par lot, défini par son origine et sa
+ * destination.
+ *
+ * @param origine le point de départ
+ * @param destination le point d’arrivée
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Trajet d’une recherche d’émissions par lot")
+public class RoutePairRequest {
+  /**
+   * Point de départ.
+   */
+  @Schema(description = "Point de départ", example = "Lyon Part-Dieu",
+          required = true)
+  private String origine;
+  /**
+   * Point d’arrivée.
+   */
+  @Schema(description = "Point d’arrivée", example = "Villeurbanne",
+          required = true)
+  private String destination;
+}
@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -25,7 +26,9 @@ import lombok.Setter;
  * @param trajet les informations sur le trajet (origine, destination, etc.)
  */
 @Entity
-@Table(name = "historiquetrajet")
+@Table(name = "historiquetrajet",
+       indexes = @Index(name = "idx_historiquetrajet_utilisateur_date",
+                        columnList = "utilisateur_id, dateRealisation, id"))
 @Getter
 @Setter
 @NoArgsConstructor
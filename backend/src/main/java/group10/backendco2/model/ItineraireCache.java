@@ -0,0 +1,44 @@
+package group10.backendco2.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Représente une entrée persistée du cache des itinéraires Google Maps, afin
+ * que le cache survive au redémarrage de l’application.
+ *
+ * @param cle clé normalisée (origine, destination, mode)
+ * @param itineraires liste des itinéraires sérialisée en JSON
+ * @param dateExpiration instant à partir duquel l’entrée n’est plus valide
+ */
+@Entity
+@Table(name = "itinerairecache")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItineraireCache {
+  /**
+   * Clé normalisée (origine, destination, mode).
+   */
+  @Id
+  @Column(length = 1024)
+  private String cle;
+  /**
+   * Liste des itinéraires sérialisée en JSON.
+   */
+  @Column(columnDefinition = "TEXT")
+  private String itineraires;
+  /**
+   * Instant à partir duquel l’entrée n’est plus valide.
+   */
+  @Column(name = "dateexpiration")
+  private Instant dateExpiration;
+}
@@ -0,0 +1,94 @@
+package group10.backendco2.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Représente un calcul d’émissions par lot exécuté en arrière-plan : ses
+ * trajets ({@link LotCalculTrajet}) sont traités un à un par
+ * {@link group10.backendco2.service.BatchJobWorker}, y compris après un
+ * redémarrage de l’application.
+ *
+ * @param id l'identifiant du lot
+ * @param utilisateur l'utilisateur ayant soumis le lot
+ * @param statut l'état d'avancement du lot
+ * @param total le nombre de trajets du lot
+ * @param traites le nombre de trajets calculés
+ * @param echecs le nombre de trajets abandonnés après plusieurs tentatives
+ * @param dateCreation l'instant de soumission
+ * @param dateDebut l'instant du premier calcul
+ * @param dateFin l'instant où le dernier trajet a été traité
+ */
+@Entity
+@Table(name = "lotcalcul")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LotCalcul {
+
+  /**
+   * États d’avancement d’un lot.
+   */
+  public enum Statut { EnAttente, EnCours, Termine }
+
+  /**
+   * Identifiant du lot.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  /**
+   * Utilisateur ayant soumis le lot.
+   */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "utilisateur_id")
+  private Utilisateur utilisateur;
+  /**
+   * État d’avancement du lot.
+   */
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private Statut statut;
+  /**
+   * Nombre de trajets du lot.
+   */
+  private int total;
+  /**
+   * Nombre de trajets calculés.
+   */
+  private int traites;
+  /**
+   * Nombre de trajets abandonnés après plusieurs tentatives.
+   */
+  private int echecs;
+  /**
+   * Instant de soumission.
+   */
+  @Column(name = "datecreation")
+  private Instant dateCreation;
+  /**
+   * Instant du premier calcul.
+   */
+  @Column(name = "datedebut")
+  private Instant dateDebut;
+  /**
+   * Instant où le dernier trajet a été traité.
+   */
+  @Column(name = "datefin")
+  private Instant dateFin;
+}
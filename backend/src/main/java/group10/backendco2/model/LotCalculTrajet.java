@@ -0,0 +1,108 @@
+package group10.backendco2.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Représente un trajet d’un {@link LotCalcul}, avec son résultat ou son
+ * prochain essai.
+ *
+ * @param id l'identifiant du trajet
+ * @param lot le lot auquel appartient le trajet
+ * @param rang la position du trajet dans le lot soumis (à partir de 0)
+ * @param origine le point de départ
+ * @param destination le point d'arrivée
+ * @param statut l'état du calcul du trajet
+ * @param tentatives le nombre de calculs déjà tentés
+ * @param prochaineTentative l'instant à partir duquel le trajet peut être
+ *     (re)calculé
+ * @param resultat les émissions calculées, sérialisées en JSON
+ * @param erreur la dernière erreur rencontrée
+ */
+@Entity
+@Table(name = "lotcalcultrajet",
+       indexes = {
+         @Index(name = "idx_lotcalcultrajet_statut_tentative",
+                columnList = "statut, prochainetentative, id")
+         ,
+             @Index(name = "idx_lotcalcultrajet_lot_rang",
+                    columnList = "lot_id, rang")
+       })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LotCalculTrajet {
+
+  /**
+   * États du calcul d’un trajet.
+   */
+  public enum Statut { EnAttente, EnCours, Termine, Echec }
+
+  /**
+   * Identifiant du trajet.
+   */
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  private Long id;
+  /**
+   * Lot auquel appartient le trajet.
+   */
+  @ManyToOne(fetch = FetchType.LAZY)
+  @JoinColumn(name = "lot_id")
+  private LotCalcul lot;
+  /**
+   * Position du trajet dans le lot soumis, à partir de 0.
+   */
+  private int rang;
+  /**
+   * Point de départ.
+   */
+  @Column(length = 512)
+  private String origine;
+  /**
+   * Point d’arrivée.
+   */
+  @Column(length = 512)
+  private String destination;
+  /**
+   * État du calcul du trajet.
+   */
+  @Enumerated(EnumType.STRING)
+  @Column(length = 16)
+  private Statut statut;
+  /**
+   * Nombre de calculs déjà tentés.
+   */
+  private int tentatives;
+  /**
+   * Instant à partir duquel le trajet peut être (re)calculé.
+   */
+  @Column(name = "prochainetentative")
+  private Instant prochaineTentative;
+  /**
+   * Émissions calculées, sérialisées en JSON.
+   */
+  @Column(columnDefinition = "TEXT")
+  private String resultat;
+  /**
+   * Dernière erreur rencontrée.
+   */
+  @Column(length = 1024)
+  private String erreur;
+}
@@ -6,6 +6,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
@@ -23,7 +24,9 @@ import lombok.Setter;
  * @param utilisateur utilisateur ayant effectué la simulation
  */
 @Entity
-@Table(name = "simulation")
+@Table(name = "simulation",
+       indexes = @Index(name = "idx_simulation_utilisateur_date",
+                        columnList = "utilisateur_id, dateSimulation, id"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -7,6 +7,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.LocalDate;
 import lombok.Getter;
@@ -27,7 +28,9 @@ import lombok.Setter;
 @Getter
 @Setter
 @Entity
-@Table(name = "utilisateur")
+@Table(name = "utilisateur",
+       indexes = @Index(name = "idx_utilisateur_dateinscription",
+                        columnList = "dateInscription, id"))
 @Schema(description = "Représente un utilisateur de l'application")
 public class Utilisateur {
   /**
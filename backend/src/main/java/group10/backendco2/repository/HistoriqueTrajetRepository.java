@@ -1,8 +1,12 @@
 package group10.backendco2.repository;
 
 import group10.backendco2.model.HistoriqueTrajet;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Date;
 import java.util.List;
 
 
@@ -12,6 +16,32 @@ import java.util.List;
  */
 public interface HistoriqueTrajetRepository extends JpaRepository<HistoriqueTrajet, Long> {
 
+    /**
+     * Paire origine/destination réalisée par les utilisateurs, avec son
+     * nombre de réalisations et la date de la plus récente.
+     */
+    interface PaireFrequente {
+        /**
+         * @return le point de départ
+         */
+        String getOrigine();
+
+        /**
+         * @return le point d'arrivée
+         */
+        String getDestination();
+
+        /**
+         * @return le nombre de réalisations
+         */
+        Long getNombre();
+
+        /**
+         * @return la date de la réalisation la plus récente
+         */
+        Date getDerniere();
+    }
+
     /**
      * Trouve tous les trajets associés à un utilisateur donné.
      *
@@ -19,4 +49,96 @@ public interface HistoriqueTrajetRepository extends JpaRepository<HistoriqueTraj
      * @return une liste d'objets HistoriqueTrajet
      */
     List<HistoriqueTrajet> findByUtilisateurId(Long userId);
+
+    /**
+     * Retourne les identifiants des trajets sans date de l'historique d'un
+     * utilisateur, par identifiant décroissant. Ils précèdent les trajets
+     * datés (voir {@link group10.backendco2.common.KeysetPage#fetch}).
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @param pageable la taille de la page
+     * @return les identifiants des trajets historiques de la page
+     */
+    @Query("SELECT h.id FROM HistoriqueTrajet h WHERE h.utilisateur.id = :userId " +
+           "AND h.dateRealisation IS NULL ORDER BY h.id DESC")
+    List<Long> findUndatedPageIds(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Retourne les identifiants des trajets sans date de l'historique d'un
+     * utilisateur qui suivent un trajet sans date.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @param id l'identifiant du dernier trajet de la page précédente
+     * @param pageable la taille de la page
+     * @return les identifiants des trajets historiques de la page
+     */
+    @Query("SELECT h.id FROM HistoriqueTrajet h WHERE h.utilisateur.id = :userId " +
+           "AND h.dateRealisation IS NULL AND h.id < :id ORDER BY h.id DESC")
+    List<Long> findUndatedPageIdsAfter(@Param("userId") Long userId, @Param("id") Long id,
+                                       Pageable pageable);
+
+    /**
+     * Retourne les identifiants des premiers trajets datés de l'historique
+     * d'un utilisateur, du plus récent au plus ancien.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @param pageable la taille de la page
+     * @return les identifiants des trajets historiques de la page
+     */
+    @Query("SELECT h.id FROM HistoriqueTrajet h WHERE h.utilisateur.id = :userId " +
+           "AND h.dateRealisation IS NOT NULL " +
+           "ORDER BY h.dateRealisation DESC, h.id DESC")
+    List<Long> findDatedPageIds(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Retourne les identifiants des trajets datés de l'historique d'un
+     * utilisateur qui suivent un trajet daté.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @param date la date du dernier trajet de la page précédente
+     * @param id l'identifiant du dernier trajet de la page précédente
+     * @param pageable la taille de la page
+     * @return les identifiants des trajets historiques de la page
+     */
+    @Query("SELECT h.id FROM HistoriqueTrajet h WHERE h.utilisateur.id = :userId " +
+           "AND (h.dateRealisation < :date OR (h.dateRealisation = :date AND h.id < :id)) " +
+           "ORDER BY h.dateRealisation DESC, h.id DESC")
+    List<Long> findPageIdsAfter(@Param("userId") Long userId, @Param("date") Date date,
+                                @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Charge, en une seule requête, les trajets historiques donnés avec leur
+     * trajet, ses modes de transport ainsi que leur source d'énergie et leur
+     * type de transport.
+     *
+     * @param ids les identifiants des trajets historiques
+     * @return les trajets historiques entièrement chargés, dans un ordre
+     *     quelconque (l'ordre de la page est celui de {@code ids})
+     */
+    @Query("SELECT DISTINCT h FROM HistoriqueTrajet h " +
+           "JOIN FETCH h.utilisateur " +
+           "LEFT JOIN FETCH h.trajet t " +
+           "LEFT JOIN FETCH t.modesTransport m " +
+           "LEFT JOIN FETCH m.sourceEnergie " +
+           "LEFT JOIN FETCH m.typeTransport " +
+           "WHERE h.id IN :ids")
+    List<HistoriqueTrajet> findAllWithTrajetAndModesByIdIn(@Param("ids") List<Long> ids);
+
+    /**
+     * Retourne les paires origine/destination les plus réalisées depuis une
+     * date, de la plus fréquente à la moins fréquente (puis de la plus
+     * récente à la plus ancienne).
+     *
+     * @param depuis la date de réalisation minimale
+     * @param pageable le nombre de paires retournées
+     * @return les paires les plus fréquentes
+     */
+    @Query("SELECT t.origine AS origine, t.destination AS destination, " +
+           "COUNT(h) AS nombre, MAX(h.dateRealisation) AS derniere " +
+           "FROM HistoriqueTrajet h JOIN h.trajet t " +
+           "WHERE h.dateRealisation >= :depuis " +
+           "GROUP BY t.origine, t.destination " +
+           "ORDER BY COUNT(h) DESC, MAX(h.dateRealisation) DESC")
+    List<PaireFrequente> findPairesFrequentes(@Param("depuis") Date depuis,
+                                              Pageable pageable);
 }
@@ -0,0 +1,37 @@
+package group10.backendco2.repository;
+
+import group10.backendco2.model.ItineraireCache;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Interface de repository pour l'entité ItineraireCache.
+ * Permet de persister le cache des itinéraires Google Maps.
+ */
+public interface ItineraireCacheRepository
+    extends JpaRepository<ItineraireCache, String> {
+
+  /**
+   * Trouve les entrées expirant après une date, des plus récentes aux plus
+   * anciennes.
+   *
+   * @param date l'instant de référence
+   * @param pageable la limite du nombre d'entrées à charger
+   * @return une liste d'objets ItineraireCache non expirés
+   */
+  List<ItineraireCache>
+  findByDateExpirationAfterOrderByDateExpirationDesc(Instant date,
+                                                     Pageable pageable);
+
+  /**
+   * Supprime les entrées expirées.
+   *
+   * @param date l'instant de référence
+   * @return le nombre d'entrées supprimées
+   */
+  @Transactional
+  long deleteByDateExpirationBefore(Instant date);
+}
@@ -0,0 +1,106 @@
+package group10.backendco2.repository;
+
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.LotCalcul.Statut;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Interface de repository pour l'entité LotCalcul.
+ *
+ * Les compteurs et l'état d'un lot sont modifiés par des requêtes de mise à
+ * jour atomiques, les trajets d'un même lot étant calculés en parallèle.
+ */
+public interface LotCalculRepository extends JpaRepository<LotCalcul, Long> {
+
+  /**
+   * Trouve un lot soumis par un utilisateur donné.
+   *
+   * @param id l'identifiant du lot
+   * @param utilisateurId l'identifiant de l'utilisateur
+   * @return le lot, s'il appartient à l'utilisateur
+   */
+  Optional<LotCalcul> findByIdAndUtilisateurId(Long id, Long utilisateurId);
+
+  /**
+   * Passe un lot en cours au calcul de son premier trajet.
+   *
+   * @param id l'identifiant du lot
+   * @param now l'instant de début
+   * @return 1 si le lot vient de démarrer, 0 sinon
+   */
+  default int demarrer(Long id, Instant now) {
+    return changerStatutDebut(id, now, Statut.EnAttente, Statut.EnCours);
+  }
+
+  /**
+   * Change l'état d'un lot et sa date de début s'il est dans l'état attendu.
+   *
+   * @param id l'identifiant du lot
+   * @param now l'instant de début
+   * @param actuel l'état attendu
+   * @param nouveau le nouvel état
+   * @return 1 si le lot a changé d'état, 0 sinon
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE LotCalcul l SET l.statut = :nouveau, l.dateDebut = :now "
+         + "WHERE l.id = :id AND l.statut = :actuel")
+  int changerStatutDebut(@Param("id") Long id, @Param("now") Instant now,
+                         @Param("actuel") Statut actuel,
+                         @Param("nouveau") Statut nouveau);
+
+  /**
+   * Compte un trajet calculé.
+   *
+   * @param id l'identifiant du lot
+   * @return le nombre de lots modifiés
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE LotCalcul l SET l.traites = l.traites + 1 WHERE l.id = :id")
+  int incrementerTraites(@Param("id") Long id);
+
+  /**
+   * Compte un trajet abandonné.
+   *
+   * @param id l'identifiant du lot
+   * @return le nombre de lots modifiés
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE LotCalcul l SET l.echecs = l.echecs + 1 WHERE l.id = :id")
+  int incrementerEchecs(@Param("id") Long id);
+
+  /**
+   * Termine un lot dont tous les trajets ont été traités.
+   *
+   * @param id l'identifiant du lot
+   * @param now l'instant de fin
+   * @return 1 si le lot vient de se terminer, 0 sinon
+   */
+  default int terminerSiComplet(Long id, Instant now) {
+    return terminerSiComplet(id, now, Statut.Termine);
+  }
+
+  /**
+   * Passe un lot dont tous les trajets ont été traités dans l'état final.
+   *
+   * @param id l'identifiant du lot
+   * @param now l'instant de fin
+   * @param termine l'état final
+   * @return 1 si le lot vient de se terminer, 0 sinon
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE LotCalcul l SET l.statut = :termine, l.dateFin = :now "
+         + "WHERE l.id = :id AND l.statut <> :termine "
+         + "AND l.traites + l.echecs >= l.total")
+  int terminerSiComplet(@Param("id") Long id, @Param("now") Instant now,
+                        @Param("termine") Statut termine);
+}
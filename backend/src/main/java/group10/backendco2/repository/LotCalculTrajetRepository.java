@@ -0,0 +1,108 @@
+package group10.backendco2.repository;
+
+import group10.backendco2.model.LotCalculTrajet;
+import group10.backendco2.model.LotCalculTrajet.Statut;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Interface de repository pour l'entité LotCalculTrajet.
+ *
+ * Un trajet en attente est réservé par une mise à jour conditionnelle avant
+ * d'être calculé, ce qui garantit qu'il n'est confié qu'à un seul calcul.
+ */
+public interface LotCalculTrajetRepository
+    extends JpaRepository<LotCalculTrajet, Long> {
+
+  /**
+   * Trouve les trajets en attente dont l'essai est dû, du plus ancien au plus
+   * récent.
+   *
+   * @param now l'instant de référence
+   * @param pageable la limite du nombre de trajets
+   * @return les trajets à calculer
+   */
+  default List<LotCalculTrajet> findDus(Instant now, Pageable pageable) {
+    return findByStatutAndProchaineTentativeLessThanEqualOrderByIdAsc(
+        Statut.EnAttente, now, pageable);
+  }
+
+  /**
+   * Trouve les trajets dans un état donné dont l'essai est dû.
+   *
+   * @param statut l'état recherché
+   * @param now l'instant de référence
+   * @param pageable la limite du nombre de trajets
+   * @return les trajets, du plus ancien au plus récent
+   */
+  List<LotCalculTrajet>
+  findByStatutAndProchaineTentativeLessThanEqualOrderByIdAsc(
+      Statut statut, Instant now, Pageable pageable);
+
+  /**
+   * Réserve un trajet en attente pour le calculer.
+   *
+   * @param id l'identifiant du trajet
+   * @return 1 si le trajet est réservé, 0 s'il ne l'était plus
+   */
+  default int reserver(Long id) {
+    return changerStatut(id, Statut.EnAttente, Statut.EnCours);
+  }
+
+  /**
+   * Change l'état d'un trajet s'il est dans l'état attendu.
+   *
+   * @param id l'identifiant du trajet
+   * @param actuel l'état attendu
+   * @param nouveau le nouvel état
+   * @return 1 si le trajet a changé d'état, 0 sinon
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE LotCalculTrajet t SET t.statut = :nouveau "
+         + "WHERE t.id = :id AND t.statut = :actuel")
+  int changerStatut(@Param("id") Long id, @Param("actuel") Statut actuel,
+                    @Param("nouveau") Statut nouveau);
+
+  /**
+   * Remet en attente les trajets dont le calcul a été interrompu par un arrêt
+   * de l'application.
+   *
+   * @return le nombre de trajets remis en attente
+   */
+  default int remettreEnAttente() {
+    return changerTousStatuts(Statut.EnCours, Statut.EnAttente);
+  }
+
+  /**
+   * Change l'état de tous les trajets dans un état donné.
+   *
+   * @param actuel l'état des trajets à modifier
+   * @param nouveau le nouvel état
+   * @return le nombre de trajets modifiés
+   */
+  @Modifying
+  @Transactional
+  @Query("UPDATE LotCalculTrajet t SET t.statut = :nouveau "
+         + "WHERE t.statut = :actuel")
+  int changerTousStatuts(@Param("actuel") Statut actuel,
+                         @Param("nouveau") Statut nouveau);
+
+  /**
+   * Lit une page des trajets d'un lot, dans l'ordre de soumission, après un
+   * rang donné.
+   *
+   * @param lotId l'identifiant du lot
+   * @param rang le dernier rang déjà lu (-1 pour commencer)
+   * @param pageable la taille de la page
+   * @return les trajets suivants
+   */
+  List<LotCalculTrajet> findByLotIdAndRangGreaterThanOrderByRangAsc(
+      Long lotId, int rang, Pageable pageable);
+}
@@ -1,9 +1,13 @@
 package group10.backendco2.repository;
 
 import group10.backendco2.model.Simulation;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 /**
@@ -19,4 +23,60 @@ public interface SimulationRepository extends JpaRepository<Simulation, Long> {
      * @return une liste d'objets Simulation
      */
     List<Simulation> findByUtilisateurId(Long utilisateurId);
+
+    /**
+     * Retourne les simulations sans date d'un utilisateur, par identifiant
+     * décroissant. Elles précèdent les simulations datées (voir
+     * {@link group10.backendco2.common.KeysetPage#fetch}).
+     *
+     * @param utilisateurId l'identifiant de l'utilisateur
+     * @param pageable la taille de la page
+     * @return les simulations de la page
+     */
+    @Query("SELECT s FROM Simulation s JOIN FETCH s.utilisateur u WHERE u.id = :userId " +
+           "AND s.dateSimulation IS NULL ORDER BY s.id DESC")
+    List<Simulation> findUndatedPage(@Param("userId") Long utilisateurId, Pageable pageable);
+
+    /**
+     * Retourne les simulations sans date d'un utilisateur qui suivent une
+     * simulation sans date.
+     *
+     * @param utilisateurId l'identifiant de l'utilisateur
+     * @param id l'identifiant de la dernière simulation de la page précédente
+     * @param pageable la taille de la page
+     * @return les simulations de la page
+     */
+    @Query("SELECT s FROM Simulation s JOIN FETCH s.utilisateur u WHERE u.id = :userId " +
+           "AND s.dateSimulation IS NULL AND s.id < :id ORDER BY s.id DESC")
+    List<Simulation> findUndatedPageAfter(@Param("userId") Long utilisateurId,
+                                          @Param("id") Long id, Pageable pageable);
+
+    /**
+     * Retourne les premières simulations datées d'un utilisateur, de la plus
+     * récente à la plus ancienne.
+     *
+     * @param utilisateurId l'identifiant de l'utilisateur
+     * @param pageable la taille de la page
+     * @return les simulations de la page
+     */
+    @Query("SELECT s FROM Simulation s JOIN FETCH s.utilisateur u WHERE u.id = :userId " +
+           "AND s.dateSimulation IS NOT NULL " +
+           "ORDER BY s.dateSimulation DESC, s.id DESC")
+    List<Simulation> findDatedPage(@Param("userId") Long utilisateurId, Pageable pageable);
+
+    /**
+     * Retourne les simulations datées d'un utilisateur qui suivent une
+     * simulation datée.
+     *
+     * @param utilisateurId l'identifiant de l'utilisateur
+     * @param date la date de la dernière simulation de la page précédente
+     * @param id l'identifiant de la dernière simulation de la page précédente
+     * @param pageable la taille de la page
+     * @return les simulations de la page
+     */
+    @Query("SELECT s FROM Simulation s JOIN FETCH s.utilisateur u WHERE u.id = :userId " +
+           "AND (s.dateSimulation < :date OR (s.dateSimulation = :date AND s.id < :id)) " +
+           "ORDER BY s.dateSimulation DESC, s.id DESC")
+    List<Simulation> findPageAfter(@Param("userId") Long utilisateurId, @Param("date") Date date,
+                                   @Param("id") Long id, Pageable pageable);
 }
@@ -1,7 +1,10 @@
 package group10.backendco2.repository;
 
 import group10.backendco2.model.Utilisateur;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -30,4 +33,56 @@ public interface UtilisateurRepository
    * @return true si l'utilisateur existe, sinon false
    */
   boolean existsByEmail(String email);
+
+  /**
+   * Retourne les utilisateurs sans date d'inscription, par identifiant
+   * décroissant. Ils précèdent les utilisateurs datés (voir
+   * {@link group10.backendco2.common.KeysetPage#fetch}).
+   *
+   * @param pageable la taille de la page
+   * @return les utilisateurs de la page
+   */
+  @Query("SELECT u FROM Utilisateur u WHERE u.dateInscription IS NULL "
+         + "ORDER BY u.id DESC")
+  List<Utilisateur> findUndatedPage(Pageable pageable);
+
+  /**
+   * Retourne les utilisateurs sans date d'inscription qui suivent un
+   * utilisateur sans date d'inscription.
+   *
+   * @param id l'identifiant du dernier utilisateur de la page précédente
+   * @param pageable la taille de la page
+   * @return les utilisateurs de la page
+   */
+  @Query("SELECT u FROM Utilisateur u WHERE u.dateInscription IS NULL "
+         + "AND u.id < :id ORDER BY u.id DESC")
+  List<Utilisateur> findUndatedPageAfter(@Param("id") Long id,
+                                         Pageable pageable);
+
+  /**
+   * Retourne les premiers utilisateurs dont la date d'inscription est
+   * connue, du plus récemment inscrit au plus ancien.
+   *
+   * @param pageable la taille de la page
+   * @return les utilisateurs de la page
+   */
+  @Query("SELECT u FROM Utilisateur u WHERE u.dateInscription IS NOT NULL "
+         + "ORDER BY u.dateInscription DESC, u.id DESC")
+  List<Utilisateur> findDatedPage(Pageable pageable);
+
+  /**
+   * Retourne les utilisateurs datés qui suivent un utilisateur dont la date
+   * d'inscription est connue.
+   *
+   * @param date la date d'inscription du dernier utilisateur de la page
+   *     précédente
+   * @param id l'identifiant du dernier utilisateur de la page précédente
+   * @param pageable la taille de la page
+   * @return les utilisateurs de la page
+   */
+  @Query("SELECT u FROM Utilisateur u WHERE u.dateInscription < :date "
+         + "OR (u.dateInscription = :date AND u.id < :id) "
+         + "ORDER BY u.dateInscription DESC, u.id DESC")
+  List<Utilisateur> findPageAfter(@Param("date") LocalDate date,
+                                  @Param("id") Long id, Pageable pageable);
 }
\ No newline at end of file
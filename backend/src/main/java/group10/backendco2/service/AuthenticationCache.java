@@ -0,0 +1,220 @@
+package group10.backendco2.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import group10.backendco2.model.Utilisateur;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache en mémoire des utilisateurs authentifiés, indexé par token JWT.
+ *
+ * Une fois un token vérifié et son utilisateur chargé, les requêtes suivantes
+ * portant le même token sont authentifiées sans nouvelle lecture du token ni
+ * accès à la base. Une entrée expire après une durée configurable, et au plus
+ * tard à l’expiration du token lui-même. Les entrées d’un utilisateur sont
+ * invalidées par {@link UtilisateurService} lorsque son rôle ou son compte
+ * change. Les statistiques sont publiées dans Micrometer sous le nom
+ * {@code authentication}.
+ *
+ * Le cache conserve une copie immuable de l’utilisateur, et non l’entité
+ * chargée, afin qu’aucune instance ne soit partagée entre les requêtes. Une
+ * authentification chargée avant une invalidation n’est jamais enregistrée
+ * après elle (voir {@link #generation()}).
+ */
+@Component
+public class AuthenticationCache {
+
+  /**
+   * Copie immuable d’un utilisateur authentifié, sans son mot de passe.
+   *
+   * @param id l’identifiant de l’utilisateur
+   * @param nom le nom de l’utilisateur
+   * @param email l’adresse e-mail de l’utilisateur
+   * @param dateInscription la date d’inscription de l’utilisateur
+   * @param role le rôle de l’utilisateur en base
+   */
+  public record AuthenticatedUser(Long id, String nom, String email,
+                                  LocalDate dateInscription,
+                                  Utilisateur.Role role) {
+
+    /**
+     * Copie un utilisateur chargé.
+     *
+     * @param user l’utilisateur
+     * @return sa copie immuable
+     */
+    public static AuthenticatedUser of(Utilisateur user) {
+      return new AuthenticatedUser(user.getId(), user.getNom(),
+                                   user.getEmail(), user.getDateInscription(),
+                                   user.getRole());
+    }
+
+    /**
+     * Construit un utilisateur détaché, propre à la requête qui l’utilise.
+     *
+     * @return un nouvel utilisateur portant les valeurs de la copie
+     */
+    public Utilisateur toUtilisateur() {
+      Utilisateur user = new Utilisateur();
+      user.setId(id);
+      user.setNom(nom);
+      user.setEmail(email);
+      user.setDateInscription(dateInscription);
+      user.setRole(role);
+      return user;
+    }
+  }
+
+  /**
+   * Utilisateur authentifié par un token.
+   *
+   * @param user la copie de l’utilisateur associé au token
+   * @param role le rôle porté par le token
+   * @param expiresAt l’instant d’expiration de l’entrée
+   */
+  public record CachedAuthentication(AuthenticatedUser user, String role,
+                                     Instant expiresAt) {}
+
+  /**
+   * Cache sous-jacent.
+   */
+  private final Cache<String, CachedAuthentication> cache;
+
+  /**
+   * Génération courante, incrémentée à chaque invalidation.
+   */
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * Durée de vie maximale d’une entrée.
+   */
+  private final Duration ttl;
+
+  /**
+   * Constructeur du cache des authentifications.
+   *
+   * @param ttlSeconds durée de vie maximale d’une entrée, en secondes
+   * @param maxEntries nombre maximal d’entrées conservées
+   * @param meterRegistry registre Micrometer recevant les statistiques
+   */
+  public AuthenticationCache(
+      @Value("${jwt.principal-cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${jwt.principal-cache.max-entries:10000}") long maxEntries,
+      MeterRegistry meterRegistry) {
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.cache = Caffeine.newBuilder()
+                     .expireAfter(new Expiry<String, CachedAuthentication>() {
+                       @Override
+                       public long expireAfterCreate(
+                           String key, CachedAuthentication entry,
+                           long currentTime) {
+                         return remainingNanos(entry);
+                       }
+
+                       @Override
+                       public long expireAfterUpdate(
+                           String key, CachedAuthentication entry,
+                           long currentTime, long currentDuration) {
+                         return remainingNanos(entry);
+                       }
+
+                       @Override
+                       public long expireAfterRead(
+                           String key, CachedAuthentication entry,
+                           long currentTime, long currentDuration) {
+                         return currentDuration;
+                       }
+                     })
+                     .maximumSize(maxEntries)
+                     .recordStats()
+                     .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "authentication");
+  }
+
+  /**
+   * Recherche l’authentification associée à un token.
+   *
+   * @param token le token JWT
+   * @return l’authentification, ou {@link Optional#empty()} si elle est absente
+   *     ou expirée
+   */
+  public Optional<CachedAuthentication> get(String token) {
+    CachedAuthentication entry = cache.getIfPresent(token);
+    if (entry == null || !entry.expiresAt().isAfter(Instant.now())) {
+      return Optional.empty();
+    }
+    return Optional.of(entry);
+  }
+
+  /**
+   * Retourne la génération courante, à lire avant de charger l’utilisateur
+   * d’un token puis à transmettre à {@link #put}.
+   *
+   * @return la génération courante
+   */
+  public long generation() { return generation.get(); }
+
+  /**
+   * Enregistre l’authentification associée à un token, sauf si une
+   * invalidation a eu lieu depuis la génération {@code loadedAt} : l’utilisateur
+   * chargé peut alors être périmé, et l’authentification est seulement
+   * renvoyée.
+   *
+   * @param token le token JWT
+   * @param user l’utilisateur associé au token
+   * @param role le rôle porté par le token
+   * @param tokenExpiration la date d’expiration du token, ou null
+   * @param loadedAt la génération lue avant le chargement de l’utilisateur
+   * @return l’authentification, enregistrée ou non
+   */
+  public CachedAuthentication put(String token, Utilisateur user, String role,
+                                  Date tokenExpiration, long loadedAt) {
+    Instant expiresAt = Instant.now().plus(ttl);
+    if (tokenExpiration != null &&
+        tokenExpiration.toInstant().isBefore(expiresAt)) {
+      expiresAt = tokenExpiration.toInstant();
+    }
+    CachedAuthentication entry =
+        new CachedAuthentication(AuthenticatedUser.of(user), role, expiresAt);
+    // Vérifiée sous le verrou de l’entrée : une invalidation qui incrémente la
+    // génération après ce test retrouve l’entrée et la supprime.
+    cache.asMap().compute(
+        token,
+        (key, current) -> generation.get() == loadedAt ? entry : current);
+    return entry;
+  }
+
+  /**
+   * Supprime toutes les authentifications d’un utilisateur.
+   *
+   * @param userId l’identifiant de l’utilisateur
+   */
+  public void invalidateUser(Long userId) {
+    if (userId == null) {
+      return;
+    }
+    generation.incrementAndGet();
+    cache.asMap().values().removeIf(entry -> userId.equals(entry.user().id()));
+  }
+
+  /**
+   * Calcule la durée restante avant l’expiration d’une entrée.
+   *
+   * @param entry l’entrée
+   * @return la durée restante en nanosecondes, au minimum 0
+   */
+  private static long remainingNanos(CachedAuthentication entry) {
+    return Math.max(0,
+                    Duration.between(Instant.now(), entry.expiresAt()).toNanos());
+  }
+}
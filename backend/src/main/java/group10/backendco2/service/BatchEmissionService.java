@@ -0,0 +1,483 @@
+package group10.backendco2.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RoutePairRequest;
+import group10.backendco2.dto.TransportEmissionDto;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Calcul des émissions d’un lot de trajets (origine, destination), par
+ * exemple les trajets domicile-travail de tous les salariés.
+ *
+ * <ul>
+ *   <li>chaque trajet passe par
+ * {@link TransportEmissionService#calculateMultiModeEmissions}, et donc par
+ * le cache des itinéraires</li>
+ *   <li>au plus {@code batch.max-parallelism} trajets sont calculés en même
+ * temps pour un lot</li>
+ *   <li>les trajets identiques (après normalisation) en attente d’écriture en
+ * même temps ne sont calculés qu’une fois ; une répétition plus lointaine
+ * est servie par le cache des itinéraires</li>
+ *   <li>les résultats sont écrits au fil de l’eau, dans l’ordre des trajets
+ * reçus, en NDJSON ou en CSV ; les calculs ne prennent pas plus de
+ * {@code 4 × batch.max-parallelism} trajets d’avance sur l’écriture</li>
+ * </ul>
+ */
+@Service
+public class BatchEmissionService {
+
+  /**
+   * Logger pour les recherches par lot.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(BatchEmissionService.class);
+
+  /**
+   * En-tête du format CSV.
+   */
+  static final String CSV_HEADER =
+      "index,origine,destination,mode,sous_mode,co2_g,distance_km,duree_min,"
+      + "consommation,unite,prix_estime,erreur";
+
+  /**
+   * Formats de sortie d’un lot.
+   */
+  public enum Format {
+    /** Une ligne JSON par trajet. */
+    NDJSON("application/x-ndjson"),
+    /** Une ligne CSV par émission, précédée d’un en-tête. */
+    CSV("text/csv");
+
+    /**
+     * Type de contenu HTTP du format.
+     */
+    private final String contentType;
+
+    /**
+     * Constructeur du format.
+     *
+     * @param contentType le type de contenu HTTP
+     */
+    Format(String contentType) { this.contentType = contentType; }
+
+    /**
+     * Retourne le type de contenu HTTP du format.
+     *
+     * @return le type de contenu, sans jeu de caractères
+     */
+    public String contentType() { return contentType; }
+
+    /**
+     * Retrouve un format par son nom.
+     *
+     * @param name le nom du format, sans tenir compte de la casse
+     * @return le format
+     * @throws IllegalArgumentException si le nom est inconnu
+     */
+    public static Format fromName(String name) {
+      return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+  }
+
+  /**
+   * Résultat du calcul d’un trajet.
+   *
+   * @param emissions les émissions, vide en cas d’erreur
+   * @param error le message d’erreur, ou null
+   */
+  private record Outcome(List<TransportEmissionDto> emissions, String error) {}
+
+  /**
+   * Trajet en attente d’écriture.
+   *
+   * @param index la position du trajet dans le lot
+   * @param pair le trajet
+   * @param key la clé normalisée du trajet
+   * @param outcome le résultat, éventuellement partagé avec un doublon
+   */
+  private record Pending(int index, RoutePairRequest pair, String key,
+                         CompletableFuture<Outcome> outcome) {}
+
+  /**
+   * Calcul partagé par les trajets identiques en attente d’écriture.
+   */
+  private static final class Shared {
+
+    /**
+     * Résultat du calcul.
+     */
+    private final CompletableFuture<Outcome> outcome;
+
+    /**
+     * Nombre de trajets en attente d’écriture qui utilisent ce calcul.
+     */
+    private int references;
+
+    /**
+     * Constructeur d’un calcul partagé.
+     *
+     * @param outcome le résultat du calcul
+     */
+    private Shared(CompletableFuture<Outcome> outcome) {
+      this.outcome = outcome;
+    }
+  }
+
+  /**
+   * Service de calcul des émissions d’un trajet.
+   */
+  private final TransportEmissionService emissionService;
+
+  /**
+   * Sérialiseur JSON des lignes NDJSON.
+   */
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Nombre maximal de trajets calculés en même temps pour un lot.
+   */
+  private final int maxParallelism;
+
+  /**
+   * Nombre maximal de trajets acceptés dans un lot.
+   */
+  private final int maxPairs;
+
+  /**
+   * Exécuteur des calculs (un thread virtuel par trajet, borné par lot).
+   */
+  private final ExecutorService executor =
+      Executors.newVirtualThreadPerTaskExecutor();
+
+  /**
+   * Constructeur du service de recherche par lot.
+   *
+   * @param emissionService le service de calcul des émissions
+   * @param objectMapper le sérialiseur JSON
+   * @param maxParallelism trajets calculés en même temps pour un lot
+   * @param maxPairs nombre maximal de trajets par lot
+   */
+  public BatchEmissionService(
+      TransportEmissionService emissionService, ObjectMapper objectMapper,
+      @Value("${batch.max-parallelism:8}") int maxParallelism,
+      @Value("${batch.max-pairs:10000}") int maxPairs) {
+    this.emissionService = emissionService;
+    this.objectMapper = objectMapper;
+    this.maxParallelism = maxParallelism;
+    this.maxPairs = maxPairs;
+  }
+
+  /**
+   * Vérifie qu’un lot peut être traité.
+   *
+   * @param pairs les trajets du lot
+   * @throws IllegalArgumentException si le lot est vide, trop grand, ou
+   *     contient un trajet sans origine ou destination
+   */
+  public void validate(List<RoutePairRequest> pairs) {
+    validate(pairs, maxPairs);
+  }
+
+  /**
+   * Vérifie qu’un lot peut être traité, avec une taille maximale donnée.
+   *
+   * @param pairs les trajets du lot
+   * @param limit le nombre maximal de trajets
+   * @throws IllegalArgumentException si le lot est vide, trop grand, ou
+   *     contient un trajet sans origine ou destination
+   */
+  static void validate(List<RoutePairRequest> pairs, int limit) {
+    if (pairs == null || pairs.isEmpty()) {
+      throw new IllegalArgumentException("Lot vide");
+    }
+    if (pairs.size() > limit) {
+      throw new IllegalArgumentException("Lot limité à " + limit +
+                                         " trajets");
+    }
+    for (int i = 0; i < pairs.size(); i++) {
+      RoutePairRequest pair = pairs.get(i);
+      if (pair == null || isBlank(pair.getOrigine()) ||
+          isBlank(pair.getDestination())) {
+        throw new IllegalArgumentException(
+            "Trajet " + i + " sans origine ou destination");
+      }
+    }
+  }
+
+  /**
+   * Calcule les émissions d’un lot et les écrit dans l’ordre des trajets.
+   * Chaque trajet est écrit (et le flux vidé) dès que lui et tous ses
+   * prédécesseurs sont calculés. Une erreur de calcul n’interrompt pas le
+   * lot : elle est écrite à la place des émissions du trajet.
+   *
+   * @param pairs les trajets, déjà validés par {@link #validate}
+   * @param format le format de sortie
+   * @param out le flux de sortie, laissé ouvert
+   * @throws IOException si l’écriture échoue (client déconnecté par
+   *     exemple) ; les calculs restants sont alors abandonnés
+   */
+  public void write(List<RoutePairRequest> pairs, Format format,
+                    OutputStream out) throws IOException {
+    long start = System.nanoTime();
+    Semaphore permits = new Semaphore(maxParallelism);
+    AtomicBoolean abandoned = new AtomicBoolean();
+    Map<String, Shared> inWindow = new HashMap<>();
+    int computed = 0;
+    Deque<Pending> window = new ArrayDeque<>();
+    int windowSize = maxParallelism * 4;
+    Writer writer = new BufferedWriter(
+        new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+    try {
+      writeHeader(format, writer);
+      for (int i = 0; i < pairs.size(); i++) {
+        if (window.size() >= windowSize) {
+          writeOutcome(window.poll(), inWindow, format, writer);
+        }
+        RoutePairRequest pair = pairs.get(i);
+        String key = DirectionsCache.normalize(pair.getOrigine()) + "|" +
+                     DirectionsCache.normalize(pair.getDestination());
+        Shared shared = inWindow.get(key);
+        if (shared == null) {
+          shared = new Shared(CompletableFuture.supplyAsync(
+              () -> compute(pair, permits, abandoned), executor));
+          inWindow.put(key, shared);
+          computed++;
+        }
+        shared.references++;
+        window.add(new Pending(i, pair, key, shared.outcome));
+      }
+      while (!window.isEmpty()) {
+        writeOutcome(window.poll(), inWindow, format, writer);
+      }
+    } finally {
+      abandoned.set(true);
+    }
+
+    logger.info("Lot de {} trajets ({} calculés) traité en {} ms",
+                pairs.size(), computed,
+                (System.nanoTime() - start) / 1_000_000);
+  }
+
+  /**
+   * Calcule les émissions d’un trajet, dans la limite de parallélisme du
+   * lot.
+   *
+   * @param pair le trajet
+   * @param permits les calculs autorisés en même temps pour le lot
+   * @param abandoned vrai si l’écriture du lot est terminée ou a échoué
+   * @return les émissions, ou le message d’erreur
+   */
+  private Outcome compute(RoutePairRequest pair, Semaphore permits,
+                          AtomicBoolean abandoned) {
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return new Outcome(List.of(), "Interrompu");
+    }
+    try {
+      if (abandoned.get()) {
+        return new Outcome(List.of(), "Lot abandonné");
+      }
+      return new Outcome(emissionService.calculateMultiModeEmissions(
+                             pair.getOrigine(), pair.getDestination()),
+                         null);
+    } catch (RuntimeException e) {
+      logger.warn("Échec du trajet {} -> {}", pair.getOrigine(),
+                  pair.getDestination(), e);
+      return new Outcome(List.of(), e.getMessage() != null
+                                        ? e.getMessage()
+                                        : e.getClass().getSimpleName());
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Attend le résultat d’un trajet, l’écrit et vide le flux. Le calcul
+   * partagé est oublié dès que plus aucun trajet en attente ne l’utilise.
+   *
+   * @param pending le trajet en attente
+   * @param inWindow les calculs partagés des trajets en attente, par clé
+   * @param format le format de sortie
+   * @param writer la sortie
+   * @throws IOException si l’écriture échoue
+   */
+  private void writeOutcome(Pending pending, Map<String, Shared> inWindow,
+                            Format format, Writer writer) throws IOException {
+    Shared shared = inWindow.get(pending.key());
+    if (--shared.references == 0) {
+      inWindow.remove(pending.key());
+    }
+    Outcome outcome;
+    try {
+      outcome = pending.outcome().join();
+    } catch (CompletionException e) {
+      outcome = new Outcome(List.of(), String.valueOf(e.getCause()));
+    }
+    writeRow(format, pending.index(), pending.pair(), outcome.emissions(),
+             outcome.error(), writer);
+    writer.flush();
+  }
+
+  /**
+   * Écrit l’en-tête du format, s’il en a un.
+   *
+   * @param format le format de sortie
+   * @param writer la sortie
+   * @throws IOException si l’écriture échoue
+   */
+  void writeHeader(Format format, Writer writer) throws IOException {
+    if (format == Format.CSV) {
+      writer.write(CSV_HEADER);
+      writer.write('\n');
+    }
+  }
+
+  /**
+   * Écrit le résultat d’un trajet dans le format demandé.
+   *
+   * @param format le format de sortie
+   * @param index la position du trajet dans le lot
+   * @param pair le trajet
+   * @param emissions les émissions, vide en cas d’erreur
+   * @param error le message d’erreur, ou null
+   * @param writer la sortie
+   * @throws IOException si l’écriture échoue
+   */
+  void writeRow(Format format, int index, RoutePairRequest pair,
+                List<TransportEmissionDto> emissions, String error,
+                Writer writer) throws IOException {
+    if (format == Format.CSV) {
+      writeCsv(index, pair, emissions, error, writer);
+    } else {
+      writeNdjson(index, pair, emissions, error, writer);
+    }
+  }
+
+  /**
+   * Écrit un trajet sur une ligne JSON.
+   *
+   * @param index la position du trajet dans le lot
+   * @param pair le trajet
+   * @param emissions ses émissions
+   * @param error le message d’erreur, ou null
+   * @param writer la sortie
+   * @throws IOException si l’écriture échoue
+   */
+  private void writeNdjson(int index, RoutePairRequest pair,
+                           List<TransportEmissionDto> emissions, String error,
+                           Writer writer) throws IOException {
+    Map<String, Object> line = new LinkedHashMap<>();
+    line.put("index", index);
+    line.put("origine", pair.getOrigine());
+    line.put("destination", pair.getDestination());
+    line.put("emissions", emissions);
+    if (error != null) {
+      line.put("erreur", error);
+    }
+    writer.write(objectMapper.writeValueAsString(line));
+    writer.write('\n');
+  }
+
+  /**
+   * Écrit les émissions d’un trajet en CSV, une ligne par émission, ou une
+   * seule ligne sans émission si le trajet n’en a aucune.
+   *
+   * @param index la position du trajet dans le lot
+   * @param pair le trajet
+   * @param emissions ses émissions
+   * @param error le message d’erreur, ou null
+   * @param writer la sortie
+   * @throws IOException si l’écriture échoue
+   */
+  private static void writeCsv(int index, RoutePairRequest pair,
+                               List<TransportEmissionDto> emissions,
+                               String error, Writer writer)
+      throws IOException {
+    String prefix = index + "," + csv(pair.getOrigine()) + "," +
+                    csv(pair.getDestination()) + ",";
+    if (emissions.isEmpty()) {
+      writer.write(prefix + ",,,,,,,," + csv(error) + "\n");
+      return;
+    }
+    for (TransportEmissionDto dto : emissions) {
+      writer.write(prefix + csv(dto.getMode()) + "," + csv(dto.getSubMode()) +
+                   "," + number(dto.getCo2()) + "," +
+                   number(dto.getDistanceKm()) + "," +
+                   number(dto.getDurationMinutes()) + "," +
+                   number(dto.getConsommationEnergie()) + "," +
+                   csv(dto.getUnite()) + "," + number(dto.getPrixEstime()) +
+                   "," + csv(error) + "\n");
+    }
+  }
+
+  /**
+   * Échappe une valeur CSV (RFC 4180).
+   *
+   * @param value la valeur, éventuellement null
+   * @return la valeur, entre guillemets si nécessaire
+   */
+  static String csv(String value) {
+    if (value == null) {
+      return "";
+    }
+    if (value.contains(",") || value.contains("\"") || value.contains("\n") ||
+        value.contains("\r")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+  /**
+   * Formate un nombre CSV avec un point décimal.
+   *
+   * @param value la valeur, éventuellement null
+   * @return la valeur formatée, ou une chaîne vide
+   */
+  private static String number(Float value) {
+    return value == null ? "" : String.format(Locale.ROOT, "%.3f", value);
+  }
+
+  /**
+   * Indique si une chaîne est absente ou vide.
+   *
+   * @param value la chaîne
+   * @return true si elle est null ou ne contient que des espaces
+   */
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  /**
+   * Arrête l’exécuteur des calculs à l’arrêt de l’application.
+   */
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+}
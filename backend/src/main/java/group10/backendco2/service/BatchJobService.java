@@ -0,0 +1,302 @@
+package group10.backendco2.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RoutePairRequest;
+import group10.backendco2.dto.TransportEmissionDto;
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.LotCalculTrajet;
+import group10.backendco2.model.Utilisateur;
+import group10.backendco2.repository.LotCalculRepository;
+import group10.backendco2.repository.LotCalculTrajetRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Calculs d’émissions par lot exécutés en arrière-plan.
+ *
+ * Un lot soumis est enregistré avec tous ses trajets dans les tables
+ * {@code lotcalcul} et {@code lotcalcultrajet}, puis calculé trajet par
+ * trajet par {@link BatchJobWorker}. Le résultat de chaque trajet est
+ * enregistré dès qu’il est calculé : un lot interrompu par un redémarrage
+ * reprend là où il s’était arrêté. Le résultat complet est relu par pages
+ * et écrit dans les mêmes formats que {@link BatchEmissionService}.
+ */
+@Service
+public class BatchJobService {
+
+  /**
+   * Logger pour les calculs par lot en arrière-plan.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(BatchJobService.class);
+
+  /**
+   * Nombre de trajets relus par requête lors de l’écriture du résultat.
+   */
+  static final int PAGE_SIZE = 500;
+
+  /**
+   * Type de la liste d’émissions sérialisée.
+   */
+  private static final TypeReference<List<TransportEmissionDto>>
+      EMISSIONS_TYPE = new TypeReference<>() {};
+
+  /**
+   * Référentiel des lots.
+   */
+  private final LotCalculRepository lotRepository;
+
+  /**
+   * Référentiel des trajets des lots.
+   */
+  private final LotCalculTrajetRepository trajetRepository;
+
+  /**
+   * Service de recherche par lot, pour la validation et les formats de
+   * sortie.
+   */
+  private final BatchEmissionService batchEmissionService;
+
+  /**
+   * Sérialiseur JSON des émissions enregistrées.
+   */
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Nombre maximal de trajets acceptés dans un lot.
+   */
+  private final int maxPairs;
+
+  /**
+   * Constructeur du service des calculs par lot en arrière-plan.
+   *
+   * @param lotRepository le référentiel des lots
+   * @param trajetRepository le référentiel des trajets des lots
+   * @param batchEmissionService le service de recherche par lot
+   * @param objectMapper le sérialiseur JSON
+   * @param maxPairs nombre maximal de trajets par lot
+   */
+  public BatchJobService(LotCalculRepository lotRepository,
+                         LotCalculTrajetRepository trajetRepository,
+                         BatchEmissionService batchEmissionService,
+                         ObjectMapper objectMapper,
+                         @Value("${batch.jobs.max-pairs:50000}") int maxPairs) {
+    this.lotRepository = lotRepository;
+    this.trajetRepository = trajetRepository;
+    this.batchEmissionService = batchEmissionService;
+    this.objectMapper = objectMapper;
+    this.maxPairs = maxPairs;
+  }
+
+  /**
+   * Enregistre un lot et ses trajets, en attente de calcul.
+   *
+   * @param pairs les trajets du lot
+   * @param utilisateur l’utilisateur qui soumet le lot
+   * @return le lot enregistré
+   * @throws IllegalArgumentException si le lot est vide, trop grand, ou
+   *     contient un trajet sans origine ou destination
+   */
+  @Transactional
+  public LotCalcul submit(List<RoutePairRequest> pairs,
+                          Utilisateur utilisateur) {
+    BatchEmissionService.validate(pairs, maxPairs);
+    Instant now = Instant.now();
+
+    LotCalcul lot = new LotCalcul();
+    lot.setUtilisateur(utilisateur);
+    lot.setStatut(LotCalcul.Statut.EnAttente);
+    lot.setTotal(pairs.size());
+    lot.setDateCreation(now);
+    lot = lotRepository.save(lot);
+
+    List<LotCalculTrajet> items = new ArrayList<>(pairs.size());
+    for (int i = 0; i < pairs.size(); i++) {
+      RoutePairRequest pair = pairs.get(i);
+      LotCalculTrajet item = new LotCalculTrajet();
+      item.setLot(lot);
+      item.setRang(i);
+      item.setOrigine(pair.getOrigine());
+      item.setDestination(pair.getDestination());
+      item.setStatut(LotCalculTrajet.Statut.EnAttente);
+      item.setProchaineTentative(now);
+      items.add(item);
+    }
+    trajetRepository.saveAll(items);
+
+    logger.info("Lot {} de {} trajets soumis", lot.getId(), pairs.size());
+    return lot;
+  }
+
+  /**
+   * Trouve un lot soumis par un utilisateur.
+   *
+   * @param id l’identifiant du lot
+   * @param utilisateur l’utilisateur connecté
+   * @return le lot, s’il existe et appartient à l’utilisateur
+   */
+  public Optional<LotCalcul> find(Long id, Utilisateur utilisateur) {
+    return lotRepository.findByIdAndUtilisateurId(id, utilisateur.getId());
+  }
+
+  /**
+   * Enregistre les émissions d’un trajet calculé et met à jour son lot.
+   *
+   * @param item le trajet
+   * @param emissions ses émissions
+   */
+  @Transactional
+  public void complete(LotCalculTrajet item,
+                       List<TransportEmissionDto> emissions) {
+    complete(item, emissions, null);
+  }
+
+  /**
+   * Enregistre les émissions d’un trajet calculé, éventuellement partielles,
+   * et met à jour son lot. La note est écrite dans la colonne erreur du
+   * résultat.
+   *
+   * @param item le trajet
+   * @param emissions ses émissions
+   * @param note la raison d’un résultat partiel, ou null s’il est complet
+   */
+  @Transactional
+  public void complete(LotCalculTrajet item,
+                       List<TransportEmissionDto> emissions, String note) {
+    item.setStatut(LotCalculTrajet.Statut.Termine);
+    item.setResultat(toJson(emissions));
+    item.setErreur(truncate(note));
+    trajetRepository.save(item);
+    Long lotId = item.getLot().getId();
+    lotRepository.incrementerTraites(lotId);
+    lotRepository.terminerSiComplet(lotId, Instant.now());
+  }
+
+  /**
+   * Abandonne un trajet après sa dernière tentative et met à jour son lot.
+   *
+   * @param item le trajet
+   * @param error la dernière erreur rencontrée
+   */
+  @Transactional
+  public void fail(LotCalculTrajet item, String error) {
+    item.setStatut(LotCalculTrajet.Statut.Echec);
+    item.setErreur(truncate(error));
+    trajetRepository.save(item);
+    Long lotId = item.getLot().getId();
+    lotRepository.incrementerEchecs(lotId);
+    lotRepository.terminerSiComplet(lotId, Instant.now());
+  }
+
+  /**
+   * Remet un trajet en attente jusqu’à sa prochaine tentative.
+   *
+   * @param item le trajet
+   * @param error l’erreur rencontrée
+   * @param nextAttempt l’instant de la prochaine tentative
+   */
+  public void retryLater(LotCalculTrajet item, String error,
+                         Instant nextAttempt) {
+    item.setStatut(LotCalculTrajet.Statut.EnAttente);
+    item.setErreur(truncate(error));
+    item.setProchaineTentative(nextAttempt);
+    trajetRepository.save(item);
+  }
+
+  /**
+   * Écrit le résultat d’un lot, dans l’ordre des trajets soumis. Les trajets
+   * sont relus par pages de {@value #PAGE_SIZE}, et le flux est vidé après
+   * chaque page. Un trajet enregistré partiellement porte sa note dans la
+   * colonne erreur.
+   *
+   * @param lot le lot
+   * @param format le format de sortie
+   * @param out le flux de sortie, laissé ouvert
+   * @throws IOException si l’écriture échoue
+   */
+  public void writeResult(LotCalcul lot, BatchEmissionService.Format format,
+                          OutputStream out) throws IOException {
+    Writer writer = new BufferedWriter(
+        new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    batchEmissionService.writeHeader(format, writer);
+
+    int last = -1;
+    List<LotCalculTrajet> page;
+    do {
+      page = trajetRepository.findByLotIdAndRangGreaterThanOrderByRangAsc(
+          lot.getId(), last, PageRequest.of(0, PAGE_SIZE));
+      for (LotCalculTrajet item : page) {
+        batchEmissionService.writeRow(
+            format, item.getRang(),
+            new RoutePairRequest(item.getOrigine(), item.getDestination()),
+            fromJson(item.getResultat()),
+            item.getStatut() == LotCalculTrajet.Statut.Echec ||
+                    item.getStatut() == LotCalculTrajet.Statut.Termine
+                ? item.getErreur()
+                : null,
+            writer);
+        last = item.getRang();
+      }
+      writer.flush();
+    } while (page.size() == PAGE_SIZE);
+  }
+
+  /**
+   * Sérialise les émissions d’un trajet.
+   *
+   * @param emissions les émissions
+   * @return le JSON
+   */
+  private String toJson(List<TransportEmissionDto> emissions) {
+    try {
+      return objectMapper.writeValueAsString(emissions);
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Émissions non sérialisables", e);
+    }
+  }
+
+  /**
+   * Relit les émissions enregistrées d’un trajet.
+   *
+   * @param json le JSON, ou null si le trajet n’a pas été calculé
+   * @return les émissions, vide si elles sont absentes ou illisibles
+   */
+  private List<TransportEmissionDto> fromJson(String json) {
+    if (json == null) {
+      return List.of();
+    }
+    try {
+      return objectMapper.readValue(json, EMISSIONS_TYPE);
+    } catch (JsonProcessingException e) {
+      logger.warn("Résultat de trajet illisible", e);
+      return List.of();
+    }
+  }
+
+  /**
+   * Tronque un message d’erreur à la taille de la colonne {@code erreur}.
+   *
+   * @param error le message, éventuellement null
+   * @return le message tronqué
+   */
+  private static String truncate(String error) {
+    return error != null && error.length() > 1024 ? error.substring(0, 1024)
+                                                  : error;
+  }
+}
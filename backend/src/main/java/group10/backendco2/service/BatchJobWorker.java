@@ -0,0 +1,306 @@
+package group10.backendco2.service;
+
+import group10.backendco2.model.LotCalculTrajet;
+import group10.backendco2.repository.LotCalculRepository;
+import group10.backendco2.repository.LotCalculTrajetRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exécute en arrière-plan les trajets des lots soumis à
+ * {@link BatchJobService}.
+ *
+ * <ul>
+ *   <li>un thread répartiteur relit les trajets en attente dont l’essai est
+ * dû, les réserve un à un (mise à jour conditionnelle) et les confie à un
+ * thread virtuel, dans la limite de {@code batch.jobs.workers} calculs
+ * simultanés</li>
+ *   <li>un trajet en échec (erreur, aucun itinéraire ou mode Google Maps
+ * indisponible, le plus souvent à cause de l’API Google) est réessayé après
+ * un délai exponentiel avec gigue, jusqu’à {@code batch.jobs.max-attempts}
+ * tentatives ; un trajet dont certains modes restent indisponibles est alors
+ * enregistré comme résultat partiel</li>
+ *   <li>au démarrage, les trajets restés en cours à l’arrêt précédent sont
+ * remis en attente : les lots reprennent après un redéploiement</li>
+ * </ul>
+ *
+ * La reprise suppose une seule instance exécutant les lots ; les autres
+ * instances doivent désactiver le répartiteur ({@code batch.jobs.enabled}).
+ */
+@Component
+public class BatchJobWorker {
+
+  /**
+   * Logger pour l’exécution des lots.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(BatchJobWorker.class);
+
+  /**
+   * Service des lots, qui enregistre le résultat des trajets.
+   */
+  private final BatchJobService jobService;
+
+  /**
+   * Service de calcul des émissions d’un trajet.
+   */
+  private final TransportEmissionService emissionService;
+
+  /**
+   * Référentiel des lots.
+   */
+  private final LotCalculRepository lotRepository;
+
+  /**
+   * Référentiel des trajets des lots.
+   */
+  private final LotCalculTrajetRepository trajetRepository;
+
+  /**
+   * Indique si le répartiteur est démarré avec l’application.
+   */
+  private final boolean enabled;
+
+  /**
+   * Nombre maximal de trajets calculés en même temps.
+   */
+  private final int workers;
+
+  /**
+   * Nombre maximal de tentatives par trajet.
+   */
+  private final int maxAttempts;
+
+  /**
+   * Délai avant la deuxième tentative, en millisecondes.
+   */
+  private final long backoffInitialMs;
+
+  /**
+   * Délai maximal entre deux tentatives, en millisecondes.
+   */
+  private final long backoffMaxMs;
+
+  /**
+   * Délai entre deux recherches de trajets quand aucun n’est dû, en
+   * millisecondes.
+   */
+  private final long pollIntervalMs;
+
+  /**
+   * Calculs autorisés en même temps.
+   */
+  private final Semaphore permits;
+
+  /**
+   * Exécuteur des calculs (un thread virtuel par trajet).
+   */
+  private final ExecutorService executor =
+      Executors.newVirtualThreadPerTaskExecutor();
+
+  /**
+   * Thread répartiteur, null tant qu’il n’est pas démarré.
+   */
+  private volatile Thread dispatcher;
+
+  /**
+   * Constructeur de l’exécuteur des lots.
+   *
+   * @param jobService le service des lots
+   * @param emissionService le service de calcul des émissions
+   * @param lotRepository le référentiel des lots
+   * @param trajetRepository le référentiel des trajets des lots
+   * @param enabled {@code true} pour démarrer le répartiteur
+   * @param workers trajets calculés en même temps
+   * @param maxAttempts tentatives par trajet
+   * @param backoffInitialMs délai avant la deuxième tentative
+   * @param backoffMaxMs délai maximal entre deux tentatives
+   * @param pollIntervalMs délai entre deux recherches de trajets
+   */
+  public BatchJobWorker(
+      BatchJobService jobService, TransportEmissionService emissionService,
+      LotCalculRepository lotRepository,
+      LotCalculTrajetRepository trajetRepository,
+      @Value("${batch.jobs.enabled:true}") boolean enabled,
+      @Value("${batch.jobs.workers:4}") int workers,
+      @Value("${batch.jobs.max-attempts:5}") int maxAttempts,
+      @Value("${batch.jobs.backoff-initial-ms:2000}") long backoffInitialMs,
+      @Value("${batch.jobs.backoff-max-ms:300000}") long backoffMaxMs,
+      @Value("${batch.jobs.poll-interval-ms:1000}") long pollIntervalMs) {
+    this.jobService = jobService;
+    this.emissionService = emissionService;
+    this.lotRepository = lotRepository;
+    this.trajetRepository = trajetRepository;
+    this.enabled = enabled;
+    this.workers = workers;
+    this.maxAttempts = maxAttempts;
+    this.backoffInitialMs = backoffInitialMs;
+    this.backoffMaxMs = backoffMaxMs;
+    this.pollIntervalMs = pollIntervalMs;
+    this.permits = new Semaphore(workers);
+  }
+
+  /**
+   * Remet en attente les trajets interrompus et démarre le répartiteur une
+   * fois l’application prête.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void start() {
+    if (!enabled) {
+      return;
+    }
+    int resumed = trajetRepository.remettreEnAttente();
+    if (resumed > 0) {
+      logger.info("{} trajets de lots interrompus remis en attente", resumed);
+    }
+    dispatcher = Thread.ofPlatform()
+                     .name("batch-jobs-dispatcher")
+                     .daemon()
+                     .start(this::dispatchLoop);
+  }
+
+  /**
+   * Boucle du répartiteur : confie les trajets dus aux calculs, ou attend
+   * {@code batch.jobs.poll-interval-ms} s’il n’y en a aucun.
+   */
+  private void dispatchLoop() {
+    while (!Thread.currentThread().isInterrupted()) {
+      try {
+        if (dispatch() == 0) {
+          Thread.sleep(pollIntervalMs);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (RuntimeException e) {
+        logger.warn("Échec de la recherche des trajets de lots", e);
+        try {
+          Thread.sleep(pollIntervalMs);
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }
+  }
+
+  /**
+   * Réserve les trajets dus et les confie aux calculs, en attendant qu’un
+   * calcul se libère si tous sont occupés.
+   *
+   * @return le nombre de trajets confiés aux calculs
+   * @throws InterruptedException si le répartiteur est arrêté
+   */
+  int dispatch() throws InterruptedException {
+    List<LotCalculTrajet> due = trajetRepository.findDus(
+        Instant.now(), PageRequest.of(0, workers * 4));
+    int started = 0;
+    for (LotCalculTrajet item : due) {
+      permits.acquire();
+      if (trajetRepository.reserver(item.getId()) == 0) {
+        permits.release();
+        continue;
+      }
+      started++;
+      executor.execute(() -> {
+        try {
+          process(item);
+        } catch (RuntimeException e) {
+          logger.error("Échec de l’enregistrement du trajet {}", item.getId(),
+                       e);
+        } finally {
+          permits.release();
+        }
+      });
+    }
+    return started;
+  }
+
+  /**
+   * Calcule un trajet réservé et enregistre son résultat, ou le remet en
+   * attente de sa prochaine tentative si un mode Google Maps n’a pas reçu de
+   * réponse à jour, ou l’abandonne s’il a épuisé ses tentatives. Après la
+   * dernière tentative, les émissions des modes disponibles sont enregistrées
+   * comme résultat partiel, avec les modes manquants en erreur.
+   *
+   * @param item le trajet réservé
+   */
+  void process(LotCalculTrajet item) {
+    lotRepository.demarrer(item.getLot().getId(), Instant.now());
+
+    String error;
+    MultiModeEmissions result = null;
+    try {
+      result = emissionService.calculateMultiModeEmissionsWithStatus(
+          item.getOrigine(), item.getDestination());
+      if (result.isComplete() && !result.emissions().isEmpty()) {
+        jobService.complete(item, result.emissions());
+        return;
+      }
+      error = result.isComplete()
+                  ? "Aucun itinéraire trouvé"
+                  : "Modes indisponibles : " +
+                        String.join(", ", result.degradedModes());
+    } catch (RuntimeException e) {
+      error = e.getMessage() != null ? e.getMessage()
+                                     : e.getClass().getSimpleName();
+    }
+
+    item.setTentatives(item.getTentatives() + 1);
+    if (item.getTentatives() >= maxAttempts) {
+      if (result != null && !result.emissions().isEmpty()) {
+        logger.warn("Trajet {} partiel après {} tentatives : {}",
+                    item.getId(), item.getTentatives(), error);
+        jobService.complete(item, result.emissions(),
+                            "Résultat partiel. " + error);
+        return;
+      }
+      logger.warn("Trajet {} abandonné après {} tentatives : {}",
+                  item.getId(), item.getTentatives(), error);
+      jobService.fail(item, error);
+    } else {
+      jobService.retryLater(
+          item, error,
+          Instant.now().plusMillis(backoffMillis(item.getTentatives())));
+    }
+  }
+
+  /**
+   * Calcule le délai avant une nouvelle tentative : il double à chaque
+   * tentative, dans la limite de {@code batch.jobs.backoff-max-ms}, et est
+   * tiré au hasard entre la moitié et la totalité de cette valeur pour
+   * étaler les reprises.
+   *
+   * @param attempts le nombre de tentatives déjà faites (au moins 1)
+   * @return le délai en millisecondes
+   */
+  long backoffMillis(int attempts) {
+    int shift = Math.min(attempts - 1, 30);
+    long delay = Math.min(backoffMaxMs, backoffInitialMs << shift);
+    return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
+  /**
+   * Arrête le répartiteur et les calculs en cours à l’arrêt de
+   * l’application ; les trajets interrompus seront repris au prochain
+   * démarrage.
+   */
+  @PreDestroy
+  public void shutdown() {
+    Thread current = dispatcher;
+    if (current != null) {
+      current.interrupt();
+    }
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,336 @@
+package group10.backendco2.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import group10.backendco2.dto.RouteModeResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache en mémoire des itinéraires renvoyés par l’API Google Maps Directions.
+ *
+ * Les entrées sont indexées par origine, destination et mode normalisés
+ * (casse, espaces et accents ignorés), expirent après une durée configurable
+ * et sont évincées selon la politique W-TinyLFU de Caffeine lorsque la taille
+ * maximale est atteinte. Les statistiques (hits, misses, évictions) sont
+ * publiées dans Micrometer sous le nom {@code directions}.
+ *
+ * Chaque entrée est également écrite via {@link DirectionsCacheStore}, de
+ * façon différée, ce qui permet de réchauffer le cache au démarrage de
+ * l’application ; seul l’ajout en mémoire est fait par l’appelant.
+ *
+ * Les derniers itinéraires connus de chaque trajet restent disponibles après
+ * leur expiration, pendant {@code google.directions.cache.stale-ttl-hours}
+ * comptées à partir de l’expiration de chaque entrée, pour être servis quand l’API Directions est indisponible (voir
+ * {@link #getStale}).
+ */
+@Component
+public class DirectionsCache {
+
+  /**
+   * Logger pour le cache des itinéraires.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(DirectionsCache.class);
+
+  /**
+   * Motif des marques diacritiques à supprimer lors de la normalisation.
+   */
+  private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+  /**
+   * Motif des suites d’espaces à réduire lors de la normalisation.
+   */
+  private static final Pattern SPACES = Pattern.compile("\\s+");
+
+  /**
+   * Entrée du cache : itinéraires et instant d’expiration.
+   *
+   * @param routes les itinéraires
+   * @param expiresAt l’instant d’expiration
+   */
+  private record Entry(List<RouteModeResponse> routes, Instant expiresAt) {}
+
+  /**
+   * Cache sous-jacent.
+   */
+  private final Cache<String, Entry> cache;
+
+  /**
+   * Derniers itinéraires connus, conservés {@code staleTtl} après l’expiration
+   * de chaque entrée, comme dans la table persistée (les entrées sont
+   * partagées avec {@code cache}).
+   */
+  private final Cache<String, Entry> lastKnown;
+
+  /**
+   * Persistance des entrées.
+   */
+  private final DirectionsCacheStore store;
+
+  /**
+   * Durée de vie d’une nouvelle entrée.
+   */
+  private final Duration ttl;
+
+  /**
+   * Durée de conservation des derniers itinéraires connus après expiration.
+   */
+  private final Duration staleTtl;
+
+  /**
+   * Nombre maximal d’entrées conservées.
+   */
+  private final long maxEntries;
+
+  /**
+   * Constructeur du cache des itinéraires.
+   *
+   * @param ttlMinutes durée de vie d’une entrée, en minutes
+   * @param maxEntries nombre maximal d’entrées conservées
+   * @param staleTtlHours durée de conservation des derniers itinéraires
+   *     connus, en heures
+   * @param meterRegistry registre Micrometer recevant les statistiques
+   * @param store persistance des entrées
+   */
+  public DirectionsCache(
+      @Value("${google.directions.cache.ttl-minutes:360}") long ttlMinutes,
+      @Value("${google.directions.cache.max-entries:10000}") long maxEntries,
+      @Value("${google.directions.cache.stale-ttl-hours:168}")
+      long staleTtlHours,
+      MeterRegistry meterRegistry, DirectionsCacheStore store) {
+    this.ttl = Duration.ofMinutes(ttlMinutes);
+    this.maxEntries = maxEntries;
+    this.store = store;
+    this.staleTtl = Duration.ofHours(staleTtlHours);
+    this.cache = Caffeine.newBuilder()
+                     .expireAfter(expiringAt(Entry::expiresAt))
+                     .maximumSize(maxEntries)
+                     .recordStats()
+                     .build();
+    this.lastKnown =
+        Caffeine.newBuilder()
+            .expireAfter(
+                expiringAt(entry -> entry.expiresAt().plus(staleTtl)))
+            .maximumSize(maxEntries)
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "directions");
+  }
+
+  /**
+   * Réchauffe le cache au démarrage à partir des entrées persistées : les
+   * entrées encore valides alimentent le cache, et toutes, y compris celles
+   * déjà expirées, les derniers itinéraires connus.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    Map<String, DirectionsCacheStore.StoredRoutes> stored =
+        store.loadRecent((int)Math.min(maxEntries, Integer.MAX_VALUE));
+    Instant now = Instant.now();
+    int valid = 0;
+    for (Map.Entry<String, DirectionsCacheStore.StoredRoutes> entry :
+         stored.entrySet()) {
+      Entry cached = new Entry(List.copyOf(entry.getValue().routes()),
+                               entry.getValue().expiresAt());
+      if (cached.expiresAt().isAfter(now)) {
+        cache.put(entry.getKey(), cached);
+        valid++;
+      }
+      lastKnown.put(entry.getKey(), cached);
+    }
+    logger.info("Cache des itinéraires réchauffé avec {} entrées valides et "
+                    + "{} expirées",
+                valid, stored.size() - valid);
+  }
+
+  /**
+   * Retourne les itinéraires en cache, ou les charge via {@code loader} en cas
+   * d’absence. Seuls les résultats non vides sont conservés, afin de ne pas
+   * mémoriser une erreur passagère de l’API.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @param loader fonction de chargement appelée en cas d’absence
+   * @return la liste des itinéraires (jamais null)
+   */
+  public List<RouteModeResponse>
+  get(String origin, String destination, String mode,
+      Supplier<List<RouteModeResponse>> loader) {
+    Optional<List<RouteModeResponse>> cached =
+        getIfPresent(origin, destination, mode);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    return put(origin, destination, mode, loader.get());
+  }
+
+  /**
+   * Retourne les itinéraires en cache sans jamais les charger, pour les
+   * appelants qui effectuent eux-mêmes le chargement (de façon asynchrone par
+   * exemple) puis le confient à {@link #put}.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return les itinéraires en cache, ou vide en cas d’absence
+   */
+  public Optional<List<RouteModeResponse>>
+  getIfPresent(String origin, String destination, String mode) {
+    Entry cached = cache.getIfPresent(key(origin, destination, mode));
+    return cached == null ? Optional.empty() : Optional.of(cached.routes());
+  }
+
+  /**
+   * Retourne les derniers itinéraires connus d’un trajet, même expirés, sans
+   * les compter dans les statistiques du cache.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return les derniers itinéraires connus, ou vide s’il n’y en a aucun
+   */
+  public Optional<List<RouteModeResponse>>
+  getStale(String origin, String destination, String mode) {
+    Entry stale = lastKnown.getIfPresent(key(origin, destination, mode));
+    return stale == null ? Optional.empty() : Optional.of(stale.routes());
+  }
+
+  /**
+   * Retourne l’échéance de l’entrée d’un trajet, sans la compter dans les
+   * statistiques du cache.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return l’échéance de l’entrée, ou vide si le trajet n’est pas en cache
+   */
+  public Optional<Instant> expiresAt(String origin, String destination,
+                                     String mode) {
+    Entry cached = cache.asMap().get(key(origin, destination, mode));
+    return cached == null ? Optional.empty() : Optional.of(cached.expiresAt());
+  }
+
+  /**
+   * Conserve des itinéraires chargés par l’appelant. Seuls les résultats non
+   * vides sont conservés (et confiés à la persistance, qui les écrit sans
+   * bloquer l’appelant).
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @param loaded les itinéraires chargés, éventuellement null
+   * @return la copie conservée des itinéraires (jamais null)
+   */
+  public List<RouteModeResponse> put(String origin, String destination,
+                                     String mode,
+                                     List<RouteModeResponse> loaded) {
+    if (loaded == null || loaded.isEmpty()) {
+      return List.of();
+    }
+    String key = key(origin, destination, mode);
+    Entry entry = new Entry(List.copyOf(loaded), Instant.now().plus(ttl));
+    cache.put(key, entry);
+    lastKnown.put(key, entry);
+    store.save(key, entry.routes(), entry.expiresAt());
+    return entry.routes();
+  }
+
+  /**
+   * Vide entièrement le cache, y compris les entrées persistées et les
+   * derniers itinéraires connus.
+   */
+  public void invalidateAll() {
+    cache.invalidateAll();
+    lastKnown.invalidateAll();
+    store.deleteAll();
+  }
+
+  /**
+   * Construit une politique d’expiration propre à chaque entrée : l’entrée
+   * expire à l’instant donné par {@code deadline}, que la lecture ne prolonge
+   * pas.
+   *
+   * @param deadline l’instant d’expiration d’une entrée
+   * @return la politique d’expiration
+   */
+  private static Expiry<String, Entry>
+  expiringAt(Function<Entry, Instant> deadline) {
+    return new Expiry<String, Entry>() {
+      @Override
+      public long expireAfterCreate(String key, Entry entry,
+                                    long currentTime) {
+        return remainingNanos(deadline.apply(entry));
+      }
+
+      @Override
+      public long expireAfterUpdate(String key, Entry entry, long currentTime,
+                                    long currentDuration) {
+        return remainingNanos(deadline.apply(entry));
+      }
+
+      @Override
+      public long expireAfterRead(String key, Entry entry, long currentTime,
+                                  long currentDuration) {
+        return currentDuration;
+      }
+    };
+  }
+
+  /**
+   * Calcule la durée restante jusqu’à une échéance.
+   *
+   * @param deadline l’échéance
+   * @return la durée restante en nanosecondes (au moins 0)
+   */
+  private static long remainingNanos(Instant deadline) {
+    long remaining = Duration.between(Instant.now(), deadline).toNanos();
+    return Math.max(0, remaining);
+  }
+
+  /**
+   * Construit la clé de cache normalisée d’un itinéraire.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return la clé normalisée
+   */
+  static String key(String origin, String destination, String mode) {
+    return normalize(origin) + "|" + normalize(destination) + "|" +
+        normalize(mode);
+  }
+
+  /**
+   * Normalise un lieu : minuscules, accents supprimés, espaces réduits.
+   *
+   * @param value la valeur à normaliser
+   * @return la valeur normalisée
+   */
+  static String normalize(String value) {
+    if (value == null) {
+      return "";
+    }
+    String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+    String withoutAccents = DIACRITICS.matcher(decomposed).replaceAll("");
+    return SPACES.matcher(withoutAccents.toLowerCase(Locale.ROOT).trim())
+        .replaceAll(" ");
+  }
+}
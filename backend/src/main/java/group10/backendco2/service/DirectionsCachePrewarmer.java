@@ -0,0 +1,316 @@
+package group10.backendco2.service;
+
+import group10.backendco2.repository.HistoriqueTrajetRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Préchauffage planifié du cache des itinéraires, activé par
+ * {@code google.directions.prewarm.enabled=true}.
+ *
+ * Aux heures creuses ({@code google.directions.prewarm.cron}), les trajets
+ * les plus réalisés par les utilisateurs ces {@code lookback-days} derniers
+ * jours sont classés par fréquence, chaque réalisation comptant de moins en
+ * moins avec son ancienneté (demi-vie de {@code half-life-days} jours). Les
+ * itinéraires de tous les modes des {@code top-pairs} premiers sont
+ * rechargés, afin que les recherches du matin soient servies par le cache :
+ * <ul>
+ *   <li>un itinéraire encore valide au moins {@code min-remaining-minutes}
+ * n’est pas rechargé</li>
+ *   <li>un passage n’envoie pas plus de {@code max-calls} appels
+ * Directions, les trajets les mieux classés d’abord</li>
+ *   <li>le passage s’arrête après {@value #MAX_CONSECUTIVE_FAILURES} échecs
+ * consécutifs (API indisponible, disjoncteur ouvert)</li>
+ * </ul>
+ */
+@Component
+@ConditionalOnProperty(name = "google.directions.prewarm.enabled",
+                       havingValue = "true")
+public class DirectionsCachePrewarmer {
+
+  /**
+   * Trajet candidat au préchauffage.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param trips nombre de réalisations
+   * @param lastTrip date de la réalisation la plus récente
+   */
+  record Candidate(String origin, String destination, long trips,
+                   Instant lastTrip) {}
+
+  /**
+   * Bilan d’un passage de préchauffage.
+   *
+   * @param pairs nombre de trajets classés
+   * @param calls nombre d’appels Directions envoyés
+   * @param refreshed nombre d’itinéraires rechargés
+   * @param skipped nombre d’itinéraires encore valides
+   * @param failed nombre d’appels en échec
+   */
+  record Report(int pairs, int calls, int refreshed, int skipped,
+                int failed) {}
+
+  /**
+   * Nombre d’échecs consécutifs qui interrompt un passage.
+   */
+  static final int MAX_CONSECUTIVE_FAILURES = 10;
+
+  /**
+   * Nombre de trajets lus en base par trajet retenu, avant regroupement des
+   * écritures différentes d’un même trajet et classement.
+   */
+  private static final int CANDIDATES_PER_PAIR = 4;
+
+  /**
+   * Logger pour le préchauffage.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(DirectionsCachePrewarmer.class);
+
+  /**
+   * Référentiel de l’historique des trajets.
+   */
+  private final HistoriqueTrajetRepository historiqueTrajetRepository;
+
+  /**
+   * Service d’appel à Google Maps.
+   */
+  private final GoogleMapService googleMapService;
+
+  /**
+   * Cache des itinéraires.
+   */
+  private final DirectionsCache directionsCache;
+
+  /**
+   * Métriques du préchauffage.
+   */
+  private final SearchMetrics searchMetrics;
+
+  /**
+   * Nombre de trajets préchauffés.
+   */
+  private final int topPairs;
+
+  /**
+   * Période de l’historique prise en compte.
+   */
+  private final Duration lookback;
+
+  /**
+   * Demi-vie du poids d’une réalisation, en heures.
+   */
+  private final double halfLifeHours;
+
+  /**
+   * Nombre maximal d’appels Directions par passage.
+   */
+  private final int maxCalls;
+
+  /**
+   * Durée de validité restante en deçà de laquelle un itinéraire est
+   * rechargé.
+   */
+  private final Duration minRemaining;
+
+  /**
+   * Constructeur du préchauffage.
+   *
+   * @param historiqueTrajetRepository référentiel de l’historique des trajets
+   * @param googleMapService service d’appel à Google Maps
+   * @param directionsCache cache des itinéraires
+   * @param searchMetrics métriques de recherche
+   * @param topPairs nombre de trajets préchauffés
+   * @param lookbackDays période de l’historique prise en compte, en jours
+   * @param halfLifeDays demi-vie du poids d’une réalisation, en jours
+   * @param maxCalls nombre maximal d’appels Directions par passage
+   * @param minRemainingMinutes validité restante en deçà de laquelle un
+   *     itinéraire est rechargé, en minutes
+   */
+  public DirectionsCachePrewarmer(
+      HistoriqueTrajetRepository historiqueTrajetRepository,
+      GoogleMapService googleMapService, DirectionsCache directionsCache,
+      SearchMetrics searchMetrics,
+      @Value("${google.directions.prewarm.top-pairs:200}") int topPairs,
+      @Value("${google.directions.prewarm.lookback-days:30}") int lookbackDays,
+      @Value("${google.directions.prewarm.half-life-days:7}")
+      double halfLifeDays,
+      @Value("${google.directions.prewarm.max-calls:1000}") int maxCalls,
+      @Value("${google.directions.prewarm.min-remaining-minutes:240}")
+      long minRemainingMinutes) {
+    this.historiqueTrajetRepository = historiqueTrajetRepository;
+    this.googleMapService = googleMapService;
+    this.directionsCache = directionsCache;
+    this.searchMetrics = searchMetrics;
+    this.topPairs = topPairs;
+    this.lookback = Duration.ofDays(lookbackDays);
+    this.halfLifeHours = halfLifeDays * 24;
+    this.maxCalls = maxCalls;
+    this.minRemaining = Duration.ofMinutes(minRemainingMinutes);
+  }
+
+  /**
+   * Préchauffe le cache aux heures creuses.
+   */
+  @Scheduled(cron = "${google.directions.prewarm.cron:0 30 4 * * *}",
+             zone = "${google.directions.prewarm.zone:Europe/Paris}")
+  public void prewarm() {
+    long start = System.nanoTime();
+    Report report = prewarm(Instant.now());
+    logger.info("Cache des itinéraires préchauffé en {} ms : {} trajets, {} "
+                    + "appels, {} itinéraires rechargés, {} encore valides, "
+                    + "{} échecs",
+                (System.nanoTime() - start) / 1_000_000, report.pairs(),
+                report.calls(), report.refreshed(), report.skipped(),
+                report.failed());
+  }
+
+  /**
+   * Préchauffe le cache pour les trajets les mieux classés à un instant
+   * donné.
+   *
+   * @param now l’instant du passage
+   * @return le bilan du passage
+   */
+  Report prewarm(Instant now) {
+    List<Candidate> pairs = rankPairs(now);
+    Instant freshUntil = now.plus(minRemaining);
+    int calls = 0;
+    int refreshed = 0;
+    int skipped = 0;
+    int failed = 0;
+    int consecutiveFailures = 0;
+
+    pairs:
+    for (Candidate pair : pairs) {
+      for (String mode : googleMapService.getModes()) {
+        boolean fresh =
+            directionsCache.expiresAt(pair.origin(), pair.destination(), mode)
+                .filter(expiresAt -> expiresAt.isAfter(freshUntil))
+                .isPresent();
+        if (fresh) {
+          skipped++;
+          searchMetrics.recordPrewarm("skipped");
+          continue;
+        }
+        if (calls >= maxCalls) {
+          break pairs;
+        }
+        calls++;
+        if (refresh(pair, mode)) {
+          refreshed++;
+          consecutiveFailures = 0;
+          searchMetrics.recordPrewarm("refreshed");
+        } else {
+          failed++;
+          searchMetrics.recordPrewarm("failed");
+          if (++consecutiveFailures >= MAX_CONSECUTIVE_FAILURES) {
+            logger.warn("Préchauffage interrompu après {} échecs consécutifs",
+                        consecutiveFailures);
+            break pairs;
+          }
+        }
+      }
+    }
+    return new Report(pairs.size(), calls, refreshed, skipped, failed);
+  }
+
+  /**
+   * Classe les trajets réalisés pendant la période prise en compte. Les
+   * écritures d’un même trajet (casse, espaces, accents) sont regroupées.
+   *
+   * @param now l’instant du classement
+   * @return au plus {@code top-pairs} trajets, du mieux classé au moins bien
+   *     classé
+   */
+  List<Candidate> rankPairs(Instant now) {
+    List<HistoriqueTrajetRepository.PaireFrequente> rows =
+        historiqueTrajetRepository.findPairesFrequentes(
+            Date.from(now.minus(lookback)),
+            PageRequest.of(0, Math.max(1, topPairs) * CANDIDATES_PER_PAIR));
+
+    Map<String, Candidate> byKey = new LinkedHashMap<>();
+    for (HistoriqueTrajetRepository.PaireFrequente row : rows) {
+      if (isBlank(row.getOrigine()) || isBlank(row.getDestination()) ||
+          row.getDerniere() == null) {
+        continue;
+      }
+      Candidate candidate =
+          new Candidate(row.getOrigine(), row.getDestination(),
+                        row.getNombre(), row.getDerniere().toInstant());
+      byKey.merge(DirectionsCache.key(row.getOrigine(), row.getDestination(),
+                                      ""),
+                  candidate,
+                  (first, other)
+                      -> new Candidate(first.origin(), first.destination(),
+                                       first.trips() + other.trips(),
+                                       first.lastTrip().isAfter(
+                                           other.lastTrip())
+                                           ? first.lastTrip()
+                                           : other.lastTrip()));
+    }
+
+    List<Candidate> ranked = new ArrayList<>(byKey.values());
+    ranked.sort(Comparator.comparingDouble(
+                              (Candidate candidate) -> score(candidate, now))
+                    .reversed());
+    return ranked.subList(0, Math.min(topPairs, ranked.size()));
+  }
+
+  /**
+   * Calcule le poids d’un trajet : son nombre de réalisations, divisé par
+   * deux à chaque demi-vie écoulée depuis la plus récente.
+   *
+   * @param candidate le trajet
+   * @param now l’instant du classement
+   * @return le poids du trajet
+   */
+  double score(Candidate candidate, Instant now) {
+    double ageHours =
+        Math.max(0, Duration.between(candidate.lastTrip(), now).toMinutes()) /
+        60.0;
+    return candidate.trips() * Math.pow(0.5, ageHours / halfLifeHours);
+  }
+
+  /**
+   * Recharge les itinéraires d’un mode d’un trajet.
+   *
+   * @param pair le trajet
+   * @param mode le mode Google Maps
+   * @return {@code true} si l’API a répondu
+   */
+  private boolean refresh(Candidate pair, String mode) {
+    try {
+      return googleMapService.refreshMode(pair.origin(), pair.destination(),
+                                          mode);
+    } catch (RuntimeException e) {
+      logger.warn("Préchauffage de {} → {} ({}) impossible : {}",
+                  pair.origin(), pair.destination(), mode, e.getMessage());
+      return false;
+    }
+  }
+
+  /**
+   * Indique si un texte est absent ou vide.
+   *
+   * @param text le texte
+   * @return {@code true} si le texte est null ou ne contient que des espaces
+   */
+  private static boolean isBlank(String text) {
+    return text == null || text.isBlank();
+  }
+}
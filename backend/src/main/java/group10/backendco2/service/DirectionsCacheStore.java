@@ -0,0 +1,302 @@
+package group10.backendco2.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RouteModeResponse;
+import group10.backendco2.model.ItineraireCache;
+import group10.backendco2.repository.ItineraireCacheRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+/**
+ * Persistance du cache des itinéraires dans la table {@code itinerairecache}.
+ *
+ * Chaque entrée ajoutée au {@link DirectionsCache} est écrite en base avec sa
+ * date d’expiration ; au démarrage, les entrées expirées depuis moins de
+ * {@code google.directions.cache.stale-ttl-hours} sont relues pour réchauffer
+ * le cache et les derniers itinéraires connus. Les plus anciennes sont
+ * supprimées. Une erreur de base de données n’interrompt jamais
+ * une recherche : elle est seulement journalisée.
+ *
+ * Les écritures sont différées : {@link #save} les place dans une file bornée
+ * ({@code google.directions.cache.write-queue-capacity}) sans attendre la
+ * base, et un thread d’écriture les enregistre par lots d’au plus
+ * {@code google.directions.cache.write-batch-size} entrées, la dernière
+ * écriture d’une clé l’emportant. Quand la file est pleine, l’écriture est
+ * abandonnée et journalisée : l’entrée reste en mémoire et sera réécrite à
+ * son prochain chargement.
+ */
+@Component
+public class DirectionsCacheStore {
+
+  /**
+   * Logger pour la persistance du cache.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(DirectionsCacheStore.class);
+
+  /**
+   * Type de la liste d’itinéraires sérialisée.
+   */
+  private static final TypeReference<List<RouteModeResponse>> ROUTES_TYPE =
+      new TypeReference<>() {};
+
+  /**
+   * Entrée relue depuis la base.
+   *
+   * @param routes les itinéraires
+   * @param expiresAt l’instant d’expiration
+   */
+  public record StoredRoutes(List<RouteModeResponse> routes,
+                             Instant expiresAt) {}
+
+  /**
+   * Écriture en attente dans la file.
+   *
+   * @param key la clé normalisée
+   * @param routes les itinéraires
+   * @param expiresAt l’instant d’expiration
+   */
+  private record PendingWrite(String key, List<RouteModeResponse> routes,
+                              Instant expiresAt) {}
+
+  /**
+   * Référentiel des entrées persistées.
+   */
+  private final ItineraireCacheRepository repository;
+
+  /**
+   * Sérialiseur JSON des itinéraires.
+   */
+  private final ObjectMapper objectMapper;
+
+  /**
+   * Indique si la persistance est activée.
+   */
+  private final boolean enabled;
+
+  /**
+   * Durée de conservation d’une entrée après son expiration, pendant laquelle
+   * elle peut encore être servie en secours.
+   */
+  private final Duration staleTtl;
+
+  /**
+   * Écritures en attente du thread d’écriture.
+   */
+  private final BlockingQueue<PendingWrite> pending;
+
+  /**
+   * Nombre maximal d’entrées enregistrées par lot.
+   */
+  private final int batchSize;
+
+  /**
+   * Thread d’écriture, null si la persistance est désactivée.
+   */
+  private final Thread writer;
+
+  /**
+   * Indique si le thread d’écriture doit continuer.
+   */
+  private volatile boolean running = true;
+
+  /**
+   * Constructeur de la persistance du cache.
+   *
+   * @param repository le référentiel des entrées persistées
+   * @param objectMapper le sérialiseur JSON
+   * @param enabled {@code true} pour activer la persistance
+   * @param staleTtlHours durée de conservation d’une entrée après son
+   *     expiration, en heures
+   * @param queueCapacity nombre maximal d’écritures en attente
+   * @param batchSize nombre maximal d’entrées enregistrées par lot
+   */
+  public DirectionsCacheStore(
+      ItineraireCacheRepository repository, ObjectMapper objectMapper,
+      @Value("${google.directions.cache.persistent:true}") boolean enabled,
+      @Value("${google.directions.cache.stale-ttl-hours:168}")
+      long staleTtlHours,
+      @Value("${google.directions.cache.write-queue-capacity:1000}")
+      int queueCapacity,
+      @Value("${google.directions.cache.write-batch-size:100}") int batchSize) {
+    this.repository = repository;
+    this.objectMapper = objectMapper;
+    this.enabled = enabled;
+    this.staleTtl = Duration.ofHours(staleTtlHours);
+    this.pending = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+    this.writer = enabled ? Thread.ofPlatform()
+                                .name("directions-cache-writer")
+                                .daemon()
+                                .start(this::writeLoop)
+                          : null;
+  }
+
+  /**
+   * Place une entrée du cache dans la file d’écriture, sans attendre la
+   * base. L’écriture est abandonnée, et journalisée, si la file est pleine.
+   *
+   * @param key la clé normalisée
+   * @param routes les itinéraires
+   * @param expiresAt l’instant d’expiration
+   */
+  public void save(String key, List<RouteModeResponse> routes,
+                   Instant expiresAt) {
+    if (!enabled) {
+      return;
+    }
+    if (!pending.offer(new PendingWrite(key, routes, expiresAt))) {
+      logger.warn("File d’écriture du cache pleine, itinéraire {} non "
+                      + "persisté",
+                  key);
+    }
+  }
+
+  /**
+   * Boucle du thread d’écriture : attend une écriture, y ajoute celles déjà
+   * en attente dans la limite d’un lot, puis les enregistre. Un lot commencé
+   * est toujours terminé, même pendant l’arrêt.
+   */
+  private void writeLoop() {
+    List<PendingWrite> batch = new ArrayList<>(batchSize);
+    while (running) {
+      PendingWrite first;
+      try {
+        first = pending.poll(100, TimeUnit.MILLISECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+      if (first == null) {
+        continue;
+      }
+      batch.add(first);
+      pending.drainTo(batch, batchSize - 1);
+      writeBatch(batch);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Enregistre un lot d’écritures en une fois. Seule la dernière écriture
+   * de chaque clé est conservée ; une entrée non sérialisable est ignorée.
+   *
+   * @param batch les écritures, dans l’ordre d’arrivée
+   */
+  private void writeBatch(List<PendingWrite> batch) {
+    Map<String, ItineraireCache> entries = new LinkedHashMap<>();
+    for (PendingWrite write : batch) {
+      try {
+        entries.put(write.key(), new ItineraireCache(
+                                     write.key(),
+                                     objectMapper.writeValueAsString(
+                                         write.routes()),
+                                     write.expiresAt()));
+      } catch (Exception e) {
+        logger.warn("Impossible de sérialiser l’itinéraire {}", write.key(),
+                    e);
+      }
+    }
+    if (entries.isEmpty()) {
+      return;
+    }
+    try {
+      repository.saveAll(entries.values());
+    } catch (Exception e) {
+      logger.warn("Impossible de persister {} itinéraires", entries.size(),
+                  e);
+    }
+  }
+
+  /**
+   * Enregistre immédiatement les écritures encore en attente.
+   */
+  void flush() {
+    List<PendingWrite> batch = new ArrayList<>();
+    while (pending.drainTo(batch, batchSize) > 0) {
+      writeBatch(batch);
+      batch.clear();
+    }
+  }
+
+  /**
+   * Arrête le thread d’écriture à l’arrêt de l’application, puis enregistre
+   * les écritures encore en attente.
+   *
+   * @throws InterruptedException si l’arrêt est interrompu
+   */
+  @PreDestroy
+  public void shutdown() throws InterruptedException {
+    if (writer == null) {
+      return;
+    }
+    running = false;
+    writer.join(5_000);
+    flush();
+  }
+
+  /**
+   * Supprime les entrées expirées depuis plus de {@code stale-ttl-hours}, puis
+   * relit les plus récentes des autres, y compris celles déjà expirées qui
+   * peuvent encore être servies en secours.
+   *
+   * @param limit le nombre maximal d’entrées à relire
+   * @return les entrées, indexées par clé
+   */
+  public Map<String, StoredRoutes> loadRecent(int limit) {
+    Map<String, StoredRoutes> loaded = new LinkedHashMap<>();
+    if (!enabled) {
+      return loaded;
+    }
+    try {
+      Instant staleSince = Instant.now().minus(staleTtl);
+      repository.deleteByDateExpirationBefore(staleSince);
+      for (ItineraireCache entry :
+           repository.findByDateExpirationAfterOrderByDateExpirationDesc(
+               staleSince, PageRequest.of(0, limit))) {
+        try {
+          List<RouteModeResponse> routes =
+              objectMapper.readValue(entry.getItineraires(), ROUTES_TYPE);
+          loaded.put(entry.getCle(),
+                     new StoredRoutes(routes, entry.getDateExpiration()));
+        } catch (Exception e) {
+          logger.warn("Entrée de cache illisible ignorée : {}",
+                      entry.getCle());
+        }
+      }
+    } catch (Exception e) {
+      logger.warn("Impossible de relire le cache des itinéraires", e);
+    }
+    return loaded;
+  }
+
+  /**
+   * Supprime toutes les entrées persistées, ainsi que les écritures encore
+   * en attente.
+   */
+  public void deleteAll() {
+    if (!enabled) {
+      return;
+    }
+    pending.clear();
+    try {
+      repository.deleteAll();
+    } catch (Exception e) {
+      logger.warn("Impossible de vider le cache des itinéraires", e);
+    }
+  }
+}
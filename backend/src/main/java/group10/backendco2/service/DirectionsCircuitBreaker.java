@@ -0,0 +1,376 @@
+package group10.backendco2.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Disjoncteur des appels à l’API Google Maps Directions : quand l’API échoue
+ * ou ralentit durablement, les appels sont évités pendant un délai au lieu
+ * d’attendre chacun leur propre échec.
+ *
+ * <ul>
+ *   <li>fermé : les appels passent, et les {@code window-size} derniers sont
+ * comptés. Dès {@code minimum-calls} appels, le disjoncteur s’ouvre si la
+ * part d’échecs atteint {@code failure-rate-threshold} % ou celle d’appels
+ * lents (au moins {@code slow-call-ms}) atteint
+ * {@code slow-call-rate-threshold} %</li>
+ *   <li>ouvert : les appels sont refusés pendant {@code open-ms}</li>
+ *   <li>semi-ouvert : {@code half-open-probes} appels d’essai passent ; un
+ * échec ou un appel lent rouvre le disjoncteur, la réussite de tous le
+ * referme</li>
+ * </ul>
+ * L’état est publié par la jauge {@code directions.circuit.state} (0 fermé,
+ * 1 semi-ouvert, 2 ouvert) et par l’indicateur de santé
+ * {@link DirectionsCircuitBreakerHealthIndicator}.
+ */
+@Component
+public class DirectionsCircuitBreaker {
+
+  /**
+   * États du disjoncteur, dans l’ordre de la jauge.
+   */
+  public enum State {
+    /** Les appels passent. */
+    CLOSED,
+    /** Quelques appels d’essai passent. */
+    HALF_OPEN,
+    /** Les appels sont refusés. */
+    OPEN
+  }
+
+  /**
+   * Appel Directions évité car le disjoncteur est ouvert.
+   */
+  public static class OpenException extends RuntimeException {
+    /**
+     * Constructeur du refus.
+     *
+     * @param mode le mode Google Maps
+     */
+    OpenException(String mode) {
+      super("Appel Directions évité, disjoncteur ouvert (" + mode + ")");
+    }
+  }
+
+  /**
+   * État du disjoncteur et des derniers appels comptés.
+   *
+   * @param state l’état
+   * @param calls le nombre d’appels comptés
+   * @param failures le nombre d’échecs parmi eux
+   * @param slowCalls le nombre d’appels lents parmi eux
+   */
+  public record Snapshot(State state, int calls, int failures,
+                         int slowCalls) {}
+
+  /**
+   * Logger pour le disjoncteur.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(DirectionsCircuitBreaker.class);
+
+  /**
+   * Indique si le disjoncteur est activé.
+   */
+  private final boolean enabled;
+
+  /**
+   * Nombre minimal d’appels comptés avant de pouvoir ouvrir.
+   */
+  private final int minimumCalls;
+
+  /**
+   * Part d’échecs, en pourcentage, qui ouvre le disjoncteur.
+   */
+  private final double failureRateThreshold;
+
+  /**
+   * Durée à partir de laquelle un appel est lent, en nanosecondes.
+   */
+  private final long slowCallNanos;
+
+  /**
+   * Part d’appels lents, en pourcentage, qui ouvre le disjoncteur.
+   */
+  private final double slowCallRateThreshold;
+
+  /**
+   * Durée d’ouverture, en nanosecondes.
+   */
+  private final long openNanos;
+
+  /**
+   * Nombre d’appels d’essai à l’état semi-ouvert.
+   */
+  private final int halfOpenProbes;
+
+  /**
+   * Horloge, en nanosecondes.
+   */
+  private final LongSupplier clock;
+
+  /**
+   * Échecs des derniers appels, en tampon circulaire.
+   */
+  private final boolean[] failed;
+
+  /**
+   * Lenteur des derniers appels, en tampon circulaire.
+   */
+  private final boolean[] slow;
+
+  /**
+   * Position du prochain appel dans les tampons.
+   */
+  private int next;
+
+  /**
+   * Nombre d’appels comptés.
+   */
+  private int calls;
+
+  /**
+   * Nombre d’échecs comptés.
+   */
+  private int failures;
+
+  /**
+   * Nombre d’appels lents comptés.
+   */
+  private int slowCalls;
+
+  /**
+   * État courant.
+   */
+  private State state = State.CLOSED;
+
+  /**
+   * Instant de la dernière ouverture, en nanosecondes.
+   */
+  private long openedAt;
+
+  /**
+   * Appels d’essai en cours.
+   */
+  private int probesInFlight;
+
+  /**
+   * Appels d’essai réussis.
+   */
+  private int probeSuccesses;
+
+  /**
+   * Constructeur du disjoncteur.
+   *
+   * @param registry registre Micrometer recevant la jauge d’état
+   * @param enabled {@code true} pour activer le disjoncteur
+   * @param windowSize nombre de derniers appels comptés
+   * @param minimumCalls nombre minimal d’appels avant de pouvoir ouvrir
+   * @param failureRateThreshold part d’échecs qui ouvre, en pourcentage
+   * @param slowCallMs durée d’un appel lent, en millisecondes
+   * @param slowCallRateThreshold part d’appels lents qui ouvre, en
+   *     pourcentage
+   * @param openMs durée d’ouverture, en millisecondes
+   * @param halfOpenProbes nombre d’appels d’essai à l’état semi-ouvert
+   */
+  @Autowired
+  public DirectionsCircuitBreaker(
+      MeterRegistry registry,
+      @Value("${google.directions.breaker.enabled:true}") boolean enabled,
+      @Value("${google.directions.breaker.window-size:20}") int windowSize,
+      @Value("${google.directions.breaker.minimum-calls:10}") int minimumCalls,
+      @Value("${google.directions.breaker.failure-rate-threshold:50}")
+      double failureRateThreshold,
+      @Value("${google.directions.breaker.slow-call-ms:5000}") long slowCallMs,
+      @Value("${google.directions.breaker.slow-call-rate-threshold:80}")
+      double slowCallRateThreshold,
+      @Value("${google.directions.breaker.open-ms:30000}") long openMs,
+      @Value("${google.directions.breaker.half-open-probes:3}")
+      int halfOpenProbes) {
+    this(registry, enabled, windowSize, minimumCalls, failureRateThreshold,
+         slowCallMs, slowCallRateThreshold, openMs, halfOpenProbes,
+         System::nanoTime);
+  }
+
+  /**
+   * Constructeur du disjoncteur avec une horloge donnée.
+   *
+   * @param registry registre Micrometer, ou null sans jauge
+   * @param enabled {@code true} pour activer le disjoncteur
+   * @param windowSize nombre de derniers appels comptés
+   * @param minimumCalls nombre minimal d’appels avant de pouvoir ouvrir
+   * @param failureRateThreshold part d’échecs qui ouvre, en pourcentage
+   * @param slowCallMs durée d’un appel lent, en millisecondes
+   * @param slowCallRateThreshold part d’appels lents qui ouvre, en
+   *     pourcentage
+   * @param openMs durée d’ouverture, en millisecondes
+   * @param halfOpenProbes nombre d’appels d’essai à l’état semi-ouvert
+   * @param clock horloge, en nanosecondes
+   */
+  DirectionsCircuitBreaker(MeterRegistry registry, boolean enabled,
+                           int windowSize, int minimumCalls,
+                           double failureRateThreshold, long slowCallMs,
+                           double slowCallRateThreshold, long openMs,
+                           int halfOpenProbes, LongSupplier clock) {
+    this.enabled = enabled;
+    this.minimumCalls = Math.max(1, minimumCalls);
+    this.failureRateThreshold = failureRateThreshold;
+    this.slowCallNanos = TimeUnit.MILLISECONDS.toNanos(slowCallMs);
+    this.slowCallRateThreshold = slowCallRateThreshold;
+    this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMs);
+    this.halfOpenProbes = Math.max(1, halfOpenProbes);
+    this.clock = clock;
+    this.failed = new boolean[Math.max(1, windowSize)];
+    this.slow = new boolean[failed.length];
+    if (registry != null) {
+      Gauge.builder("directions.circuit.state", this,
+                    breaker -> breaker.state().ordinal())
+          .description("État du disjoncteur Directions")
+          .register(registry);
+    }
+  }
+
+  /**
+   * Crée un disjoncteur désactivé, qui laisse passer tous les appels.
+   *
+   * @return le disjoncteur
+   */
+  static DirectionsCircuitBreaker disabled() {
+    return new DirectionsCircuitBreaker(null, false, 1, 1, 100, 0, 100, 0, 1,
+                                        System::nanoTime);
+  }
+
+  /**
+   * Demande l’autorisation d’un appel. Un appel autorisé doit ensuite être
+   * signalé par {@link #onResult} ou, s’il n’a pas été envoyé, par
+   * {@link #onIgnored}.
+   *
+   * @return {@code true} si l’appel peut être envoyé
+   */
+  public synchronized boolean tryAcquire() {
+    if (!enabled) {
+      return true;
+    }
+    if (state == State.OPEN) {
+      if (clock.getAsLong() - openedAt < openNanos) {
+        return false;
+      }
+      transition(State.HALF_OPEN);
+    }
+    if (state == State.HALF_OPEN) {
+      if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+        return false;
+      }
+      probesInFlight++;
+    }
+    return true;
+  }
+
+  /**
+   * Signale la fin d’un appel autorisé.
+   *
+   * @param success {@code true} si l’API a répondu
+   * @param nanos la durée de l’appel, en nanosecondes
+   */
+  public synchronized void onResult(boolean success, long nanos) {
+    if (!enabled) {
+      return;
+    }
+    boolean isSlow = nanos >= slowCallNanos;
+    if (state == State.HALF_OPEN) {
+      if (probesInFlight == 0) {
+        return;
+      }
+      probesInFlight--;
+      if (!success || isSlow) {
+        transition(State.OPEN);
+      } else if (++probeSuccesses >= halfOpenProbes) {
+        transition(State.CLOSED);
+      }
+    } else if (state == State.CLOSED) {
+      record(!success, isSlow);
+      if (calls >= minimumCalls &&
+          (failures * 100.0 >= failureRateThreshold * calls ||
+           slowCalls * 100.0 >= slowCallRateThreshold * calls)) {
+        transition(State.OPEN);
+      }
+    }
+  }
+
+  /**
+   * Signale qu’un appel autorisé n’a finalement pas été envoyé (refus du
+   * limiteur par exemple), pour libérer sa place d’appel d’essai.
+   */
+  public synchronized void onIgnored() {
+    if (state == State.HALF_OPEN && probesInFlight > 0) {
+      probesInFlight--;
+    }
+  }
+
+  /**
+   * Retourne l’état courant.
+   *
+   * @return l’état
+   */
+  public synchronized State state() { return state; }
+
+  /**
+   * Retourne l’état courant et les derniers appels comptés.
+   *
+   * @return l’état
+   */
+  public synchronized Snapshot snapshot() {
+    return new Snapshot(state, calls, failures, slowCalls);
+  }
+
+  /**
+   * Compte un appel dans les tampons, en remplaçant le plus ancien s’ils
+   * sont pleins.
+   *
+   * @param isFailure {@code true} si l’appel a échoué
+   * @param isSlow {@code true} si l’appel a été lent
+   */
+  private void record(boolean isFailure, boolean isSlow) {
+    if (calls == failed.length) {
+      failures -= failed[next] ? 1 : 0;
+      slowCalls -= slow[next] ? 1 : 0;
+    } else {
+      calls++;
+    }
+    failed[next] = isFailure;
+    slow[next] = isSlow;
+    failures += isFailure ? 1 : 0;
+    slowCalls += isSlow ? 1 : 0;
+    next = (next + 1) % failed.length;
+  }
+
+  /**
+   * Change d’état en remettant les compteurs à zéro.
+   *
+   * @param target le nouvel état
+   */
+  private void transition(State target) {
+    if (target == State.OPEN) {
+      openedAt = clock.getAsLong();
+      logger.warn("Disjoncteur Directions ouvert depuis l’état {} ({} échecs "
+                      + "et {} appels lents sur {} appels)",
+                  state, failures, slowCalls, calls);
+    } else if (target == State.CLOSED) {
+      logger.info("Disjoncteur Directions refermé");
+    }
+    state = target;
+    next = 0;
+    calls = 0;
+    failures = 0;
+    slowCalls = 0;
+    probesInFlight = 0;
+    probeSuccesses = 0;
+  }
+}
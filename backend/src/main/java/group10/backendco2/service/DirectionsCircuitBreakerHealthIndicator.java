@@ -0,0 +1,51 @@
+package group10.backendco2.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Indicateur de santé {@code directionsCircuitBreaker} de l’actuator
+ * ({@code /actuator/health}) : l’état du disjoncteur des appels Directions.
+ *
+ * Le disjoncteur ouvert rend l’état {@code DEGRADED} : l’application reste
+ * disponible (les derniers itinéraires connus sont servis), mais ses
+ * résultats peuvent être périmés ou incomplets.
+ */
+@Component
+@RequiredArgsConstructor
+public class DirectionsCircuitBreakerHealthIndicator
+    implements HealthIndicator {
+
+  /**
+   * État rendu quand le disjoncteur est ouvert.
+   */
+  public static final Status DEGRADED = new Status("DEGRADED");
+
+  /**
+   * Disjoncteur des appels Directions.
+   */
+  private final DirectionsCircuitBreaker circuitBreaker;
+
+  /**
+   * Construit l’état de santé à partir de l’état du disjoncteur.
+   *
+   * @return l’état de santé, avec l’état du disjoncteur et les derniers
+   *     appels comptés
+   */
+  @Override
+  public Health health() {
+    DirectionsCircuitBreaker.Snapshot snapshot = circuitBreaker.snapshot();
+    Health.Builder builder =
+        snapshot.state() == DirectionsCircuitBreaker.State.OPEN
+            ? Health.status(DEGRADED)
+            : Health.up();
+    return builder.withDetail("state", snapshot.state())
+        .withDetail("calls", snapshot.calls())
+        .withDetail("failures", snapshot.failures())
+        .withDetail("slowCalls", snapshot.slowCalls())
+        .build();
+  }
+}
@@ -0,0 +1,50 @@
+package group10.backendco2.service;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Transport utilisé par {@link GoogleMapService} pour appeler l’API Google
+ * Maps Directions.
+ *
+ * Permet de remplacer l’implémentation HTTP (client réel, bouchon de test,
+ * etc.) sans modifier le code d’analyse des itinéraires.
+ */
+public interface DirectionsClient {
+
+  /**
+   * Exécute une requête GET et retourne le corps de la réponse.
+   *
+   * @param url l’URL complète à appeler
+   * @return le corps de la réponse HTTP
+   * @throws IOException en cas d’erreur réseau, de délai dépassé ou de code
+   *     HTTP non 2xx
+   * @throws InterruptedException si le thread appelant est interrompu
+   */
+  String get(String url) throws IOException, InterruptedException;
+
+  /**
+   * Exécute une requête GET sans bloquer l’appelant.
+   *
+   * L’implémentation par défaut délègue à {@link #get(String)} dans un thread
+   * virtuel ; un client capable d’E/S asynchrones la remplace pour ne mobiliser
+   * aucun thread pendant l’attente de la réponse.
+   *
+   * @param url l’URL complète à appeler
+   * @return le corps de la réponse HTTP, ou un échec portant la même
+   *     exception que {@link #get(String)}
+   */
+  default CompletableFuture<String> getAsync(String url) {
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return get(url);
+      } catch (IOException e) {
+        throw new CompletionException(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(e);
+      }
+    }, task -> Thread.ofVirtual().start(task));
+  }
+}
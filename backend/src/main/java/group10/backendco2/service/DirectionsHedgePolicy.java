@@ -0,0 +1,275 @@
+package group10.backendco2.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Politique de doublement (« hedging ») des appels Directions lents : si
+ * l’appel d’un mode concerné n’a pas répondu au bout du centile
+ * {@code google.directions.hedging.percentile} de ses durées récentes, un
+ * second appel identique est envoyé et la première réponse l’emporte.
+ *
+ * <ul>
+ *   <li>le délai est calculé sur les {@code window-size} derniers appels
+ * réussis du mode, à partir de {@code min-samples} appels, sans descendre
+ * sous {@code min-delay-ms}</li>
+ *   <li>chaque appel d’un mode concerné crédite le budget de
+ * {@code budget-percent} % d’appel, dans la limite de {@code budget-burst}
+ * appels ; un doublement consomme un appel. Les doublements restent ainsi
+ * sous {@code budget-percent} % du trafic de ces modes</li>
+ * </ul>
+ */
+@Component
+public class DirectionsHedgePolicy {
+
+  /**
+   * Durées des derniers appels réussis d’un mode, en tampon circulaire.
+   */
+  static final class LatencyWindow {
+    /**
+     * Nombre de nouvelles durées après lequel le délai est recalculé.
+     */
+    private static final int REFRESH_EVERY = 16;
+
+    /**
+     * Durées, en nanosecondes.
+     */
+    private final long[] samples;
+
+    /**
+     * Nombre de durées enregistrées (au plus la taille du tampon).
+     */
+    private int count;
+
+    /**
+     * Position de la prochaine durée.
+     */
+    private int next;
+
+    /**
+     * Durées enregistrées depuis le dernier calcul du centile.
+     */
+    private int sinceRefresh = REFRESH_EVERY;
+
+    /**
+     * Centile du dernier calcul.
+     */
+    private double cachedFor = Double.NaN;
+
+    /**
+     * Dernier centile calculé, en nanosecondes.
+     */
+    private long cachedPercentile;
+
+    /**
+     * Constructeur d’un tampon vide.
+     *
+     * @param size le nombre de durées conservées
+     */
+    LatencyWindow(int size) { this.samples = new long[Math.max(1, size)]; }
+
+    /**
+     * Enregistre une durée, en remplaçant la plus ancienne si le tampon est
+     * plein.
+     *
+     * @param nanos la durée, en nanosecondes
+     */
+    synchronized void record(long nanos) {
+      samples[next] = nanos;
+      next = (next + 1) % samples.length;
+      count = Math.min(count + 1, samples.length);
+      sinceRefresh++;
+    }
+
+    /**
+     * Retourne le nombre de durées enregistrées.
+     *
+     * @return le nombre de durées
+     */
+    synchronized int count() { return count; }
+
+    /**
+     * Calcule un centile des durées enregistrées, recalculé toutes les
+     * {@value #REFRESH_EVERY} nouvelles durées ou pour un autre centile.
+     *
+     * @param percentile le centile, entre 0 et 100
+     * @return le centile, en nanosecondes (0 sans durée)
+     */
+    synchronized long percentile(double percentile) {
+      if (count == 0) {
+        return 0;
+      }
+      if (sinceRefresh >= REFRESH_EVERY || percentile != cachedFor) {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int)Math.ceil(percentile / 100 * count) - 1;
+        cachedPercentile = sorted[Math.max(0, Math.min(count - 1, rank))];
+        cachedFor = percentile;
+        sinceRefresh = 0;
+      }
+      return cachedPercentile;
+    }
+  }
+
+  /**
+   * Indique si le doublement est activé.
+   */
+  private final boolean enabled;
+
+  /**
+   * Modes Google Maps dont les appels peuvent être doublés.
+   */
+  private final Set<String> modes;
+
+  /**
+   * Centile des durées au-delà duquel un appel est doublé.
+   */
+  private final double percentile;
+
+  /**
+   * Délai minimal avant un doublement, en nanosecondes.
+   */
+  private final long minDelayNanos;
+
+  /**
+   * Nombre de durées conservées par mode.
+   */
+  private final int windowSize;
+
+  /**
+   * Nombre minimal de durées avant de doubler un appel.
+   */
+  private final int minSamples;
+
+  /**
+   * Crédit de doublement apporté par chaque appel.
+   */
+  private final double budgetRatio;
+
+  /**
+   * Nombre maximal de doublements accumulés dans le budget.
+   */
+  private final double budgetBurst;
+
+  /**
+   * Durées récentes, par mode.
+   */
+  private final Map<String, LatencyWindow> windows = new ConcurrentHashMap<>();
+
+  /**
+   * Doublements disponibles dans le budget.
+   */
+  private double budget;
+
+  /**
+   * Constructeur de la politique de doublement.
+   *
+   * @param enabled {@code true} pour activer le doublement
+   * @param modes modes Google Maps dont les appels peuvent être doublés
+   * @param percentile centile des durées au-delà duquel un appel est doublé
+   * @param minDelayMs délai minimal avant un doublement, en millisecondes
+   * @param windowSize nombre de durées conservées par mode
+   * @param minSamples nombre minimal de durées avant de doubler
+   * @param budgetPercent part maximale de doublements, en pourcentage des
+   *     appels des modes concernés
+   * @param budgetBurst nombre maximal de doublements accumulés
+   */
+  public DirectionsHedgePolicy(
+      @Value("${google.directions.hedging.enabled:false}") boolean enabled,
+      @Value("${google.directions.hedging.modes:transit}") Set<String> modes,
+      @Value("${google.directions.hedging.percentile:95}") double percentile,
+      @Value("${google.directions.hedging.min-delay-ms:100}") long minDelayMs,
+      @Value("${google.directions.hedging.window-size:500}") int windowSize,
+      @Value("${google.directions.hedging.min-samples:50}") int minSamples,
+      @Value("${google.directions.hedging.budget-percent:5}")
+      double budgetPercent,
+      @Value("${google.directions.hedging.budget-burst:10}")
+      int budgetBurst) {
+    this.enabled = enabled;
+    this.modes = Set.copyOf(modes);
+    this.percentile = percentile;
+    this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+    this.windowSize = windowSize;
+    this.minSamples = Math.max(1, minSamples);
+    this.budgetRatio = budgetPercent / 100;
+    this.budgetBurst = Math.max(1, budgetBurst);
+  }
+
+  /**
+   * Crée une politique désactivée, qui ne double aucun appel.
+   *
+   * @return la politique
+   */
+  static DirectionsHedgePolicy disabled() {
+    return new DirectionsHedgePolicy(false, Set.of(), 100, 0, 1, 1, 0, 1);
+  }
+
+  /**
+   * Indique si les appels d’un mode peuvent être doublés.
+   *
+   * @param mode le mode Google Maps
+   * @return {@code true} si le doublement est activé pour ce mode
+   */
+  public boolean appliesTo(String mode) {
+    return enabled && modes.contains(mode);
+  }
+
+  /**
+   * Enregistre un appel d’un mode concerné, qui crédite le budget, et
+   * retourne le délai après lequel le doubler.
+   *
+   * @param mode le mode Google Maps
+   * @return le délai, en nanosecondes, ou -1 tant que trop peu d’appels ont
+   *     été mesurés
+   */
+  public long hedgeDelayNanos(String mode) {
+    synchronized (this) {
+      budget = Math.min(budgetBurst, budget + budgetRatio);
+    }
+    LatencyWindow window = window(mode);
+    if (window.count() < minSamples) {
+      return -1;
+    }
+    return Math.max(minDelayNanos, window.percentile(percentile));
+  }
+
+  /**
+   * Consomme un doublement du budget, s’il en reste.
+   *
+   * @return {@code true} si l’appel peut être doublé
+   */
+  public synchronized boolean tryHedge() {
+    if (budget < 1) {
+      return false;
+    }
+    budget -= 1;
+    return true;
+  }
+
+  /**
+   * Enregistre la durée d’un appel réussi d’un mode concerné.
+   *
+   * @param mode le mode Google Maps
+   * @param nanos la durée, en nanosecondes
+   */
+  public void record(String mode, long nanos) {
+    if (appliesTo(mode)) {
+      window(mode).record(nanos);
+    }
+  }
+
+  /**
+   * Retourne les durées récentes d’un mode, en les créant au premier appel.
+   *
+   * @param mode le mode Google Maps
+   * @return les durées
+   */
+  private LatencyWindow window(String mode) {
+    return windows.computeIfAbsent(mode, key -> new LatencyWindow(windowSize));
+  }
+}
@@ -0,0 +1,367 @@
+package group10.backendco2.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Limite les appels à l’API Google Maps Directions pour ne pas dépasser le
+ * quota de la clé API.
+ *
+ * Deux limites s’appliquent à la clé (tous modes confondus) et, si elles
+ * sont configurées, à chaque mode :
+ * <ul>
+ *   <li>un débit, par seau à jetons ({@code rate-per-second}, avec une
+ * rafale de {@code burst} appels pour la clé)</li>
+ *   <li>un nombre d’appels simultanés ({@code max-concurrent}), qui compte
+ * aussi les appels en attente d’un jeton</li>
+ * </ul>
+ * Un appel attend son tour au plus {@code google.directions.limiter
+ * .max-wait-ms} ; au-delà, ou dès que l’attente prévue pour un jeton dépasse
+ * ce délai, il est refusé par une {@link RejectedException}. Les attentes et
+ * les refus sont publiés par {@link SearchMetrics}.
+ */
+@Component
+public class DirectionsRateLimiter {
+
+  /**
+   * Appel Directions refusé par le limiteur.
+   */
+  public static class RejectedException extends RuntimeException {
+    /**
+     * Limite atteinte ({@code rate} ou {@code concurrency}).
+     */
+    private final String reason;
+
+    /**
+     * Constructeur du refus.
+     *
+     * @param mode le mode Google Maps
+     * @param reason la limite atteinte
+     */
+    RejectedException(String mode, String reason) {
+      super("Appel Directions refusé (" + mode + ", " + reason + ")");
+      this.reason = reason;
+    }
+
+    /**
+     * Retourne la limite atteinte.
+     *
+     * @return {@code rate} ou {@code concurrency}
+     */
+    public String getReason() { return reason; }
+  }
+
+  /**
+   * Autorisation d’appel, à fermer une fois la réponse reçue.
+   */
+  public interface Permit extends AutoCloseable {
+    /**
+     * Libère les places d’appels simultanés de l’autorisation.
+     */
+    @Override void close();
+  }
+
+  /**
+   * Seau à jetons : les jetons se remplissent au débit configuré jusqu’à la
+   * rafale. Un appel sans jeton disponible en réserve un à l’avance (le
+   * solde devient négatif) et attend qu’il soit rempli.
+   */
+  static final class TokenBucket {
+    /**
+     * Jetons ajoutés par nanoseconde.
+     */
+    private final double tokensPerNano;
+    /**
+     * Nombre maximal de jetons accumulés.
+     */
+    private final double burst;
+    /**
+     * Solde de jetons, négatif si des jetons sont réservés.
+     */
+    private double tokens;
+    /**
+     * Instant du dernier remplissage, en nanosecondes.
+     */
+    private long refilledAt;
+
+    /**
+     * Constructeur d’un seau plein.
+     *
+     * @param ratePerSecond le débit, en jetons par seconde
+     * @param burst la rafale
+     * @param now l’instant courant, en nanosecondes
+     */
+    TokenBucket(double ratePerSecond, double burst, long now) {
+      this.tokensPerNano = ratePerSecond / 1e9;
+      this.burst = burst;
+      this.tokens = burst;
+      this.refilledAt = now;
+    }
+
+    /**
+     * Calcule l’attente avant le prochain jeton disponible.
+     *
+     * @param now l’instant courant, en nanosecondes
+     * @return l’attente, en nanosecondes (0 si un jeton est disponible)
+     */
+    long waitNanos(long now) {
+      tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+      refilledAt = now;
+      return tokens >= 1 ? 0 : (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /**
+     * Prend (ou réserve) un jeton.
+     */
+    void take() { tokens -= 1; }
+
+    /**
+     * Rend un jeton pris ou réservé, pour un appel finalement abandonné.
+     */
+    void refund() { tokens += 1; }
+  }
+
+  /**
+   * Limites d’une clé ou d’un mode.
+   *
+   * @param bucket le seau à jetons, ou null sans limite de débit
+   * @param concurrency les places d’appels simultanés, ou null sans limite
+   */
+  private record Limits(TokenBucket bucket, Semaphore concurrency) {}
+
+  /**
+   * Autorisation sans limite, quand le limiteur est désactivé.
+   */
+  private static final Permit UNLIMITED = () -> {};
+
+  /**
+   * Métriques des attentes et des refus.
+   */
+  private final SearchMetrics searchMetrics;
+
+  /**
+   * Indique si le limiteur est activé.
+   */
+  private final boolean enabled;
+
+  /**
+   * Attente maximale d’un appel, en nanosecondes.
+   */
+  private final long maxWaitNanos;
+
+  /**
+   * Limites de la clé API.
+   */
+  private final Limits keyLimits;
+
+  /**
+   * Limites propres à certains modes.
+   */
+  private final Map<String, Limits> modeLimits = new HashMap<>();
+
+  /**
+   * Constructeur du limiteur. Un débit ou un nombre d’appels simultanés
+   * inférieur ou égal à 0 désactive la limite correspondante.
+   *
+   * @param searchMetrics les métriques de recherche
+   * @param enabled {@code true} pour activer le limiteur
+   * @param maxWaitMs attente maximale d’un appel
+   * @param keyRate débit de la clé, en appels par seconde
+   * @param keyBurst rafale de la clé
+   * @param keyMaxConcurrent appels simultanés de la clé
+   * @param modeRates débit par mode, en appels par seconde
+   * @param modeMaxConcurrent appels simultanés par mode
+   */
+  public DirectionsRateLimiter(
+      SearchMetrics searchMetrics,
+      @Value("${google.directions.limiter.enabled:true}") boolean enabled,
+      @Value("${google.directions.limiter.max-wait-ms:2000}") long maxWaitMs,
+      @Value("${google.directions.limiter.key.rate-per-second:50}")
+      double keyRate,
+      @Value("${google.directions.limiter.key.burst:50}") int keyBurst,
+      @Value("${google.directions.limiter.key.max-concurrent:32}")
+      int keyMaxConcurrent,
+      @Value("#{${google.directions.limiter.mode.rate-per-second:{:}}}")
+      Map<String, Double> modeRates,
+      @Value("#{${google.directions.limiter.mode.max-concurrent:{:}}}")
+      Map<String, Integer> modeMaxConcurrent) {
+    this.searchMetrics = searchMetrics;
+    this.enabled = enabled;
+    this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+    long now = System.nanoTime();
+    this.keyLimits = limits(keyRate, keyBurst, keyMaxConcurrent, now);
+    List<String> modes = new ArrayList<>(modeRates.keySet());
+    modes.addAll(modeMaxConcurrent.keySet());
+    for (String mode : modes) {
+      double rate = modeRates.getOrDefault(mode, 0.0);
+      modeLimits.put(mode,
+                     limits(rate, Math.max(1, Math.ceil(rate)),
+                            modeMaxConcurrent.getOrDefault(mode, 0), now));
+    }
+  }
+
+  /**
+   * Crée un limiteur désactivé, qui autorise tous les appels.
+   *
+   * @return le limiteur
+   */
+  static DirectionsRateLimiter unlimited() {
+    return new DirectionsRateLimiter(null, false, 0, 0, 0, 0, Map.of(),
+                                     Map.of());
+  }
+
+  /**
+   * Construit les limites d’une clé ou d’un mode.
+   *
+   * @param rate le débit, en appels par seconde
+   * @param burst la rafale
+   * @param maxConcurrent le nombre d’appels simultanés
+   * @param now l’instant courant, en nanosecondes
+   * @return les limites
+   */
+  private static Limits limits(double rate, double burst, int maxConcurrent,
+                               long now) {
+    return new Limits(rate > 0 ? new TokenBucket(rate, burst, now) : null,
+                      maxConcurrent > 0 ? new Semaphore(maxConcurrent, true)
+                                        : null);
+  }
+
+  /**
+   * Attend l’autorisation d’un appel Directions : une place d’appel
+   * simultané puis un jeton, pour la clé et pour le mode.
+   *
+   * @param mode le mode Google Maps
+   * @return l’autorisation, à fermer une fois la réponse reçue
+   * @throws RejectedException si l’autorisation ne peut pas être obtenue
+   *     dans le délai
+   * @throws InterruptedException si l’attente est interrompue
+   */
+  public Permit acquire(String mode) throws InterruptedException {
+    if (!enabled) {
+      return UNLIMITED;
+    }
+    long start = System.nanoTime();
+    long deadline = start + maxWaitNanos;
+    Limits forMode = modeLimits.get(mode);
+    List<Semaphore> held = new ArrayList<>(2);
+    boolean reserved = false;
+    try {
+      acquireSlot(keyLimits.concurrency(), mode, deadline, held);
+      if (forMode != null) {
+        acquireSlot(forMode.concurrency(), mode, deadline, held);
+      }
+      long wait = reserveToken(forMode, mode, deadline);
+      reserved = true;
+      if (wait > 0) {
+        TimeUnit.NANOSECONDS.sleep(wait);
+      }
+    } catch (RuntimeException | InterruptedException e) {
+      if (reserved) {
+        refundToken(forMode);
+      }
+      held.forEach(Semaphore::release);
+      throw e;
+    }
+    searchMetrics.recordLimiterWait(mode, System.nanoTime() - start);
+
+    AtomicBoolean released = new AtomicBoolean();
+    return () -> {
+      if (released.compareAndSet(false, true)) {
+        held.forEach(Semaphore::release);
+      }
+    };
+  }
+
+  /**
+   * Prend une place d’appel simultané avant l’échéance.
+   *
+   * @param slots les places, ou null sans limite
+   * @param mode le mode Google Maps
+   * @param deadline l’échéance, en nanosecondes
+   * @param held les places déjà prises, complétées par celle-ci
+   * @throws RejectedException si aucune place ne se libère à temps
+   * @throws InterruptedException si l’attente est interrompue
+   */
+  private void acquireSlot(Semaphore slots, String mode, long deadline,
+                           List<Semaphore> held) throws InterruptedException {
+    if (slots == null) {
+      return;
+    }
+    if (!slots.tryAcquire(deadline - System.nanoTime(),
+                          TimeUnit.NANOSECONDS)) {
+      throw reject(mode, "concurrency");
+    }
+    held.add(slots);
+  }
+
+  /**
+   * Réserve un jeton de la clé et du mode, si les deux peuvent être obtenus
+   * avant l’échéance.
+   *
+   * @param forMode les limites du mode, ou null
+   * @param mode le mode Google Maps
+   * @param deadline l’échéance, en nanosecondes
+   * @return l’attente avant de pouvoir appeler, en nanosecondes
+   * @throws RejectedException si l’attente dépasserait l’échéance
+   */
+  private long reserveToken(Limits forMode, String mode, long deadline) {
+    TokenBucket keyBucket = keyLimits.bucket();
+    TokenBucket modeBucket = forMode != null ? forMode.bucket() : null;
+    if (keyBucket == null && modeBucket == null) {
+      return 0;
+    }
+    synchronized (this) {
+      long now = System.nanoTime();
+      long wait = Math.max(keyBucket != null ? keyBucket.waitNanos(now) : 0,
+                           modeBucket != null ? modeBucket.waitNanos(now) : 0);
+      if (now + wait - deadline > 0) {
+        throw reject(mode, "rate");
+      }
+      if (keyBucket != null) {
+        keyBucket.take();
+      }
+      if (modeBucket != null) {
+        modeBucket.take();
+      }
+      return wait;
+    }
+  }
+
+  /**
+   * Rend le jeton réservé par {@link #reserveToken} à la clé et au mode,
+   * quand l’attente de ce jeton est interrompue.
+   *
+   * @param forMode les limites du mode, ou null
+   */
+  private void refundToken(Limits forMode) {
+    TokenBucket keyBucket = keyLimits.bucket();
+    TokenBucket modeBucket = forMode != null ? forMode.bucket() : null;
+    synchronized (this) {
+      if (keyBucket != null) {
+        keyBucket.refund();
+      }
+      if (modeBucket != null) {
+        modeBucket.refund();
+      }
+    }
+  }
+
+  /**
+   * Compte un refus et construit l’exception correspondante.
+   *
+   * @param mode le mode Google Maps
+   * @param reason la limite atteinte
+   * @return l’exception
+   */
+  private RejectedException reject(String mode, String reason) {
+    searchMetrics.recordLimiterRejection(mode, reason);
+    return new RejectedException(mode, reason);
+  }
+}
@@ -0,0 +1,368 @@
+package group10.backendco2.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import group10.backendco2.dto.RouteModeResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analyseur en flux des réponses de l’API Google Maps Directions.
+ *
+ * La réponse est lue jeton par jeton avec le {@link JsonParser} de Jackson,
+ * sans construire d’arbre JSON : seuls la distance, la durée (texte et
+ * secondes) et, pour le mode transit, le détail des étapes (type de véhicule,
+ * ligne, arrêts) du premier tronçon de chaque itinéraire sont extraits. Tout
+ * le reste (polylignes, instructions HTML, etc.) est ignoré.
+ */
+public class DirectionsResponseParser {
+
+  /**
+   * Mode de transport Google Maps pour les transports en commun.
+   */
+  private static final String MODE_TRANSIT = "transit";
+
+  /**
+   * Fabrique de parseurs Jackson (thread-safe, partagée).
+   */
+  private final JsonFactory jsonFactory = new JsonFactory();
+
+  /**
+   * Étape d’un itinéraire, telle que lue dans la réponse.
+   */
+  private static final class Step {
+    /** Mode de déplacement de l’étape (WALKING, TRANSIT, …). */
+    private String travelMode;
+    /** Distance de l’étape en mètres. */
+    private int distanceMeters;
+    /** Indique si l’étape contient un bloc {@code transit_details}. */
+    private boolean hasTransitDetails;
+    /** Type de véhicule (BUS, TRAM, …). */
+    private String vehicleType;
+    /** Nom court de la ligne. */
+    private String lineShortName;
+    /** Nom complet de la ligne. */
+    private String lineName;
+    /** Arrêt de départ. */
+    private String departureStop;
+    /** Arrêt d’arrivée. */
+    private String arrivalStop;
+  }
+
+  /**
+   * Analyse une réponse Directions et produit un {@link RouteModeResponse}
+   * par itinéraire.
+   *
+   * @param json le corps de la réponse
+   * @param mode le mode de transport demandé
+   * @return la liste des itinéraires, vide si la réponse n’en contient aucun
+   * @throws IOException si la réponse est mal formée ou incomplète
+   */
+  public List<RouteModeResponse> parse(String json, String mode)
+      throws IOException {
+    List<RouteModeResponse> results = new ArrayList<>();
+    try (JsonParser parser = jsonFactory.createParser(json)) {
+      expect(parser.nextToken(), JsonToken.START_OBJECT);
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("routes".equals(field) && value == JsonToken.START_ARRAY) {
+          while (parser.nextToken() == JsonToken.START_OBJECT) {
+            results.add(parseRoute(parser, mode));
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+    return results;
+  }
+
+  /**
+   * Analyse un itinéraire et retourne les données de son premier tronçon.
+   *
+   * @param parser le parseur positionné sur le début de l’itinéraire
+   * @param mode le mode de transport demandé
+   * @return l’itinéraire analysé
+   * @throws IOException si l’itinéraire ne contient aucun tronçon
+   */
+  private RouteModeResponse parseRoute(JsonParser parser, String mode)
+      throws IOException {
+    RouteModeResponse route = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("legs".equals(field) && value == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          if (route == null) {
+            route = parseLeg(parser, mode);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    if (route == null) {
+      throw new IOException("Itinéraire sans tronçon");
+    }
+    return route;
+  }
+
+  /**
+   * Analyse un tronçon d’itinéraire.
+   *
+   * @param parser le parseur positionné sur le début du tronçon
+   * @param mode le mode de transport demandé
+   * @return l’itinéraire correspondant au tronçon
+   * @throws IOException si la distance, la durée ou les étapes manquent
+   */
+  private RouteModeResponse parseLeg(JsonParser parser, String mode)
+      throws IOException {
+    RouteModeResponse response = new RouteModeResponse();
+    response.setMode(mode);
+    Integer distanceMeters = null;
+    List<Step> steps = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("distance".equals(field) && value == JsonToken.START_OBJECT) {
+        distanceMeters = readIntField(parser, "value");
+      } else if ("duration".equals(field) && value == JsonToken.START_OBJECT) {
+        readDuration(parser, response);
+      } else if ("steps".equals(field) && value == JsonToken.START_ARRAY &&
+                 MODE_TRANSIT.equals(mode)) {
+        steps = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          steps.add(parseStep(parser));
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    if (distanceMeters == null || response.getEstimatedTime() == null) {
+      throw new IOException("Tronçon sans distance ou durée");
+    }
+    response.setDistanceKm(distanceMeters / 1000f);
+
+    if (MODE_TRANSIT.equals(mode)) {
+      if (steps == null) {
+        throw new IOException("Tronçon transit sans étapes");
+      }
+      applyTransitSteps(response, steps);
+    }
+    return response;
+  }
+
+  /**
+   * Analyse une étape d’un tronçon.
+   *
+   * @param parser le parseur positionné sur le début de l’étape
+   * @return l’étape analysée
+   * @throws IOException si l’étape est mal formée
+   */
+  private Step parseStep(JsonParser parser) throws IOException {
+    Step step = new Step();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("travel_mode".equals(field)) {
+        step.travelMode = parser.getValueAsString();
+      } else if ("distance".equals(field) && value == JsonToken.START_OBJECT) {
+        Integer meters = readIntField(parser, "value");
+        step.distanceMeters = meters != null ? meters : 0;
+      } else if ("transit_details".equals(field) &&
+                 value == JsonToken.START_OBJECT) {
+        step.hasTransitDetails = true;
+        parseTransitDetails(parser, step);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return step;
+  }
+
+  /**
+   * Analyse le bloc {@code transit_details} d’une étape.
+   *
+   * @param parser le parseur positionné sur le début du bloc
+   * @param step l’étape à compléter
+   * @throws IOException si le bloc est mal formé
+   */
+  private void parseTransitDetails(JsonParser parser, Step step)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (value != JsonToken.START_OBJECT) {
+        parser.skipChildren();
+      } else if ("departure_stop".equals(field)) {
+        step.departureStop = readStringField(parser, "name");
+      } else if ("arrival_stop".equals(field)) {
+        step.arrivalStop = readStringField(parser, "name");
+      } else if ("line".equals(field)) {
+        parseLine(parser, step);
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Analyse le bloc {@code line} d’une étape de transit.
+   *
+   * @param parser le parseur positionné sur le début du bloc
+   * @param step l’étape à compléter
+   * @throws IOException si le bloc est mal formé
+   */
+  private void parseLine(JsonParser parser, Step step) throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("short_name".equals(field)) {
+        step.lineShortName = parser.getValueAsString();
+      } else if ("name".equals(field)) {
+        step.lineName = parser.getValueAsString();
+      } else if ("vehicle".equals(field) && value == JsonToken.START_OBJECT) {
+        step.vehicleType = readStringField(parser, "type");
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Renseigne les sous-modes, distances et libellés de transit d’un
+   * itinéraire à partir de ses étapes.
+   *
+   * @param response l’itinéraire à compléter
+   * @param steps les étapes du tronçon
+   * @throws IOException si une étape de transit est incomplète
+   */
+  private void applyTransitSteps(RouteModeResponse response, List<Step> steps)
+      throws IOException {
+    Map<String, Float> subModeDistances = new HashMap<>();
+    List<String> stepLabels = new ArrayList<>(steps.size());
+    List<String> verboseLabels = new ArrayList<>(steps.size());
+
+    for (Step step : steps) {
+      if (step.travelMode == null) {
+        throw new IOException("Étape sans mode de déplacement");
+      }
+      if (step.travelMode.equalsIgnoreCase("TRANSIT")) {
+        if (!step.hasTransitDetails || step.vehicleType == null ||
+            step.departureStop == null || step.arrivalStop == null) {
+          throw new IOException("Étape de transit incomplète");
+        }
+        String vehicleType = step.vehicleType.toUpperCase();
+        String lineName = step.lineShortName != null ? step.lineShortName
+                          : step.lineName != null    ? step.lineName
+                                                     : "";
+        subModeDistances.merge(vehicleType, step.distanceMeters / 1000f,
+                               Float::sum);
+        stepLabels.add(vehicleType);
+        verboseLabels.add(vehicleType + " " + lineName + " (" +
+                          step.departureStop + " → " + step.arrivalStop + ")");
+      } else {
+        stepLabels.add("WALK");
+        verboseLabels.add("WALK");
+      }
+    }
+
+    response.setTransitModes(subModeDistances);
+    response.setTransitStepLabels(String.join(" + ", stepLabels));
+    response.setTransitStepLabelsVerbose(verboseLabels);
+  }
+
+  /**
+   * Lit un champ entier d’un objet et ignore les autres champs.
+   *
+   * @param parser le parseur positionné sur le début de l’objet
+   * @param name le nom du champ recherché
+   * @return la valeur du champ, ou null s’il est absent
+   * @throws IOException si l’objet est mal formé
+   */
+  private Integer readIntField(JsonParser parser, String name)
+      throws IOException {
+    Integer result = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (name.equals(field) && value.isNumeric()) {
+        result = parser.getValueAsInt();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Lit la durée d’un tronçon : son texte et, si elle est présente, sa
+   * valeur en secondes. Les autres champs sont ignorés.
+   *
+   * @param parser le parseur positionné sur le début du bloc
+   *     {@code duration}
+   * @param response l’itinéraire à compléter
+   * @throws IOException si le bloc est mal formé
+   */
+  private void readDuration(JsonParser parser, RouteModeResponse response)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if ("text".equals(field) && value == JsonToken.VALUE_STRING) {
+        response.setEstimatedTime(parser.getText());
+      } else if ("value".equals(field) && value.isNumeric()) {
+        response.setDurationSeconds(parser.getValueAsInt());
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /**
+   * Lit un champ texte d’un objet et ignore les autres champs.
+   *
+   * @param parser le parseur positionné sur le début de l’objet
+   * @param name le nom du champ recherché
+   * @return la valeur du champ, ou null s’il est absent
+   * @throws IOException si l’objet est mal formé
+   */
+  private String readStringField(JsonParser parser, String name)
+      throws IOException {
+    String result = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      if (name.equals(field) && value == JsonToken.VALUE_STRING) {
+        result = parser.getText();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Vérifie qu’un jeton correspond au jeton attendu.
+   *
+   * @param actual le jeton lu
+   * @param expected le jeton attendu
+   * @throws IOException si les jetons diffèrent
+   */
+  private static void expect(JsonToken actual, JsonToken expected)
+      throws IOException {
+    if (actual != expected) {
+      throw new IOException("Réponse Directions invalide : " + expected +
+                            " attendu, " + actual + " trouvé");
+    }
+  }
+}
@@ -0,0 +1,171 @@
+package group10.backendco2.service;
+
+/**
+ * Analyseur des durées textuelles de Google Maps ({@code "1 day 2 hours 5
+ * mins"}, {@code "1 jour 2 h 5 min"}, …).
+ *
+ * La durée est lue en un seul passage, sans créer d’objet : chaque nombre est
+ * multiplié par l’unité qui le suit (jours, heures ou minutes, en anglais ou
+ * en français, au singulier ou au pluriel, sans tenir compte de la casse).
+ * Un nombre suivi d’un autre mot, ou d’aucun mot, est ignoré.
+ *
+ * À n’utiliser qu’à défaut de la durée en secondes de la réponse
+ * ({@link group10.backendco2.dto.RouteModeResponse#getDurationSeconds()}),
+ * absente des itinéraires mis en cache avant son ajout.
+ */
+final class DurationTextParser {
+
+  /**
+   * Valeur retournée pour une durée illisible.
+   */
+  static final int UNREADABLE = -1;
+
+  /**
+   * Plus grand nombre lu : les chiffres suivants sont ignorés, afin que le
+   * total ne dépasse pas la capacité d’un {@code long}.
+   */
+  private static final long MAX_NUMBER = 1_000_000_000L;
+
+  /**
+   * Écritures des jours.
+   */
+  private static final String[] DAYS = {"d", "day", "days", "j", "jour",
+                                        "jours"};
+
+  /**
+   * Écritures des heures.
+   */
+  private static final String[] HOURS = {"h",    "hr",    "hrs",   "hour",
+                                         "hours", "heure", "heures"};
+
+  /**
+   * Écritures des minutes.
+   */
+  private static final String[] MINUTES = {"m",   "mn",     "min",
+                                           "mins", "minute", "minutes"};
+
+  /**
+   * Classe utilitaire.
+   */
+  private DurationTextParser() {}
+
+  /**
+   * Convertit une durée textuelle en minutes.
+   *
+   * @param text la durée, éventuellement null
+   * @return la durée en minutes (au plus {@link Integer#MAX_VALUE}), ou
+   *     {@link #UNREADABLE} si aucun nombre n’est suivi d’une unité connue
+   */
+  static int parseMinutes(CharSequence text) {
+    if (text == null) {
+      return UNREADABLE;
+    }
+    long total = 0;
+    long number = -1;
+    boolean readable = false;
+    int length = text.length();
+    int i = 0;
+    while (i < length) {
+      char c = text.charAt(i);
+      if (isDigit(c)) {
+        number = 0;
+        while (i < length && isDigit(c = text.charAt(i))) {
+          if (number < MAX_NUMBER) {
+            number = number * 10 + (c - '0');
+          }
+          i++;
+        }
+      } else if (Character.isLetter(c)) {
+        int start = i;
+        while (i < length && Character.isLetter(text.charAt(i))) {
+          i++;
+        }
+        if (number >= 0) {
+          int unit = unitMinutes(text, start, i);
+          if (unit > 0) {
+            total = Math.min(total + number * unit, Integer.MAX_VALUE);
+            readable = true;
+          }
+          number = -1;
+        }
+      } else {
+        i++;
+      }
+    }
+    return readable ? (int)total : UNREADABLE;
+  }
+
+  /**
+   * Retourne la valeur en minutes d’une unité.
+   *
+   * @param text le texte contenant l’unité
+   * @param start l’indice du début de l’unité
+   * @param end l’indice suivant la fin de l’unité
+   * @return la valeur de l’unité en minutes, ou 0 si elle est inconnue
+   */
+  private static int unitMinutes(CharSequence text, int start, int end) {
+    if (matchesAny(text, start, end, MINUTES)) {
+      return 1;
+    }
+    if (matchesAny(text, start, end, HOURS)) {
+      return 60;
+    }
+    if (matchesAny(text, start, end, DAYS)) {
+      return 24 * 60;
+    }
+    return 0;
+  }
+
+  /**
+   * Indique si une portion de texte correspond à l’un des mots donnés, sans
+   * tenir compte de la casse.
+   *
+   * @param text le texte
+   * @param start l’indice du début de la portion
+   * @param end l’indice suivant la fin de la portion
+   * @param words les mots, en minuscules
+   * @return {@code true} si la portion est l’un des mots
+   */
+  private static boolean matchesAny(CharSequence text, int start, int end,
+                                    String[] words) {
+    for (String word : words) {
+      if (matches(text, start, end, word)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Indique si une portion de texte correspond à un mot, sans tenir compte
+   * de la casse.
+   *
+   * @param text le texte
+   * @param start l’indice du début de la portion
+   * @param end l’indice suivant la fin de la portion
+   * @param word le mot, en minuscules
+   * @return {@code true} si la portion est le mot
+   */
+  private static boolean matches(CharSequence text, int start, int end,
+                                 String word) {
+    if (end - start != word.length()) {
+      return false;
+    }
+    for (int i = 0; i < word.length(); i++) {
+      if (Character.toLowerCase(text.charAt(start + i)) != word.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Indique si un caractère est un chiffre ASCII.
+   *
+   * @param c le caractère
+   * @return {@code true} pour {@code 0} à {@code 9}
+   */
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
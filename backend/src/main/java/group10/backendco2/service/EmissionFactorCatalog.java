@@ -0,0 +1,229 @@
+package group10.backendco2.service;
+
+import group10.backendco2.model.CarburantFossile;
+import group10.backendco2.model.ModeTransport;
+import group10.backendco2.model.SourceElectrique;
+import group10.backendco2.repository.CarburantFossileRepository;
+import group10.backendco2.repository.ModeTransportRepository;
+import group10.backendco2.repository.SourceElectriqueRepository;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Catalogue en mémoire des facteurs d’émission et de prix utilisés par le
+ * calcul des émissions.
+ *
+ * Les modes de transport, carburants fossiles et sources électriques sont
+ * chargés en une seule fois dans un instantané immuable, indexé par nom et
+ * par identifiant de source d’énergie : une recherche n’effectue donc aucun
+ * aller-retour vers la base. L’instantané est reconstruit puis remplacé d’un
+ * seul coup par {@link #refresh()} lorsqu’un administrateur modifie les
+ * modes de transport.
+ *
+ * Les rechargements sont sérialisés par un {@link ReentrantLock} plutôt que
+ * par {@code synchronized} : un thread virtuel qui attend la base dans un
+ * bloc {@code synchronized} resterait épinglé à son thread porteur (Java 21).
+ */
+@Component
+public class EmissionFactorCatalog {
+
+  /**
+   * Logger pour le catalogue des facteurs d’émission.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(EmissionFactorCatalog.class);
+
+  /**
+   * Instantané immuable du catalogue.
+   *
+   * @param modes les modes de transport, dans l’ordre de la base
+   * @param carburantsBySource le premier carburant fossile de chaque source
+   * @param electriquesBySource la source électrique de chaque source
+   * @param modesByName les résultats de recherche approchée par nom déjà
+   *     calculés pour cet instantané
+   */
+  private record Snapshot(List<ModeTransport> modes,
+                          Map<Long, CarburantFossile> carburantsBySource,
+                          Map<Long, SourceElectrique> electriquesBySource,
+                          Map<String, Optional<ModeTransport>> modesByName) {}
+
+  /**
+   * Référentiel des modes de transport.
+   */
+  private final ModeTransportRepository modeTransportRepository;
+
+  /**
+   * Référentiel des carburants fossiles.
+   */
+  private final CarburantFossileRepository carburantFossileRepository;
+
+  /**
+   * Référentiel des sources électriques.
+   */
+  private final SourceElectriqueRepository sourceElectriqueRepository;
+
+  /**
+   * Instantané courant, null tant qu’il n’a pas été chargé.
+   */
+  private volatile Snapshot snapshot;
+
+  /**
+   * Verrou des rechargements.
+   */
+  private final ReentrantLock refreshLock = new ReentrantLock();
+
+  /**
+   * Constructeur du catalogue.
+   *
+   * @param modeTransportRepository le référentiel des modes de transport
+   * @param carburantFossileRepository le référentiel des carburants fossiles
+   * @param sourceElectriqueRepository le référentiel des sources électriques
+   */
+  public EmissionFactorCatalog(
+      ModeTransportRepository modeTransportRepository,
+      CarburantFossileRepository carburantFossileRepository,
+      SourceElectriqueRepository sourceElectriqueRepository) {
+    this.modeTransportRepository = modeTransportRepository;
+    this.carburantFossileRepository = carburantFossileRepository;
+    this.sourceElectriqueRepository = sourceElectriqueRepository;
+  }
+
+  /**
+   * Charge le catalogue au démarrage de l’application.
+   */
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    refresh();
+  }
+
+  /**
+   * Recharge le catalogue depuis la base et remplace atomiquement
+   * l’instantané courant.
+   */
+  public void refresh() {
+    refreshLock.lock();
+    try {
+      load();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  /**
+   * Construit un nouvel instantané depuis la base ; appelé sous
+   * {@link #refreshLock}.
+   */
+  private void load() {
+    List<ModeTransport> modes = List.copyOf(modeTransportRepository.findAll());
+
+    Map<Long, CarburantFossile> carburants = new HashMap<>();
+    for (CarburantFossile carburant : carburantFossileRepository.findAll()) {
+      if (carburant.getSourceEnergie() != null &&
+          carburant.getSourceEnergie().getId() != null) {
+        carburants.putIfAbsent(carburant.getSourceEnergie().getId(),
+                               carburant);
+      }
+    }
+
+    Map<Long, SourceElectrique> electriques = new HashMap<>();
+    for (SourceElectrique electrique : sourceElectriqueRepository.findAll()) {
+      if (electrique.getSourceEnergieId() != null) {
+        electriques.putIfAbsent(electrique.getSourceEnergieId(), electrique);
+      }
+    }
+
+    snapshot = new Snapshot(modes, Map.copyOf(carburants),
+                            Map.copyOf(electriques), new ConcurrentHashMap<>());
+    logger.info("Catalogue des facteurs d’émission chargé : {} modes",
+                modes.size());
+  }
+
+  /**
+   * Retourne tous les modes de transport.
+   *
+   * @return la liste immuable des modes de transport
+   */
+  public List<ModeTransport> getModes() { return current().modes(); }
+
+  /**
+   * Recherche le premier mode de transport dont le nom contient {@code nom},
+   * sans tenir compte de la casse (équivalent de
+   * {@link ModeTransportRepository#findByNomApprox(String)}).
+   *
+   * @param nom le nom recherché
+   * @return le mode trouvé, ou {@link Optional#empty()}
+   */
+  public Optional<ModeTransport> findByNomApprox(String nom) {
+    Snapshot current = current();
+    String key = nom.toLowerCase(Locale.ROOT);
+    return current.modesByName().computeIfAbsent(
+        key,
+        k
+        -> current.modes()
+               .stream()
+               .filter(mode
+                       -> mode.getNom() != null &&
+                              mode.getNom().toLowerCase(Locale.ROOT).contains(
+                                  k))
+               .findFirst());
+  }
+
+  /**
+   * Retourne le carburant fossile associé à une source d’énergie.
+   *
+   * @param sourceEnergieId l’identifiant de la source d’énergie
+   * @return le carburant, ou {@link Optional#empty()}
+   */
+  public Optional<CarburantFossile> findCarburant(Long sourceEnergieId) {
+    if (sourceEnergieId == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(
+        current().carburantsBySource().get(sourceEnergieId));
+  }
+
+  /**
+   * Retourne la source électrique associée à une source d’énergie.
+   *
+   * @param sourceEnergieId l’identifiant de la source d’énergie
+   * @return la source électrique, ou {@link Optional#empty()}
+   */
+  public Optional<SourceElectrique> findSourceElectrique(Long sourceEnergieId) {
+    if (sourceEnergieId == null) {
+      return Optional.empty();
+    }
+    return Optional.ofNullable(
+        current().electriquesBySource().get(sourceEnergieId));
+  }
+
+  /**
+   * Retourne l’instantané courant, en le chargeant s’il ne l’est pas encore.
+   *
+   * @return l’instantané courant
+   */
+  private Snapshot current() {
+    Snapshot current = snapshot;
+    if (current == null) {
+      refreshLock.lock();
+      try {
+        if (snapshot == null) {
+          load();
+        }
+        current = snapshot;
+      } finally {
+        refreshLock.unlock();
+      }
+    }
+    return current;
+  }
+}
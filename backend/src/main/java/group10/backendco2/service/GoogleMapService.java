@@ -1,16 +1,34 @@
 package group10.backendco2.service;
 
+import group10.backendco2.common.SingleFlight;
 import group10.backendco2.dto.RouteModeResponse;
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import io.micrometer.core.instrument.Metrics;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLEncoder;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -31,11 +49,17 @@ public class GoogleMapService {
   /**
    * Modes de transport pris en charge par l’API Google Maps
    */
-  private static final String MODE_DRIVING = "driving";
+  static final String MODE_DRIVING = "driving";
   private static final String MODE_WALKING = "walking";
   private static final String MODE_BICYCLING = "bicycling";
   private static final String MODE_TRANSIT = "transit";
 
+  /**
+   * URL par défaut de l’API Google Maps Directions
+   */
+  static final String DEFAULT_BASE_URL =
+      "https://maps.googleapis.com/maps/api/directions/json";
+
   /**
    * Message d’erreur en cas de problème avec l’API Google Maps
    */
@@ -45,6 +69,64 @@ public class GoogleMapService {
    * Clé API Google Maps
    */
   @Value("${google.api.key}") private String apiKey;
+  /**
+   * URL de l’API Directions, remplaçable par celle d’un bouchon local (voir
+   * {@link group10.backendco2.stub.DirectionsStubServer}).
+   */
+  @Value("${google.directions.base-url:" + DEFAULT_BASE_URL + "}")
+  private String baseUrl = DEFAULT_BASE_URL;
+  /**
+   * Client HTTP utilisé pour les appels à l’API Directions.
+   */
+  @Autowired private DirectionsClient directionsClient;
+  /**
+   * Cache des itinéraires déjà récupérés.
+   */
+  @Autowired private DirectionsCache directionsCache;
+  /**
+   * Métriques des appels Directions (sans registre hors contexte Spring).
+   */
+  @Autowired
+  private SearchMetrics searchMetrics =
+      new SearchMetrics(Metrics.globalRegistry);
+  /**
+   * Limiteur des appels Directions (sans limite hors contexte Spring).
+   */
+  @Autowired
+  private DirectionsRateLimiter rateLimiter = DirectionsRateLimiter.unlimited();
+  /**
+   * Disjoncteur des appels Directions (désactivé hors contexte Spring).
+   */
+  @Autowired
+  private DirectionsCircuitBreaker circuitBreaker =
+      DirectionsCircuitBreaker.disabled();
+  /**
+   * Politique de doublement des appels lents (désactivée hors contexte
+   * Spring).
+   */
+  @Autowired
+  private DirectionsHedgePolicy hedgePolicy = DirectionsHedgePolicy.disabled();
+  /**
+   * Analyseur en flux des réponses de l’API Directions.
+   */
+  private final DirectionsResponseParser responseParser =
+      new DirectionsResponseParser();
+  /**
+   * Délai global (en millisecondes) accordé à l’ensemble des modes.
+   */
+  @Value("${google.directions.batch-timeout-ms:20000}")
+  private long batchTimeoutMs;
+  /**
+   * Exécuteur des appels parallèles (un thread virtuel par mode).
+   */
+  private final ExecutorService modeExecutor =
+      Executors.newVirtualThreadPerTaskExecutor();
+  /**
+   * Appels Directions en cours, par trajet et mode : une même requête n’est
+   * envoyée qu’une fois, quelle que soit la méthode qui l’a demandée.
+   */
+  private final SingleFlight<String, ModeRoutes> inFlightModes =
+      new SingleFlight<>();
   /**
    * Modes de transport pris en charge par l’API Google Maps
    */
@@ -53,7 +135,8 @@ public class GoogleMapService {
 
   /**
    * Récupère la distance (en km) entre deux lieux en mode "driving" via Google
-   * Maps.
+   * Maps. L’appel est partagé avec {@link #fetchEstimatedTime} et
+   * {@link #fetchRouteSummary} pour le même trajet.
    *
    * @param origin point de départ
    * @param destination point d’arrivée
@@ -61,21 +144,7 @@ public class GoogleMapService {
    */
   public float fetchDistanceKm(String origin, String destination) {
     try {
-      String url = buildUrl(origin, destination, MODE_DRIVING);
-      String response = executeCurlCommand(url);
-      if (response == null)
-        return -1f;
-      JSONObject json = new JSONObject(response);
-
-      JSONArray routes = json.getJSONArray("routes");
-      if (routes.isEmpty())
-        return -1;
-
-      JSONObject leg =
-          routes.getJSONObject(0).getJSONArray("legs").getJSONObject(0);
-      int distanceMeters = leg.getJSONObject("distance").getInt("value");
-
-      return distanceMeters / 1000f;
+      return fetchDrivingSummary(origin, destination).distanceKm();
     } catch (Exception e) {
       logger.error(GOOGLE_MAPS_ERROR, e);
       return -1f;
@@ -84,7 +153,9 @@ public class GoogleMapService {
 
   /**
    * Récupère le temps estimé (sous forme de texte) entre deux lieux en mode
-   * "driving" via Google Maps.
+   * "driving" via Google Maps. L’appel est partagé avec
+   * {@link #fetchDistanceKm} et {@link #fetchRouteSummary} pour le même
+   * trajet.
    *
    * @param origin point de départ
    * @param destination point d’arrivée
@@ -92,21 +163,10 @@ public class GoogleMapService {
    */
   public String fetchEstimatedTime(String origin, String destination) {
     try {
-      String url = buildUrl(origin, destination, MODE_DRIVING);
-      String response = executeCurlCommand(url);
-      if (response == null)
-        return "Temps estimé inconnu";
-      JSONObject json = new JSONObject(response);
-
-      JSONArray routes = json.getJSONArray("routes");
-      if (routes.isEmpty())
-        return "Temps estimé inconnu";
-
-      JSONObject leg =
-          routes.getJSONObject(0).getJSONArray("legs").getJSONObject(0);
-      String durationText = leg.getJSONObject("duration").getString("text");
-
-      return "Temps estimé: " + durationText;
+      return fetchDrivingSummary(origin, destination)
+          .estimatedTime()
+          .map(time -> "Temps estimé: " + time)
+          .orElse("Temps estimé inconnu");
     } catch (Exception e) {
       logger.error(GOOGLE_MAPS_ERROR, e);
       return "Erreur lors de la récupération du temps estimé";
@@ -119,79 +179,266 @@ public class GoogleMapService {
    * @param destination point d’arrivée
    * @return une liste d’objets RouteModeResponse contenant les informations
    *         sur les itinéraires et les modes de transport
+   * @see #fetchRouteSummary
    */
   public List<RouteModeResponse> fetchAllTransportModes(String origin,
                                                         String destination) {
-    List<RouteModeResponse> results = new ArrayList<>();
-
+    return fetchRouteSummary(origin, destination).routes();
+  }
+  /**
+   * Récupère la synthèse des itinéraires de tous les modes entre deux lieux,
+   * dont se déduisent aussi la distance et la durée en voiture.
+   *
+   * Les appels des différents modes sont exécutés en parallèle, avec un délai
+   * global commun. Un mode en échec ou hors délai est ignoré et, comme un
+   * mode servi par ses derniers itinéraires connus, signalé comme dégradé
+   * dans la synthèse ; l’ordre des modes suit celui de {@code MODES}. Les appels lents des
+   * modes concernés sont doublés (voir {@link DirectionsHedgePolicy}). Un
+   * mode déjà en cours de récupération pour le même trajet, par cette
+   * méthode ou une autre, n’est pas demandé une seconde fois.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @return la synthèse des itinéraires, par mode
+   */
+  public RouteSummary fetchRouteSummary(String origin, String destination) {
+    List<Callable<ModeRoutes>> tasks = new ArrayList<>();
     for (String mode : MODES) {
-      try {
-        String url = buildUrl(origin, destination, mode);
-        String response = executeCurlCommand(url);
-        if (response == null)
-          continue;
-
-        JSONObject json = new JSONObject(response);
-        JSONArray routes = json.optJSONArray("routes");
-        if (routes == null || routes.isEmpty())
-          continue;
-
-        for (int r = 0; r < routes.length(); r++) {
-          JSONObject leg =
-              routes.getJSONObject(r).getJSONArray("legs").getJSONObject(0);
-          int distanceMeters = leg.getJSONObject("distance").getInt("value");
-          String durationText = leg.getJSONObject("duration").getString("text");
-
-          RouteModeResponse modeResponse = new RouteModeResponse();
-          modeResponse.setMode(mode);
-          modeResponse.setDistanceKm(distanceMeters / 1000f);
-          modeResponse.setEstimatedTime(durationText);
+      tasks.add(() -> fetchModeCached(origin, destination, mode));
+    }
 
-          if (mode.equals("transit")) {
-            JSONArray steps = leg.getJSONArray("steps");
-            Map<String, Float> transitModes = analyzeTransitSteps(steps);
-            modeResponse.setTransitModes(transitModes);
+    Map<String, List<RouteModeResponse>> results = new LinkedHashMap<>();
+    Set<String> degraded = new LinkedHashSet<>(List.of(MODES));
+    try {
+      List<Future<ModeRoutes>> futures = modeExecutor.invokeAll(
+          tasks, batchTimeoutMs, TimeUnit.MILLISECONDS);
 
-            List<String> stepLabels = new ArrayList<>();
-            List<String> verboseLabels = new ArrayList<>();
-            for (int i = 0; i < steps.length(); i++) {
-              JSONObject step = steps.getJSONObject(i);
-              String travelMode = step.getString("travel_mode");
-              if (travelMode.equalsIgnoreCase("TRANSIT")) {
-                JSONObject transitDetails =
-                    step.getJSONObject("transit_details");
-                JSONObject line = transitDetails.getJSONObject("line");
-                String vehicleType = line.getJSONObject("vehicle")
-                                         .getString("type")
-                                         .toUpperCase();
-                String lineName =
-                    line.optString("short_name", line.optString("name", ""));
-                String from = transitDetails.getJSONObject("departure_stop")
-                                  .getString("name");
-                String to = transitDetails.getJSONObject("arrival_stop")
-                                .getString("name");
-                String label = vehicleType + " " + lineName + " (" + from +
-                               " → " + to + ")";
-                stepLabels.add(vehicleType);
-                verboseLabels.add(label);
-              } else {
-                stepLabels.add("WALK");
-                verboseLabels.add("WALK");
-              }
-            }
-            modeResponse.setTransitStepLabels(String.join(" + ", stepLabels));
-            modeResponse.setTransitStepLabelsVerbose(verboseLabels);
+      for (int i = 0; i < futures.size(); i++) {
+        Future<ModeRoutes> future = futures.get(i);
+        if (future.isCancelled()) {
+          logger.warn("Délai dépassé pour le mode {}", MODES[i]);
+          searchMetrics.recordBatchTimeout(MODES[i]);
+          continue;
+        }
+        try {
+          ModeRoutes routes = future.get();
+          results.put(MODES[i], routes.routes());
+          if (!routes.degraded()) {
+            degraded.remove(MODES[i]);
           }
-
-          results.add(modeResponse);
+        } catch (ExecutionException e) {
+          logger.error(GOOGLE_MAPS_ERROR, e.getCause());
         }
-
-      } catch (Exception e) {
-        logger.error(GOOGLE_MAPS_ERROR, e);
       }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      logger.error(GOOGLE_MAPS_ERROR, e);
     }
 
-    return results;
+    return new RouteSummary(results, degraded);
+  }
+  /**
+   * Retourne les modes de transport Google Maps pris en charge.
+   *
+   * @return les modes, dans l’ordre des résultats
+   */
+  public List<String> getModes() { return List.of(MODES); }
+  /**
+   * Recharge les itinéraires d’un mode depuis Google Maps, même s’ils sont
+   * encore en cache, et les met en cache. Les derniers itinéraires connus ne
+   * sont pas servis en cas d’échec.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return {@code true} si l’API a répondu (éventuellement sans itinéraire)
+   * @throws UncheckedIOException si la réponse est mal formée
+   */
+  public boolean refreshMode(String origin, String destination, String mode) {
+    String response = executeLimited(buildUrl(origin, destination, mode), mode);
+    if (response == null) {
+      return false;
+    }
+    directionsCache.put(origin, destination, mode,
+                        parseResponse(response, mode));
+    return true;
+  }
+  /**
+   * Récupère la synthèse limitée au mode voiture, qui suffit pour la distance
+   * et la durée : les autres modes ne sont pas demandés.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @return la synthèse des itinéraires en voiture
+   * @throws UncheckedIOException si la réponse est mal formée
+   */
+  private RouteSummary fetchDrivingSummary(String origin, String destination) {
+    return new RouteSummary(
+        Map.of(MODE_DRIVING,
+               fetchModeCached(origin, destination, MODE_DRIVING).routes()));
+  }
+  /**
+   * Récupère tous les modes de transport entre deux lieux sans bloquer
+   * l’appelant.
+   *
+   * Chaque mode est servi par le cache ou par un appel HTTP asynchrone ;
+   * aucun thread n’attend la réponse de Google Maps. Chaque mode se termine
+   * indépendamment, dans le délai global commun : un mode en échec ou hors
+   * délai se termine avec une liste vide.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @return un résultat asynchrone par mode, dans l’ordre de {@code MODES}
+   */
+  public List<CompletableFuture<List<RouteModeResponse>>>
+  fetchAllTransportModesAsync(String origin, String destination) {
+    return fetchModeRoutesAsync(origin, destination)
+        .stream()
+        .map(routes -> routes.thenApply(ModeRoutes::routes))
+        .toList();
+  }
+  /**
+   * Variante de {@link #fetchAllTransportModesAsync} qui indique aussi, pour
+   * chaque mode, si ses itinéraires sont dégradés : un mode en échec ou hors
+   * délai se termine avec une liste vide marquée comme dégradée.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @return un résultat asynchrone par mode, dans l’ordre de {@code MODES}
+   */
+  List<CompletableFuture<ModeRoutes>>
+  fetchModeRoutesAsync(String origin, String destination) {
+    List<CompletableFuture<ModeRoutes>> futures = new ArrayList<>();
+    for (String mode : MODES) {
+      futures.add(
+          fetchModeCachedAsync(origin, destination, mode)
+              .orTimeout(batchTimeoutMs, TimeUnit.MILLISECONDS)
+              .exceptionally(e -> {
+                Throwable cause = unwrap(e);
+                if (cause instanceof TimeoutException) {
+                  logger.warn("Délai dépassé pour le mode {}", mode);
+                  searchMetrics.recordBatchTimeout(mode);
+                } else {
+                  logger.error(GOOGLE_MAPS_ERROR, cause);
+                }
+                return ModeRoutes.failed(mode);
+              }));
+    }
+    return futures;
+  }
+  /**
+   * Récupère les itinéraires d’un seul mode de transport, depuis le cache si
+   * possible, sinon via Google Maps, en rejoignant l’appel déjà en cours pour
+   * le même trajet et le même mode. Si l’appel échoue ou est évité par le
+   * disjoncteur, les derniers itinéraires connus du trajet sont servis.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return les itinéraires du mode, vides si aucun n’est disponible
+   * @throws UncheckedIOException si la réponse est mal formée
+   */
+  private ModeRoutes fetchModeCached(String origin, String destination,
+                                     String mode) {
+    Optional<List<RouteModeResponse>> cached =
+        directionsCache.getIfPresent(origin, destination, mode);
+    if (cached.isPresent()) {
+      return new ModeRoutes(mode, cached.get(), false);
+    }
+    return inFlightModes.execute(
+        DirectionsCache.key(origin, destination, mode), () -> {
+          String url = buildUrl(origin, destination, mode);
+          String response = hedgePolicy.appliesTo(mode)
+                                ? awaitHedged(url, mode)
+                                : executeLimited(url, mode);
+          return cacheOrStale(origin, destination, mode, response);
+        });
+  }
+  /**
+   * Version asynchrone de {@link #fetchModeCached} : la réponse est attendue
+   * sans thread, puis analysée et mise en cache dans un thread virtuel de
+   * {@code modeExecutor}, pour ne pas analyser les réponses volumineuses dans
+   * le thread du client HTTP. Les appels en cours sont partagés et les
+   * derniers itinéraires connus sont servis de la même façon.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @return les itinéraires du mode, vides si l’appel a échoué
+   */
+  private CompletableFuture<ModeRoutes>
+  fetchModeCachedAsync(String origin, String destination, String mode) {
+    Optional<List<RouteModeResponse>> cached =
+        directionsCache.getIfPresent(origin, destination, mode);
+    if (cached.isPresent()) {
+      return CompletableFuture.completedFuture(
+          new ModeRoutes(mode, cached.get(), false));
+    }
+
+    return inFlightModes.executeAsync(
+        DirectionsCache.key(origin, destination, mode),
+        ()
+            -> executeHedgedAsync(buildUrl(origin, destination, mode), mode)
+                   .thenApplyAsync(response
+                                   -> cacheOrStale(origin, destination, mode,
+                                                   response),
+                                   modeExecutor));
+  }
+  /**
+   * Analyse et met en cache la réponse d’un appel Directions, ou, si l’appel
+   * a échoué, retourne les derniers itinéraires connus du trajet, marqués
+   * comme dégradés. Ceux-ci ne sont pas remis en cache, pour ne pas
+   * prolonger leur durée de vie.
+   *
+   * @param origin point de départ
+   * @param destination point d’arrivée
+   * @param mode mode de transport Google Maps
+   * @param response la réponse de l’API, ou null si l’appel a échoué
+   * @return les itinéraires du mode, vides si aucun n’est disponible
+   * @throws UncheckedIOException si la réponse est mal formée
+   */
+  private ModeRoutes cacheOrStale(String origin, String destination,
+                                  String mode, String response) {
+    if (response != null) {
+      return new ModeRoutes(mode,
+                            directionsCache.put(origin, destination, mode,
+                                                parseResponse(response, mode)),
+                            false);
+    }
+    Optional<List<RouteModeResponse>> stale =
+        directionsCache.getStale(origin, destination, mode);
+    stale.ifPresent(routes -> searchMetrics.recordStaleServed(mode));
+    return new ModeRoutes(mode, stale.orElse(List.of()), true);
+  }
+  /**
+   * Analyse une réponse de l’API Directions en publiant sa taille et la durée
+   * d’analyse.
+   *
+   * @param response la réponse de l’API, ou null si l’appel a échoué
+   * @param mode mode de transport Google Maps
+   * @return la liste des itinéraires du mode, vide si la réponse est null
+   * @throws UncheckedIOException si la réponse est mal formée
+   */
+  private List<RouteModeResponse> parseResponse(String response, String mode) {
+    if (response == null)
+      return new ArrayList<>();
+
+    searchMetrics.recordResponseSize(mode, response.length());
+    long parseStart = System.nanoTime();
+    try {
+      return responseParser.parse(response, mode);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    } finally {
+      searchMetrics.recordParse(mode, System.nanoTime() - parseStart);
+    }
+  }
+  /**
+   * Arrête l’exécuteur des appels parallèles à l’arrêt de l’application.
+   */
+  @PreDestroy
+  public void shutdown() {
+    modeExecutor.shutdownNow();
   }
   /**
    * Construit l’URL pour l’appel à l’API Google Maps Directions.
@@ -203,85 +450,256 @@ public class GoogleMapService {
    */
   private String buildUrl(String origin, String destination, String mode) {
     return String.format(
-        "https://maps.googleapis.com/maps/api/directions/"
-            + "json?origin=%s&destination=%s&mode=%s&alternatives=true&key=%s",
-        origin.replace(" ", "+"), destination.replace(" ", "+"), mode, apiKey);
+        "%s?origin=%s&destination=%s&mode=%s&alternatives=true&key=%s",
+        baseUrl, URLEncoder.encode(origin, StandardCharsets.UTF_8),
+        URLEncoder.encode(destination, StandardCharsets.UTF_8), mode, apiKey);
   }
   /**
-   * Analyse les étapes de transit pour extraire les types de véhicules et
-   * leurs distances.
+   * Exécute une requête vers l’API Google Maps Directions via le
+   * {@link DirectionsClient} configuré. Chaque échec est compté par cause
+   * dans {@code directions.upstream.failures}.
    *
-   * @param steps tableau d’étapes
-   * @return une carte contenant les types de véhicules et leurs distances
+   * @param url l’URL à appeler
+   * @return la réponse de l’API ou null en cas d’échec
    */
-  private Map<String, Float> analyzeTransitSteps(JSONArray steps) {
-    Map<String, Float> subModeDistances = new HashMap<>();
-
-    for (int i = 0; i < steps.length(); i++) {
-      JSONObject step = steps.getJSONObject(i);
-      if (step.getString("travel_mode").equalsIgnoreCase("TRANSIT")) {
-        JSONObject transitDetails = step.getJSONObject("transit_details");
-        String vehicleType = transitDetails.getJSONObject("line")
-                                 .getJSONObject("vehicle")
-                                 .getString("type")
-                                 .toUpperCase();
-
-        int stepDistance = step.getJSONObject("distance").getInt("value");
-        float stepDistanceKm = stepDistance / 1000f;
-
-        subModeDistances.put(vehicleType,
-                             subModeDistances.getOrDefault(vehicleType, 0f) +
-                                 stepDistanceKm);
-      }
+  public String executeRequest(String url) {
+    try {
+      return directionsClient.get(url);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return requestFailed(e);
+    } catch (Exception e) {
+      return requestFailed(e);
     }
-
-    return subModeDistances;
   }
   /**
-   * Exécute une commande curl pour appeler l’API Google Maps Directions.
+   * Exécute une requête vers l’API Google Maps Directions sans bloquer
+   * l’appelant. Les échecs sont comptés comme pour
+   * {@link #executeRequest(String)}.
    *
    * @param url l’URL à appeler
-   * @return la réponse de l’API ou null en cas d’échec
+   * @return la réponse de l’API, ou null en cas d’échec
    */
-  public String executeCurlCommand(String url) {
-    try {
-      ProcessBuilder pb =
-          new ProcessBuilder("curl", "-s", "--compressed", "--max-time", "15",
-                             "-x", "http://proxy.univ-lyon1.fr:3128", url);
+  public CompletableFuture<String> executeRequestAsync(String url) {
+    return directionsClient.getAsync(url).exceptionally(
+        e -> requestFailed(unwrap(e)));
+  }
+  /**
+   * Exécute une requête Directions après l’autorisation du disjoncteur puis
+   * du limiteur, qui est libérée une fois la réponse reçue. La durée de
+   * l’appel, publiée dans {@code directions.upstream} et signalée au
+   * disjoncteur, ne compte pas l’attente dans le limiteur.
+   *
+   * @param url l’URL à appeler
+   * @param mode mode de transport Google Maps
+   * @return la réponse de l’API, ou null en cas d’échec ou de refus
+   */
+  private String executeLimited(String url, String mode) {
+    if (!circuitBreaker.tryAcquire()) {
+      return requestFailed(new DirectionsCircuitBreaker.OpenException(mode));
+    }
+    try (DirectionsRateLimiter.Permit permit = rateLimiter.acquire(mode)) {
+      long start = System.nanoTime();
+      String response = executeRequest(url);
+      upstreamDone(mode, System.nanoTime() - start, response);
+      return response;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      circuitBreaker.onIgnored();
+      return requestFailed(e);
+    } catch (DirectionsRateLimiter.RejectedException e) {
+      circuitBreaker.onIgnored();
+      return requestFailed(e);
+    }
+  }
+  /**
+   * Version asynchrone de {@link #executeLimited} : l’autorisation est
+   * attendue dans un thread virtuel de {@code modeExecutor}, puis la requête
+   * est envoyée sans bloquer.
+   *
+   * @param url l’URL à appeler
+   * @param mode mode de transport Google Maps
+   * @return la réponse de l’API, ou null en cas d’échec ou de refus
+   */
+  private CompletableFuture<String> executeLimitedAsync(String url,
+                                                        String mode) {
+    if (!circuitBreaker.tryAcquire()) {
+      return CompletableFuture.completedFuture(
+          requestFailed(new DirectionsCircuitBreaker.OpenException(mode)));
+    }
+    return CompletableFuture
+        .supplyAsync(() -> {
+          try {
+            return rateLimiter.acquire(mode);
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+          }
+        }, modeExecutor)
+        .thenCompose(permit -> {
+          long start = System.nanoTime();
+          return executeRequestAsync(url).thenApply(response -> {
+            permit.close();
+            upstreamDone(mode, System.nanoTime() - start, response);
+            return response;
+          });
+        })
+        .exceptionally(e -> {
+          circuitBreaker.onIgnored();
+          return requestFailed(unwrap(e));
+        });
+  }
+  /**
+   * Publie la durée d’un appel Directions envoyé et la signale au
+   * disjoncteur.
+   *
+   * @param mode mode de transport Google Maps
+   * @param nanos la durée de l’appel, en nanosecondes
+   * @param response la réponse de l’API, ou null en cas d’échec
+   */
+  private void upstreamDone(String mode, long nanos, String response) {
+    searchMetrics.recordUpstream(mode, nanos, response != null);
+    circuitBreaker.onResult(response != null, nanos);
+    if (response != null) {
+      hedgePolicy.record(mode, nanos);
+    }
+  }
+  /**
+   * Exécute une requête Directions en la doublant si elle n’a pas répondu
+   * au délai de {@link DirectionsHedgePolicy} et que le budget le permet. La
+   * première réponse reçue l’emporte ; l’autre appel n’est pas annulé. Un
+   * appel initial en échec avant le délai n’est pas doublé, et son échec est
+   * rendu sans attendre le délai.
+   *
+   * @param url l’URL à appeler
+   * @param mode mode de transport Google Maps
+   * @return la réponse de l’API, ou null si aucun appel n’a réussi
+   */
+  private CompletableFuture<String> executeHedgedAsync(String url,
+                                                       String mode) {
+    CompletableFuture<String> primary = executeLimitedAsync(url, mode);
+    long delay =
+        hedgePolicy.appliesTo(mode) ? hedgePolicy.hedgeDelayNanos(mode) : -1;
+    if (delay < 0) {
+      return primary;
+    }
 
-      pb.redirectErrorStream(true);
-      Process process = pb.start();
+    CompletableFuture<String> hedge = new CompletableFuture<>();
+    AtomicBoolean decided = new AtomicBoolean();
+    CompletableFuture
+        .delayedExecutor(delay, TimeUnit.NANOSECONDS, modeExecutor)
+        .execute(() -> {
+          if (!decided.compareAndSet(false, true) || primary.isDone()) {
+            hedge.complete(null);
+          } else if (!hedgePolicy.tryHedge()) {
+            searchMetrics.recordHedge(mode, "over_budget");
+            hedge.complete(null);
+          } else {
+            searchMetrics.recordHedge(mode, "sent");
+            executeLimitedAsync(url, mode).thenAccept(hedge::complete);
+          }
+        });
 
-      BufferedReader reader =
-          new BufferedReader(new InputStreamReader(process.getInputStream()));
-      StringBuilder output = new StringBuilder();
-      String line;
-      while ((line = reader.readLine()) != null) {
-        output.append(line);
+    CompletableFuture<String> result = new CompletableFuture<>();
+    AtomicBoolean answered = new AtomicBoolean();
+    primary.thenAccept(response -> {
+      if (response == null) {
+        if (decided.compareAndSet(false, true)) {
+          hedge.complete(null);
+        }
+        hedge.thenAccept(result::complete);
+      } else if (answered.compareAndSet(false, true)) {
+        result.complete(response);
       }
-
-      boolean finished =
-          process.waitFor(20, java.util.concurrent.TimeUnit.SECONDS);
-      if (!finished) {
-        process.destroy();
-        System.err.println("❌ Curl timed out and was killed");
-        return null;
+    });
+    hedge.thenAccept(response -> {
+      if (response == null) {
+        primary.thenAccept(result::complete);
+      } else if (answered.compareAndSet(false, true)) {
+        searchMetrics.recordHedge(mode, "won");
+        result.complete(response);
       }
+    });
+    return result;
+  }
 
-      int exitCode = process.exitValue();
-      if (exitCode == 0) {
-        return output.toString();
-      } else {
-        System.err.println("❌ Curl failed with exit code " + exitCode);
-        return null;
-      }
+  /**
+   * Version bloquante de {@link #executeHedgedAsync}, pour les appels
+   * effectués dans un thread virtuel.
+   *
+   * @param url l’URL à appeler
+   * @param mode mode de transport Google Maps
+   * @return la réponse de l’API, ou null si aucun appel n’a réussi
+   */
+  private String awaitHedged(String url, String mode) {
+    try {
+      return executeHedgedAsync(url, mode).get();
     } catch (InterruptedException e) {
       Thread.currentThread().interrupt();
-      logger.error(GOOGLE_MAPS_ERROR, e);
+      return requestFailed(e);
+    } catch (ExecutionException e) {
+      return requestFailed(e.getCause());
+    }
+  }
+  /**
+   * Compte et journalise l’échec d’un appel Directions. Un refus du
+   * limiteur est compté avec la cause {@code rejected}, un appel évité par
+   * le disjoncteur avec la cause {@code circuit_open}.
+   *
+   * @param cause l’exception levée par le client, le limiteur ou le
+   *     disjoncteur
+   * @return toujours null
+   */
+  private String requestFailed(Throwable cause) {
+    if (cause instanceof DirectionsCircuitBreaker.OpenException) {
+      searchMetrics.recordUpstreamFailure("circuit_open");
+      logger.debug(cause.getMessage());
       return null;
-    } catch (Exception e) {
-      logger.error(GOOGLE_MAPS_ERROR, e);
+    }
+    if (cause instanceof DirectionsRateLimiter.RejectedException) {
+      searchMetrics.recordUpstreamFailure("rejected");
+      logger.warn(cause.getMessage());
       return null;
     }
+    String reason = cause instanceof InterruptedException ? "interrupted"
+                    : cause instanceof HttpTimeoutException ? "timeout"
+                    : cause instanceof IOException          ? "io"
+                                                            : "unexpected";
+    searchMetrics.recordUpstreamFailure(reason);
+    logger.error(GOOGLE_MAPS_ERROR, cause);
+    return null;
+  }
+  /**
+   * Retire l’enveloppe {@link CompletionException} d’un échec asynchrone.
+   *
+   * @param error l’échec reçu
+   * @return sa cause si elle existe, sinon l’échec lui-même
+   */
+  private static Throwable unwrap(Throwable error) {
+    return error instanceof CompletionException && error.getCause() != null
+        ? error.getCause()
+        : error;
+  }
+  /**
+   * Itinéraires d’un mode de transport, avec l’indication qu’ils ne sont pas
+   * issus d’une réponse à jour de l’API : appel en échec ou hors délai, ou
+   * derniers itinéraires connus servis à la place.
+   *
+   * @param mode mode de transport Google Maps
+   * @param routes les itinéraires du mode
+   * @param degraded true si les itinéraires sont absents ou périmés
+   */
+  record ModeRoutes(String mode, List<RouteModeResponse> routes,
+                    boolean degraded) {
+
+    /**
+     * Retourne le résultat d’un mode dont l’appel a échoué.
+     *
+     * @param mode mode de transport Google Maps
+     * @return des itinéraires vides, dégradés
+     */
+    static ModeRoutes failed(String mode) {
+      return new ModeRoutes(mode, List.of(), true);
+    }
   }
-}
\ No newline at end of file
+}
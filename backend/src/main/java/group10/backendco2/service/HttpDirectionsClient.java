@@ -0,0 +1,170 @@
+package group10.backendco2.service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Implémentation de {@link DirectionsClient} basée sur
+ * {@link java.net.http.HttpClient}.
+ *
+ * Un seul client est partagé par toute l’application : les connexions
+ * (keep-alive, HTTP/2 si disponible) et les sessions TLS sont réutilisées
+ * d’un appel à l’autre, y compris à travers le proxy configuré.
+ */
+@Component
+public class HttpDirectionsClient implements DirectionsClient {
+
+  /**
+   * Client HTTP partagé (pool de connexions interne).
+   */
+  private final HttpClient httpClient;
+
+  /**
+   * Délai maximal accordé à chaque requête.
+   */
+  private final Duration requestTimeout;
+
+  /**
+   * Constructeur du client Directions.
+   *
+   * @param proxy adresse du proxy sous la forme {@code hote:port}, ou chaîne
+   *     vide pour une connexion directe
+   * @param connectTimeoutMs délai de connexion en millisecondes
+   * @param requestTimeoutMs délai maximal d’une requête en millisecondes
+   * @throws IllegalArgumentException si l’adresse du proxy est invalide
+   */
+  public HttpDirectionsClient(
+      @Value("${google.directions.proxy:proxy.univ-lyon1.fr:3128}")
+      String proxy,
+      @Value("${google.directions.connect-timeout-ms:5000}")
+      long connectTimeoutMs,
+      @Value("${google.directions.request-timeout-ms:15000}")
+      long requestTimeoutMs) {
+    HttpClient.Builder builder =
+        HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_2)
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs));
+
+    if (proxy != null && !proxy.isBlank()) {
+      builder.proxy(ProxySelector.of(proxyAddress(proxy)));
+    }
+
+    this.httpClient = builder.build();
+    this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+  }
+
+  /**
+   * Lit l’adresse du proxy.
+   *
+   * @param proxy adresse du proxy sous la forme {@code hote:port}
+   * @return l’adresse du proxy
+   * @throws IllegalArgumentException si l’hôte ou le port manque, ou si le
+   *     port n’est pas un nombre entre 1 et 65535
+   */
+  static InetSocketAddress proxyAddress(String proxy) {
+    String value = proxy.trim();
+    int separator = value.lastIndexOf(':');
+    String host = separator > 0 ? value.substring(0, separator).trim() : "";
+    String digits = separator > 0 ? value.substring(separator + 1).trim() : "";
+    int port = digits.matches("\\d{1,5}") ? Integer.parseInt(digits) : 0;
+    if (host.isEmpty() || port < 1 || port > 65535) {
+      throw new IllegalArgumentException(
+          "google.directions.proxy invalide : \"" + proxy +
+          "\" (attendu : hote:port, ou vide pour une connexion directe)");
+    }
+    return new InetSocketAddress(host, port);
+  }
+
+  /**
+   * Exécute une requête GET et décompresse la réponse si nécessaire.
+   *
+   * @param url l’URL complète à appeler
+   * @return le corps de la réponse HTTP
+   * @throws IOException en cas d’erreur réseau, de délai dépassé ou de code
+   *     HTTP non 2xx
+   * @throws InterruptedException si le thread appelant est interrompu
+   */
+  @Override
+  public String get(String url) throws IOException, InterruptedException {
+    HttpResponse<InputStream> response = httpClient.send(
+        request(url), HttpResponse.BodyHandlers.ofInputStream());
+    return decode(response, response.body());
+  }
+
+  /**
+   * Exécute une requête GET de façon asynchrone : aucun thread n’attend la
+   * réponse, dont le corps est lu puis décompressé par l’exécuteur interne du
+   * client HTTP.
+   *
+   * @param url l’URL complète à appeler
+   * @return le corps de la réponse HTTP, ou un échec portant une
+   *     {@link IOException} (dont {@link java.net.http.HttpTimeoutException})
+   */
+  @Override
+  public CompletableFuture<String> getAsync(String url) {
+    return httpClient
+        .sendAsync(request(url), HttpResponse.BodyHandlers.ofByteArray())
+        .thenApply(response -> {
+          try {
+            return decode(response,
+                          new ByteArrayInputStream(response.body()));
+          } catch (IOException e) {
+            throw new CompletionException(e);
+          }
+        });
+  }
+
+  /**
+   * Construit la requête GET d’une URL.
+   *
+   * @param url l’URL complète à appeler
+   * @return la requête, avec délai et compression gzip acceptée
+   */
+  private HttpRequest request(String url) {
+    return HttpRequest.newBuilder(URI.create(url))
+        .timeout(requestTimeout)
+        .header("Accept-Encoding", "gzip")
+        .GET()
+        .build();
+  }
+
+  /**
+   * Lit le corps d’une réponse, le décompresse si nécessaire et vérifie le
+   * code HTTP.
+   *
+   * @param response la réponse reçue
+   * @param raw le corps brut de la réponse
+   * @return le corps décodé
+   * @throws IOException si la lecture échoue ou si le code HTTP n’est pas 2xx
+   */
+  private static String decode(HttpResponse<?> response, InputStream raw)
+      throws IOException {
+    boolean gzip = response.headers()
+                       .firstValue("Content-Encoding")
+                       .map(value -> value.equalsIgnoreCase("gzip"))
+                       .orElse(false);
+
+    try (InputStream body = gzip ? new GZIPInputStream(raw) : raw) {
+      String content = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+      if (response.statusCode() / 100 != 2) {
+        throw new IOException("Réponse HTTP " + response.statusCode());
+      }
+      return content;
+    }
+  }
+}
@@ -3,6 +3,7 @@ package group10.backendco2.service;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
@@ -10,6 +11,7 @@ import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -20,6 +22,9 @@ import org.springframework.stereotype.Service;
  *   <li>Extraction des informations utilisateur depuis un token</li>
  *   <li>Validation de la signature et de la durée de validité d’un token</li>
  * </ul>
+ *
+ * La clé de signature et le parseur, immuables et sûrs entre threads, sont
+ * construits une seule fois puis réutilisés pour chaque token.
  */
 
 @Service
@@ -34,13 +39,24 @@ public class JwtService {
   /** Durée de validité des tokens JWT, en millisecondes. */
   @Value("${jwt.expiration}") private long jwtExpirationMs;
 
+  /** Clé de signature, construite au premier usage. */
+  private volatile Key signingKey;
+
+  /** Parseur des tokens, construit au premier usage. */
+  private volatile JwtParser parser;
+
   /**
    * Récupère la clé secrète utilisée pour signer les tokens JWT.
    *
    * @return la clé secrète
    */
   public Key getSigningKey() {
-    return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    Key key = signingKey;
+    if (key == null) {
+      key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+      signingKey = key;
+    }
+    return key;
   }
 
   /**
@@ -100,6 +116,21 @@ public class JwtService {
     }
   }
 
+  /**
+   * Vérifie un token JWT et en extrait les claims en une seule lecture.
+   *
+   * @param token le token JWT
+   * @return les claims du token, ou {@link Optional#empty()} si le token est
+   *     invalide ou expiré
+   */
+  public Optional<Claims> parseClaims(String token) {
+    try {
+      return Optional.of(parseToken(token).getBody());
+    } catch (JwtException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
   /**
    * Parse et valide le token JWT en utilisant la clé de signature.
    *
@@ -109,9 +140,11 @@ public class JwtService {
    */
 
   private Jws<Claims> parseToken(String token) {
-    return Jwts.parserBuilder()
-        .setSigningKey(getSigningKey())
-        .build()
-        .parseClaimsJws(token);
+    JwtParser current = parser;
+    if (current == null) {
+      current = Jwts.parserBuilder().setSigningKey(getSigningKey()).build();
+      parser = current;
+    }
+    return current.parseClaimsJws(token);
   }
 }
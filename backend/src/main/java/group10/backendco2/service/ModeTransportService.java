@@ -23,6 +23,10 @@ public class ModeTransportService {
    * Référentiel pour accéder aux données des modes de transport.
    */
   @Autowired private ModeTransportRepository modeTransportRepository;
+  /**
+   * Catalogue en mémoire, rechargé après chaque modification.
+   */
+  @Autowired private EmissionFactorCatalog emissionFactorCatalog;
   /**
    * Récupère tous les modes de transport.
    *
@@ -40,7 +44,9 @@ public class ModeTransportService {
    */
 
   public ModeTransport save(ModeTransport modeTransport) {
-    return modeTransportRepository.save(modeTransport);
+    ModeTransport saved = modeTransportRepository.save(modeTransport);
+    emissionFactorCatalog.refresh();
+    return saved;
   }
 
   /**
@@ -53,19 +59,25 @@ public class ModeTransportService {
    *     Optional#empty()} si le mode de transport n'existe pas
    */
   public Optional<ModeTransport> update(Long id, ModeTransport updated) {
-    return modeTransportRepository.findById(id).map(existing -> {
-      existing.setNom(updated.getNom());
-      existing.setConsommationMoyenne(updated.getConsommationMoyenne());
-      existing.setCapacite(updated.getCapacite());
-      existing.setTypeTransport(updated.getTypeTransport());
-      existing.setSourceEnergie(updated.getSourceEnergie());
-      return modeTransportRepository.save(existing);
-    });
+    Optional<ModeTransport> result =
+        modeTransportRepository.findById(id).map(existing -> {
+          existing.setNom(updated.getNom());
+          existing.setConsommationMoyenne(updated.getConsommationMoyenne());
+          existing.setCapacite(updated.getCapacite());
+          existing.setTypeTransport(updated.getTypeTransport());
+          existing.setSourceEnergie(updated.getSourceEnergie());
+          return modeTransportRepository.save(existing);
+        });
+    result.ifPresent(saved -> emissionFactorCatalog.refresh());
+    return result;
   }
   /**
    * Supprime un mode de transport par son identifiant.
    *
    * @param id l'identifiant du mode de transport à supprimer
    */
-  public void delete(Long id) { modeTransportRepository.deleteById(id); }
+  public void delete(Long id) {
+    modeTransportRepository.deleteById(id);
+    emissionFactorCatalog.refresh();
+  }
 }
@@ -0,0 +1,40 @@
+package group10.backendco2.service;
+
+import group10.backendco2.dto.TransportEmissionDto;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Résultat d’une recherche multimodale, obtenu par
+ * {@link TransportEmissionService#calculateMultiModeEmissionsWithStatus} : les
+ * émissions filtrées et les modes Google Maps qui n’ont pas reçu de réponse à
+ * jour (échec, délai dépassé ou derniers itinéraires connus servis à la
+ * place).
+ *
+ * @param emissions les émissions filtrées
+ * @param degradedModes les modes dégradés, dans l’ordre des modes
+ */
+public record MultiModeEmissions(List<TransportEmissionDto> emissions,
+                                 Set<String> degradedModes) {
+
+  /**
+   * Constructeur d’un résultat dont les modes dégradés ne sont pas
+   * modifiables.
+   *
+   * @param emissions les émissions filtrées
+   * @param degradedModes les modes dégradés
+   */
+  public MultiModeEmissions {
+    degradedModes =
+        Collections.unmodifiableSet(new LinkedHashSet<>(degradedModes));
+  }
+
+  /**
+   * Indique si tous les modes demandés ont reçu une réponse à jour.
+   *
+   * @return true si aucun mode n’est dégradé
+   */
+  public boolean isComplete() { return degradedModes.isEmpty(); }
+}
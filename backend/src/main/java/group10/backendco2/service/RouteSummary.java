@@ -0,0 +1,103 @@
+package group10.backendco2.service;
+
+import group10.backendco2.dto.RouteModeResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Synthèse des itinéraires d’un trajet, par mode de transport Google Maps,
+ * obtenue par {@link GoogleMapService#fetchRouteSummary} : la distance, la
+ * durée et les itinéraires de chaque mode sont lus dans le même résultat,
+ * sans nouvel appel Directions.
+ *
+ * @param byMode les itinéraires de chaque mode récupéré, dans l’ordre des
+ *     modes
+ * @param degradedModes les modes en échec, hors délai ou servis par leurs
+ *     derniers itinéraires connus
+ */
+public record RouteSummary(Map<String, List<RouteModeResponse>> byMode,
+                           Set<String> degradedModes) {
+
+  /**
+   * Constructeur d’une synthèse non modifiable.
+   *
+   * @param byMode les itinéraires de chaque mode récupéré
+   * @param degradedModes les modes dégradés
+   */
+  public RouteSummary {
+    byMode = Collections.unmodifiableMap(new LinkedHashMap<>(byMode));
+    degradedModes =
+        Collections.unmodifiableSet(new LinkedHashSet<>(degradedModes));
+  }
+
+  /**
+   * Constructeur d’une synthèse sans mode dégradé.
+   *
+   * @param byMode les itinéraires de chaque mode récupéré
+   */
+  public RouteSummary(Map<String, List<RouteModeResponse>> byMode) {
+    this(byMode, Set.of());
+  }
+
+  /**
+   * Indique si tous les modes demandés ont reçu une réponse à jour de l’API.
+   *
+   * @return true si aucun mode n’est dégradé
+   */
+  public boolean isComplete() { return degradedModes.isEmpty(); }
+
+  /**
+   * Retourne les itinéraires d’un mode.
+   *
+   * @param mode le mode Google Maps
+   * @return les itinéraires, vide si le mode n’a pas été récupéré
+   */
+  public List<RouteModeResponse> routes(String mode) {
+    return byMode.getOrDefault(mode, List.of());
+  }
+
+  /**
+   * Retourne les itinéraires de tous les modes, dans l’ordre des modes.
+   *
+   * @return une nouvelle liste des itinéraires
+   */
+  public List<RouteModeResponse> routes() {
+    List<RouteModeResponse> routes = new ArrayList<>();
+    byMode.values().forEach(routes::addAll);
+    return routes;
+  }
+
+  /**
+   * Retourne la distance du premier itinéraire en voiture.
+   *
+   * @return la distance en kilomètres, ou -1 sans itinéraire en voiture
+   */
+  public float distanceKm() {
+    return driving().map(RouteModeResponse::getDistanceKm).orElse(-1f);
+  }
+
+  /**
+   * Retourne la durée estimée du premier itinéraire en voiture.
+   *
+   * @return la durée, sous forme de texte, ou vide sans itinéraire en
+   *     voiture
+   */
+  public Optional<String> estimatedTime() {
+    return driving().map(RouteModeResponse::getEstimatedTime);
+  }
+
+  /**
+   * Retourne le premier itinéraire en voiture.
+   *
+   * @return l’itinéraire, ou vide s’il n’y en a aucun
+   */
+  private Optional<RouteModeResponse> driving() {
+    return routes(GoogleMapService.MODE_DRIVING).stream().findFirst();
+  }
+}
@@ -0,0 +1,375 @@
+package group10.backendco2.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.springframework.stereotype.Component;
+
+/**
+ * Métriques Micrometer de la recherche multimodale, exposées par l’actuator
+ * (dont {@code /actuator/prometheus}).
+ *
+ * <ul>
+ *   <li>{@code directions.upstream} : durée d’un appel Directions, par mode
+ * et issue ({@code success} ou {@code failure})</li>
+ *   <li>{@code directions.upstream.failures} : appels en échec, par cause
+ * ({@code timeout}, {@code io}, {@code interrupted}, {@code unexpected},
+ * {@code rejected} pour un refus du limiteur, {@code circuit_open} pour un
+ * appel évité par le disjoncteur)</li>
+ *   <li>{@code directions.batch.timeouts} : modes abandonnés au délai global,
+ * par mode</li>
+ *   <li>{@code directions.response.size} : taille des réponses, par mode</li>
+ *   <li>{@code directions.parse} : durée d’analyse d’une réponse, par
+ * mode</li>
+ *   <li>{@code search.stage} : durée de chaque étape d’une recherche
+ * ({@code fetch}, {@code catalog}, {@code emission}, {@code filter},
+ * {@code total})</li>
+ *   <li>{@code search.emission} : durée du calcul d’un itinéraire, par
+ * mode</li>
+ *   <li>{@code search.transit.empty} : itinéraires en transport en commun sans
+ * sous-mode</li>
+ *   <li>{@code directions.limiter.wait} : attente d’un appel Directions dans
+ * le limiteur, par mode</li>
+ *   <li>{@code directions.limiter.rejections} : appels refusés par le
+ * limiteur, par mode et limite ({@code rate} ou {@code concurrency})</li>
+ *   <li>{@code directions.stale.served} : derniers itinéraires connus servis
+ * à la place d’un appel en échec, par mode</li>
+ *   <li>{@code directions.hedge} : doublements des appels lents, par mode et
+ * issue ({@code sent} envoyé, {@code won} plus rapide que l’appel initial,
+ * {@code over_budget} évité faute de budget)</li>
+ *   <li>{@code directions.prewarm} : itinéraires traités par le préchauffage
+ * du cache, par issue ({@code refreshed}, {@code skipped} encore valide,
+ * {@code failed})</li>
+ * </ul>
+ * Les compteurs sont créés à la première utilisation puis réutilisés ; les
+ * étiquettes ne prennent que des valeurs en nombre borné.
+ */
+@Component
+public class SearchMetrics {
+
+  /**
+   * Étapes d’une recherche multimodale.
+   */
+  public enum Stage {
+    /** Appels Directions de tous les modes. */
+    FETCH,
+    /** Recherche des modes dans le catalogue. */
+    CATALOG,
+    /** Calcul des émissions, consommations et prix. */
+    EMISSION,
+    /** Filtrage des modes les plus efficaces. */
+    FILTER,
+    /** Recherche complète. */
+    TOTAL
+  }
+
+  /**
+   * Registre recevant les métriques.
+   */
+  private final MeterRegistry registry;
+
+  /**
+   * Durées des étapes de recherche.
+   */
+  private final Map<Stage, Timer> stageTimers = new EnumMap<>(Stage.class);
+
+  /**
+   * Durées des appels Directions, par mode et issue.
+   */
+  private final Map<String, Timer> upstreamTimers = new ConcurrentHashMap<>();
+
+  /**
+   * Appels Directions en échec, par cause.
+   */
+  private final Map<String, Counter> upstreamFailures =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Modes abandonnés au délai global, par mode.
+   */
+  private final Map<String, Counter> batchTimeouts = new ConcurrentHashMap<>();
+
+  /**
+   * Tailles des réponses Directions, par mode.
+   */
+  private final Map<String, DistributionSummary> responseSizes =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Durées d’analyse des réponses, par mode.
+   */
+  private final Map<String, Timer> parseTimers = new ConcurrentHashMap<>();
+
+  /**
+   * Durées de calcul d’un itinéraire, par mode.
+   */
+  private final Map<String, Timer> emissionTimers = new ConcurrentHashMap<>();
+
+  /**
+   * Attentes dans le limiteur des appels Directions, par mode.
+   */
+  private final Map<String, Timer> limiterWaits = new ConcurrentHashMap<>();
+
+  /**
+   * Appels Directions refusés par le limiteur, par mode et limite.
+   */
+  private final Map<String, Counter> limiterRejections =
+      new ConcurrentHashMap<>();
+
+  /**
+   * Derniers itinéraires connus servis après un échec, par mode.
+   */
+  private final Map<String, Counter> staleServed = new ConcurrentHashMap<>();
+
+  /**
+   * Doublements des appels Directions, par mode et issue.
+   */
+  private final Map<String, Counter> hedges = new ConcurrentHashMap<>();
+
+  /**
+   * Itinéraires traités par le préchauffage du cache, par issue.
+   */
+  private final Map<String, Counter> prewarms = new ConcurrentHashMap<>();
+
+  /**
+   * Itinéraires en transport en commun sans sous-mode.
+   */
+  private final Counter emptyTransit;
+
+  /**
+   * Constructeur des métriques de recherche.
+   *
+   * @param registry registre Micrometer recevant les métriques
+   */
+  public SearchMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    for (Stage stage : Stage.values()) {
+      stageTimers.put(stage,
+                      Timer.builder("search.stage")
+                          .description("Durée d’une étape de la recherche")
+                          .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                          .register(registry));
+    }
+    this.emptyTransit =
+        Counter.builder("search.transit.empty")
+            .description("Itinéraires en transport en commun sans sous-mode")
+            .register(registry);
+  }
+
+  /**
+   * Enregistre la durée d’un appel Directions.
+   *
+   * @param mode le mode Google Maps
+   * @param nanos la durée, en nanosecondes
+   * @param success true si une réponse a été obtenue
+   */
+  public void recordUpstream(String mode, long nanos, boolean success) {
+    String outcome = success ? "success" : "failure";
+    upstreamTimers
+        .computeIfAbsent(mode + "|" + outcome,
+                         key
+                         -> Timer.builder("directions.upstream")
+                                .description("Durée d’un appel Directions")
+                                .tag("mode", mode)
+                                .tag("outcome", outcome)
+                                .register(registry))
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Compte un appel Directions en échec.
+   *
+   * @param reason la cause ({@code timeout}, {@code io}, {@code interrupted},
+   *     {@code unexpected} ou {@code rejected})
+   */
+  public void recordUpstreamFailure(String reason) {
+    upstreamFailures
+        .computeIfAbsent(reason,
+                         key
+                         -> Counter.builder("directions.upstream.failures")
+                                .description("Appels Directions en échec")
+                                .tag("reason", reason)
+                                .register(registry))
+        .increment();
+  }
+
+  /**
+   * Compte un mode abandonné au délai global d’une recherche.
+   *
+   * @param mode le mode Google Maps
+   */
+  public void recordBatchTimeout(String mode) {
+    batchTimeouts
+        .computeIfAbsent(mode,
+                         key
+                         -> Counter.builder("directions.batch.timeouts")
+                                .description("Modes hors délai global")
+                                .tag("mode", mode)
+                                .register(registry))
+        .increment();
+  }
+
+  /**
+   * Enregistre la taille d’une réponse Directions.
+   *
+   * @param mode le mode Google Maps
+   * @param size la taille de la réponse décompressée, en caractères (proche
+   *     du nombre d’octets, les réponses étant presque entièrement ASCII)
+   */
+  public void recordResponseSize(String mode, int size) {
+    responseSizes
+        .computeIfAbsent(mode,
+                         key
+                         -> DistributionSummary
+                                .builder("directions.response.size")
+                                .description("Taille des réponses Directions")
+                                .baseUnit("bytes")
+                                .tag("mode", mode)
+                                .register(registry))
+        .record(size);
+  }
+
+  /**
+   * Enregistre la durée d’analyse d’une réponse Directions.
+   *
+   * @param mode le mode Google Maps
+   * @param nanos la durée, en nanosecondes
+   */
+  public void recordParse(String mode, long nanos) {
+    modeTimer(parseTimers, "directions.parse", "Durée d’analyse", mode)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Enregistre la durée d’une étape de recherche.
+   *
+   * @param stage l’étape
+   * @param nanos la durée, en nanosecondes
+   */
+  public void recordStage(Stage stage, long nanos) {
+    stageTimers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Enregistre la durée du calcul des émissions d’un itinéraire.
+   *
+   * @param mode le mode Google Maps de l’itinéraire
+   * @param nanos la durée, en nanosecondes
+   */
+  public void recordEmission(String mode, long nanos) {
+    modeTimer(emissionTimers, "search.emission", "Durée de calcul", mode)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Compte un itinéraire en transport en commun sans sous-mode.
+   */
+  public void recordEmptyTransit() { emptyTransit.increment(); }
+
+  /**
+   * Enregistre l’attente d’un appel Directions autorisé par le limiteur.
+   *
+   * @param mode le mode Google Maps
+   * @param nanos la durée d’attente, en nanosecondes
+   */
+  public void recordLimiterWait(String mode, long nanos) {
+    modeTimer(limiterWaits, "directions.limiter.wait",
+              "Attente dans le limiteur", mode)
+        .record(nanos, TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Compte un appel Directions refusé par le limiteur.
+   *
+   * @param mode le mode Google Maps
+   * @param reason la limite atteinte ({@code rate} ou {@code concurrency})
+   */
+  public void recordLimiterRejection(String mode, String reason) {
+    limiterRejections
+        .computeIfAbsent(mode + "|" + reason,
+                         key
+                         -> Counter.builder("directions.limiter.rejections")
+                                .description("Appels refusés par le limiteur")
+                                .tag("mode", mode)
+                                .tag("reason", reason)
+                                .register(registry))
+        .increment();
+  }
+
+  /**
+   * Compte les derniers itinéraires connus d’un mode servis à la place d’un
+   * appel Directions en échec.
+   *
+   * @param mode le mode Google Maps
+   */
+  public void recordStaleServed(String mode) {
+    staleServed
+        .computeIfAbsent(mode,
+                         key
+                         -> Counter.builder("directions.stale.served")
+                                .description("Itinéraires périmés servis")
+                                .tag("mode", mode)
+                                .register(registry))
+        .increment();
+  }
+
+  /**
+   * Compte un doublement d’appel Directions.
+   *
+   * @param mode le mode Google Maps
+   * @param outcome l’issue ({@code sent}, {@code won} ou
+   *     {@code over_budget})
+   */
+  public void recordHedge(String mode, String outcome) {
+    hedges
+        .computeIfAbsent(mode + "|" + outcome,
+                         key
+                         -> Counter.builder("directions.hedge")
+                                .description("Doublements des appels lents")
+                                .tag("mode", mode)
+                                .tag("outcome", outcome)
+                                .register(registry))
+        .increment();
+  }
+
+  /**
+   * Compte un itinéraire traité par le préchauffage du cache.
+   *
+   * @param outcome l’issue ({@code refreshed}, {@code skipped} ou
+   *     {@code failed})
+   */
+  public void recordPrewarm(String outcome) {
+    prewarms
+        .computeIfAbsent(outcome,
+                         key
+                         -> Counter.builder("directions.prewarm")
+                                .description("Itinéraires préchauffés")
+                                .tag("outcome", outcome)
+                                .register(registry))
+        .increment();
+  }
+
+  /**
+   * Retourne le timer d’un mode, en le créant à la première utilisation.
+   *
+   * @param timers les timers déjà créés, par mode
+   * @param name le nom de la métrique
+   * @param description la description de la métrique
+   * @param mode le mode Google Maps
+   * @return le timer
+   */
+  private Timer modeTimer(Map<String, Timer> timers, String name,
+                          String description, String mode) {
+    return timers.computeIfAbsent(mode, key
+                                  -> Timer.builder(name)
+                                         .description(description)
+                                         .tag("mode", mode)
+                                         .register(registry));
+  }
+}
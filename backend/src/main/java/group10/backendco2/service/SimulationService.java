@@ -1,5 +1,7 @@
 package group10.backendco2.service;
 
+import group10.backendco2.common.KeysetCursor;
+import group10.backendco2.common.KeysetPage;
 import group10.backendco2.dto.SimulationRequest;
 import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.Simulation;
@@ -80,4 +82,29 @@ public class SimulationService {
     public List<Simulation> getSimulationsByUser(Long userId) {
         return simulationRepository.findByUtilisateurId(userId);
     }
+
+    /**
+     * Récupère une page des simulations d'un utilisateur donné, de la plus
+     * récente à la plus ancienne.
+     *
+     * @param userId l'identifiant de l'utilisateur
+     * @param cursor le curseur de la page à lire, ou null pour la première
+     * @param size la taille de la page
+     * @return la page de simulations
+     * @throws IllegalArgumentException si le curseur est invalide
+     */
+    public KeysetPage<Simulation> getSimulationsPage(Long userId, String cursor,
+                                                     int size) {
+        KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+        List<Simulation> simulations = KeysetPage.fetch(after, size,
+            (afterId, limit) -> afterId == null
+                ? simulationRepository.findUndatedPage(userId, limit)
+                : simulationRepository.findUndatedPageAfter(userId, afterId, limit),
+            (dated, limit) -> dated == null
+                ? simulationRepository.findDatedPage(userId, limit)
+                : simulationRepository.findPageAfter(userId, dated.date(),
+                                                     dated.id(), limit));
+        return KeysetPage.of(simulations, size,
+                             s -> KeysetCursor.of(s.getDateSimulation(), s.getId()));
+    }
 }
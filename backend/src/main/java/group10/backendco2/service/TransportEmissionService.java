@@ -1,23 +1,25 @@
 package group10.backendco2.service;
 
+import group10.backendco2.common.SingleFlight;
 import group10.backendco2.dto.RouteModeResponse;
 import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.CarburantFossile;
 import group10.backendco2.model.ModeTransport;
 import group10.backendco2.model.SourceElectrique;
 import group10.backendco2.model.Trajet;
-import group10.backendco2.repository.CarburantFossileRepository;
-import group10.backendco2.repository.ModeTransportRepository;
-import group10.backendco2.repository.SourceElectriqueRepository;
+import io.micrometer.core.instrument.Metrics;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -42,24 +44,27 @@ public class TransportEmissionService {
       LoggerFactory.getLogger(TransportEmissionService.class);
 
   /**
-   * Référentiel pour accéder aux données des modes de transport.
+   * Catalogue en mémoire des modes de transport et des prix de l’énergie.
    */
-  @Autowired private ModeTransportRepository modeTransportRepository;
+  @Autowired private EmissionFactorCatalog emissionFactorCatalog;
 
   /**
-   * Référentiel pour accéder aux données des carburants fossiles.
+   * Service pour interagir avec l'API Google Maps.
    */
-  @Autowired private CarburantFossileRepository carburantFossileRepository;
+  @Autowired private GoogleMapService googleMapService;
 
   /**
-   * Référentiel pour accéder aux données des sources électriques.
+   * Métriques des étapes de recherche (sans registre hors contexte Spring).
    */
-  @Autowired private SourceElectriqueRepository sourceElectriqueRepository;
+  @Autowired
+  private SearchMetrics searchMetrics =
+      new SearchMetrics(Metrics.globalRegistry);
 
   /**
-   * Service pour interagir avec l'API Google Maps.
+   * Recherches multimodales en cours, partagées entre appelants identiques.
    */
-  @Autowired private GoogleMapService googleMapService;
+  private final SingleFlight<String, MultiModeEmissions> inFlightSearches =
+      new SingleFlight<>();
 
 
   /**
@@ -74,7 +79,7 @@ public class TransportEmissionService {
     Set<ModeTransport> modeSet = trajet.getModesTransport();
     List<ModeTransport> modes = (modeSet != null && !modeSet.isEmpty())
                                     ? new ArrayList<>(modeSet)
-                                    : modeTransportRepository.findAll();
+                                    : emissionFactorCatalog.getModes();
 
     float distanceKm = trajet.getDistance();
 
@@ -90,6 +95,8 @@ public class TransportEmissionService {
 
   /**
    * Récupère le temps estimé pour un trajet donné entre deux points.
+   * L’itinéraire en voiture est partagé avec la recherche multimodale du même
+   * trajet (voir {@link GoogleMapService#fetchRouteSummary}).
    *
    * @param origin le point de départ
    * @param destination le point d'arrivée
@@ -113,46 +120,36 @@ public class TransportEmissionService {
   }
 
 
+  /**
+   * Retourne la durée d’un itinéraire en minutes, arrondie comme le texte de
+   * Google Maps. La durée en secondes de la réponse est utilisée si elle est
+   * connue, le texte sinon.
+   *
+   * @param route l’itinéraire
+   * @return la durée en minutes
+   */
+  private float routeMinutes(RouteModeResponse route) {
+    Integer seconds = route.getDurationSeconds();
+    if (seconds != null && seconds >= 0) {
+      return Math.round(seconds / 60f);
+    }
+    return extractMinutesFromText(route.getEstimatedTime());
+  }
+
   /**
    * Extrait le temps en minutes à partir d'une chaîne de texte représentant
-   * une durée.
+   * une durée (voir {@link DurationTextParser}).
    *
    * @param durationText la chaîne de texte représentant la durée
-   * @return le temps en minutes
+   * @return le temps en minutes, ou 0 si la durée est illisible
    */
   private float extractMinutesFromText(String durationText) {
-    int totalMinutes = 0;
-
-    try {
-      durationText = durationText.toLowerCase();
-
-      if (durationText.contains("day")) {
-        String[] parts = durationText.split("day");
-        String daysPart = parts[0].replaceAll("[^0-9]", "").trim();
-        totalMinutes += Integer.parseInt(daysPart) * 24 * 60;
-        if (parts.length > 1)
-          durationText = parts[1];
-      }
-
-      if (durationText.contains("hour")) {
-        String[] parts = durationText.split("hour");
-        String hoursPart = parts[0].replaceAll("[^0-9]", "").trim();
-        totalMinutes += Integer.parseInt(hoursPart) * 60;
-        if (parts.length > 1)
-          durationText = parts[1];
-      }
-
-      if (durationText.contains("min")) {
-        String mins = durationText.replaceAll("[^0-9]", "").trim();
-        if (!mins.isEmpty())
-          totalMinutes += Integer.parseInt(mins);
-      }
-    } catch (Exception e) {
-      System.err.println("⚠️ Error parsing duration: \"" + durationText + "\"");
-      logger.error("Erreur lors de l’appel TransportEmissionService", e);
+    int minutes = DurationTextParser.parseMinutes(durationText);
+    if (minutes == DurationTextParser.UNREADABLE) {
+      logger.debug("Durée illisible : \"{}\"", durationText);
+      return 0;
     }
-
-    return totalMinutes;
+    return minutes;
   }
 
   /**
@@ -178,6 +175,11 @@ public class TransportEmissionService {
    * Calcule les émissions de CO2 pour plusieurs modes de transport entre deux
    * points.
    *
+   * Les recherches identiques (même origine et destination normalisées)
+   * lancées simultanément partagent un seul calcul et reçoivent le même
+   * résultat. La durée de chaque étape est publiée par
+   * {@link SearchMetrics}.
+   *
    * @param origin le point de départ
    * @param destination le point d'arrivée
    * @return une liste d'objets {@link TransportEmissionDto} contenant les
@@ -185,19 +187,204 @@ public class TransportEmissionService {
    */
   public List<TransportEmissionDto>
   calculateMultiModeEmissions(String origin, String destination) {
-    List<RouteModeResponse> transportData =
-        googleMapService.fetchAllTransportModes(origin, destination);
-    String mapsUrl = "https://www.google.com/maps/dir/" +
-                     origin.replace(" ", "+") + "/" +
-                     destination.replace(" ", "+");
-    List<ModeTransport> allModes = modeTransportRepository.findAll();
+    return calculateMultiModeEmissionsWithStatus(origin, destination)
+        .emissions();
+  }
+
+  /**
+   * Variante de {@link #calculateMultiModeEmissions} qui indique aussi les
+   * modes Google Maps en échec, hors délai ou servis par leurs derniers
+   * itinéraires connus, pour les appelants qui ne doivent pas enregistrer un
+   * résultat partiel comme complet.
+   *
+   * @param origin le point de départ
+   * @param destination le point d'arrivée
+   * @return les émissions et les modes dégradés
+   */
+  public MultiModeEmissions
+  calculateMultiModeEmissionsWithStatus(String origin, String destination) {
+    String key = DirectionsCache.normalize(origin) + "|" +
+                 DirectionsCache.normalize(destination);
+    return inFlightSearches.execute(
+        key, () -> computeMultiModeEmissions(origin, destination));
+  }
+
+  /**
+   * Variante non bloquante de {@link #calculateMultiModeEmissions} : les
+   * appels Google Maps sont asynchrones et aucun thread n’est retenu pendant
+   * l’attente. Les recherches identiques en cours, synchrones ou non, sont
+   * partagées de la même façon.
+   *
+   * @param origin le point de départ
+   * @param destination le point d'arrivée
+   * @return les mêmes émissions que {@link #calculateMultiModeEmissions},
+   *     disponibles à la fin de la recherche
+   */
+  public CompletableFuture<List<TransportEmissionDto>>
+  calculateMultiModeEmissionsAsync(String origin, String destination) {
+    String key = DirectionsCache.normalize(origin) + "|" +
+                 DirectionsCache.normalize(destination);
+    return inFlightSearches
+        .executeAsync(key,
+                      ()
+                          -> computeMultiModeEmissionsAsync(origin, destination,
+                                                            emissions -> {}))
+        .thenApply(MultiModeEmissions::emissions);
+  }
+
+  /**
+   * Variante progressive de {@link #calculateMultiModeEmissionsAsync} :
+   * {@code onMode} reçoit les émissions de chaque mode dès que ses
+   * itinéraires sont calculés, avant le filtrage final. Chaque appelant a
+   * ses propres notifications : la recherche n’est pas partagée.
+   *
+   * @param origin le point de départ
+   * @param destination le point d'arrivée
+   * @param onMode appelé une fois par mode Google Maps, éventuellement depuis
+   *     des threads différents et avec une liste vide
+   * @return les émissions filtrées, disponibles à la fin de la recherche
+   */
+  public CompletableFuture<List<TransportEmissionDto>>
+  streamMultiModeEmissions(String origin, String destination,
+                           Consumer<List<TransportEmissionDto>> onMode) {
+    return computeMultiModeEmissionsAsync(origin, destination, onMode)
+        .thenApply(MultiModeEmissions::emissions);
+  }
+
+  /**
+   * Effectue le calcul des émissions de CO2 pour plusieurs modes de transport
+   * entre deux points.
+   *
+   * @param origin le point de départ
+   * @param destination le point d'arrivée
+   * @return les émissions filtrées et les modes dégradés
+   */
+  private MultiModeEmissions computeMultiModeEmissions(String origin,
+                                                       String destination) {
+    long start = System.nanoTime();
+    RouteSummary summary =
+        googleMapService.fetchRouteSummary(origin, destination);
+    long fetched = System.nanoTime();
+    ModeEmissions computed =
+        computeEmissions(summary.routes(), mapsUrl(origin, destination));
+
+    long filterStart = System.nanoTime();
+    List<TransportEmissionDto> filtered =
+        filterMostEfficientModes(computed.emissions());
+    long end = System.nanoTime();
+    searchMetrics.recordStage(SearchMetrics.Stage.FETCH, fetched - start);
+    searchMetrics.recordStage(SearchMetrics.Stage.CATALOG,
+                              computed.catalogNanos());
+    searchMetrics.recordStage(SearchMetrics.Stage.EMISSION,
+                              computed.emissionNanos());
+    searchMetrics.recordStage(SearchMetrics.Stage.FILTER, end - filterStart);
+    searchMetrics.recordStage(SearchMetrics.Stage.TOTAL, end - start);
+    return new MultiModeEmissions(filtered, summary.degradedModes());
+  }
+
+  /**
+   * Effectue le calcul des émissions sans bloquer : les émissions de chaque
+   * mode sont calculées dès que ses itinéraires arrivent, puis filtrées une
+   * fois tous les modes terminés. L’étape {@code fetch}, qui se recouvre avec
+   * les calculs, n’est pas publiée.
+   *
+   * @param origin le point de départ
+   * @param destination le point d'arrivée
+   * @param onMode appelé avec les émissions non filtrées de chaque mode
+   * @return les émissions filtrées, dans l’ordre des modes Google Maps, et
+   *     les modes dégradés
+   */
+  private CompletableFuture<MultiModeEmissions>
+  computeMultiModeEmissionsAsync(String origin, String destination,
+                                 Consumer<List<TransportEmissionDto>> onMode) {
+    long start = System.nanoTime();
+    String mapsUrl = mapsUrl(origin, destination);
+    List<CompletableFuture<GoogleMapService.ModeRoutes>> fetched =
+        googleMapService.fetchModeRoutesAsync(origin, destination);
+    List<CompletableFuture<ModeEmissions>> perMode =
+        fetched.stream()
+            .map(routes -> routes.thenApply(data -> {
+              ModeEmissions computed = computeEmissions(data.routes(), mapsUrl);
+              onMode.accept(computed.emissions());
+              return computed;
+            }))
+            .toList();
+
+    return CompletableFuture
+        .allOf(perMode.toArray(new CompletableFuture<?>[0]))
+        .thenApply(done -> {
+          List<TransportEmissionDto> emissions = new ArrayList<>();
+          long catalogNanos = 0;
+          long emissionNanos = 0;
+          Set<String> degraded = new LinkedHashSet<>();
+          for (int i = 0; i < perMode.size(); i++) {
+            ModeEmissions computed = perMode.get(i).join();
+            emissions.addAll(computed.emissions());
+            catalogNanos += computed.catalogNanos();
+            emissionNanos += computed.emissionNanos();
+            GoogleMapService.ModeRoutes routes = fetched.get(i).join();
+            if (routes.degraded()) {
+              degraded.add(routes.mode());
+            }
+          }
+
+          long filterStart = System.nanoTime();
+          List<TransportEmissionDto> filtered =
+              filterMostEfficientModes(emissions);
+          long end = System.nanoTime();
+          searchMetrics.recordStage(SearchMetrics.Stage.CATALOG,
+                                    catalogNanos);
+          searchMetrics.recordStage(SearchMetrics.Stage.EMISSION,
+                                    emissionNanos);
+          searchMetrics.recordStage(SearchMetrics.Stage.FILTER,
+                                    end - filterStart);
+          searchMetrics.recordStage(SearchMetrics.Stage.TOTAL, end - start);
+          return new MultiModeEmissions(filtered, degraded);
+        });
+  }
+
+  /**
+   * Émissions calculées pour un ensemble d’itinéraires.
+   *
+   * @param emissions les émissions, dans l’ordre des itinéraires
+   * @param catalogNanos le temps passé dans le catalogue, en nanosecondes
+   * @param emissionNanos le temps de calcul hors catalogue, en nanosecondes
+   */
+  private record ModeEmissions(List<TransportEmissionDto> emissions,
+                               long catalogNanos, long emissionNanos) {}
+
+  /**
+   * Construit le lien Google Maps d’un trajet.
+   *
+   * @param origin le point de départ
+   * @param destination le point d'arrivée
+   * @return l’URL de l’itinéraire dans Google Maps
+   */
+  private static String mapsUrl(String origin, String destination) {
+    return "https://www.google.com/maps/dir/" + origin.replace(" ", "+") +
+        "/" + destination.replace(" ", "+");
+  }
+
+  /**
+   * Calcule les émissions, consommations et prix d’une liste d’itinéraires.
+   *
+   * @param transportData les itinéraires, d’un ou plusieurs modes
+   * @param mapsUrl le lien Google Maps du trajet
+   * @return les émissions non filtrées et le temps passé à les calculer
+   */
+  private ModeEmissions computeEmissions(List<RouteModeResponse> transportData,
+                                         String mapsUrl) {
+    long start = System.nanoTime();
+    List<ModeTransport> allModes = emissionFactorCatalog.getModes();
+    long catalogNanos = System.nanoTime() - start;
     List<TransportEmissionDto> emissions = new ArrayList<>();
 
     for (int routeIndex = 0; routeIndex < transportData.size(); routeIndex++) {
+      long routeStart = System.nanoTime();
       RouteModeResponse modeResponse = transportData.get(routeIndex);
       String googleMode = modeResponse.getMode();
       float distance = modeResponse.getDistanceKm();
-      float duration = extractMinutesFromText(modeResponse.getEstimatedTime());
+      float duration = routeMinutes(modeResponse);
 
       if (!"transit".equals(googleMode)) {
         for (ModeTransport mode : allModes) {
@@ -233,7 +420,8 @@ public class TransportEmissionService {
       else {
         Map<String, Float> subModes = modeResponse.getTransitModes();
         if (subModes == null || subModes.isEmpty()) {
-          System.out.println("🚨 No sub-modes found in transit data!");
+          logger.debug("Itinéraire en transport en commun sans sous-mode");
+          searchMetrics.recordEmptyTransit();
         } else {
 
           float totalTransitEmission = 0f;
@@ -252,11 +440,13 @@ public class TransportEmissionService {
 
             distanceBySubMode.merge(subMode, subDistance, Float::sum);
 
-            List<ModeTransport> matchedModes =
-                modeTransportRepository.findByNomApprox(resolvedSubMode);
+            long lookupStart = System.nanoTime();
+            Optional<ModeTransport> matchedMode =
+                emissionFactorCatalog.findByNomApprox(resolvedSubMode);
+            catalogNanos += System.nanoTime() - lookupStart;
 
-            if (!matchedModes.isEmpty()) {
-              ModeTransport mode = matchedModes.get(0);
+            if (matchedMode.isPresent()) {
+              ModeTransport mode = matchedMode.get();
 
               float emissionRate = mode.getSourceEnergie().getEmission();
               totalTransitEmission += subDistance * emissionRate;
@@ -311,10 +501,13 @@ public class TransportEmissionService {
           emissions.add(dto);
         }
       }
-  }
+      searchMetrics.recordEmission(googleMode,
+                                   System.nanoTime() - routeStart);
+    }
 
-  return filterMostEfficientModes(emissions);
-}
+    long elapsed = System.nanoTime() - start;
+    return new ModeEmissions(emissions, catalogNanos, elapsed - catalogNanos);
+  }
 
 /**
  * Supprime les parenthèses et leur contenu d'une chaîne
@@ -486,16 +679,16 @@ public EnergieEtPrix calculerConsoEtPrix(ModeTransport mode, float distanceKm) {
   }
 
   Long sourceId = mode.getSourceEnergie().getId();
-  List<CarburantFossile> fossiles =
-      carburantFossileRepository.findAllBySourceEnergieId(sourceId);
+  Optional<CarburantFossile> fossile =
+      emissionFactorCatalog.findCarburant(sourceId);
 
-  if (!fossiles.isEmpty()) {
+  if (fossile.isPresent()) {
     unite = "L";
-    prix = consommationTotale * fossiles.get(0).getPrix();
+    prix = consommationTotale * fossile.get().getPrix();
   } else {
-    // Électricité : recherche dynamique
+    // Électricité : recherche dans le catalogue
     Optional<SourceElectrique> sourceElec =
-        sourceElectriqueRepository.findBySourceEnergieId(sourceId);
+        emissionFactorCatalog.findSourceElectrique(sourceId);
 
     unite = "kWh";
     if (sourceElec.isPresent()) {
@@ -1,5 +1,7 @@
 package group10.backendco2.service;
 
+import group10.backendco2.common.KeysetCursor;
+import group10.backendco2.common.KeysetPage;
 import group10.backendco2.dto.SignupRequest;
 import group10.backendco2.dto.UserResponseDto;
 import group10.backendco2.dto.UserUpdateRequest;
@@ -34,16 +36,25 @@ public class UtilisateurService {
    */
   private final PasswordEncoder passwordEncoder;
 
+  /**
+   * Cache des utilisateurs authentifiés, invalidé lorsqu'un utilisateur est
+   * modifié ou supprimé.
+   */
+  private final AuthenticationCache authenticationCache;
+
   /**
    * Constructeur de la classe UtilisateurService.
    *
    * @param utilisateurRepository le référentiel des utilisateurs
    * @param passwordEncoder l'encodeur de mot de passe
+   * @param authenticationCache le cache des utilisateurs authentifiés
    */
   public UtilisateurService(UtilisateurRepository utilisateurRepository,
-                            PasswordEncoder passwordEncoder) {
+                            PasswordEncoder passwordEncoder,
+                            AuthenticationCache authenticationCache) {
     this.utilisateurRepository = utilisateurRepository;
     this.passwordEncoder = passwordEncoder;
+    this.authenticationCache = authenticationCache;
   }
   /**
    * Inscrit un nouvel utilisateur.
@@ -93,6 +104,32 @@ public class UtilisateurService {
    */
   public List<Utilisateur> findAll() { return utilisateurRepository.findAll(); }
 
+  /**
+   * Récupère une page d'utilisateurs, du plus récemment inscrit au plus
+   * ancien.
+   *
+   * @param cursor le curseur de la page à lire, ou null pour la première
+   * @param size la taille de la page
+   * @return la page d'utilisateurs
+   * @throws IllegalArgumentException si le curseur est invalide
+   */
+  public KeysetPage<Utilisateur> findPage(String cursor, int size) {
+    KeysetCursor after = cursor != null ? KeysetCursor.decode(cursor) : null;
+    List<Utilisateur> users = KeysetPage.fetch(
+        after, size,
+        (afterId, limit)
+            -> afterId == null
+                   ? utilisateurRepository.findUndatedPage(limit)
+                   : utilisateurRepository.findUndatedPageAfter(afterId, limit),
+        (dated, limit)
+            -> dated == null
+                   ? utilisateurRepository.findDatedPage(limit)
+                   : utilisateurRepository.findPageAfter(dated.localDate(),
+                                                         dated.id(), limit));
+    return KeysetPage.of(users, size,
+                         u -> KeysetCursor.of(u.getDateInscription(), u.getId()));
+  }
+
   /**
    * Récupère un utilisateur par son identifiant.
    *
@@ -108,7 +145,10 @@ public class UtilisateurService {
    *
    * @param id l'identifiant de l'utilisateur à supprimer
    */
-  public void supprimer(Long id) { utilisateurRepository.deleteById(id); }
+  public void supprimer(Long id) {
+    utilisateurRepository.deleteById(id);
+    authenticationCache.invalidateUser(id);
+  }
 
   /**
    * Met à jour le rôle d'un utilisateur.
@@ -121,7 +161,9 @@ public class UtilisateurService {
     Utilisateur user = utilisateurRepository.findById(id).orElseThrow(
         () -> new RuntimeException("Utilisateur introuvable"));
     user.setRole(nouveauRole);
-    return utilisateurRepository.save(user);
+    Utilisateur saved = utilisateurRepository.save(user);
+    authenticationCache.invalidateUser(id);
+    return saved;
   }
 
   /**
@@ -155,7 +197,8 @@ public class UtilisateurService {
       user.setMotDePasse(passwordEncoder.encode(request.getPassword()));
     }
     Utilisateur saved = utilisateurRepository.save(user);
-    return utilisateurRepository.save(user);
+    authenticationCache.invalidateUser(user.getId());
+    return saved;
   }
 
   /**
@@ -182,6 +225,8 @@ public class UtilisateurService {
           passwordEncoder.encode(utilisateur.getMotDePasse()));
     }
 
-    return utilisateurRepository.save(utilisateur);
+    Utilisateur saved = utilisateurRepository.save(utilisateur);
+    authenticationCache.invalidateUser(utilisateur.getId());
+    return saved;
   }
 }
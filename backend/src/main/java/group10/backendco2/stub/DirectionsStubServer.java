@@ -0,0 +1,362 @@
+package group10.backendco2.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bouchon local de l’API Google Maps Directions, activé par le profil
+ * {@code directions-stub}.
+ *
+ * Le bouchon écoute sur son propre port, hors de Tomcat : ses temps d’attente
+ * simulés n’occupent donc pas les threads de l’application mesurée. Il sert
+ * les réponses enregistrées de {@code fixtures/directions/<mode>.json} avec :
+ * <ul>
+ *   <li>une latence tirée d’une distribution configurable ({@code fixed},
+ * {@code uniform} ou {@code lognormal})</li>
+ *   <li>un taux d’erreurs HTTP 503 configurable</li>
+ *   <li>un nombre d’itinéraires par réponse configurable, pour faire varier
+ * la taille des réponses</li>
+ * </ul>
+ * Le profil pointe {@code google.directions.base-url} vers ce bouchon et
+ * désactive le proxy (voir {@code application-directions-stub.properties}).
+ */
+@Component
+@Profile("directions-stub")
+public class DirectionsStubServer {
+
+  /**
+   * Logger pour le bouchon Directions.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(DirectionsStubServer.class);
+
+  /**
+   * Chemin servi, identique à celui de l’API Google.
+   */
+  public static final String PATH = "/maps/api/directions/json";
+
+  /**
+   * Modes servis, un fichier de réponse par mode.
+   */
+  private static final List<String> MODES =
+      List.of("driving", "walking", "bicycling", "transit");
+
+  /**
+   * Réponse renvoyée pour un mode inconnu.
+   */
+  private static final byte[] INVALID_REQUEST =
+      "{\"routes\":[],\"status\":\"INVALID_REQUEST\"}".getBytes(
+          StandardCharsets.UTF_8);
+
+  /**
+   * Réponse enregistrée d’un mode, brute et compressée.
+   *
+   * @param plain le corps JSON
+   * @param gzip le corps JSON compressé
+   */
+  private record Payload(byte[] plain, byte[] gzip) {}
+
+  /**
+   * Port d’écoute.
+   */
+  private final int port;
+
+  /**
+   * Emplacement des réponses enregistrées.
+   */
+  private final String fixtures;
+
+  /**
+   * Distribution de la latence simulée.
+   */
+  private final LatencyDistribution latency;
+
+  /**
+   * Proportion de requêtes en erreur, entre 0 et 1.
+   */
+  private final double errorRate;
+
+  /**
+   * Nombre d’itinéraires par réponse, 0 pour garder ceux enregistrés.
+   */
+  private final int routesPerResponse;
+
+  /**
+   * Chargeur des réponses enregistrées.
+   */
+  private final ResourceLoader resourceLoader;
+
+  /**
+   * Nombre de requêtes servies.
+   */
+  private final AtomicLong requests = new AtomicLong();
+
+  /**
+   * Réponses enregistrées, par mode.
+   */
+  private Map<String, Payload> payloads;
+
+  /**
+   * Serveur HTTP du bouchon.
+   */
+  private HttpServer server;
+
+  /**
+   * Exécuteur des requêtes (un thread virtuel par requête).
+   */
+  private ExecutorService executor;
+
+  /**
+   * Constructeur du bouchon Directions.
+   *
+   * @param port port d’écoute
+   * @param fixtures emplacement des réponses enregistrées, terminé par
+   *     {@code /}
+   * @param distribution distribution de la latence
+   * @param medianMs latence médiane, en millisecondes
+   * @param sigma dispersion de la distribution log-normale
+   * @param minMs latence minimale, en millisecondes
+   * @param maxMs latence maximale, en millisecondes
+   * @param errorRate proportion de requêtes en erreur, entre 0 et 1
+   * @param routesPerResponse nombre d’itinéraires par réponse, 0 pour garder
+   *     ceux enregistrés
+   * @param resourceLoader chargeur des réponses enregistrées
+   */
+  public DirectionsStubServer(
+      @Value("${directions.stub.port:8089}") int port,
+      @Value("${directions.stub.fixtures:classpath:fixtures/directions/}")
+      String fixtures,
+      @Value("${directions.stub.latency.distribution:lognormal}")
+      String distribution,
+      @Value("${directions.stub.latency.median-ms:150}") long medianMs,
+      @Value("${directions.stub.latency.sigma:0.5}") double sigma,
+      @Value("${directions.stub.latency.min-ms:20}") long minMs,
+      @Value("${directions.stub.latency.max-ms:2000}") long maxMs,
+      @Value("${directions.stub.error-rate:0}") double errorRate,
+      @Value("${directions.stub.routes-per-response:0}") int routesPerResponse,
+      ResourceLoader resourceLoader) {
+    this.port = port;
+    this.fixtures = fixtures;
+    this.latency =
+        new LatencyDistribution(distribution, medianMs, sigma, minMs, maxMs);
+    this.errorRate = errorRate;
+    this.routesPerResponse = routesPerResponse;
+    this.resourceLoader = resourceLoader;
+  }
+
+  /**
+   * Charge les réponses enregistrées et démarre le serveur.
+   *
+   * @throws IOException si une réponse ne peut être lue ou si le port est
+   *     indisponible
+   */
+  @PostConstruct
+  public void start() throws IOException {
+    payloads = loadPayloads();
+    executor = Executors.newVirtualThreadPerTaskExecutor();
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+    server.createContext(PATH, this::handle);
+    server.setExecutor(executor);
+    server.start();
+    logger.info("Bouchon Directions démarré sur http://127.0.0.1:{}{} ({})",
+                getPort(), PATH, latency);
+  }
+
+  /**
+   * Arrête le serveur.
+   */
+  @PreDestroy
+  public void stop() {
+    if (server != null) {
+      server.stop(0);
+      executor.shutdownNow();
+      logger.info("Bouchon Directions arrêté après {} requêtes",
+                  requests.get());
+    }
+  }
+
+  /**
+   * Retourne le port d’écoute effectif.
+   *
+   * @return le port
+   */
+  public int getPort() { return server.getAddress().getPort(); }
+
+  /**
+   * Retourne le nombre de requêtes servies.
+   *
+   * @return le nombre de requêtes
+   */
+  public long getRequestCount() { return requests.get(); }
+
+  /**
+   * Sert une requête Directions.
+   *
+   * @param exchange l’échange HTTP
+   * @throws IOException en cas d’erreur d’écriture
+   */
+  private void handle(HttpExchange exchange) throws IOException {
+    try (exchange) {
+      requests.incrementAndGet();
+      Thread.sleep(latency.sample());
+
+      if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+        exchange.sendResponseHeaders(503, -1);
+        return;
+      }
+
+      String mode = queryParameter(exchange.getRequestURI().getRawQuery(),
+                                   "mode");
+      Payload payload = mode != null
+                            ? payloads.get(mode.toLowerCase(Locale.ROOT))
+                            : null;
+      exchange.getResponseHeaders().set("Content-Type",
+                                        "application/json; charset=UTF-8");
+      if (payload == null) {
+        send(exchange, 200, INVALID_REQUEST);
+        return;
+      }
+
+      String acceptEncoding =
+          exchange.getRequestHeaders().getFirst("Accept-Encoding");
+      if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+        exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        send(exchange, 200, payload.gzip());
+      } else {
+        send(exchange, 200, payload.plain());
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Envoie une réponse complète.
+   *
+   * @param exchange l’échange HTTP
+   * @param status le code HTTP
+   * @param body le corps de la réponse
+   * @throws IOException en cas d’erreur d’écriture
+   */
+  private static void send(HttpExchange exchange, int status, byte[] body)
+      throws IOException {
+    exchange.sendResponseHeaders(status, body.length);
+    try (OutputStream out = exchange.getResponseBody()) {
+      out.write(body);
+    }
+  }
+
+  /**
+   * Extrait un paramètre de la chaîne de requête.
+   *
+   * @param rawQuery la chaîne de requête encodée, ou null
+   * @param name le nom du paramètre
+   * @return la valeur décodée, ou null si le paramètre est absent
+   */
+  static String queryParameter(String rawQuery, String name) {
+    if (rawQuery == null) {
+      return null;
+    }
+    for (String pair : rawQuery.split("&")) {
+      int separator = pair.indexOf('=');
+      String key = separator < 0 ? pair : pair.substring(0, separator);
+      if (key.equals(name)) {
+        return separator < 0 ? ""
+                             : URLDecoder.decode(pair.substring(separator + 1),
+                                                 StandardCharsets.UTF_8);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Charge et prépare les réponses enregistrées de chaque mode.
+   *
+   * @return les réponses, par mode
+   * @throws IOException si une réponse ne peut être lue
+   */
+  private Map<String, Payload> loadPayloads() throws IOException {
+    ObjectMapper mapper = new ObjectMapper();
+    Map<String, Payload> loaded = new HashMap<>();
+    for (String mode : MODES) {
+      Resource resource = resourceLoader.getResource(fixtures + mode + ".json");
+      JsonNode json;
+      try (InputStream in = resource.getInputStream()) {
+        json = mapper.readTree(in);
+      }
+      if (routesPerResponse > 0) {
+        json = resize(json, routesPerResponse);
+      }
+      byte[] plain = mapper.writeValueAsBytes(json);
+      loaded.put(mode, new Payload(plain, gzip(plain)));
+    }
+    return Map.copyOf(loaded);
+  }
+
+  /**
+   * Ramène une réponse à un nombre donné d’itinéraires, en répétant les
+   * itinéraires enregistrés si nécessaire.
+   *
+   * @param json la réponse enregistrée
+   * @param count le nombre d’itinéraires voulu
+   * @return la réponse redimensionnée
+   */
+  static JsonNode resize(JsonNode json, int count) {
+    ArrayNode recorded = (ArrayNode)json.get("routes");
+    if (recorded == null || recorded.isEmpty()) {
+      return json;
+    }
+    ObjectNode resized = ((ObjectNode)json).deepCopy();
+    ArrayNode routes = resized.putArray("routes");
+    for (int i = 0; i < count; i++) {
+      routes.add(recorded.get(i % recorded.size()).deepCopy());
+    }
+    return resized;
+  }
+
+  /**
+   * Compresse un corps de réponse.
+   *
+   * @param plain le corps à compresser
+   * @return le corps compressé
+   */
+  private static byte[] gzip(byte[] plain) {
+    ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    try (GZIPOutputStream out = new GZIPOutputStream(buffer)) {
+      out.write(plain);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return buffer.toByteArray();
+  }
+}
@@ -0,0 +1,96 @@
+package group10.backendco2.stub;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Distribution de la latence simulée par {@link DirectionsStubServer}.
+ *
+ * <ul>
+ *   <li>{@code fixed} : toujours la médiane</li>
+ *   <li>{@code uniform} : uniforme entre le minimum et le maximum</li>
+ *   <li>{@code lognormal} : log-normale de médiane et de dispersion
+ * données, proche des temps de réponse observés d’une API distante</li>
+ * </ul>
+ * Toute valeur tirée est ramenée entre le minimum et le maximum.
+ */
+public class LatencyDistribution {
+
+  /**
+   * Forme de la distribution.
+   */
+  enum Shape { FIXED, UNIFORM, LOGNORMAL }
+
+  /**
+   * Forme de la distribution.
+   */
+  private final Shape shape;
+
+  /**
+   * Latence médiane, en millisecondes.
+   */
+  private final long medianMs;
+
+  /**
+   * Dispersion de la distribution log-normale.
+   */
+  private final double sigma;
+
+  /**
+   * Latence minimale, en millisecondes.
+   */
+  private final long minMs;
+
+  /**
+   * Latence maximale, en millisecondes.
+   */
+  private final long maxMs;
+
+  /**
+   * Constructeur de la distribution.
+   *
+   * @param shape nom de la forme ({@code fixed}, {@code uniform} ou
+   *     {@code lognormal})
+   * @param medianMs latence médiane, en millisecondes
+   * @param sigma dispersion de la distribution log-normale
+   * @param minMs latence minimale, en millisecondes
+   * @param maxMs latence maximale, en millisecondes
+   * @throws IllegalArgumentException si la forme est inconnue ou si les
+   *     bornes sont incohérentes
+   */
+  public LatencyDistribution(String shape, long medianMs, double sigma,
+                             long minMs, long maxMs) {
+    if (minMs < 0 || maxMs < minMs) {
+      throw new IllegalArgumentException(
+          "Bornes de latence invalides : " + minMs + "-" + maxMs);
+    }
+    this.shape = Shape.valueOf(shape.trim().toUpperCase(Locale.ROOT));
+    this.medianMs = medianMs;
+    this.sigma = sigma;
+    this.minMs = minMs;
+    this.maxMs = maxMs;
+  }
+
+  /**
+   * Tire une latence.
+   *
+   * @return la latence, en millisecondes, entre le minimum et le maximum
+   */
+  public long sample() {
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    long value = switch (shape) {
+      case FIXED -> medianMs;
+      case UNIFORM -> random.nextLong(minMs, maxMs + 1);
+      case LOGNORMAL ->
+        Math.round(medianMs * Math.exp(sigma * random.nextGaussian()));
+    };
+    return Math.min(maxMs, Math.max(minMs, value));
+  }
+
+  @Override
+  public String toString() {
+    return String.format(Locale.ROOT, "%s médiane=%dms sigma=%.2f [%d-%d]ms",
+                         shape.name().toLowerCase(Locale.ROOT), medianMs,
+                         sigma, minMs, maxMs);
+  }
+}
@@ -0,0 +1,294 @@
+package group10.backendco2.stub;
+
+import group10.backendco2.model.CarburantFossile;
+import group10.backendco2.model.HistoriqueTrajet;
+import group10.backendco2.model.ModeTransport;
+import group10.backendco2.model.SourceElectrique;
+import group10.backendco2.model.SourceEnergie;
+import group10.backendco2.model.Trajet;
+import group10.backendco2.model.TypeTransport;
+import group10.backendco2.model.Utilisateur;
+import group10.backendco2.repository.CarburantFossileRepository;
+import group10.backendco2.repository.HistoriqueTrajetRepository;
+import group10.backendco2.repository.ModeTransportRepository;
+import group10.backendco2.repository.SourceElectriqueRepository;
+import group10.backendco2.repository.SourceEnergieRepository;
+import group10.backendco2.repository.TrajetRepository;
+import group10.backendco2.repository.TypeTransportRepository;
+import group10.backendco2.repository.UtilisateurRepository;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Jeu de données des tests de charge, activé par le profil {@code loadtest}.
+ *
+ * Au démarrage, crée si nécessaire :
+ * <ul>
+ *   <li>le catalogue des modes de transport, sources d’énergie et carburants
+ * (mêmes valeurs que la base de production)</li>
+ *   <li>les utilisateurs {@code loadtest-user-<i>@co2.test}, de mot de passe
+ * {@code loadtest.password}, chacun avec un historique de trajets ; le
+ * premier est administrateur, pour que le lanceur lise les métriques de
+ * l’actuator</li>
+ * </ul>
+ * Les données existantes sont conservées : le jeu peut être rejoué sur une
+ * base PostgreSQL locale sans doublons.
+ */
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder implements ApplicationRunner {
+
+  /**
+   * Logger pour le jeu de données.
+   */
+  private static final Logger logger =
+      LoggerFactory.getLogger(LoadTestDataSeeder.class);
+
+  /**
+   * Modèle de l’adresse e-mail des utilisateurs, indexé à partir de 0.
+   */
+  public static final String EMAIL_PATTERN = "loadtest-user-%d@co2.test";
+
+  /**
+   * Nombre d’utilisateurs à créer.
+   */
+  private final int users;
+
+  /**
+   * Nombre de trajets dans l’historique de chaque utilisateur.
+   */
+  private final int historyPerUser;
+
+  /**
+   * Mot de passe des utilisateurs.
+   */
+  private final String password;
+
+  /**
+   * Repository des sources d’énergie.
+   */
+  private final SourceEnergieRepository sourceEnergieRepository;
+
+  /**
+   * Repository des types de transport.
+   */
+  private final TypeTransportRepository typeTransportRepository;
+
+  /**
+   * Repository des modes de transport.
+   */
+  private final ModeTransportRepository modeTransportRepository;
+
+  /**
+   * Repository des carburants fossiles.
+   */
+  private final CarburantFossileRepository carburantFossileRepository;
+
+  /**
+   * Repository des sources électriques.
+   */
+  private final SourceElectriqueRepository sourceElectriqueRepository;
+
+  /**
+   * Repository des utilisateurs.
+   */
+  private final UtilisateurRepository utilisateurRepository;
+
+  /**
+   * Repository des trajets.
+   */
+  private final TrajetRepository trajetRepository;
+
+  /**
+   * Repository de l’historique des trajets.
+   */
+  private final HistoriqueTrajetRepository historiqueTrajetRepository;
+
+  /**
+   * Encodeur des mots de passe.
+   */
+  private final PasswordEncoder passwordEncoder;
+
+  /**
+   * Constructeur du jeu de données.
+   *
+   * @param users nombre d’utilisateurs à créer
+   * @param historyPerUser nombre de trajets dans l’historique de chaque
+   *     utilisateur
+   * @param password mot de passe des utilisateurs
+   * @param sourceEnergieRepository repository des sources d’énergie
+   * @param typeTransportRepository repository des types de transport
+   * @param modeTransportRepository repository des modes de transport
+   * @param carburantFossileRepository repository des carburants fossiles
+   * @param sourceElectriqueRepository repository des sources électriques
+   * @param utilisateurRepository repository des utilisateurs
+   * @param trajetRepository repository des trajets
+   * @param historiqueTrajetRepository repository de l’historique
+   * @param passwordEncoder encodeur des mots de passe
+   */
+  public LoadTestDataSeeder(
+      @Value("${loadtest.seed.users:50}") int users,
+      @Value("${loadtest.seed.history-per-user:40}") int historyPerUser,
+      @Value("${loadtest.seed.password:loadtest}") String password,
+      SourceEnergieRepository sourceEnergieRepository,
+      TypeTransportRepository typeTransportRepository,
+      ModeTransportRepository modeTransportRepository,
+      CarburantFossileRepository carburantFossileRepository,
+      SourceElectriqueRepository sourceElectriqueRepository,
+      UtilisateurRepository utilisateurRepository,
+      TrajetRepository trajetRepository,
+      HistoriqueTrajetRepository historiqueTrajetRepository,
+      PasswordEncoder passwordEncoder) {
+    this.users = users;
+    this.historyPerUser = historyPerUser;
+    this.password = password;
+    this.sourceEnergieRepository = sourceEnergieRepository;
+    this.typeTransportRepository = typeTransportRepository;
+    this.modeTransportRepository = modeTransportRepository;
+    this.carburantFossileRepository = carburantFossileRepository;
+    this.sourceElectriqueRepository = sourceElectriqueRepository;
+    this.utilisateurRepository = utilisateurRepository;
+    this.trajetRepository = trajetRepository;
+    this.historiqueTrajetRepository = historiqueTrajetRepository;
+    this.passwordEncoder = passwordEncoder;
+  }
+
+  /**
+   * Crée les données manquantes.
+   *
+   * @param args arguments de l’application (ignorés)
+   */
+  @Override
+  @Transactional
+  public void run(ApplicationArguments args) {
+    if (modeTransportRepository.count() == 0) {
+      seedCatalog();
+    }
+    List<ModeTransport> modes = modeTransportRepository.findAll();
+    // BCrypt est volontairement lent : un seul hachage pour tous les comptes.
+    String hash = passwordEncoder.encode(password);
+    int created = 0;
+    for (int i = 0; i < users; i++) {
+      String email = String.format(EMAIL_PATTERN, i);
+      if (!utilisateurRepository.existsByEmail(email)) {
+        seedUser(i, email, hash, modes);
+        created++;
+      }
+    }
+    logger.info("Jeu de données de charge : {} utilisateurs créés ({} au "
+                    + "total), {} trajets chacun",
+                created, users, historyPerUser);
+  }
+
+  /**
+   * Crée le catalogue des modes de transport.
+   */
+  private void seedCatalog() {
+    SourceEnergie essence =
+        sourceEnergieRepository.save(new SourceEnergie(null, "Essence", 2280f));
+    SourceEnergie gazole =
+        sourceEnergieRepository.save(new SourceEnergie(null, "Gazole", 2510f));
+    SourceEnergie electricite = sourceEnergieRepository.save(
+        new SourceEnergie(null, "Électricité", 52f));
+    SourceEnergie musculaire = sourceEnergieRepository.save(
+        new SourceEnergie(null, "Musculaire", 0f));
+
+    TypeTransport individuel = typeTransportRepository.save(
+        new TypeTransport(null, "Individuel", "Voiture, vélo, marche"));
+    TypeTransport collectif = typeTransportRepository.save(
+        new TypeTransport(null, "Collectif", "Bus, tram, métro, train"));
+
+    modeTransportRepository.saveAll(List.of(
+        mode("Voiture thermique", 6.5f, 5, individuel, essence, null),
+        mode("Voiture électrique", 17f, 5, individuel, electricite, null),
+        mode("Taxi", 7f, 4, individuel, gazole, 2.1f),
+        mode("Marche", 0f, 1, individuel, musculaire, null),
+        mode("Vélo", 0f, 1, individuel, musculaire, null),
+        mode("Vélo électrique", 1.1f, 1, individuel, electricite, null),
+        mode("Bus", 35f, 90, collectif, gazole, 0.12f),
+        mode("Tram", 160f, 200, collectif, electricite, 0.12f),
+        mode("Metro subway", 250f, 600, collectif, electricite, 0.12f),
+        mode("TER", 420f, 400, collectif, electricite, 0.10f),
+        mode("TGV", 1900f, 500, collectif, electricite, 0.09f),
+        mode("Ferry", 900f, 800, collectif, gazole, 0.30f)));
+
+    carburantFossileRepository.saveAll(
+        List.of(new CarburantFossile("SP95", 1.85f, 0.75f, essence),
+                new CarburantFossile("Gazole", 1.70f, 0.84f, gazole)));
+    sourceElectriqueRepository.save(
+        new SourceElectrique(null, 0.25f, electricite));
+  }
+
+  /**
+   * Crée un utilisateur et son historique de trajets.
+   *
+   * @param index l’indice de l’utilisateur
+   * @param email l’adresse e-mail de l’utilisateur
+   * @param hash le mot de passe haché
+   * @param modes les modes de transport du catalogue
+   */
+  private void seedUser(int index, String email, String hash,
+                        List<ModeTransport> modes) {
+    Utilisateur user = new Utilisateur();
+    user.setNom("Charge " + index);
+    user.setEmail(email);
+    user.setMotDePasse(hash);
+    user.setRole(index == 0 ? Utilisateur.Role.Admin
+                            : Utilisateur.Role.Normal);
+    user.setDateInscription(LocalDate.now());
+    user = utilisateurRepository.save(user);
+
+    List<Trajet> trajets = new ArrayList<>(historyPerUser);
+    for (int j = 0; j < historyPerUser; j++) {
+      Trajet trajet = new Trajet();
+      trajet.setOrigine("Adresse " + j + ", Lyon");
+      trajet.setDestination("Adresse " + (j + index + 1) + ", Villeurbanne");
+      trajet.setDistance(1f + j % 30);
+      trajet.setCo2(40f * (j % 30));
+      trajet.setModesTransport(
+          new HashSet<>(List.of(modes.get(j % modes.size()))));
+      trajets.add(trajet);
+    }
+    trajets = trajetRepository.saveAll(trajets);
+
+    List<HistoriqueTrajet> historique = new ArrayList<>(historyPerUser);
+    LocalDate today = LocalDate.now();
+    for (int j = 0; j < trajets.size(); j++) {
+      Date date = Date.from(
+          today.minusDays(j).atStartOfDay(ZoneId.systemDefault()).toInstant());
+      historique.add(new HistoriqueTrajet(null, date, user, trajets.get(j)));
+    }
+    historiqueTrajetRepository.saveAll(historique);
+  }
+
+  /**
+   * Crée un mode de transport.
+   *
+   * @param nom le nom du mode
+   * @param consommation la consommation moyenne aux 100 km
+   * @param capacite le nombre de passagers
+   * @param type le type de transport
+   * @param source la source d’énergie
+   * @param tarifPublic le tarif public au km, ou null
+   * @return le mode de transport
+   */
+  private static ModeTransport mode(String nom, float consommation,
+                                    int capacite, TypeTransport type,
+                                    SourceEnergie source, Float tarifPublic) {
+    return new ModeTransport(null, nom, consommation, capacite, type, source,
+                             tarifPublic);
+  }
+}
@@ -0,0 +1,76 @@
+package group10.backendco2.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Date;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test unitaire pour la classe {@link KeysetCursor}.
+ * <p>
+ * Vérifie l’aller-retour d’encodage des curseurs datés et non datés, et le
+ * rejet des curseurs invalides.
+ */
+class KeysetCursorTest {
+
+  /**
+   * Vérifie qu’un curseur daté est retrouvé à l’identique après encodage.
+   */
+  @Test
+  void encode_shouldRoundTripDatedCursor() {
+    Date date = new Date(1_700_000_000_123L);
+    KeysetCursor cursor = KeysetCursor.of(date, 42L);
+
+    KeysetCursor decoded = KeysetCursor.decode(cursor.encode());
+
+    assertEquals(cursor, decoded);
+    assertFalse(decoded.isUndated());
+    assertEquals(date, decoded.date());
+  }
+
+  /**
+   * Vérifie qu’un curseur sur une date locale est retrouvé à l’identique.
+   */
+  @Test
+  void encode_shouldRoundTripLocalDateCursor() {
+    LocalDate date = LocalDate.of(2025, 4, 12);
+
+    KeysetCursor decoded =
+        KeysetCursor.decode(KeysetCursor.of(date, 7L).encode());
+
+    assertEquals(date, decoded.localDate());
+    assertEquals(7L, decoded.id());
+  }
+
+  /**
+   * Vérifie qu’un curseur sans date est retrouvé à l’identique.
+   */
+  @Test
+  void encode_shouldRoundTripUndatedCursor() {
+    KeysetCursor decoded =
+        KeysetCursor.decode(KeysetCursor.of((Date) null, 3L).encode());
+
+    assertTrue(decoded.isUndated());
+    assertNull(decoded.date());
+    assertNull(decoded.localDate());
+    assertEquals(3L, decoded.id());
+  }
+
+  /**
+   * Vérifie qu’un curseur mal formé est rejeté.
+   */
+  @Test
+  void decode_shouldRejectInvalidCursor() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> KeysetCursor.decode("%%%"));
+    assertThrows(IllegalArgumentException.class,
+                 () -> KeysetCursor.decode("bm9zZXBhcmF0b3I"));
+    assertThrows(IllegalArgumentException.class,
+                 () -> KeysetCursor.decode("MTIzOmFiYw"));
+  }
+}
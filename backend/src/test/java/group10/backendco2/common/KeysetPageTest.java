@@ -0,0 +1,109 @@
+package group10.backendco2.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Test unitaire pour la classe {@link KeysetPage}.
+ * <p>
+ * Vérifie la détection d’une page suivante, le curseur produit, la
+ * construction de la réponse HTTP et l’enchaînement des lectures sans date
+ * puis datées.
+ */
+class KeysetPageTest {
+
+  /**
+   * Vérifie qu’un élément supplémentaire est retiré de la page et que le
+   * curseur désigne le dernier élément conservé.
+   */
+  @Test
+  void of_shouldTrimExtraElementAndSetCursor() {
+    KeysetPage<Long> page = KeysetPage.of(
+        List.of(9L, 8L, 7L), 2, id -> new KeysetCursor(null, id));
+
+    assertEquals(List.of(9L, 8L), page.items());
+    assertEquals(new KeysetCursor(null, 8L),
+                 KeysetCursor.decode(page.nextCursor()));
+
+    ResponseEntity<List<Long>> response = page.toResponseEntity();
+    assertEquals(page.nextCursor(), response.getHeaders().getFirst(
+                                        KeysetPage.NEXT_CURSOR_HEADER));
+  }
+
+  /**
+   * Vérifie que la dernière page n’a pas de curseur ni d’en-tête.
+   */
+  @Test
+  void of_shouldReturnLastPageWithoutCursor() {
+    KeysetPage<Long> page =
+        KeysetPage.of(List.of(9L, 8L), 2, id -> new KeysetCursor(null, id));
+
+    assertNull(page.nextCursor());
+    assertEquals(List.of("9", "8"), page.map(String::valueOf).items());
+    assertNull(page.toResponseEntity().getHeaders().getFirst(
+        KeysetPage.NEXT_CURSOR_HEADER));
+  }
+
+  /**
+   * Vérifie que la première page lit les éléments sans date puis complète
+   * avec les éléments datés, dans la limite d’un élément supplémentaire.
+   */
+  @Test
+  void fetch_shouldReadUndatedFirstThenFillWithDated() {
+    List<Pageable> datedLimits = new ArrayList<>();
+
+    List<Long> fetched = KeysetPage.fetch(
+        null, 3, (afterId, limit) -> {
+          assertNull(afterId);
+          assertEquals(4, limit.getPageSize());
+          return List.of(9L, 8L);
+        }, (dated, limit) -> {
+          assertNull(dated);
+          datedLimits.add(limit);
+          return List.of(5L, 4L);
+        });
+
+    assertEquals(List.of(9L, 8L, 5L, 4L), fetched);
+    assertEquals(2, datedLimits.get(0).getPageSize());
+  }
+
+  /**
+   * Vérifie qu’une page complète d’éléments sans date ne lit pas les
+   * éléments datés et qu’un curseur sans date reprend après son identifiant.
+   */
+  @Test
+  void fetch_shouldResumeUndatedWithoutReadingDated() {
+    List<Long> fetched = KeysetPage.fetch(
+        new KeysetCursor(null, 10L), 1, (afterId, limit) -> {
+          assertEquals(10L, afterId);
+          return List.of(9L, 8L);
+        }, (dated, limit) -> { throw new AssertionError("dated read"); });
+
+    assertEquals(List.of(9L, 8L), fetched);
+  }
+
+  /**
+   * Vérifie qu’un curseur daté ne relit pas les éléments sans date.
+   */
+  @Test
+  void fetch_shouldSeekDatedAfterDatedCursor() {
+    KeysetCursor cursor = new KeysetCursor(2_000L, 6L);
+
+    List<Long> fetched = KeysetPage.fetch(
+        cursor, 2,
+        (afterId, limit) -> { throw new AssertionError("undated read"); },
+        (dated, limit) -> {
+          assertEquals(cursor, dated);
+          assertEquals(3, limit.getPageSize());
+          return List.of(5L);
+        });
+
+    assertEquals(List.of(5L), fetched);
+  }
+}
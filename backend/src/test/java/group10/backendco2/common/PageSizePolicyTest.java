@@ -0,0 +1,37 @@
+package group10.backendco2.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test unitaire pour la classe {@link PageSizePolicy}.
+ * <p>
+ * Vérifie la taille par défaut et le bornage des tailles demandées.
+ */
+class PageSizePolicyTest {
+
+  /**
+   * Vérifie qu’une taille absente prend la valeur par défaut et qu’une taille
+   * demandée est ramenée entre 1 et le maximum.
+   */
+  @Test
+  void resolve_shouldApplyDefaultAndBounds() {
+    PageSizePolicy policy = new PageSizePolicy(50, 200);
+
+    assertEquals(50, policy.resolve(null));
+    assertEquals(20, policy.resolve(20));
+    assertEquals(1, policy.resolve(0));
+    assertEquals(1, policy.resolve(-5));
+    assertEquals(200, policy.resolve(10_000));
+  }
+
+  /**
+   * Vérifie qu’une taille par défaut supérieure au maximum est ramenée au
+   * maximum.
+   */
+  @Test
+  void constructor_shouldCapDefaultToMax() {
+    assertEquals(10, new PageSizePolicy(50, 10).resolve(null));
+  }
+}
@@ -0,0 +1,134 @@
+package group10.backendco2.common;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test unitaire pour la classe {@link SingleFlight}.
+ * <p>
+ * Vérifie que les appels concurrents d’une même clé partagent un seul calcul,
+ * et que les appels successifs recalculent le résultat.
+ */
+class SingleFlightTest {
+
+  /**
+   * Vérifie que deux appels concurrents de la même clé n’exécutent le calcul
+   * qu’une seule fois et obtiennent le même résultat.
+   */
+  @Test
+  void execute_shouldShareConcurrentCalls() throws Exception {
+    SingleFlight<String, Object> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<Object> first = executor.submit(
+          () -> singleFlight.execute("lyon|paris", () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return new Object();
+          }));
+      started.await(1, TimeUnit.SECONDS);
+      Future<Object> second = executor.submit(
+          () -> singleFlight.execute("lyon|paris", () -> {
+            calls.incrementAndGet();
+            return new Object();
+          }));
+      Thread.sleep(100);
+      release.countDown();
+
+      assertSame(first.get(1, TimeUnit.SECONDS),
+                 second.get(1, TimeUnit.SECONDS));
+      assertEquals(1, calls.get());
+      assertEquals(0, singleFlight.inFlightCount());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Vérifie que des appels successifs recalculent le résultat.
+   */
+  @Test
+  void execute_shouldRecomputeSequentialCalls() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+
+    singleFlight.execute("k", calls::incrementAndGet);
+    singleFlight.execute("k", calls::incrementAndGet);
+
+    assertEquals(2, calls.get());
+  }
+
+  /**
+   * Vérifie que l’exception du calcul est relancée et que la clé est libérée.
+   */
+  @Test
+  void execute_shouldPropagateFailure() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+
+    assertThrows(IllegalStateException.class,
+                 () -> singleFlight.execute("k", () -> {
+                   throw new IllegalStateException("boom");
+                 }));
+    assertEquals(0, singleFlight.inFlightCount());
+  }
+
+  /**
+   * Vérifie qu’un appel asynchrone rejoint le calcul en cours de la même clé,
+   * puis que la clé est libérée à sa fin.
+   */
+  @Test
+  void executeAsync_shouldShareInFlightCalls() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger calls = new AtomicInteger();
+    CompletableFuture<Integer> source = new CompletableFuture<>();
+
+    CompletableFuture<Integer> first =
+        singleFlight.executeAsync("k", () -> {
+          calls.incrementAndGet();
+          return source;
+        });
+    CompletableFuture<Integer> second =
+        singleFlight.executeAsync("k", () -> {
+          calls.incrementAndGet();
+          return CompletableFuture.completedFuture(0);
+        });
+    assertFalse(first.isDone());
+    assertEquals(1, singleFlight.inFlightCount());
+
+    source.complete(42);
+
+    assertEquals(42, first.join());
+    assertEquals(42, second.join());
+    assertEquals(1, calls.get());
+    assertEquals(0, singleFlight.inFlightCount());
+  }
+
+  /**
+   * Attend un verrou sans propager l’interruption.
+   *
+   * @param latch le verrou à attendre
+   */
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await(1, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -2,7 +2,11 @@ package group10.backendco2.config;
 
 import group10.backendco2.model.Utilisateur;
 import group10.backendco2.repository.UtilisateurRepository;
+import group10.backendco2.service.AuthenticationCache;
 import group10.backendco2.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -16,13 +20,16 @@ import org.springframework.security.core.context.SecurityContextHolder;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.util.Date;
 import java.util.Optional;
 
 
@@ -50,6 +57,11 @@ class JwtAuthenticationFilterTest {
      */
     private UtilisateurRepository utilisateurRepository;
 
+    /**
+     * Instance réelle de {@link AuthenticationCache} partagée entre les requêtes d'un test.
+     */
+    private AuthenticationCache authenticationCache;
+
     /**
      * Instance de {@link HttpServletRequest} pour simuler la requête HTTP.
      */
@@ -76,6 +88,7 @@ class JwtAuthenticationFilterTest {
     void setUp() {
         jwtService = mock(JwtService.class);
         utilisateurRepository = mock(UtilisateurRepository.class);
+        authenticationCache = new AuthenticationCache(300, 100, new SimpleMeterRegistry());
         filter = new JwtAuthenticationFilter();
         try {
             var jwtField = JwtAuthenticationFilter.class.getDeclaredField("jwtService");
@@ -84,6 +97,9 @@ class JwtAuthenticationFilterTest {
             var userRepoField = JwtAuthenticationFilter.class.getDeclaredField("utilisateurRepository");
             userRepoField.setAccessible(true);
             userRepoField.set(filter, utilisateurRepository);
+            var cacheField = JwtAuthenticationFilter.class.getDeclaredField("authenticationCache");
+            cacheField.setAccessible(true);
+            cacheField.set(filter, authenticationCache);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
@@ -144,7 +160,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void testInvalidToken() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Bearer invalidtoken");
-        when(jwtService.validateToken("invalidtoken")).thenReturn(false);
+        when(jwtService.parseClaims("invalidtoken")).thenReturn(Optional.empty());
 
         filter.doFilterInternal(request, response, filterChain);
 
@@ -164,9 +180,7 @@ class JwtAuthenticationFilterTest {
     @Test
     void testValidTokenUserNotFound() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
-        when(jwtService.validateToken("validtoken")).thenReturn(true);
-        when(jwtService.getEmailFromToken("validtoken")).thenReturn("user@example.com");
-        when(jwtService.getRoleFromToken("validtoken")).thenReturn("ROLE_USER");
+        when(jwtService.parseClaims("validtoken")).thenReturn(Optional.of(claims()));
         when(utilisateurRepository.findByEmail("user@example.com")).thenReturn(Optional.empty());
 
         filter.doFilterInternal(request, response, filterChain);
@@ -186,10 +200,10 @@ class JwtAuthenticationFilterTest {
     @Test
     void testValidTokenUserFound() throws ServletException, IOException {
         when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
-        when(jwtService.validateToken("validtoken")).thenReturn(true);
-        when(jwtService.getEmailFromToken("validtoken")).thenReturn("user@example.com");
-        when(jwtService.getRoleFromToken("validtoken")).thenReturn("ROLE_USER");
+        when(jwtService.parseClaims("validtoken")).thenReturn(Optional.of(claims()));
         Utilisateur user = new Utilisateur();
+        user.setId(5L);
+        user.setEmail("user@example.com");
         when(utilisateurRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
 
         try (MockedStatic<SecurityContextHolder> contextHolder = Mockito.mockStatic(SecurityContextHolder.class, Mockito.CALLS_REAL_METHODS)) {
@@ -198,7 +212,83 @@ class JwtAuthenticationFilterTest {
             verify(filterChain).doFilter(request, response);
             assertNotNull(SecurityContextHolder.getContext().getAuthentication());
             assertTrue(SecurityContextHolder.getContext().getAuthentication() instanceof UsernamePasswordAuthenticationToken);
-            assertEquals(user, SecurityContextHolder.getContext().getAuthentication().getPrincipal());
+            Utilisateur principal = (Utilisateur) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+            assertEquals(5L, principal.getId());
+            assertEquals("user@example.com", principal.getEmail());
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Teste qu'un même token présenté deux fois n'est vérifié et résolu en base qu'une seule fois.
+     * <p>
+     * La seconde requête doit être authentifiée à partir du cache, avec son propre exemplaire du même utilisateur.
+     *
+     * @throws ServletException si une erreur de servlet se produit
+     * @throws IOException si une erreur d'entrée/sortie se produit
+     */
+    @Test
+    void testValidTokenServedFromCache() throws ServletException, IOException {
+        when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
+        when(jwtService.parseClaims("validtoken")).thenReturn(Optional.of(claims()));
+        Utilisateur user = new Utilisateur();
+        user.setId(5L);
+        when(utilisateurRepository.findByEmail("user@example.com")).thenReturn(Optional.of(user));
+
+        filter.doFilterInternal(request, response, filterChain);
+        Object first = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, filterChain);
+
+        Utilisateur principal = (Utilisateur) SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        assertEquals(5L, principal.getId());
+        assertNotSame(first, principal);
+        verify(jwtService, times(1)).parseClaims("validtoken");
+        verify(utilisateurRepository, times(1)).findByEmail("user@example.com");
+
+        authenticationCache.invalidateUser(5L);
+        filter.doFilterInternal(request, response, filterChain);
+        verify(utilisateurRepository, times(2)).findByEmail("user@example.com");
+    }
+
+    /**
+     * Teste qu'une invalidation survenue pendant le chargement de l'utilisateur n'est pas
+     * écrasée par l'enregistrement de ce chargement.
+     * <p>
+     * La requête en cours reste authentifiée, mais la suivante doit relire l'utilisateur en base.
+     *
+     * @throws ServletException si une erreur de servlet se produit
+     * @throws IOException si une erreur d'entrée/sortie se produit
+     */
+    @Test
+    void testInvalidationDuringLoadIsNotOverwritten() throws ServletException, IOException {
+        when(request.getHeader("Authorization")).thenReturn("Bearer validtoken");
+        when(jwtService.parseClaims("validtoken")).thenReturn(Optional.of(claims()));
+        Utilisateur user = new Utilisateur();
+        user.setId(5L);
+        when(utilisateurRepository.findByEmail("user@example.com")).thenAnswer(invocation -> {
+            authenticationCache.invalidateUser(5L);
+            return Optional.of(user);
+        }).thenReturn(Optional.of(user));
+
+        filter.doFilterInternal(request, response, filterChain);
+        assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+        assertTrue(authenticationCache.get("validtoken").isEmpty());
+
+        SecurityContextHolder.clearContext();
+        filter.doFilterInternal(request, response, filterChain);
+        verify(utilisateurRepository, times(2)).findByEmail("user@example.com");
+        assertTrue(authenticationCache.get("validtoken").isPresent());
+    }
+
+    /**
+     * Construit les claims d'un token valide pour {@code user@example.com}.
+     *
+     * @return les claims
+     */
+    private Claims claims() {
+        Claims claims = Jwts.claims().setSubject("user@example.com");
+        claims.put("role", "ROLE_USER");
+        claims.setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        return claims;
+    }
+}
@@ -7,16 +7,33 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
-
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import group10.backendco2.repository.UtilisateurRepository;
+import group10.backendco2.service.AuthenticationCache;
+import group10.backendco2.service.JwtService;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.web.SpringJUnitWebConfig;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 
 /**
  * Tests unitaires de la configuration de sécurité {@link SecurityConfig}.
@@ -27,6 +44,7 @@ import org.springframework.web.filter.CorsFilter;
  *   <li>L'encodage des mots de passe avec BCrypt</li>
  *   <li>La récupération du {@link AuthenticationManager}</li>
  *   <li>La construction de la chaîne de filtres de sécurité</li>
+ *   <li>Les règles d'accès aux endpoints de l'actuator</li>
  * </ul>
  */
 
@@ -127,4 +145,103 @@ class SecurityConfigTest {
         securityConfig.securityFilterChain(httpSecurityMock);
     assertNotNull(chain);
   }
-}
\ No newline at end of file
+
+  /**
+   * Vérifie les règles d'accès de la chaîne de filtres réelle : la santé de
+   * l'application est publique, les métriques Prometheus sont réservées aux
+   * administrateurs. Les requêtes autorisées aboutissent à un 404, aucun
+   * contrôleur n'étant chargé.
+   */
+  @Nested
+  @SpringJUnitWebConfig(AccessRulesConfig.class)
+  class AccessRules {
+
+    /**
+     * Service JWT simulé, dépendance du filtre JWT.
+     */
+    @MockitoBean private JwtService jwtService;
+
+    /**
+     * Référentiel des utilisateurs simulé, dépendance du filtre JWT.
+     */
+    @MockitoBean private UtilisateurRepository utilisateurRepository;
+
+    /**
+     * Cache d'authentification simulé, dépendance du filtre JWT.
+     */
+    @MockitoBean private AuthenticationCache authenticationCache;
+
+    /**
+     * Client HTTP simulé, traversant les filtres de sécurité.
+     */
+    private MockMvc mockMvc;
+
+    /**
+     * Construit le client à partir du contexte web de test.
+     *
+     * @param context le contexte web
+     */
+    @BeforeEach
+    void setUp(WebApplicationContext context) {
+      mockMvc = MockMvcBuilders.webAppContextSetup(context)
+                    .apply(springSecurity())
+                    .build();
+    }
+
+    /**
+     * Vérifie que la santé de l'application reste publique.
+     */
+    @Test
+    void health_shouldBePublic() throws Exception {
+      mockMvc.perform(get("/actuator/health"))
+          .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Vérifie que les métriques Prometheus sont refusées aux anonymes et aux
+     * utilisateurs, et accessibles aux administrateurs.
+     */
+    @Test
+    void prometheus_shouldRequireAdmin() throws Exception {
+      mockMvc.perform(get("/actuator/prometheus"))
+          .andExpect(status().isForbidden());
+      mockMvc
+          .perform(get("/actuator/prometheus")
+                       .with(user("user").authorities(() -> "Utilisateur")))
+          .andExpect(status().isForbidden());
+      mockMvc
+          .perform(get("/actuator/prometheus")
+                       .with(user("admin").authorities(() -> "Admin")))
+          .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Vérifie que les métriques de l'actuator sont refusées aux anonymes et
+     * aux utilisateurs, et accessibles aux administrateurs.
+     */
+    @Test
+    void metrics_shouldRequireAdmin() throws Exception {
+      mockMvc.perform(get("/actuator/metrics/jvm.memory.used"))
+          .andExpect(status().isForbidden());
+      mockMvc
+          .perform(get("/actuator/metrics/jvm.memory.used")
+                       .with(user("user").authorities(() -> "Normal")))
+          .andExpect(status().isForbidden());
+      mockMvc
+          .perform(get("/actuator/metrics/jvm.memory.used")
+                       .with(user("admin").authorities(() -> "Admin")))
+          .andExpect(status().isNotFound());
+    }
+  }
+
+  /**
+   * Contexte minimal des règles d'accès : la configuration de sécurité et le
+   * filtre JWT. Les requêtes de test n'ont pas d'en-tête
+   * {@code Authorization} : le filtre les laisse passer.
+   */
+  @Configuration
+  @EnableWebMvc
+  @EnableWebSecurity
+  @Import({SecurityConfig.class, JwtAuthenticationFilter.class})
+  static class AccessRulesConfig {}
+}
@@ -0,0 +1,78 @@
+package group10.backendco2.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link VirtualThreadPinningMonitor}.
+ *
+ * Vérifie qu’un thread virtuel bloqué dans un bloc {@code synchronized} est
+ * détecté et mesuré, et le formatage d’une pile absente.
+ */
+class VirtualThreadPinningMonitorTest {
+  /**
+   * Moniteur testé.
+   */
+  private VirtualThreadPinningMonitor monitor;
+
+  /**
+   * Arrête le moniteur après chaque test.
+   */
+  @AfterEach
+  void tearDown() {
+    if (monitor != null) {
+      monitor.stop();
+    }
+  }
+
+  /**
+   * Vérifie qu’un {@code Thread.sleep} dans un bloc {@code synchronized}
+   * exécuté par un thread virtuel est compté dans
+   * {@code jvm.threads.virtual.pinned}. Depuis Java 24, {@code synchronized}
+   * n’épingle plus : le test est alors ignoré.
+   *
+   * @throws Exception si le thread virtuel est interrompu
+   */
+  @Test
+  void start_shouldRecordPinnedVirtualThread() throws Exception {
+    assumeTrue(Runtime.version().feature() < 24);
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    monitor = new VirtualThreadPinningMonitor(0, 8, registry);
+    monitor.start();
+
+    Object lock = new Object();
+    Thread.ofVirtual()
+        .start(() -> {
+          synchronized (lock) {
+            try {
+              Thread.sleep(50);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        })
+        .join();
+
+    Timer pinned = registry.get("jvm.threads.virtual.pinned").timer();
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (pinned.count() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    assertTrue(pinned.count() >= 1);
+  }
+
+  /**
+   * Vérifie le message produit lorsque l’événement n’a pas de pile.
+   */
+  @Test
+  void describe_shouldHandleMissingStackTrace() {
+    assertEquals(" (pile indisponible)",
+                 VirtualThreadPinningMonitor.describe(null, 8));
+  }
+}
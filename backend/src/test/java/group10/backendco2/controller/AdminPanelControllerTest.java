@@ -2,6 +2,7 @@ package group10.backendco2.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
@@ -10,6 +11,8 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import group10.backendco2.common.KeysetPage;
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.model.ModeTransport;
 import group10.backendco2.model.Utilisateur;
 import group10.backendco2.model.Utilisateur.Role;
@@ -25,6 +28,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -54,6 +58,11 @@ class AdminPanelControllerTest {
    */
   @Mock private ModeTransportService transportService;
 
+  /**
+   * Règle de taille des pages (10 par défaut).
+   */
+  @Spy private PageSizePolicy pageSizePolicy = new PageSizePolicy(10, 100);
+
   /**
    * Instance de {@link HttpServletRequest} pour simuler la requête HTTP.
    */
@@ -65,30 +74,52 @@ class AdminPanelControllerTest {
   // --- User Management Tests ---
 
   /**
-   * Teste la méthode {@link AdminPanelController#getUsers()} pour s'assurer
-   * qu'elle renvoie correctement la liste des utilisateurs.
+   * Teste la méthode {@link AdminPanelController#getUsers(String, Integer)}
+   * pour s'assurer qu'elle renvoie correctement la page des utilisateurs et
+   * le curseur de la page suivante.
    */
   @Test
   void getUsers_shouldReturnListOfUsers() {
     List<Utilisateur> users =
         Arrays.asList(new Utilisateur(), new Utilisateur());
-    when(userService.findAll()).thenReturn(users);
+    when(userService.findPage(null, 10))
+        .thenReturn(new KeysetPage<>(users, "next"));
 
-    ResponseEntity<List<Utilisateur>> response = controller.getUsers();
+    ResponseEntity<List<Utilisateur>> response =
+        controller.getUsers(null, null);
 
     assertEquals(HttpStatus.OK, response.getStatusCode());
     assertEquals(users, response.getBody());
+    assertEquals("next", response.getHeaders().getFirst(
+                             KeysetPage.NEXT_CURSOR_HEADER));
+  }
+
+  /**
+   * Teste la méthode {@link AdminPanelController#getUsers(String, Integer)}
+   * pour s'assurer qu'elle renvoie une erreur 400 si le curseur est invalide.
+   */
+  @Test
+  void getUsers_shouldReturn400OnInvalidCursor() {
+    when(userService.findPage("bad", 100))
+        .thenThrow(new IllegalArgumentException());
+
+    ResponseEntity<List<Utilisateur>> response =
+        controller.getUsers("bad", 500);
+
+    assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
   }
 
   /**
-   * Teste la méthode {@link AdminPanelController#getUsers()} pour s'assurer
-   * qu'elle renvoie une erreur 500 en cas d'exception.
+   * Teste la méthode {@link AdminPanelController#getUsers(String, Integer)}
+   * pour s'assurer qu'elle renvoie une erreur 500 en cas d'exception.
    */
   @Test
   void getUsers_shouldReturn500OnException() {
-    when(userService.findAll()).thenThrow(new RuntimeException());
+    when(userService.findPage(any(), anyInt()))
+        .thenThrow(new RuntimeException());
 
-    ResponseEntity<List<Utilisateur>> response = controller.getUsers();
+    ResponseEntity<List<Utilisateur>> response =
+        controller.getUsers(null, null);
 
     assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
   }
@@ -0,0 +1,126 @@
+package group10.backendco2.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.dto.LotCalculDto;
+import group10.backendco2.dto.RoutePairRequest;
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.Utilisateur;
+import group10.backendco2.service.BatchEmissionService;
+import group10.backendco2.service.BatchJobService;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+/**
+ * Test unitaire pour la classe {@link BatchJobController}.
+ * <p>
+ * Vérifie la soumission d’un lot, le suivi de son avancement et le
+ * téléchargement de son résultat.
+ */
+class BatchJobControllerTest {
+
+  /**
+   * Instance de {@link BatchJobService} pour simuler le service des lots.
+   */
+  private final BatchJobService batchJobService = mock(BatchJobService.class);
+  /**
+   * Instance de {@link BatchJobController} à tester.
+   */
+  private final BatchJobController controller =
+      new BatchJobController(batchJobService);
+  /**
+   * Utilisateur connecté.
+   */
+  private final Utilisateur user = new Utilisateur();
+
+  /**
+   * Crée un lot de l’utilisateur connecté.
+   *
+   * @param statut l’état du lot
+   * @return le lot
+   */
+  private LotCalcul lot(LotCalcul.Statut statut) {
+    return new LotCalcul(3L, user, statut, 4, 2, 0, Instant.now(), null,
+                         null);
+  }
+
+  /**
+   * Teste la soumission d’un lot : 202 avec l’adresse du lot, ou 400 si le
+   * lot est invalide.
+   */
+  @Test
+  void testSubmit() {
+    List<RoutePairRequest> pairs = List.of(new RoutePairRequest("A", "B"));
+    when(batchJobService.submit(pairs, user))
+        .thenReturn(lot(LotCalcul.Statut.EnAttente));
+
+    ResponseEntity<LotCalculDto> response = controller.submit(user, pairs);
+
+    assertEquals(202, response.getStatusCode().value());
+    assertEquals("/transports/jobs/3",
+                 response.getHeaders().getLocation().toString());
+    assertEquals(3L, response.getBody().getId());
+
+    when(batchJobService.submit(List.of(), user))
+        .thenThrow(new IllegalArgumentException("Lot vide"));
+    assertEquals(400,
+                 controller.submit(user, List.of()).getStatusCode().value());
+  }
+
+  /**
+   * Teste le suivi d’un lot : son avancement, ou 404 s’il n’appartient pas à
+   * l’utilisateur.
+   */
+  @Test
+  void testGetStatus() {
+    when(batchJobService.find(3L, user))
+        .thenReturn(Optional.of(lot(LotCalcul.Statut.EnCours)));
+    when(batchJobService.find(4L, user)).thenReturn(Optional.empty());
+
+    ResponseEntity<LotCalculDto> response = controller.getStatus(user, 3L);
+
+    assertEquals(200, response.getStatusCode().value());
+    assertEquals(50.0, response.getBody().getProgression(), 0.001);
+    assertEquals(404, controller.getStatus(user, 4L).getStatusCode().value());
+  }
+
+  /**
+   * Teste le téléchargement du résultat : écrit pour un lot terminé, 409
+   * pour un lot en cours, 400 pour un format inconnu.
+   *
+   * @throws Exception si l’écriture échoue
+   */
+  @Test
+  void testGetResult() throws Exception {
+    LotCalcul done = lot(LotCalcul.Statut.Termine);
+    when(batchJobService.find(3L, user)).thenReturn(Optional.of(done));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    controller.getResult(user, 3L, "csv", response);
+
+    assertEquals("text/csv", response.getContentType().split(";")[0]);
+    verify(batchJobService)
+        .writeResult(eq(done), eq(BatchEmissionService.Format.CSV), any());
+
+    when(batchJobService.find(5L, user))
+        .thenReturn(Optional.of(lot(LotCalcul.Statut.EnCours)));
+    MockHttpServletResponse running = new MockHttpServletResponse();
+    controller.getResult(user, 5L, "ndjson", running);
+    assertEquals(409, running.getStatus());
+
+    MockHttpServletResponse unknown = new MockHttpServletResponse();
+    controller.getResult(user, 3L, "xml", unknown);
+    assertEquals(400, unknown.getStatus());
+    verify(batchJobService, never()).find(6L, user);
+  }
+}
@@ -2,11 +2,15 @@ package group10.backendco2.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import group10.backendco2.common.KeysetCursor;
+import group10.backendco2.common.KeysetPage;
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.dto.HistoriqueDto;
 import group10.backendco2.model.HistoriqueTrajet;
 import group10.backendco2.model.Trajet;
@@ -42,7 +46,8 @@ class HistoriqueControllerTest {
    * Instance de {@link HistoriqueController} à tester.
    */
   private final HistoriqueController controller =
-      new HistoriqueController(historiqueRepo, trajetRepo);
+      new HistoriqueController(historiqueRepo, trajetRepo,
+                               new PageSizePolicy(1, 10));
 
   /**
    * Teste la méthode {@link HistoriqueController#addToHistory(Utilisateur,
@@ -73,10 +78,10 @@ class HistoriqueControllerTest {
   }
 
   /**
-   * Teste la méthode {@link HistoriqueController#getHistory(Utilisateur)}.
-   * <p>
-   * Cette méthode teste la récupération de l'historique des trajets d'un
-   * utilisateur et vérifie que les trajets sont correctement renvoyés.
+   * Teste la méthode {@link HistoriqueController#getHistory(Utilisateur,
+   * String, Integer)}. <p> Cette méthode teste la récupération de
+   * l'historique des trajets d'un utilisateur et vérifie que les trajets sont
+   * correctement renvoyés.
    */
   @Test
   void testGetHistory() {
@@ -94,14 +99,63 @@ class HistoriqueControllerTest {
     historique.setTrajet(trajet);
     historique.setDateRealisation(new Date());
 
-    when(historiqueRepo.findByUtilisateurId(1L))
+    when(historiqueRepo.findDatedPageIds(eq(1L), any()))
+        .thenReturn(List.of(88L));
+    when(historiqueRepo.findAllWithTrajetAndModesByIdIn(List.of(88L)))
         .thenReturn(List.of(historique));
-    when(trajetRepo.findByIdWithModes(42L)).thenReturn(Optional.of(trajet));
 
-    List<HistoriqueDto> result = controller.getHistory(user);
+    List<HistoriqueDto> result = controller.getHistory(user, null, null).getBody();
 
     assertEquals(1, result.size());
     assertEquals("Lyon", result.get(0).getOrigine());
+    verify(trajetRepo, never()).findByIdWithModes(any());
+  }
+
+  /**
+   * Vérifie que, lorsqu'il reste des trajets, la page est tronquée à la
+   * taille demandée et que le curseur suivant désigne le dernier trajet
+   * renvoyé ; puis que ce curseur est utilisé pour lire la page suivante.
+   */
+  @Test
+  void testGetHistory_returnsNextCursor() {
+    Utilisateur user = new Utilisateur();
+    user.setId(1L);
+    Trajet trajet = new Trajet();
+    trajet.setOrigine("Lyon");
+    trajet.setDestination("Paris");
+    Date date = new Date(1_700_000_000_000L);
+
+    HistoriqueTrajet recent = new HistoriqueTrajet(12L, date, user, trajet);
+    HistoriqueTrajet older = new HistoriqueTrajet(11L, date, user, trajet);
+
+    when(historiqueRepo.findDatedPageIds(eq(1L), any()))
+        .thenReturn(List.of(12L, 11L));
+    when(historiqueRepo.findAllWithTrajetAndModesByIdIn(List.of(12L, 11L)))
+        .thenReturn(List.of(recent, older));
+
+    ResponseEntity<List<HistoriqueDto>> response =
+        controller.getHistory(user, null, 1);
+
+    assertEquals(1, response.getBody().size());
+    assertEquals(12L, response.getBody().get(0).getId());
+    String cursor =
+        response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER);
+    assertEquals(KeysetCursor.of(date, 12L), KeysetCursor.decode(cursor));
+
+    controller.getHistory(user, cursor, 1);
+    verify(historiqueRepo).findPageIdsAfter(eq(1L), eq(date), eq(12L), any());
+  }
+
+  /**
+   * Vérifie qu'un curseur invalide produit une réponse 400.
+   */
+  @Test
+  void testGetHistory_invalidCursor() {
+    Utilisateur user = new Utilisateur();
+    user.setId(1L);
+
+    assertEquals(400,
+                 controller.getHistory(user, "%%%", null).getStatusCodeValue());
   }
 
   /**
@@ -1,6 +1,7 @@
 package group10.backendco2.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -8,18 +9,26 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import group10.backendco2.dto.RoutePairRequest;
 import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.ModeTransport;
 import group10.backendco2.model.Trajet;
 import group10.backendco2.repository.TrajetRepository;
+import group10.backendco2.service.BatchEmissionService;
 import group10.backendco2.service.GoogleMapService;
 import group10.backendco2.service.ModeTransportService;
 import group10.backendco2.service.TransportEmissionService;
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 /**
  * Test unitaire pour la classe {@link ModeTransportController}.
@@ -52,6 +61,11 @@ class ModeTransportControllerTest {
    * d'émissions.
    */
   private TransportEmissionService emissionService;
+  /**
+   * Instance de {@link BatchEmissionService} pour simuler le service de
+   * recherche par lot.
+   */
+  private BatchEmissionService batchEmissionService;
 
   /**
    * Méthode d'initialisation exécutée avant chaque test.
@@ -68,6 +82,7 @@ class ModeTransportControllerTest {
     googleMapService = mock(GoogleMapService.class);
     modeTransportService = mock(ModeTransportService.class);
     emissionService = mock(TransportEmissionService.class);
+    batchEmissionService = mock(BatchEmissionService.class);
 
     ReflectionTestUtils.setField(controller, "trajetRepository",
                                  trajetRepository);
@@ -76,6 +91,8 @@ class ModeTransportControllerTest {
     ReflectionTestUtils.setField(controller, "service", modeTransportService);
     ReflectionTestUtils.setField(controller, "emissionService",
                                  emissionService);
+    ReflectionTestUtils.setField(controller, "batchEmissionService",
+                                 batchEmissionService);
   }
 
   /**
@@ -152,6 +169,73 @@ class ModeTransportControllerTest {
     assertEquals(1, result.size());
   }
 
+  /**
+   * Teste la méthode {@link ModeTransportController#searchEmissionsAsync(
+   * String, String)}. <p> Cette méthode vérifie que la recherche non bloquante
+   * renvoie le résultat asynchrone du service.
+   */
+  @Test
+  void testSearchEmissionsAsync() {
+    TransportEmissionDto dto = new TransportEmissionDto();
+    when(emissionService.calculateMultiModeEmissionsAsync("Lyon", "Paris"))
+        .thenReturn(CompletableFuture.completedFuture(List.of(dto)));
+
+    List<TransportEmissionDto> result =
+        controller.searchEmissionsAsync("Lyon", "Paris").join();
+    assertEquals(1, result.size());
+  }
+
+  /**
+   * Teste la méthode {@link ModeTransportController#streamEmissions(String,
+   * String)}. <p> Cette méthode vérifie que le flux est créé et que les
+   * émissions de chaque mode peuvent y être envoyées avant la fin de la
+   * recherche.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void testStreamEmissions() {
+    CompletableFuture<List<TransportEmissionDto>> search =
+        new CompletableFuture<>();
+    ArgumentCaptor<Consumer<List<TransportEmissionDto>>> onMode =
+        ArgumentCaptor.forClass(Consumer.class);
+    when(emissionService.streamMultiModeEmissions(eq("Lyon"), eq("Paris"),
+                                                  onMode.capture()))
+        .thenReturn(search);
+
+    SseEmitter emitter = controller.streamEmissions("Lyon", "Paris");
+    onMode.getValue().accept(List.of(new TransportEmissionDto()));
+    search.complete(List.of(new TransportEmissionDto()));
+
+    assertNotNull(emitter);
+    verify(emissionService)
+        .streamMultiModeEmissions(eq("Lyon"), eq("Paris"), any());
+  }
+
+  /**
+   * Teste la méthode {@link ModeTransportController#searchEmissionsBatch}.
+   * <p> Cette méthode vérifie que le lot est écrit au format demandé, et
+   * qu’un format inconnu est refusé.
+   *
+   * @throws IOException si l’écriture de la réponse échoue
+   */
+  @Test
+  void testSearchEmissionsBatch() throws IOException {
+    List<RoutePairRequest> pairs =
+        List.of(new RoutePairRequest("Lyon", "Paris"));
+    MockHttpServletResponse response = new MockHttpServletResponse();
+
+    controller.searchEmissionsBatch(pairs, "csv", response);
+
+    assertEquals("text/csv", response.getContentType().split(";")[0]);
+    verify(batchEmissionService).validate(pairs);
+    verify(batchEmissionService)
+        .write(eq(pairs), eq(BatchEmissionService.Format.CSV), any());
+
+    MockHttpServletResponse rejected = new MockHttpServletResponse();
+    controller.searchEmissionsBatch(pairs, "xml", rejected);
+    assertEquals(400, rejected.getStatus());
+  }
+
   /**
    * Teste la méthode {@link
    * ModeTransportController#saveTrajetFromSearch(Trajet)}. <p> Cette méthode
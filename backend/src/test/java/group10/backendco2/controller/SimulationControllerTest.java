@@ -2,12 +2,15 @@ package group10.backendco2.controller;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import group10.backendco2.common.KeysetPage;
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.dto.SimulationRequest;
 import group10.backendco2.model.Simulation;
 import group10.backendco2.service.SimulationService;
@@ -34,7 +37,7 @@ class SimulationControllerTest {
    * Instance de {@link SimulationController} à tester.
    */
   private final SimulationController controller =
-      new SimulationController(simulationService);
+      new SimulationController(simulationService, new PageSizePolicy(20, 100));
 
   /**
    * Teste la méthode {@link
@@ -73,13 +76,28 @@ class SimulationControllerTest {
     sim.setOrigine("Lyon");
     sim.setDestination("Paris");
 
-    when(simulationService.getSimulationsByUser(1L)).thenReturn(List.of(sim));
+    when(simulationService.getSimulationsPage(1L, null, 20))
+        .thenReturn(new KeysetPage<>(List.of(sim), null));
 
     ResponseEntity<List<Simulation>> response =
-        controller.getSimulationsByUser(1L);
+        controller.getSimulationsByUser(1L, null, null);
     assertEquals(200, response.getStatusCodeValue());
     assertNotNull(response.getBody());
     assertEquals(1, response.getBody().size());
     assertEquals("Lyon", response.getBody().get(0).getOrigine());
+    assertNull(response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
+  }
+
+  /**
+   * Vérifie qu'un curseur invalide produit une réponse 400.
+   */
+  @Test
+  void testGetSimulationsByUser_invalidCursor() {
+    when(simulationService.getSimulationsPage(1L, "bad", 5))
+        .thenThrow(new IllegalArgumentException());
+
+    ResponseEntity<List<Simulation>> response =
+        controller.getSimulationsByUser(1L, "bad", 5);
+    assertEquals(400, response.getStatusCodeValue());
   }
 }
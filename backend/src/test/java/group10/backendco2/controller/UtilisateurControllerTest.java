@@ -7,6 +7,8 @@ import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import group10.backendco2.common.KeysetPage;
+import group10.backendco2.common.PageSizePolicy;
 import group10.backendco2.dto.UserResponseDto;
 import group10.backendco2.dto.UserUpdateRequest;
 import group10.backendco2.model.Utilisateur;
@@ -34,7 +36,7 @@ class UtilisateurControllerTest {
    * Instance de {@link UtilisateurController} à tester.
    */
   private final UtilisateurController controller =
-      new UtilisateurController(mockUserService);
+      new UtilisateurController(mockUserService, new PageSizePolicy(50, 200));
 
   /**
    * Teste la méthode {@link UtilisateurController#signup(SignupRequest)}.
@@ -128,19 +130,23 @@ class UtilisateurControllerTest {
     assertEquals(404, response.getStatusCodeValue());
   }
   /**
-   * Teste la méthode {@link UtilisateurController#getAll()}.
+   * Teste la méthode {@link UtilisateurController#getAll(String, Integer)}.
    * <p>
-   * Cette méthode teste la récupération de tous les utilisateurs et
-   * vérifie que la taille de la liste est correcte.
+   * Cette méthode teste la récupération d'une page d'utilisateurs et
+   * vérifie que la taille de la liste et le curseur suivant sont corrects.
    */
   @Test
   void testGetAllUsers() {
     Utilisateur u = new Utilisateur();
     u.setEmail("all@co2.com");
-    when(mockUserService.findAll()).thenReturn(List.of(u));
-    List<Utilisateur> users = controller.getAll();
+    when(mockUserService.findPage("abc", 1))
+        .thenReturn(new KeysetPage<>(List.of(u), "def"));
+    ResponseEntity<List<Utilisateur>> response = controller.getAll("abc", 1);
+    List<Utilisateur> users = response.getBody();
     assertEquals(1, users.size());
     assertEquals("all@co2.com", users.get(0).getEmail());
+    assertEquals("def",
+                 response.getHeaders().getFirst(KeysetPage.NEXT_CURSOR_HEADER));
   }
   /**
    * Teste la méthode {@link UtilisateurController#changeRole(Long, String)}.
@@ -0,0 +1,50 @@
+package group10.backendco2.dto;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import group10.backendco2.model.LotCalcul;
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test unitaire pour la classe {@link LotCalculDto}.
+ * <p>
+ * Vérifie la construction du DTO à partir d’un lot et le calcul de la
+ * progression.
+ */
+class LotCalculDtoTest {
+
+  /**
+   * Vérifie que tous les champs du lot sont repris et que la progression
+   * compte les trajets calculés et abandonnés.
+   */
+  @Test
+  void testOf() {
+    Instant creation = Instant.parse("2025-04-07T10:00:00Z");
+    LotCalcul lot = new LotCalcul(7L, null, LotCalcul.Statut.EnCours, 8, 3,
+                                  1, creation, creation, null);
+
+    LotCalculDto dto = LotCalculDto.of(lot);
+
+    assertEquals(7L, dto.getId());
+    assertEquals(LotCalcul.Statut.EnCours, dto.getStatut());
+    assertEquals(8, dto.getTotal());
+    assertEquals(3, dto.getTraites());
+    assertEquals(1, dto.getEchecs());
+    assertEquals(50.0, dto.getProgression(), 0.001);
+    assertEquals(creation, dto.getDateCreation());
+    assertEquals(creation, dto.getDateDebut());
+    assertEquals(null, dto.getDateFin());
+  }
+
+  /**
+   * Vérifie qu’un lot sans trajet est considéré comme entièrement traité.
+   */
+  @Test
+  void testOfEmptyBatch() {
+    LotCalcul lot = new LotCalcul();
+    lot.setStatut(LotCalcul.Statut.Termine);
+
+    assertEquals(100.0, LotCalculDto.of(lot).getProgression(), 0.001);
+  }
+}
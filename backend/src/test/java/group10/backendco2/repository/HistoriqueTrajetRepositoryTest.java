@@ -3,14 +3,28 @@ package group10.backendco2.repository;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import group10.backendco2.common.KeysetCursor;
+import group10.backendco2.common.KeysetPage;
 import group10.backendco2.model.HistoriqueTrajet;
+import group10.backendco2.model.ModeTransport;
+import group10.backendco2.model.SourceEnergie;
+import group10.backendco2.model.Trajet;
+import group10.backendco2.model.TypeTransport;
 import group10.backendco2.model.Utilisateur;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import org.hibernate.Hibernate;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 /**
@@ -22,6 +36,11 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
  *   <li>un utilisateur avec plusieurs trajets historiques</li>
  *   <li>un utilisateur sans trajets</li>
  * </ul>
+ * que {@code findAllWithTrajetAndModesByIdIn(ids)} charge les trajets et leurs
+ * modes de transport en une seule requête, et que la pagination par clé
+ * parcourt l’historique sans doublon ni oubli, y compris les trajets sans
+ * date, et que {@code findPairesFrequentes} classe les trajets les plus
+ * réalisés.
  */
 
 @ExtendWith(SpringExtension.class)
@@ -37,6 +56,11 @@ class HistoriqueTrajetRepositoryTest {
    * Repository pour les utilisateurs.
    */
   @Autowired private UtilisateurRepository utilisateurRepository;
+
+  /**
+   * Gestionnaire d’entités de test.
+   */
+  @Autowired private TestEntityManager entityManager;
   /**
    * Vérifie que {@code findByUtilisateurId(id)} retourne tous les objets {@link
    * HistoriqueTrajet} associés à un utilisateur donné.
@@ -83,4 +107,209 @@ class HistoriqueTrajetRepositoryTest {
 
     assertThat(found).isEmpty();
   }
-}
\ No newline at end of file
+
+  /**
+   * Vérifie que {@code findAllWithTrajetAndModesByIdIn(ids)} retourne les
+   * trajets historiques de la page avec leurs trajets, modes de transport,
+   * sources d’énergie et types déjà chargés.
+   */
+  @Test
+  @DisplayName("findAllWithTrajetAndModesByIdIn should fetch trajets "
+               + "and modes")
+  void
+  testFindAllWithTrajetAndModesByIdIn() {
+    Utilisateur user = new Utilisateur();
+    user.setNom("Fetch User");
+    entityManager.persist(user);
+
+    SourceEnergie diesel = new SourceEnergie(null, "Diesel", 2390f);
+    entityManager.persist(diesel);
+    TypeTransport collectif = new TypeTransport();
+    collectif.setNom("Collectif");
+    entityManager.persist(collectif);
+
+    ModeTransport bus = new ModeTransport();
+    bus.setNom("Bus");
+    bus.setConsommationMoyenne(30f);
+    bus.setSourceEnergie(diesel);
+    bus.setTypeTransport(collectif);
+    entityManager.persist(bus);
+
+    Trajet trajet = new Trajet();
+    trajet.setOrigine("Lyon");
+    trajet.setDestination("Villeurbanne");
+    trajet.setDistance(6f);
+    trajet.setModesTransport(new HashSet<>(Set.of(bus)));
+    entityManager.persist(trajet);
+
+    for (int i = 0; i < 2; i++) {
+      HistoriqueTrajet historique = new HistoriqueTrajet();
+      historique.setUtilisateur(user);
+      historique.setTrajet(trajet);
+      entityManager.persist(historique);
+    }
+    entityManager.flush();
+    entityManager.clear();
+
+    List<Long> ids = historiqueTrajetRepository.findUndatedPageIds(
+        user.getId(), PageRequest.of(0, 10));
+    List<HistoriqueTrajet> found =
+        historiqueTrajetRepository.findAllWithTrajetAndModesByIdIn(ids);
+
+    assertThat(found).hasSize(2);
+    Trajet loaded = found.get(0).getTrajet();
+    assertThat(Hibernate.isInitialized(loaded.getModesTransport())).isTrue();
+    assertThat(loaded.getModesTransport()).hasSize(1);
+    ModeTransport mode = loaded.getModesTransport().iterator().next();
+    assertThat(Hibernate.isInitialized(mode.getSourceEnergie())).isTrue();
+    assertThat(mode.getTypeTransport().getNom()).isEqualTo("Collectif");
+  }
+
+  /**
+   * Vérifie que la pagination par clé renvoie l’historique trié par date
+   * décroissante, les trajets sans date en tête, et que chaque page reprend
+   * exactement après le dernier élément de la précédente, y compris au
+   * passage des trajets sans date aux trajets datés.
+   */
+  @Test
+  @DisplayName("keyset pagination should walk the history in order")
+  void
+  testKeysetPagination() {
+    Utilisateur user = new Utilisateur();
+    user.setNom("Page User");
+    entityManager.persist(user);
+
+    HistoriqueTrajet undated1 = historique(user, null);
+    HistoriqueTrajet undated2 = historique(user, null);
+    HistoriqueTrajet recent = historique(user, new Date(3_000L));
+    HistoriqueTrajet sameDate1 = historique(user, new Date(2_000L));
+    HistoriqueTrajet sameDate2 = historique(user, new Date(2_000L));
+    HistoriqueTrajet oldest = historique(user, new Date(1_000L));
+    entityManager.flush();
+    entityManager.clear();
+
+    Long userId = user.getId();
+    Pageable two = PageRequest.of(0, 2);
+    assertThat(historiqueTrajetRepository.findUndatedPageIds(userId, two))
+        .containsExactly(undated2.getId(), undated1.getId());
+    assertThat(historiqueTrajetRepository.findUndatedPageIdsAfter(
+                   userId, undated2.getId(), two))
+        .containsExactly(undated1.getId());
+    assertThat(historiqueTrajetRepository.findDatedPageIds(userId, two))
+        .containsExactly(recent.getId(), sameDate2.getId());
+    assertThat(historiqueTrajetRepository.findPageIdsAfter(
+                   userId, sameDate2.getDateRealisation(), sameDate2.getId(),
+                   two))
+        .containsExactly(sameDate1.getId(), oldest.getId());
+
+    List<Long> walked = new ArrayList<>();
+    KeysetCursor after = null;
+    do {
+      KeysetPage<Long> page = KeysetPage.of(
+          KeysetPage.fetch(
+              after, 2,
+              (afterId, limit)
+                  -> afterId == null
+                         ? historiqueTrajetRepository.findUndatedPageIds(
+                               userId, limit)
+                         : historiqueTrajetRepository.findUndatedPageIdsAfter(
+                               userId, afterId, limit),
+              (dated, limit)
+                  -> dated == null
+                         ? historiqueTrajetRepository.findDatedPageIds(
+                               userId, limit)
+                         : historiqueTrajetRepository.findPageIdsAfter(
+                               userId, dated.date(), dated.id(), limit)),
+          2, id -> cursorOf(id));
+      walked.addAll(page.items());
+      after = page.nextCursor() != null
+                  ? KeysetCursor.decode(page.nextCursor())
+                  : null;
+    } while (after != null);
+
+    assertThat(walked).containsExactly(
+        undated2.getId(), undated1.getId(), recent.getId(), sameDate2.getId(),
+        sameDate1.getId(), oldest.getId());
+  }
+
+  /**
+   * Construit le curseur d’un trajet historique enregistré.
+   *
+   * @param id l’identifiant du trajet historique
+   * @return le curseur désignant ce trajet
+   */
+  private KeysetCursor cursorOf(Long id) {
+    HistoriqueTrajet historique =
+        historiqueTrajetRepository.findById(id).orElseThrow();
+    return KeysetCursor.of(historique.getDateRealisation(), id);
+  }
+
+  /**
+   * Vérifie que {@code findPairesFrequentes} regroupe les réalisations par
+   * paire origine/destination depuis la date donnée, de la plus fréquente à
+   * la moins fréquente puis de la plus récente à la plus ancienne.
+   */
+  @Test
+  @DisplayName("findPairesFrequentes should rank recent pairs by count")
+  void
+  testFindPairesFrequentes() {
+    Utilisateur user = new Utilisateur();
+    user.setNom("Frequent User");
+    entityManager.persist(user);
+
+    Trajet lyonParis = trajet("Lyon", "Paris");
+    Trajet bronLyon = trajet("Bron", "Lyon");
+    Trajet lyonParisBis = trajet("Lyon", "Paris");
+    Trajet ancien = trajet("Nice", "Cannes");
+    historique(user, new Date(5_000L)).setTrajet(lyonParis);
+    historique(user, new Date(6_000L)).setTrajet(lyonParisBis);
+    historique(user, new Date(9_000L)).setTrajet(bronLyon);
+    historique(user, new Date(1_000L)).setTrajet(ancien);
+    historique(user, new Date(8_000L));
+    entityManager.flush();
+    entityManager.clear();
+
+    List<HistoriqueTrajetRepository.PaireFrequente> paires =
+        historiqueTrajetRepository.findPairesFrequentes(new Date(2_000L),
+                                                        PageRequest.of(0, 10));
+
+    assertThat(paires).hasSize(2);
+    assertThat(paires.get(0).getOrigine()).isEqualTo("Lyon");
+    assertThat(paires.get(0).getNombre()).isEqualTo(2L);
+    assertThat(paires.get(0).getDerniere().getTime()).isEqualTo(6_000L);
+    assertThat(paires.get(1).getDestination()).isEqualTo("Lyon");
+    assertThat(paires.get(1).getNombre()).isEqualTo(1L);
+
+    assertThat(historiqueTrajetRepository.findPairesFrequentes(
+                   new Date(2_000L), PageRequest.of(0, 1)))
+        .hasSize(1);
+  }
+
+  /**
+   * Enregistre un trajet entre deux lieux.
+   *
+   * @param origine le point de départ
+   * @param destination le point d’arrivée
+   * @return le trajet enregistré
+   */
+  private Trajet trajet(String origine, String destination) {
+    Trajet trajet = new Trajet();
+    trajet.setOrigine(origine);
+    trajet.setDestination(destination);
+    return entityManager.persist(trajet);
+  }
+
+  /**
+   * Enregistre un trajet historique sans trajet associé.
+   *
+   * @param user l’utilisateur
+   * @param date la date de réalisation, ou null
+   * @return le trajet historique enregistré
+   */
+  private HistoriqueTrajet historique(Utilisateur user, Date date) {
+    HistoriqueTrajet historique = new HistoriqueTrajet();
+    historique.setUtilisateur(user);
+    historique.setDateRealisation(date);
+    return entityManager.persist(historique);
+  }
+}
@@ -0,0 +1,63 @@
+package group10.backendco2.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import group10.backendco2.model.ItineraireCache;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Tests d'intégration pour {@link ItineraireCacheRepository}.
+ *
+ * Vérifie la relecture des entrées non expirées et la purge des entrées
+ * expirées.
+ */
+@DataJpaTest
+class ItineraireCacheRepositoryTest {
+  /**
+   * Repository pour les entrées du cache des itinéraires.
+   */
+  @Autowired private ItineraireCacheRepository repository;
+
+  /**
+   * Vérifie que seules les entrées non expirées sont relues, des plus
+   * récentes aux plus anciennes.
+   */
+  @Test
+  @DisplayName("findByDateExpirationAfter returns only valid entries")
+  void testFindValidEntries() {
+    Instant now = Instant.now();
+    repository.save(new ItineraireCache("old", "[]", now.minusSeconds(60)));
+    repository.save(new ItineraireCache("soon", "[]", now.plusSeconds(60)));
+    repository.save(new ItineraireCache("later", "[]", now.plusSeconds(600)));
+
+    List<ItineraireCache> found =
+        repository.findByDateExpirationAfterOrderByDateExpirationDesc(
+            now, PageRequest.of(0, 10));
+
+    assertThat(found).extracting(ItineraireCache::getCle)
+        .containsExactly("later", "soon");
+  }
+
+  /**
+   * Vérifie que les entrées expirées sont supprimées.
+   */
+  @Test
+  @DisplayName("deleteByDateExpirationBefore removes expired entries")
+  void testDeleteExpiredEntries() {
+    Instant now = Instant.now();
+    repository.save(new ItineraireCache("old", "[]", now.minusSeconds(60)));
+    repository.save(new ItineraireCache("valid", "[]", now.plusSeconds(60)));
+
+    long deleted = repository.deleteByDateExpirationBefore(now);
+
+    assertThat(deleted).isEqualTo(1);
+    assertThat(repository.findAll()).extracting(ItineraireCache::getCle)
+        .containsExactly("valid");
+  }
+}
@@ -0,0 +1,138 @@
+package group10.backendco2.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.Utilisateur;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+/**
+ * Tests d'intégration pour {@link LotCalculRepository}.
+ *
+ * Vérifie la recherche d’un lot par utilisateur, le démarrage d’un lot et
+ * sa fin une fois tous ses trajets traités.
+ */
+@DataJpaTest
+class LotCalculRepositoryTest {
+  /**
+   * Repository pour les lots.
+   */
+  @Autowired private LotCalculRepository repository;
+
+  /**
+   * Repository pour les utilisateurs.
+   */
+  @Autowired private UtilisateurRepository utilisateurRepository;
+
+  /**
+   * Gestionnaire d’entités de test.
+   */
+  @Autowired private TestEntityManager entityManager;
+
+  /**
+   * Enregistre un lot en attente.
+   *
+   * @param user l’utilisateur qui soumet le lot
+   * @param total le nombre de trajets du lot
+   * @return le lot enregistré
+   */
+  private LotCalcul lot(Utilisateur user, int total) {
+    LotCalcul lot = new LotCalcul();
+    lot.setUtilisateur(user);
+    lot.setStatut(LotCalcul.Statut.EnAttente);
+    lot.setTotal(total);
+    lot.setDateCreation(Instant.now());
+    return repository.save(lot);
+  }
+
+  /**
+   * Enregistre un utilisateur.
+   *
+   * @param nom le nom de l’utilisateur
+   * @return l’utilisateur enregistré
+   */
+  private Utilisateur user(String nom) {
+    Utilisateur user = new Utilisateur();
+    user.setNom(nom);
+    return utilisateurRepository.save(user);
+  }
+
+  /**
+   * Relit un lot depuis la base, après les mises à jour par requête.
+   *
+   * @param id l’identifiant du lot
+   * @return le lot
+   */
+  private LotCalcul reload(Long id) {
+    entityManager.clear();
+    return repository.findById(id).orElseThrow();
+  }
+
+  /**
+   * Vérifie qu’un lot n’est trouvé que pour l’utilisateur qui l’a soumis.
+   */
+  @Test
+  @DisplayName("findByIdAndUtilisateurId only returns the owner's batch")
+  void testFindByOwner() {
+    Utilisateur owner = user("Owner");
+    Utilisateur other = user("Other");
+    LotCalcul lot = lot(owner, 2);
+
+    assertThat(repository.findByIdAndUtilisateurId(lot.getId(),
+                                                   owner.getId()))
+        .isPresent();
+    assertThat(repository.findByIdAndUtilisateurId(lot.getId(),
+                                                   other.getId()))
+        .isEmpty();
+  }
+
+  /**
+   * Vérifie qu’un lot ne démarre qu’une fois.
+   */
+  @Test
+  @DisplayName("demarrer only starts a waiting batch")
+  void testDemarrer() {
+    LotCalcul lot = lot(user("User"), 2);
+    Instant start = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+    assertThat(repository.demarrer(lot.getId(), start)).isEqualTo(1);
+    assertThat(repository.demarrer(lot.getId(), Instant.now())).isZero();
+
+    LotCalcul started = reload(lot.getId());
+    assertThat(started.getStatut()).isEqualTo(LotCalcul.Statut.EnCours);
+    assertThat(started.getDateDebut()).isEqualTo(start);
+  }
+
+  /**
+   * Vérifie qu’un lot ne se termine qu’une fois tous ses trajets calculés
+   * ou abandonnés.
+   */
+  @Test
+  @DisplayName("terminerSiComplet waits for every item")
+  void testTerminerSiComplet() {
+    LotCalcul lot = lot(user("User"), 2);
+    repository.demarrer(lot.getId(), Instant.now());
+
+    repository.incrementerTraites(lot.getId());
+    assertThat(repository.terminerSiComplet(lot.getId(), Instant.now()))
+        .isZero();
+
+    repository.incrementerEchecs(lot.getId());
+    assertThat(repository.terminerSiComplet(lot.getId(), Instant.now()))
+        .isEqualTo(1);
+    assertThat(repository.terminerSiComplet(lot.getId(), Instant.now()))
+        .isZero();
+
+    LotCalcul done = reload(lot.getId());
+    assertThat(done.getStatut()).isEqualTo(LotCalcul.Statut.Termine);
+    assertThat(done.getTraites()).isEqualTo(1);
+    assertThat(done.getEchecs()).isEqualTo(1);
+    assertThat(done.getDateFin()).isNotNull();
+  }
+}
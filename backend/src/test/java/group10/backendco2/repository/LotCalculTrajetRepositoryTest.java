@@ -0,0 +1,141 @@
+package group10.backendco2.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.LotCalculTrajet;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+/**
+ * Tests d'intégration pour {@link LotCalculTrajetRepository}.
+ *
+ * Vérifie la recherche des trajets dus, leur réservation, leur reprise après
+ * un arrêt et la lecture par pages des trajets d’un lot.
+ */
+@DataJpaTest
+class LotCalculTrajetRepositoryTest {
+  /**
+   * Repository pour les trajets des lots.
+   */
+  @Autowired private LotCalculTrajetRepository repository;
+
+  /**
+   * Repository pour les lots.
+   */
+  @Autowired private LotCalculRepository lotRepository;
+
+  /**
+   * Gestionnaire d’entités de test.
+   */
+  @Autowired private TestEntityManager entityManager;
+
+  /**
+   * Lot auquel appartiennent les trajets de test.
+   */
+  private LotCalcul lot;
+
+  /**
+   * Enregistre le lot de test.
+   */
+  @BeforeEach
+  void setUp() {
+    lot = new LotCalcul();
+    lot.setStatut(LotCalcul.Statut.EnAttente);
+    lot.setTotal(3);
+    lot.setDateCreation(Instant.now());
+    lot = lotRepository.save(lot);
+  }
+
+  /**
+   * Enregistre un trajet du lot de test.
+   *
+   * @param rang la position du trajet dans le lot
+   * @param statut l’état du trajet
+   * @param prochaineTentative l’instant de sa prochaine tentative
+   * @return le trajet enregistré
+   */
+  private LotCalculTrajet item(int rang, LotCalculTrajet.Statut statut,
+                               Instant prochaineTentative) {
+    LotCalculTrajet item = new LotCalculTrajet();
+    item.setLot(lot);
+    item.setRang(rang);
+    item.setOrigine("Origine " + rang);
+    item.setDestination("Destination");
+    item.setStatut(statut);
+    item.setProchaineTentative(prochaineTentative);
+    return repository.save(item);
+  }
+
+  /**
+   * Vérifie que seuls les trajets en attente dont l’essai est dû sont
+   * trouvés, du plus ancien au plus récent.
+   */
+  @Test
+  @DisplayName("findDus returns waiting items whose attempt is due")
+  void testFindDus() {
+    Instant now = Instant.now();
+    LotCalculTrajet first =
+        item(0, LotCalculTrajet.Statut.EnAttente, now.minusSeconds(5));
+    item(1, LotCalculTrajet.Statut.EnAttente, now.plusSeconds(60));
+    item(2, LotCalculTrajet.Statut.Termine, now.minusSeconds(5));
+    LotCalculTrajet last =
+        item(3, LotCalculTrajet.Statut.EnAttente, now.minusSeconds(1));
+
+    List<LotCalculTrajet> due = repository.findDus(now, PageRequest.of(0, 10));
+
+    assertThat(due).extracting(LotCalculTrajet::getId)
+        .containsExactly(first.getId(), last.getId());
+  }
+
+  /**
+   * Vérifie qu’un trajet n’est réservé qu’une fois, et que les trajets en
+   * cours sont remis en attente.
+   */
+  @Test
+  @DisplayName("reserver is exclusive and remettreEnAttente resumes items")
+  void testReserverAndRemettreEnAttente() {
+    LotCalculTrajet item =
+        item(0, LotCalculTrajet.Statut.EnAttente, Instant.now());
+
+    assertThat(repository.reserver(item.getId())).isEqualTo(1);
+    assertThat(repository.reserver(item.getId())).isZero();
+
+    assertThat(repository.remettreEnAttente()).isEqualTo(1);
+    entityManager.clear();
+    assertThat(repository.findById(item.getId()).orElseThrow().getStatut())
+        .isEqualTo(LotCalculTrajet.Statut.EnAttente);
+  }
+
+  /**
+   * Vérifie que les trajets d’un lot sont lus par pages, dans l’ordre de
+   * soumission.
+   */
+  @Test
+  @DisplayName("findByLotIdAndRangGreaterThan reads items in order")
+  void testReadPages() {
+    Instant now = Instant.now();
+    item(2, LotCalculTrajet.Statut.Termine, now);
+    item(0, LotCalculTrajet.Statut.Termine, now);
+    item(1, LotCalculTrajet.Statut.Echec, now);
+
+    List<LotCalculTrajet> first =
+        repository.findByLotIdAndRangGreaterThanOrderByRangAsc(
+            lot.getId(), -1, PageRequest.of(0, 2));
+    List<LotCalculTrajet> second =
+        repository.findByLotIdAndRangGreaterThanOrderByRangAsc(
+            lot.getId(), 1, PageRequest.of(0, 2));
+
+    assertThat(first).extracting(LotCalculTrajet::getRang)
+        .containsExactly(0, 1);
+    assertThat(second).extracting(LotCalculTrajet::getRang)
+        .containsExactly(2);
+  }
+}
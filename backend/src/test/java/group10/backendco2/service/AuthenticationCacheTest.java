@@ -0,0 +1,150 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import group10.backendco2.model.Utilisateur;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.Date;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link AuthenticationCache}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>la réutilisation d’une authentification par token</li>
+ *   <li>l’expiration au plus tard à l’expiration du token</li>
+ *   <li>l’invalidation de toutes les entrées d’un utilisateur</li>
+ *   <li>le refus d’une authentification chargée avant une invalidation</li>
+ *   <li>la copie de l’utilisateur, distincte à chaque requête</li>
+ * </ul>
+ */
+class AuthenticationCacheTest {
+  /**
+   * Cache testé.
+   */
+  private AuthenticationCache cache;
+
+  /**
+   * Crée un cache vide avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    cache = new AuthenticationCache(300, 100, new SimpleMeterRegistry());
+  }
+
+  /**
+   * Crée un utilisateur de test.
+   *
+   * @param id l’identifiant de l’utilisateur
+   * @return l’utilisateur
+   */
+  private Utilisateur user(Long id) {
+    Utilisateur user = new Utilisateur();
+    user.setId(id);
+    return user;
+  }
+
+  /**
+   * Vérifie qu’une authentification enregistrée est retrouvée par son token,
+   * et que son expiration ne dépasse pas celle du token.
+   */
+  @Test
+  void put_shouldBeReturnedByGetUntilTokenExpiration() {
+    Utilisateur user = user(1L);
+    user.setEmail("user@example.com");
+    Date tokenExpiration = new Date(System.currentTimeMillis() + 60_000);
+
+    cache.put("token", user, "Admin", tokenExpiration, cache.generation());
+
+    AuthenticationCache.CachedAuthentication cached =
+        cache.get("token").orElseThrow();
+    assertEquals(1L, cached.user().id());
+    assertEquals("user@example.com", cached.user().email());
+    assertEquals("Admin", cached.role());
+    assertEquals(tokenExpiration.toInstant(), cached.expiresAt());
+    assertFalse(cache.get("other").isPresent());
+  }
+
+  /**
+   * Vérifie qu’une authentification dont le token est expiré n’est pas
+   * renvoyée.
+   */
+  @Test
+  void get_shouldIgnoreExpiredToken() {
+    cache.put("expired", user(1L), "Admin",
+              Date.from(Instant.now().minusSeconds(1)), cache.generation());
+
+    assertFalse(cache.get("expired").isPresent());
+  }
+
+  /**
+   * Vérifie que l’invalidation d’un utilisateur supprime tous ses tokens sans
+   * toucher à ceux des autres utilisateurs.
+   */
+  @Test
+  void invalidateUser_shouldRemoveOnlyThatUsersTokens() {
+    cache.put("a1", user(1L), "Admin", null, cache.generation());
+    cache.put("a2", user(1L), "Admin", null, cache.generation());
+    cache.put("b", user(2L), "Visiteur", null, cache.generation());
+
+    cache.invalidateUser(1L);
+    cache.invalidateUser(null);
+
+    assertFalse(cache.get("a1").isPresent());
+    assertFalse(cache.get("a2").isPresent());
+    assertTrue(cache.get("b").isPresent());
+  }
+
+  /**
+   * Vérifie qu’une authentification chargée avant l’invalidation de son
+   * utilisateur est renvoyée sans être enregistrée, pour que le rôle modifié
+   * soit relu à la requête suivante.
+   */
+  @Test
+  void put_shouldNotStoreAuthenticationLoadedBeforeInvalidation() {
+    long loadedAt = cache.generation();
+    cache.invalidateUser(1L);
+
+    AuthenticationCache.CachedAuthentication returned =
+        cache.put("token", user(1L), "Normal", null, loadedAt);
+
+    assertEquals(1L, returned.user().id());
+    assertFalse(cache.get("token").isPresent());
+
+    cache.put("token", user(1L), "Admin", null, cache.generation());
+    assertEquals("Admin", cache.get("token").orElseThrow().role());
+  }
+
+  /**
+   * Vérifie que le cache conserve une copie de l’utilisateur, insensible aux
+   * modifications de l’entité chargée, et que chaque requête en reçoit un
+   * nouvel exemplaire.
+   */
+  @Test
+  void put_shouldKeepImmutableCopyOfUser() {
+    Utilisateur user = user(1L);
+    user.setNom("Avant");
+    user.setMotDePasse("hash");
+    user.setRole(Utilisateur.Role.Normal);
+    cache.put("token", user, "Normal", null, cache.generation());
+    user.setNom("Après");
+
+    AuthenticationCache.AuthenticatedUser cached =
+        cache.get("token").orElseThrow().user();
+    Utilisateur first = cached.toUtilisateur();
+    Utilisateur second = cached.toUtilisateur();
+
+    assertEquals("Avant", first.getNom());
+    assertEquals(Utilisateur.Role.Normal, first.getRole());
+    assertNull(first.getMotDePasse());
+    assertNotSame(first, second);
+    assertEquals(first.getId(), second.getId());
+  }
+}
@@ -0,0 +1,241 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RoutePairRequest;
+import group10.backendco2.dto.TransportEmissionDto;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link BatchEmissionService}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>l’ordre des résultats malgré des calculs de durées différentes</li>
+ *   <li>le calcul unique des trajets identiques</li>
+ *   <li>la limite de parallélisme</li>
+ *   <li>les formats NDJSON et CSV, erreurs comprises</li>
+ *   <li>la validation des lots</li>
+ * </ul>
+ */
+class BatchEmissionServiceTest {
+  /**
+   * Service de calcul des émissions simulé.
+   */
+  private TransportEmissionService emissionService;
+  /**
+   * Service testé, limité à deux calculs simultanés et cinq trajets.
+   */
+  private BatchEmissionService service;
+  /**
+   * Lecteur des lignes NDJSON.
+   */
+  private final ObjectMapper objectMapper = new ObjectMapper();
+
+  /**
+   * Crée le service avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    emissionService = mock(TransportEmissionService.class);
+    service = new BatchEmissionService(emissionService, objectMapper, 2, 5);
+  }
+
+  /**
+   * Arrête l’exécuteur du service après chaque test.
+   */
+  @AfterEach
+  void tearDown() {
+    service.shutdown();
+  }
+
+  /**
+   * Crée une émission de test.
+   *
+   * @param mode le mode de transport
+   * @param co2 les émissions en grammes
+   * @return l’émission
+   */
+  private TransportEmissionDto emission(String mode, float co2) {
+    TransportEmissionDto dto = new TransportEmissionDto();
+    dto.setMode(mode);
+    dto.setCo2(co2);
+    dto.setDistanceKm(10f);
+    return dto;
+  }
+
+  /**
+   * Écrit un lot et retourne la sortie.
+   *
+   * @param pairs les trajets
+   * @param format le format de sortie
+   * @return la sortie, ligne par ligne
+   * @throws Exception si l’écriture échoue
+   */
+  private List<String> write(List<RoutePairRequest> pairs,
+                             BatchEmissionService.Format format)
+      throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    service.write(pairs, format, out);
+    return out.toString(StandardCharsets.UTF_8).lines().toList();
+  }
+
+  /**
+   * Vérifie que les résultats suivent l’ordre des trajets reçus, même quand
+   * le premier est le plus lent, et qu’un doublon n’est calculé qu’une fois.
+   *
+   * @throws Exception si l’écriture échoue
+   */
+  @Test
+  void write_shouldKeepInputOrderAndComputeDuplicatesOnce() throws Exception {
+    when(emissionService.calculateMultiModeEmissions("Lyon", "Paris"))
+        .thenAnswer(invocation -> {
+          Thread.sleep(200);
+          return List.of(emission("Train", 5f));
+        });
+    when(emissionService.calculateMultiModeEmissions("Lyon", "Bron"))
+        .thenReturn(List.of(emission("Vélo", 0f)));
+
+    List<String> lines = write(
+        List.of(new RoutePairRequest("Lyon", "Paris"),
+                new RoutePairRequest("Lyon", "Bron"),
+                new RoutePairRequest(" lyon ", "PARIS")),
+        BatchEmissionService.Format.NDJSON);
+
+    assertEquals(3, lines.size());
+    for (int i = 0; i < lines.size(); i++) {
+      JsonNode line = objectMapper.readTree(lines.get(i));
+      assertEquals(i, line.get("index").asInt());
+    }
+    JsonNode last = objectMapper.readTree(lines.get(2));
+    assertEquals(" lyon ", last.get("origine").asText());
+    assertEquals("Train", last.get("emissions").get(0).get("mode").asText());
+    verify(emissionService, times(1))
+        .calculateMultiModeEmissions("Lyon", "Paris");
+    verify(emissionService, never())
+        .calculateMultiModeEmissions(" lyon ", "PARIS");
+  }
+
+  /**
+   * Vérifie qu’un calcul partagé est oublié une fois ses trajets écrits : un
+   * doublon hors de la fenêtre d’écriture est calculé de nouveau.
+   *
+   * @throws Exception si l’écriture échoue
+   */
+  @Test
+  void write_shouldForgetOutcomeOnceWritten() throws Exception {
+    when(emissionService.calculateMultiModeEmissions(anyString(), anyString()))
+        .thenReturn(List.of(emission("Train", 5f)));
+    List<RoutePairRequest> pairs = new ArrayList<>();
+    pairs.add(new RoutePairRequest("Lyon", "Paris"));
+    for (int i = 0; i < 8; i++) {
+      pairs.add(new RoutePairRequest("Lyon", "Ville " + i));
+    }
+    pairs.add(new RoutePairRequest("Lyon", "Paris"));
+
+    List<String> lines = write(pairs, BatchEmissionService.Format.NDJSON);
+
+    assertEquals(10, lines.size());
+    verify(emissionService, times(2))
+        .calculateMultiModeEmissions("Lyon", "Paris");
+  }
+
+  /**
+   * Vérifie que pas plus de {@code max-parallelism} trajets ne sont calculés
+   * en même temps.
+   *
+   * @throws Exception si l’écriture échoue
+   */
+  @Test
+  void write_shouldBoundParallelism() throws Exception {
+    AtomicInteger running = new AtomicInteger();
+    AtomicInteger maxRunning = new AtomicInteger();
+    when(emissionService.calculateMultiModeEmissions(anyString(), anyString()))
+        .thenAnswer(invocation -> {
+          maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+          Thread.sleep(50);
+          running.decrementAndGet();
+          return List.of();
+        });
+    List<RoutePairRequest> pairs = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      pairs.add(new RoutePairRequest("Origine " + i, "Destination"));
+    }
+
+    assertEquals(5, write(pairs, BatchEmissionService.Format.NDJSON).size());
+    assertTrue(maxRunning.get() <= 2);
+  }
+
+  /**
+   * Vérifie le format CSV : en-tête, une ligne par émission, et une ligne
+   * avec le message d’erreur pour un trajet en échec.
+   *
+   * @throws Exception si l’écriture échoue
+   */
+  @Test
+  void write_shouldWriteCsvRowsAndErrors() throws Exception {
+    when(emissionService.calculateMultiModeEmissions("Lyon", "Paris"))
+        .thenReturn(List.of(emission("Train", 5f), emission("Voiture", 80f)));
+    when(emissionService.calculateMultiModeEmissions("Lyon", "Nulle part"))
+        .thenThrow(new IllegalStateException("Adresse inconnue"));
+
+    List<String> lines =
+        write(List.of(new RoutePairRequest("Lyon", "Paris"),
+                      new RoutePairRequest("Lyon", "Nulle part")),
+              BatchEmissionService.Format.CSV);
+
+    assertEquals(BatchEmissionService.CSV_HEADER, lines.get(0));
+    assertEquals("0,Lyon,Paris,Train,,5.000,10.000,,,,,", lines.get(1));
+    assertEquals("0,Lyon,Paris,Voiture,,80.000,10.000,,,,,", lines.get(2));
+    assertEquals("1,Lyon,Nulle part,,,,,,,,,Adresse inconnue", lines.get(3));
+  }
+
+  /**
+   * Vérifie l’échappement des valeurs CSV.
+   */
+  @Test
+  void csv_shouldQuoteSeparatorsAndQuotes() {
+    assertEquals("Lyon", BatchEmissionService.csv("Lyon"));
+    assertEquals("\"Lyon, 3e\"", BatchEmissionService.csv("Lyon, 3e"));
+    assertEquals("\"Gare \"\"Part-Dieu\"\"\"",
+                 BatchEmissionService.csv("Gare \"Part-Dieu\""));
+    assertEquals("", BatchEmissionService.csv(null));
+  }
+
+  /**
+   * Vérifie le rejet des lots vides, trop grands ou incomplets.
+   */
+  @Test
+  void validate_shouldRejectInvalidBatches() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> service.validate(List.of()));
+    List<RoutePairRequest> blank = List.of(new RoutePairRequest("A", " "));
+    assertThrows(IllegalArgumentException.class,
+                 () -> service.validate(blank));
+    List<RoutePairRequest> tooMany = new ArrayList<>();
+    for (int i = 0; i < 6; i++) {
+      tooMany.add(new RoutePairRequest("A", "B"));
+    }
+    assertThrows(IllegalArgumentException.class,
+                 () -> service.validate(tooMany));
+    assertThrows(IllegalArgumentException.class,
+                 () -> BatchEmissionService.Format.fromName("xml"));
+  }
+}
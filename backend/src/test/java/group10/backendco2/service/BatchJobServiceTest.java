@@ -0,0 +1,222 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RoutePairRequest;
+import group10.backendco2.dto.TransportEmissionDto;
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.LotCalculTrajet;
+import group10.backendco2.model.Utilisateur;
+import group10.backendco2.repository.LotCalculRepository;
+import group10.backendco2.repository.LotCalculTrajetRepository;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests unitaires pour la classe {@link BatchJobService}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>l’enregistrement d’un lot et de ses trajets</li>
+ *   <li>l’enregistrement du résultat, de l’abandon ou du report d’un
+ * trajet</li>
+ *   <li>l’écriture du résultat d’un lot, erreurs comprises</li>
+ * </ul>
+ */
+class BatchJobServiceTest {
+  /**
+   * Référentiel des lots simulé.
+   */
+  private LotCalculRepository lotRepository;
+  /**
+   * Référentiel des trajets des lots simulé.
+   */
+  private LotCalculTrajetRepository trajetRepository;
+  /**
+   * Service de recherche par lot, pour les formats de sortie.
+   */
+  private BatchEmissionService batchEmissionService;
+  /**
+   * Service testé, limité à trois trajets par lot.
+   */
+  private BatchJobService service;
+
+  /**
+   * Crée le service avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    lotRepository = mock(LotCalculRepository.class);
+    trajetRepository = mock(LotCalculTrajetRepository.class);
+    ObjectMapper objectMapper = new ObjectMapper();
+    batchEmissionService = new BatchEmissionService(
+        mock(TransportEmissionService.class), objectMapper, 2, 10);
+    service = new BatchJobService(lotRepository, trajetRepository,
+                                  batchEmissionService, objectMapper, 3);
+  }
+
+  /**
+   * Arrête l’exécuteur du service de recherche par lot après chaque test.
+   */
+  @AfterEach
+  void tearDown() {
+    batchEmissionService.shutdown();
+  }
+
+  /**
+   * Crée un trajet du lot 1.
+   *
+   * @param rang la position du trajet dans le lot
+   * @return le trajet
+   */
+  private LotCalculTrajet item(int rang) {
+    LotCalcul lot = new LotCalcul();
+    lot.setId(1L);
+    LotCalculTrajet item = new LotCalculTrajet();
+    item.setId(10L + rang);
+    item.setLot(lot);
+    item.setRang(rang);
+    item.setOrigine("Lyon");
+    item.setDestination("Paris");
+    item.setStatut(LotCalculTrajet.Statut.EnCours);
+    return item;
+  }
+
+  /**
+   * Vérifie qu’un lot est enregistré en attente, avec un trajet par paire
+   * dans l’ordre de soumission.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void submit_shouldSaveBatchAndItems() {
+    Utilisateur user = new Utilisateur();
+    user.setId(4L);
+    when(lotRepository.save(any(LotCalcul.class))).thenAnswer(invocation -> {
+      LotCalcul saved = invocation.getArgument(0);
+      saved.setId(1L);
+      return saved;
+    });
+
+    LotCalcul lot = service.submit(
+        List.of(new RoutePairRequest("Lyon", "Paris"),
+                new RoutePairRequest("Bron", "Lyon")),
+        user);
+
+    assertEquals(1L, lot.getId());
+    assertEquals(LotCalcul.Statut.EnAttente, lot.getStatut());
+    assertEquals(2, lot.getTotal());
+    assertEquals(user, lot.getUtilisateur());
+    ArgumentCaptor<List<LotCalculTrajet>> items =
+        ArgumentCaptor.forClass(List.class);
+    verify(trajetRepository).saveAll(items.capture());
+    assertEquals(2, items.getValue().size());
+    LotCalculTrajet second = items.getValue().get(1);
+    assertEquals(1, second.getRang());
+    assertEquals("Bron", second.getOrigine());
+    assertEquals(LotCalculTrajet.Statut.EnAttente, second.getStatut());
+    assertEquals(lot, second.getLot());
+  }
+
+  /**
+   * Vérifie qu’un lot trop grand est refusé sans rien enregistrer.
+   */
+  @Test
+  void submit_shouldRejectTooLargeBatch() {
+    List<RoutePairRequest> pairs =
+        List.of(new RoutePairRequest("A", "B"), new RoutePairRequest("A", "C"),
+                new RoutePairRequest("A", "D"), new RoutePairRequest("A", "E"));
+
+    assertThrows(IllegalArgumentException.class,
+                 () -> service.submit(pairs, new Utilisateur()));
+    verify(lotRepository, never()).save(any());
+    verify(trajetRepository, never()).saveAll(anyList());
+  }
+
+  /**
+   * Vérifie qu’un trajet calculé est enregistré et compté dans son lot.
+   */
+  @Test
+  void complete_shouldSaveResultAndCountItem() {
+    LotCalculTrajet item = item(0);
+    item.setErreur("Délai dépassé");
+    TransportEmissionDto dto = new TransportEmissionDto();
+    dto.setMode("Train");
+
+    service.complete(item, List.of(dto));
+
+    assertEquals(LotCalculTrajet.Statut.Termine, item.getStatut());
+    assertNull(item.getErreur());
+    assertTrue(item.getResultat().contains("\"mode\":\"Train\""));
+    verify(trajetRepository).save(item);
+    verify(lotRepository).incrementerTraites(1L);
+    verify(lotRepository).terminerSiComplet(eq(1L), any(Instant.class));
+  }
+
+  /**
+   * Vérifie qu’un trajet abandonné est compté dans son lot, et qu’un trajet
+   * reporté ne l’est pas.
+   */
+  @Test
+  void failAndRetryLater_shouldUpdateItem() {
+    LotCalculTrajet failed = item(0);
+    service.fail(failed, "x".repeat(2000));
+    assertEquals(LotCalculTrajet.Statut.Echec, failed.getStatut());
+    assertEquals(1024, failed.getErreur().length());
+    verify(lotRepository).incrementerEchecs(1L);
+
+    LotCalculTrajet retried = item(1);
+    Instant next = Instant.now().plusSeconds(4);
+    service.retryLater(retried, "Délai dépassé", next);
+    assertEquals(LotCalculTrajet.Statut.EnAttente, retried.getStatut());
+    assertEquals(next, retried.getProchaineTentative());
+    verify(trajetRepository).save(retried);
+    verify(lotRepository, never()).incrementerTraites(any());
+  }
+
+  /**
+   * Vérifie l’écriture CSV du résultat d’un lot : un trajet calculé et un
+   * trajet abandonné avec son erreur.
+   *
+   * @throws Exception si l’écriture échoue
+   */
+  @Test
+  void writeResult_shouldWriteItemsInOrder() throws Exception {
+    LotCalculTrajet done = item(0);
+    done.setStatut(LotCalculTrajet.Statut.Termine);
+    done.setResultat("[{\"mode\":\"Train\",\"co2\":5.0,\"distanceKm\":10.0}]");
+    LotCalculTrajet failed = item(1);
+    failed.setStatut(LotCalculTrajet.Statut.Echec);
+    failed.setErreur("Adresse inconnue");
+    when(trajetRepository.findByLotIdAndRangGreaterThanOrderByRangAsc(
+             eq(1L), eq(-1), any()))
+        .thenReturn(List.of(done, failed));
+    LotCalcul lot = new LotCalcul();
+    lot.setId(1L);
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    service.writeResult(lot, BatchEmissionService.Format.CSV, out);
+
+    List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+    assertEquals(3, lines.size());
+    assertEquals(BatchEmissionService.CSV_HEADER, lines.get(0));
+    assertEquals("0,Lyon,Paris,Train,,5.000,10.000,,,,,", lines.get(1));
+    assertEquals("1,Lyon,Paris,,,,,,,,,Adresse inconnue", lines.get(2));
+  }
+}
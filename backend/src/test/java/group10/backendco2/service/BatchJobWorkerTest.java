@@ -0,0 +1,263 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.dto.TransportEmissionDto;
+import group10.backendco2.model.LotCalcul;
+import group10.backendco2.model.LotCalculTrajet;
+import group10.backendco2.repository.LotCalculRepository;
+import group10.backendco2.repository.LotCalculTrajetRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests unitaires pour la classe {@link BatchJobWorker}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>l’enregistrement d’un trajet calculé</li>
+ *   <li>le report d’un trajet en échec, puis son abandon</li>
+ *   <li>le délai exponentiel entre deux tentatives</li>
+ *   <li>la réservation des trajets dus et la reprise au démarrage</li>
+ * </ul>
+ */
+class BatchJobWorkerTest {
+  /**
+   * Service des lots simulé.
+   */
+  private BatchJobService jobService;
+  /**
+   * Service de calcul des émissions simulé.
+   */
+  private TransportEmissionService emissionService;
+  /**
+   * Référentiel des lots simulé.
+   */
+  private LotCalculRepository lotRepository;
+  /**
+   * Référentiel des trajets des lots simulé.
+   */
+  private LotCalculTrajetRepository trajetRepository;
+  /**
+   * Exécuteur testé : deux calculs simultanés, trois tentatives, délai
+   * initial d’une seconde plafonné à cinq.
+   */
+  private BatchJobWorker worker;
+
+  /**
+   * Crée l’exécuteur avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    jobService = mock(BatchJobService.class);
+    emissionService = mock(TransportEmissionService.class);
+    lotRepository = mock(LotCalculRepository.class);
+    trajetRepository = mock(LotCalculTrajetRepository.class);
+    worker = new BatchJobWorker(jobService, emissionService, lotRepository,
+                                trajetRepository, true, 2, 3, 1000, 5000, 50);
+  }
+
+  /**
+   * Arrête l’exécuteur après chaque test.
+   */
+  @AfterEach
+  void tearDown() {
+    worker.shutdown();
+  }
+
+  /**
+   * Crée un trajet réservé du lot 1.
+   *
+   * @param tentatives le nombre de tentatives déjà faites
+   * @return le trajet
+   */
+  private LotCalculTrajet item(int tentatives) {
+    LotCalcul lot = new LotCalcul();
+    lot.setId(1L);
+    LotCalculTrajet item = new LotCalculTrajet();
+    item.setId(10L);
+    item.setLot(lot);
+    item.setOrigine("Lyon");
+    item.setDestination("Paris");
+    item.setStatut(LotCalculTrajet.Statut.EnCours);
+    item.setTentatives(tentatives);
+    return item;
+  }
+
+  /**
+   * Vérifie qu’un trajet calculé est enregistré et que son lot démarre.
+   */
+  @Test
+  void process_shouldCompleteItem() {
+    List<TransportEmissionDto> emissions = List.of(new TransportEmissionDto());
+    when(emissionService.calculateMultiModeEmissionsWithStatus("Lyon",
+                                                               "Paris"))
+        .thenReturn(complete(emissions));
+    LotCalculTrajet item = item(0);
+
+    worker.process(item);
+
+    verify(lotRepository).demarrer(eq(1L), any(Instant.class));
+    verify(jobService).complete(item, emissions);
+    verify(jobService, never()).retryLater(any(), any(), any());
+  }
+
+  /**
+   * Vérifie qu’un trajet en erreur est reporté après le délai de sa
+   * tentative.
+   */
+  @Test
+  void process_shouldRetryFailedItemLater() {
+    when(emissionService.calculateMultiModeEmissionsWithStatus("Lyon",
+                                                               "Paris"))
+        .thenThrow(new IllegalStateException("Quota dépassé"));
+    LotCalculTrajet item = item(1);
+    Instant before = Instant.now();
+
+    worker.process(item);
+
+    ArgumentCaptor<Instant> next = ArgumentCaptor.forClass(Instant.class);
+    verify(jobService).retryLater(eq(item), eq("Quota dépassé"),
+                                  next.capture());
+    assertEquals(2, item.getTentatives());
+    assertTrue(!next.getValue().isBefore(before.plusMillis(1000)));
+    assertTrue(!next.getValue().isAfter(Instant.now().plusMillis(2000)));
+  }
+
+  /**
+   * Vérifie qu’un trajet sans itinéraire est abandonné à sa dernière
+   * tentative.
+   */
+  @Test
+  void process_shouldFailItemAfterMaxAttempts() {
+    when(emissionService.calculateMultiModeEmissionsWithStatus("Lyon",
+                                                               "Paris"))
+        .thenReturn(complete(List.of()));
+    LotCalculTrajet item = item(2);
+
+    worker.process(item);
+
+    verify(jobService).fail(item, "Aucun itinéraire trouvé");
+    verify(jobService, never()).retryLater(any(), any(), any());
+    assertEquals(3, item.getTentatives());
+  }
+
+  /**
+   * Vérifie qu’un trajet dont un mode Google Maps est indisponible est
+   * reporté, même s’il a des émissions.
+   */
+  @Test
+  void process_shouldRetryPartialItemLater() {
+    when(emissionService.calculateMultiModeEmissionsWithStatus("Lyon",
+                                                               "Paris"))
+        .thenReturn(new MultiModeEmissions(List.of(new TransportEmissionDto()),
+                                           Set.of("transit")));
+    LotCalculTrajet item = item(0);
+
+    worker.process(item);
+
+    verify(jobService).retryLater(eq(item), eq("Modes indisponibles : transit"),
+                                  any(Instant.class));
+    verify(jobService, never()).complete(any(), any());
+  }
+
+  /**
+   * Vérifie qu’un trajet encore partiel à sa dernière tentative est
+   * enregistré avec les modes manquants.
+   */
+  @Test
+  void process_shouldCompletePartialItemAfterMaxAttempts() {
+    List<TransportEmissionDto> emissions = List.of(new TransportEmissionDto());
+    when(emissionService.calculateMultiModeEmissionsWithStatus("Lyon",
+                                                               "Paris"))
+        .thenReturn(new MultiModeEmissions(emissions, Set.of("transit")));
+    LotCalculTrajet item = item(2);
+
+    worker.process(item);
+
+    verify(jobService).complete(
+        item, emissions, "Résultat partiel. Modes indisponibles : transit");
+    verify(jobService, never()).fail(any(), any());
+  }
+
+  /**
+   * Crée le résultat d’une recherche dont tous les modes ont répondu.
+   *
+   * @param emissions les émissions
+   * @return le résultat complet
+   */
+  private static MultiModeEmissions complete(
+      List<TransportEmissionDto> emissions) {
+    return new MultiModeEmissions(emissions, Set.of());
+  }
+
+  /**
+   * Vérifie que le délai double à chaque tentative, reste plafonné et
+   * varie entre la moitié et la totalité de sa valeur.
+   */
+  @Test
+  void backoffMillis_shouldGrowExponentiallyWithJitter() {
+    for (int i = 0; i < 100; i++) {
+      long first = worker.backoffMillis(1);
+      long third = worker.backoffMillis(3);
+      long capped = worker.backoffMillis(40);
+      assertTrue(first >= 500 && first <= 1000);
+      assertTrue(third >= 2000 && third <= 4000);
+      assertTrue(capped >= 2500 && capped <= 5000);
+    }
+  }
+
+  /**
+   * Vérifie que seuls les trajets effectivement réservés sont calculés.
+   *
+   * @throws Exception si le répartiteur est interrompu
+   */
+  @Test
+  void dispatch_shouldOnlyProcessReservedItems() throws Exception {
+    LotCalculTrajet reserved = item(0);
+    LotCalculTrajet taken = item(0);
+    taken.setId(11L);
+    when(trajetRepository.findDus(any(Instant.class), any()))
+        .thenReturn(List.of(reserved, taken));
+    when(trajetRepository.reserver(10L)).thenReturn(1);
+    when(trajetRepository.reserver(11L)).thenReturn(0);
+    when(emissionService.calculateMultiModeEmissionsWithStatus(anyString(),
+                                                               anyString()))
+        .thenReturn(complete(List.of(new TransportEmissionDto())));
+
+    assertEquals(1, worker.dispatch());
+
+    verify(jobService, timeout(1000)).complete(eq(reserved), any());
+    verify(jobService, never()).complete(eq(taken), any());
+  }
+
+  /**
+   * Vérifie qu’au démarrage les trajets interrompus sont remis en attente
+   * puis que le répartiteur recherche les trajets dus.
+   */
+  @Test
+  void start_shouldResumeInterruptedItems() {
+    when(trajetRepository.findDus(any(Instant.class), any()))
+        .thenReturn(List.of());
+
+    worker.start();
+
+    verify(trajetRepository).remettreEnAttente();
+    verify(trajetRepository, timeout(1000).atLeastOnce())
+        .findDus(any(Instant.class), any());
+  }
+}
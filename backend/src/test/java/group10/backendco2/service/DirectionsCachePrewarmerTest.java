@@ -0,0 +1,220 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.repository.HistoriqueTrajetRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsCachePrewarmer}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>le classement des trajets par fréquence et ancienneté, et le
+ * regroupement des écritures d’un même trajet</li>
+ *   <li>le rechargement des seuls itinéraires bientôt expirés</li>
+ *   <li>le plafond d’appels par passage</li>
+ *   <li>l’interruption après des échecs consécutifs</li>
+ * </ul>
+ */
+class DirectionsCachePrewarmerTest {
+  /**
+   * Instant des passages testés.
+   */
+  private static final Instant NOW = Instant.parse("2026-03-02T03:30:00Z");
+
+  /**
+   * Référentiel de l’historique simulé.
+   */
+  private HistoriqueTrajetRepository repository;
+  /**
+   * Service Google Maps simulé, avec deux modes.
+   */
+  private GoogleMapService googleMapService;
+  /**
+   * Cache des itinéraires simulé.
+   */
+  private DirectionsCache directionsCache;
+  /**
+   * Registre recevant les métriques.
+   */
+  private SimpleMeterRegistry registry;
+
+  /**
+   * Crée les dépendances simulées avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    repository = mock(HistoriqueTrajetRepository.class);
+    googleMapService = mock(GoogleMapService.class);
+    directionsCache = mock(DirectionsCache.class);
+    registry = new SimpleMeterRegistry();
+    when(googleMapService.getModes()).thenReturn(List.of("driving", "transit"));
+    when(directionsCache.expiresAt(anyString(), anyString(), anyString()))
+        .thenReturn(Optional.empty());
+  }
+
+  /**
+   * Crée un préchauffage de deux trajets et {@code maxCalls} appels par
+   * passage, avec une demi-vie d’un jour.
+   *
+   * @param maxCalls le nombre maximal d’appels par passage
+   * @return le préchauffage
+   */
+  private DirectionsCachePrewarmer prewarmer(int maxCalls) {
+    return new DirectionsCachePrewarmer(repository, googleMapService,
+                                        directionsCache,
+                                        new SearchMetrics(registry), 2, 30, 1,
+                                        maxCalls, 240);
+  }
+
+  /**
+   * Crée une ligne de l’historique regroupé.
+   *
+   * @param origine le point de départ
+   * @param destination le point d’arrivée
+   * @param nombre le nombre de réalisations
+   * @param age l’ancienneté de la plus récente
+   * @return la ligne
+   */
+  private HistoriqueTrajetRepository.PaireFrequente
+  row(String origine, String destination, long nombre, Duration age) {
+    HistoriqueTrajetRepository.PaireFrequente row =
+        mock(HistoriqueTrajetRepository.PaireFrequente.class);
+    when(row.getOrigine()).thenReturn(origine);
+    when(row.getDestination()).thenReturn(destination);
+    when(row.getNombre()).thenReturn(nombre);
+    when(row.getDerniere()).thenReturn(Date.from(NOW.minus(age)));
+    return row;
+  }
+
+  /**
+   * Programme les lignes retournées par le référentiel.
+   *
+   * @param rows les lignes
+   */
+  private void rows(List<HistoriqueTrajetRepository.PaireFrequente> rows) {
+    when(repository.findPairesFrequentes(any(Date.class), any(Pageable.class)))
+        .thenReturn(rows);
+  }
+
+  /**
+   * Compte les itinéraires traités avec une issue.
+   *
+   * @param outcome l’issue
+   * @return le nombre d’itinéraires
+   */
+  private double prewarms(String outcome) {
+    return registry.get("directions.prewarm")
+        .tag("outcome", outcome)
+        .counter()
+        .count();
+  }
+
+  /**
+   * Vérifie qu’un trajet récent passe devant un trajet plus fréquent mais
+   * ancien, et que les écritures d’un même trajet sont additionnées.
+   */
+  @Test
+  void rankPairs_shouldWeightFrequencyByRecency() {
+    rows(List.of(row("Lyon", "Paris", 20, Duration.ofDays(5)),
+                 row("Bron", "Lyon", 3, Duration.ofHours(1)),
+                 row("Vénissieux", "Lyon", 2, Duration.ofHours(2)),
+                 row(" venissieux", "LYON", 2, Duration.ofHours(3))));
+
+    List<DirectionsCachePrewarmer.Candidate> ranked =
+        prewarmer(100).rankPairs(NOW);
+
+    assertEquals(2, ranked.size());
+    assertEquals("Vénissieux", ranked.get(0).origin());
+    assertEquals(4, ranked.get(0).trips());
+    assertEquals(NOW.minus(Duration.ofHours(2)), ranked.get(0).lastTrip());
+    assertEquals("Bron", ranked.get(1).origin());
+  }
+
+  /**
+   * Vérifie que seuls les itinéraires bientôt expirés sont rechargés.
+   */
+  @Test
+  void prewarm_shouldSkipRoutesStillFresh() {
+    rows(List.of(row("Lyon", "Paris", 5, Duration.ofHours(1))));
+    when(directionsCache.expiresAt("Lyon", "Paris", "driving"))
+        .thenReturn(Optional.of(Instant.now().plus(Duration.ofHours(5))));
+    when(googleMapService.refreshMode("Lyon", "Paris", "transit"))
+        .thenReturn(true);
+
+    DirectionsCachePrewarmer.Report report =
+        prewarmer(100).prewarm(Instant.now());
+
+    assertEquals(1, report.calls());
+    assertEquals(1, report.refreshed());
+    assertEquals(1, report.skipped());
+    verify(googleMapService, never()).refreshMode("Lyon", "Paris", "driving");
+    assertEquals(1, prewarms("refreshed"));
+    assertEquals(1, prewarms("skipped"));
+  }
+
+  /**
+   * Vérifie qu’un passage n’envoie pas plus d’appels que le plafond, en
+   * commençant par le trajet le mieux classé.
+   */
+  @Test
+  void prewarm_shouldStopAtCallQuota() {
+    rows(List.of(row("Lyon", "Paris", 5, Duration.ofHours(1)),
+                 row("Bron", "Lyon", 1, Duration.ofHours(1))));
+    when(googleMapService.refreshMode(anyString(), anyString(), anyString()))
+        .thenReturn(true);
+
+    DirectionsCachePrewarmer.Report report = prewarmer(3).prewarm(NOW);
+
+    assertEquals(2, report.pairs());
+    assertEquals(3, report.calls());
+    verify(googleMapService).refreshMode("Lyon", "Paris", "transit");
+    verify(googleMapService).refreshMode("Bron", "Lyon", "driving");
+    verify(googleMapService, never()).refreshMode("Bron", "Lyon", "transit");
+  }
+
+  /**
+   * Vérifie que le passage s’arrête après des échecs consécutifs, une
+   * exception comptant comme un échec.
+   */
+  @Test
+  void prewarm_shouldStopAfterConsecutiveFailures() {
+    DirectionsCachePrewarmer prewarmer = new DirectionsCachePrewarmer(
+        repository, googleMapService, directionsCache,
+        new SearchMetrics(registry), 100, 30, 1, 1000, 240);
+    List<HistoriqueTrajetRepository.PaireFrequente> many =
+        new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      many.add(row("Lyon", "Ville " + i, 1, Duration.ofHours(1)));
+    }
+    rows(many);
+    when(googleMapService.refreshMode(anyString(), eq("Ville 0"), anyString()))
+        .thenThrow(new IllegalStateException("Réponse mal formée"));
+
+    DirectionsCachePrewarmer.Report report = prewarmer.prewarm(NOW);
+
+    assertEquals(DirectionsCachePrewarmer.MAX_CONSECUTIVE_FAILURES,
+                 report.calls());
+    assertEquals(report.calls(), report.failed());
+    verify(googleMapService, times(report.calls()))
+        .refreshMode(anyString(), anyString(), anyString());
+  }
+}
@@ -0,0 +1,239 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RouteModeResponse;
+import group10.backendco2.model.ItineraireCache;
+import group10.backendco2.repository.ItineraireCacheRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsCacheStore}.
+ *
+ * Vérifie la sérialisation des itinéraires, la relecture des entrées encore
+ * utilisables (valides ou servies en secours), l’écriture différée et bornée
+ * et la tolérance aux erreurs de base de données.
+ */
+class DirectionsCacheStoreTest {
+  /**
+   * Repository simulé des entrées persistées.
+   */
+  private ItineraireCacheRepository repository;
+  /**
+   * Persistance testée.
+   */
+  private DirectionsCacheStore store;
+
+  /**
+   * Prépare la persistance avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    repository = mock(ItineraireCacheRepository.class);
+    store = new DirectionsCacheStore(repository, new ObjectMapper(), true, 168,
+                                     1000, 100);
+  }
+
+  /**
+   * Arrête le thread d’écriture après chaque test.
+   *
+   * @throws InterruptedException si l’arrêt est interrompu
+   */
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    store.shutdown();
+  }
+
+  /**
+   * Vérifie qu’une entrée sauvegardée puis relue restitue les mêmes
+   * itinéraires.
+   */
+  @Test
+  void saveThenLoadRecent_shouldRoundTripRoutes() {
+    Instant expiresAt = Instant.now().plusSeconds(3600);
+    store.save("lyon|paris|driving",
+               List.of(new RouteModeResponse("driving", 465.5f, "4 hours",
+                                             null)),
+               expiresAt);
+
+    @SuppressWarnings("unchecked")
+    ArgumentCaptor<Iterable<ItineraireCache>> saved =
+        ArgumentCaptor.forClass(Iterable.class);
+    verify(repository, timeout(1000)).saveAll(saved.capture());
+    when(repository.findByDateExpirationAfterOrderByDateExpirationDesc(
+             any(), any()))
+        .thenReturn(List.copyOf(toList(saved.getValue())));
+
+    Map<String, DirectionsCacheStore.StoredRoutes> loaded =
+        store.loadRecent(10);
+
+    assertEquals(1, loaded.size());
+    DirectionsCacheStore.StoredRoutes entry = loaded.get("lyon|paris|driving");
+    assertEquals(expiresAt, entry.expiresAt());
+    assertEquals("driving", entry.routes().get(0).getMode());
+    assertEquals(465.5f, entry.routes().get(0).getDistanceKm(), 0.01);
+    verify(repository).deleteByDateExpirationBefore(any());
+  }
+
+  /**
+   * Vérifie que seules les entrées expirées depuis plus de
+   * {@code stale-ttl-hours} sont supprimées, et que les autres, même
+   * expirées, sont relues.
+   */
+  @Test
+  void loadRecent_shouldKeepEntriesWithinStaleTtl() {
+    Instant before = Instant.now();
+
+    store.loadRecent(10);
+
+    ArgumentCaptor<Instant> deletedBefore =
+        ArgumentCaptor.forClass(Instant.class);
+    verify(repository).deleteByDateExpirationBefore(deletedBefore.capture());
+    Instant staleSince = before.minus(Duration.ofHours(168));
+    assertFalse(deletedBefore.getValue().isBefore(staleSince));
+    assertTrue(deletedBefore.getValue().isBefore(before.minusSeconds(3600)));
+    verify(repository).findByDateExpirationAfterOrderByDateExpirationDesc(
+        eq(deletedBefore.getValue()), any());
+  }
+
+  /**
+   * Vérifie qu’une erreur de base de données ne remonte pas à l’appelant et
+   * n’arrête pas le thread d’écriture.
+   */
+  @Test
+  void save_shouldSwallowRepositoryErrors() {
+    doThrow(new RuntimeException("db down")).when(repository).saveAll(any());
+
+    store.save("k", List.of(), Instant.now());
+    verify(repository, timeout(1000)).saveAll(any());
+    store.save("k2", List.of(), Instant.now());
+
+    verify(repository, timeout(1000).times(2)).saveAll(any());
+  }
+
+  /**
+   * Vérifie que l’enregistrement n’attend pas la base, et qu’une écriture
+   * est abandonnée quand la file est pleine.
+   *
+   * @throws InterruptedException si l’attente est interrompue
+   */
+  @Test
+  void save_shouldNotWaitForRepositoryAndDropWhenQueueIsFull()
+      throws InterruptedException {
+    store.shutdown();
+    store = new DirectionsCacheStore(repository, new ObjectMapper(), true, 168,
+                                     1, 100);
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<String> savedKeys = new ArrayList<>();
+    doAnswer(invocation -> {
+      writing.countDown();
+      release.await(1, TimeUnit.SECONDS);
+      Iterable<ItineraireCache> entries = invocation.getArgument(0);
+      entries.forEach(entry -> savedKeys.add(entry.getCle()));
+      return List.of();
+    })
+        .when(repository)
+        .saveAll(any());
+
+    store.save("a", List.of(), Instant.now());
+    assertTrue(writing.await(1, TimeUnit.SECONDS));
+    long start = System.nanoTime();
+    store.save("b", List.of(), Instant.now());
+    store.save("c", List.of(), Instant.now());
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+    release.countDown();
+    store.shutdown();
+
+    assertTrue(elapsedMs < 500);
+    assertEquals(List.of("a", "b"), savedKeys);
+  }
+
+  /**
+   * Vérifie que les écritures d’une même clé sont regroupées et que l’arrêt
+   * enregistre celles encore en attente.
+   *
+   * @throws InterruptedException si l’arrêt est interrompu
+   */
+  @Test
+  void shutdown_shouldFlushPendingWritesKeepingLastPerKey()
+      throws InterruptedException {
+    CountDownLatch writing = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    List<List<String>> batches = new ArrayList<>();
+    doAnswer(invocation -> {
+      writing.countDown();
+      release.await(1, TimeUnit.SECONDS);
+      Iterable<ItineraireCache> entries = invocation.getArgument(0);
+      List<String> batch = new ArrayList<>();
+      entries.forEach(entry -> batch.add(entry.getCle() + "@" +
+                                         entry.getDateExpiration()
+                                             .getEpochSecond()));
+      batches.add(batch);
+      return List.of();
+    })
+        .when(repository)
+        .saveAll(any());
+
+    store.save("a", List.of(), Instant.ofEpochSecond(1));
+    assertTrue(writing.await(1, TimeUnit.SECONDS));
+    store.save("b", List.of(), Instant.ofEpochSecond(2));
+    store.save("b", List.of(), Instant.ofEpochSecond(3));
+    release.countDown();
+    store.shutdown();
+
+    assertEquals(List.of(List.of("a@1"), List.of("b@3")), batches);
+  }
+
+  /**
+   * Vérifie que la persistance désactivée n’accède jamais à la base.
+   */
+  @Test
+  void disabledStore_shouldNotTouchRepository() throws InterruptedException {
+    DirectionsCacheStore disabled = new DirectionsCacheStore(
+        repository, new ObjectMapper(), false, 168, 1000, 100);
+
+    disabled.save("k", List.of(), Instant.now());
+    assertTrue(disabled.loadRecent(10).isEmpty());
+    disabled.shutdown();
+
+    verify(repository, never()).saveAll(any());
+    verify(repository, never()).deleteByDateExpirationBefore(any());
+  }
+
+  /**
+   * Copie les entrées passées au référentiel.
+   *
+   * @param entries les entrées
+   * @return la liste des entrées
+   */
+  private static List<ItineraireCache> toList(
+      Iterable<ItineraireCache> entries) {
+    List<ItineraireCache> list = new ArrayList<>();
+    entries.forEach(list::add);
+    return list;
+  }
+}
@@ -0,0 +1,286 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.dto.RouteModeResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsCache}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>la normalisation des clés (casse, espaces, accents)</li>
+ *   <li>la réutilisation des entrées en cache</li>
+ *   <li>l’absence de mise en cache des résultats vides</li>
+ *   <li>la publication des statistiques dans Micrometer</li>
+ *   <li>la persistance et le réchauffement au démarrage</li>
+ *   <li>la conservation des derniers itinéraires connus après
+ * expiration</li>
+ * </ul>
+ */
+class DirectionsCacheTest {
+  /**
+   * Registre Micrometer en mémoire.
+   */
+  private SimpleMeterRegistry meterRegistry;
+  /**
+   * Persistance simulée du cache.
+   */
+  private DirectionsCacheStore store;
+  /**
+   * Cache testé.
+   */
+  private DirectionsCache cache;
+
+  /**
+   * Crée un cache vide avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    store = mock(DirectionsCacheStore.class);
+    cache = new DirectionsCache(60, 100, 24, meterRegistry, store);
+  }
+
+  /**
+   * Crée un itinéraire de test.
+   *
+   * @param mode le mode de transport
+   * @return un itinéraire de 1 km
+   */
+  private RouteModeResponse route(String mode) {
+    return new RouteModeResponse(mode, 1f, "5 mins", null);
+  }
+
+  /**
+   * Vérifie que la normalisation ignore la casse, les espaces superflus et
+   * les accents.
+   */
+  @Test
+  void key_shouldIgnoreCaseSpacesAndAccents() {
+    assertEquals(DirectionsCache.key("Gare  Part-Dieu", "Vénissieux", "driving"),
+                 DirectionsCache.key(" gare part-dieu ", "VENISSIEUX",
+                                     "DRIVING"));
+  }
+
+  /**
+   * Vérifie que le chargement n’a lieu qu’une seule fois pour un même trajet.
+   */
+  @Test
+  void get_shouldLoadOnlyOnce() {
+    AtomicInteger loads = new AtomicInteger();
+    List<RouteModeResponse> first = cache.get("Lyon", "Paris", "driving", () -> {
+      loads.incrementAndGet();
+      return List.of(route("driving"));
+    });
+    List<RouteModeResponse> second =
+        cache.get("lyon", "paris", "driving", () -> {
+          loads.incrementAndGet();
+          return List.of(route("driving"));
+        });
+
+    assertEquals(1, loads.get());
+    assertSame(first, second);
+  }
+
+  /**
+   * Vérifie qu’un résultat vide n’est pas conservé en cache.
+   */
+  @Test
+  void get_shouldNotCacheEmptyResult() {
+    AtomicInteger loads = new AtomicInteger();
+    cache.get("Lyon", "Paris", "transit", () -> {
+      loads.incrementAndGet();
+      return List.of();
+    });
+    List<RouteModeResponse> result =
+        cache.get("Lyon", "Paris", "transit", () -> {
+          loads.incrementAndGet();
+          return List.of(route("transit"));
+        });
+
+    assertEquals(2, loads.get());
+    assertEquals(1, result.size());
+  }
+
+  /**
+   * Vérifie que les hits et misses sont publiés dans Micrometer.
+   */
+  @Test
+  void get_shouldRecordHitAndMissMetrics() {
+    cache.get("Lyon", "Paris", "walking", () -> List.of(route("walking")));
+    cache.get("Lyon", "Paris", "walking", () -> List.of(route("walking")));
+
+    double hits = meterRegistry.get("cache.gets")
+                      .tag("cache", "directions")
+                      .tag("result", "hit")
+                      .functionCounter()
+                      .count();
+    double misses = meterRegistry.get("cache.gets")
+                        .tag("cache", "directions")
+                        .tag("result", "miss")
+                        .functionCounter()
+                        .count();
+
+    assertEquals(1.0, hits);
+    assertEquals(1.0, misses);
+    assertTrue(meterRegistry.find("cache.evictions").meters().size() > 0);
+  }
+
+  /**
+   * Vérifie que {@code getIfPresent} ne charge rien et retrouve les
+   * itinéraires conservés par {@code put}, mais pas un résultat vide.
+   */
+  @Test
+  void getIfPresent_shouldReturnRoutesStoredByPut() {
+    assertTrue(cache.getIfPresent("Lyon", "Paris", "driving").isEmpty());
+
+    cache.put("Lyon", "Paris", "transit", List.of());
+    List<RouteModeResponse> routes =
+        cache.put("Lyon", "Paris", "driving", List.of(route("driving")));
+
+    assertTrue(cache.getIfPresent("Lyon", "Paris", "transit").isEmpty());
+    assertSame(routes, cache.getIfPresent("lyon", "PARIS", "driving").get());
+  }
+
+  /**
+   * Vérifie qu’une nouvelle entrée est persistée.
+   */
+  @Test
+  void get_shouldPersistLoadedRoutes() {
+    List<RouteModeResponse> routes =
+        cache.get("Lyon", "Paris", "driving", () -> List.of(route("driving")));
+
+    verify(store).save(eq(DirectionsCache.key("Lyon", "Paris", "driving")),
+                       eq(routes), any(Instant.class));
+  }
+
+  /**
+   * Vérifie que les entrées persistées sont servies sans rechargement après
+   * le réchauffement du cache.
+   */
+  @Test
+  void warmUp_shouldServeStoredRoutesWithoutLoading() {
+    String key = DirectionsCache.key("Lyon", "Paris", "bicycling");
+    when(store.loadRecent(anyInt()))
+        .thenReturn(Map.of(key, new DirectionsCacheStore.StoredRoutes(
+                                    List.of(route("bicycling")),
+                                    Instant.now().plusSeconds(600))));
+
+    cache.warmUp();
+
+    AtomicInteger loads = new AtomicInteger();
+    List<RouteModeResponse> result =
+        cache.get("Lyon", "Paris", "bicycling", () -> {
+          loads.incrementAndGet();
+          return List.of();
+        });
+
+    assertEquals(0, loads.get());
+    assertEquals("bicycling", result.get(0).getMode());
+  }
+
+  /**
+   * Vérifie qu’une entrée persistée déjà expirée n’est pas servie par le
+   * cache après le réchauffement, mais reste disponible en secours.
+   */
+  @Test
+  void warmUp_shouldKeepExpiredStoredRoutesAsStale() {
+    String key = DirectionsCache.key("Lyon", "Paris", "walking");
+    when(store.loadRecent(anyInt()))
+        .thenReturn(Map.of(key, new DirectionsCacheStore.StoredRoutes(
+                                    List.of(route("walking")),
+                                    Instant.now().minusSeconds(600))));
+
+    cache.warmUp();
+
+    assertTrue(cache.getIfPresent("Lyon", "Paris", "walking").isEmpty());
+    assertEquals("walking",
+                 cache.getStale("Lyon", "Paris", "walking").get().get(0)
+                     .getMode());
+  }
+
+  /**
+   * Vérifie que la durée de conservation des derniers itinéraires connus est
+   * comptée à partir de l’expiration de chaque entrée, comme pour la table
+   * persistée : une entrée expirée depuis plus longtemps n’est pas retenue.
+   */
+  @Test
+  void warmUp_shouldDropStoredRoutesPastStaleTtl() {
+    when(store.loadRecent(anyInt()))
+        .thenReturn(Map.of(
+            DirectionsCache.key("Lyon", "Paris", "walking"),
+            new DirectionsCacheStore.StoredRoutes(
+                List.of(route("walking")),
+                Instant.now().minus(Duration.ofHours(23))),
+            DirectionsCache.key("Lyon", "Paris", "driving"),
+            new DirectionsCacheStore.StoredRoutes(
+                List.of(route("driving")),
+                Instant.now().minus(Duration.ofHours(25)))));
+
+    cache.warmUp();
+
+    assertTrue(cache.getStale("Lyon", "Paris", "walking").isPresent());
+    assertTrue(cache.getStale("Lyon", "Paris", "driving").isEmpty());
+  }
+
+  /**
+   * Vérifie que les derniers itinéraires connus restent disponibles après
+   * l’expiration de leur entrée, jusqu’au vidage du cache.
+   */
+  @Test
+  void getStale_shouldOutliveExpiredEntries() {
+    DirectionsCache expired =
+        new DirectionsCache(0, 100, 24, meterRegistry, store);
+    assertTrue(expired.getStale("Lyon", "Paris", "driving").isEmpty());
+
+    List<RouteModeResponse> routes =
+        expired.put("Lyon", "Paris", "driving", List.of(route("driving")));
+    expired.put("Lyon", "Paris", "transit", List.of());
+
+    assertTrue(expired.getIfPresent("Lyon", "Paris", "driving").isEmpty());
+    assertSame(routes, expired.getStale("lyon", "paris", "driving").get());
+    assertTrue(expired.getStale("Lyon", "Paris", "transit").isEmpty());
+
+    expired.invalidateAll();
+    assertTrue(expired.getStale("Lyon", "Paris", "driving").isEmpty());
+  }
+
+  /**
+   * Vérifie que l’échéance d’une entrée est retrouvée sans la compter comme
+   * une lecture du cache.
+   */
+  @Test
+  void expiresAt_shouldReturnEntryDeadlineWithoutRecordingHit() {
+    assertTrue(cache.expiresAt("Lyon", "Paris", "driving").isEmpty());
+
+    Instant before = Instant.now();
+    cache.put("Lyon", "Paris", "driving", List.of(route("driving")));
+    Instant expiresAt = cache.expiresAt("lyon", "PARIS", "driving").get();
+
+    assertFalse(expiresAt.isBefore(before.plus(Duration.ofMinutes(60))));
+    assertFalse(expiresAt.isAfter(Instant.now().plus(Duration.ofMinutes(60))));
+    assertEquals(0.0, meterRegistry.get("cache.gets")
+                          .tag("cache", "directions")
+                          .tag("result", "hit")
+                          .functionCounter()
+                          .count());
+  }
+}
@@ -0,0 +1,62 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+/**
+ * Tests unitaires pour la classe
+ * {@link DirectionsCircuitBreakerHealthIndicator}.
+ */
+class DirectionsCircuitBreakerHealthIndicatorTest {
+  /**
+   * Disjoncteur simulé.
+   */
+  private final DirectionsCircuitBreaker circuitBreaker =
+      mock(DirectionsCircuitBreaker.class);
+  /**
+   * Indicateur testé.
+   */
+  private final DirectionsCircuitBreakerHealthIndicator indicator =
+      new DirectionsCircuitBreakerHealthIndicator(circuitBreaker);
+
+  /**
+   * Vérifie que le disjoncteur fermé ou semi-ouvert rend l’état UP, avec
+   * les derniers appels comptés.
+   */
+  @Test
+  void health_shouldBeUpUnlessOpen() {
+    when(circuitBreaker.snapshot())
+        .thenReturn(new DirectionsCircuitBreaker.Snapshot(
+            DirectionsCircuitBreaker.State.CLOSED, 12, 3, 1));
+
+    Health health = indicator.health();
+
+    assertEquals(Status.UP, health.getStatus());
+    assertEquals(DirectionsCircuitBreaker.State.CLOSED,
+                 health.getDetails().get("state"));
+    assertEquals(3, health.getDetails().get("failures"));
+
+    when(circuitBreaker.snapshot())
+        .thenReturn(new DirectionsCircuitBreaker.Snapshot(
+            DirectionsCircuitBreaker.State.HALF_OPEN, 0, 0, 0));
+    assertEquals(Status.UP, indicator.health().getStatus());
+  }
+
+  /**
+   * Vérifie que le disjoncteur ouvert rend l’état DEGRADED.
+   */
+  @Test
+  void health_shouldBeDegradedWhenOpen() {
+    when(circuitBreaker.snapshot())
+        .thenReturn(new DirectionsCircuitBreaker.Snapshot(
+            DirectionsCircuitBreaker.State.OPEN, 0, 0, 0));
+
+    assertEquals(DirectionsCircuitBreakerHealthIndicator.DEGRADED,
+                 indicator.health().getStatus());
+  }
+}
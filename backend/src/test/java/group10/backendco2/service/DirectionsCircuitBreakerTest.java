@@ -0,0 +1,205 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsCircuitBreaker}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>l’ouverture sur la part d’échecs ou d’appels lents des derniers
+ * appels, à partir du nombre minimal d’appels</li>
+ *   <li>le refus des appels pendant l’ouverture</li>
+ *   <li>les appels d’essai à l’état semi-ouvert, qui referment ou rouvrent
+ * le disjoncteur</li>
+ *   <li>la publication de l’état dans Micrometer</li>
+ * </ul>
+ */
+class DirectionsCircuitBreakerTest {
+  /**
+   * Durée d’un appel rapide, en nanosecondes.
+   */
+  private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+  /**
+   * Durée d’un appel lent, en nanosecondes.
+   */
+  private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(1500);
+
+  /**
+   * Horloge du disjoncteur, en nanosecondes.
+   */
+  private AtomicLong now;
+  /**
+   * Registre recevant la jauge d’état.
+   */
+  private SimpleMeterRegistry registry;
+  /**
+   * Disjoncteur testé : fenêtre de 4 appels, ouvert à partir de 4 appels
+   * dont la moitié en échec ou les trois quarts lents (plus d’une seconde),
+   * pendant 10 secondes, avec 2 appels d’essai.
+   */
+  private DirectionsCircuitBreaker breaker;
+
+  /**
+   * Crée un disjoncteur fermé avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    now = new AtomicLong();
+    registry = new SimpleMeterRegistry();
+    breaker = new DirectionsCircuitBreaker(registry, true, 4, 4, 50, 1000, 75,
+                                           10_000, 2, now::get);
+  }
+
+  /**
+   * Envoie un appel autorisé et signale son résultat.
+   *
+   * @param success {@code true} si l’appel réussit
+   * @param nanos la durée de l’appel
+   */
+  private void call(boolean success, long nanos) {
+    assertTrue(breaker.tryAcquire());
+    breaker.onResult(success, nanos);
+  }
+
+  /**
+   * Avance l’horloge au-delà de la durée d’ouverture.
+   */
+  private void waitOpenDuration() {
+    now.addAndGet(TimeUnit.SECONDS.toNanos(11));
+  }
+
+  /**
+   * Vérifie que le disjoncteur ne s’ouvre qu’à partir du nombre minimal
+   * d’appels, puis refuse les appels.
+   */
+  @Test
+  void onResult_shouldOpenOnFailureRate() {
+    call(false, FAST);
+    call(false, FAST);
+    call(true, FAST);
+    assertEquals(DirectionsCircuitBreaker.State.CLOSED, breaker.state());
+
+    call(true, FAST);
+
+    assertEquals(DirectionsCircuitBreaker.State.OPEN, breaker.state());
+    assertFalse(breaker.tryAcquire());
+    assertEquals(2, registry.get("directions.circuit.state").gauge().value());
+  }
+
+  /**
+   * Vérifie que seuls les derniers appels de la fenêtre sont comptés.
+   */
+  @Test
+  void onResult_shouldForgetCallsOutsideWindow() {
+    call(false, FAST);
+    for (int i = 0; i < 10; i++) {
+      call(true, FAST);
+    }
+    call(false, FAST);
+
+    DirectionsCircuitBreaker.Snapshot snapshot = breaker.snapshot();
+    assertEquals(DirectionsCircuitBreaker.State.CLOSED, snapshot.state());
+    assertEquals(4, snapshot.calls());
+    assertEquals(1, snapshot.failures());
+  }
+
+  /**
+   * Vérifie que le disjoncteur s’ouvre quand trop d’appels réussis sont
+   * lents.
+   */
+  @Test
+  void onResult_shouldOpenOnSlowCallRate() {
+    call(true, SLOW);
+    call(true, SLOW);
+    call(true, FAST);
+    call(true, SLOW);
+
+    assertEquals(DirectionsCircuitBreaker.State.OPEN, breaker.state());
+  }
+
+  /**
+   * Vérifie qu’après la durée d’ouverture seuls les appels d’essai passent,
+   * et que leur réussite referme le disjoncteur.
+   */
+  @Test
+  void tryAcquire_shouldCloseAfterSuccessfulProbes() {
+    for (int i = 0; i < 4; i++) {
+      call(false, FAST);
+    }
+    now.addAndGet(TimeUnit.SECONDS.toNanos(5));
+    assertFalse(breaker.tryAcquire());
+    waitOpenDuration();
+
+    assertTrue(breaker.tryAcquire());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+    assertEquals(DirectionsCircuitBreaker.State.HALF_OPEN, breaker.state());
+    assertEquals(1, registry.get("directions.circuit.state").gauge().value());
+    breaker.onResult(true, FAST);
+    breaker.onResult(true, FAST);
+
+    assertEquals(DirectionsCircuitBreaker.State.CLOSED, breaker.state());
+    assertEquals(0, breaker.snapshot().calls());
+    assertTrue(breaker.tryAcquire());
+  }
+
+  /**
+   * Vérifie qu’un appel d’essai en échec ou lent rouvre le disjoncteur pour
+   * une nouvelle durée.
+   */
+  @Test
+  void onResult_shouldReopenOnFailedOrSlowProbe() {
+    for (int i = 0; i < 4; i++) {
+      call(false, FAST);
+    }
+    waitOpenDuration();
+    call(false, FAST);
+    assertEquals(DirectionsCircuitBreaker.State.OPEN, breaker.state());
+    assertFalse(breaker.tryAcquire());
+
+    waitOpenDuration();
+    call(true, SLOW);
+    assertEquals(DirectionsCircuitBreaker.State.OPEN, breaker.state());
+  }
+
+  /**
+   * Vérifie qu’un appel d’essai non envoyé libère sa place.
+   */
+  @Test
+  void onIgnored_shouldReleaseProbe() {
+    for (int i = 0; i < 4; i++) {
+      call(false, FAST);
+    }
+    waitOpenDuration();
+    assertTrue(breaker.tryAcquire());
+    assertTrue(breaker.tryAcquire());
+    assertFalse(breaker.tryAcquire());
+
+    breaker.onIgnored();
+
+    assertTrue(breaker.tryAcquire());
+  }
+
+  /**
+   * Vérifie qu’un disjoncteur désactivé laisse tout passer.
+   */
+  @Test
+  void disabled_shouldNeverOpen() {
+    DirectionsCircuitBreaker disabled = DirectionsCircuitBreaker.disabled();
+
+    for (int i = 0; i < 100; i++) {
+      assertTrue(disabled.tryAcquire());
+      disabled.onResult(false, SLOW);
+    }
+    assertEquals(DirectionsCircuitBreaker.State.CLOSED, disabled.state());
+  }
+}
@@ -0,0 +1,119 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsHedgePolicy}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>le calcul du centile sur les dernières durées</li>
+ *   <li>l’attente d’un nombre minimal de durées et le délai minimal</li>
+ *   <li>le plafond du budget de doublements</li>
+ *   <li>la limitation aux modes configurés</li>
+ * </ul>
+ */
+class DirectionsHedgePolicyTest {
+
+  /**
+   * Convertit des millisecondes en nanosecondes.
+   *
+   * @param ms la durée, en millisecondes
+   * @return la durée, en nanosecondes
+   */
+  private static long ms(long ms) { return TimeUnit.MILLISECONDS.toNanos(ms); }
+
+  /**
+   * Vérifie le centile des durées enregistrées, et que seules les
+   * dernières sont conservées.
+   */
+  @Test
+  void latencyWindow_shouldComputePercentileOfLastSamples() {
+    DirectionsHedgePolicy.LatencyWindow window =
+        new DirectionsHedgePolicy.LatencyWindow(100);
+    assertEquals(0, window.percentile(95));
+    for (int i = 1; i <= 100; i++) {
+      window.record(i);
+    }
+
+    assertEquals(95, window.percentile(95));
+    assertEquals(50, window.percentile(50));
+    assertEquals(100, window.percentile(100));
+
+    for (int i = 0; i < 100; i++) {
+      window.record(1000);
+    }
+    assertEquals(100, window.count());
+    assertEquals(1000, window.percentile(50));
+  }
+
+  /**
+   * Vérifie qu’aucun délai n’est proposé avant le nombre minimal de durées,
+   * puis que le délai ne descend pas sous le minimum.
+   */
+  @Test
+  void hedgeDelayNanos_shouldWaitForSamplesAndKeepMinimum() {
+    DirectionsHedgePolicy policy = new DirectionsHedgePolicy(
+        true, Set.of("transit"), 90, 100, 50, 10, 5, 10);
+
+    for (int i = 0; i < 9; i++) {
+      policy.record("transit", ms(20));
+    }
+    assertEquals(-1, policy.hedgeDelayNanos("transit"));
+
+    policy.record("transit", ms(20));
+    assertEquals(ms(100), policy.hedgeDelayNanos("transit"));
+
+    for (int i = 0; i < 50; i++) {
+      policy.record("transit", ms(400));
+    }
+    assertEquals(ms(400), policy.hedgeDelayNanos("transit"));
+  }
+
+  /**
+   * Vérifie que les doublements restent sous le pourcentage d’appels
+   * configuré, sans dépasser la rafale.
+   */
+  @Test
+  void tryHedge_shouldStayWithinBudget() {
+    DirectionsHedgePolicy policy = new DirectionsHedgePolicy(
+        true, Set.of("transit"), 95, 0, 10, 1, 5, 2);
+    assertFalse(policy.tryHedge());
+
+    int hedges = 0;
+    for (int i = 0; i < 1000; i++) {
+      policy.hedgeDelayNanos("transit");
+      if (policy.tryHedge()) {
+        hedges++;
+      }
+    }
+    assertEquals(50, hedges, 1);
+
+    for (int i = 0; i < 1000; i++) {
+      policy.hedgeDelayNanos("transit");
+    }
+    assertTrue(policy.tryHedge());
+    assertTrue(policy.tryHedge());
+    assertFalse(policy.tryHedge());
+  }
+
+  /**
+   * Vérifie que seuls les modes configurés sont doublés, et aucun quand la
+   * politique est désactivée.
+   */
+  @Test
+  void appliesTo_shouldMatchConfiguredModes() {
+    DirectionsHedgePolicy policy = new DirectionsHedgePolicy(
+        true, Set.of("transit"), 95, 0, 10, 1, 5, 2);
+
+    assertTrue(policy.appliesTo("transit"));
+    assertFalse(policy.appliesTo("driving"));
+    assertFalse(DirectionsHedgePolicy.disabled().appliesTo("transit"));
+  }
+}
@@ -0,0 +1,205 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsRateLimiter}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>le remplissage, la réservation et la restitution du seau à
+ * jetons</li>
+ *   <li>l’attente d’un jeton dans le délai, et le refus immédiat au-delà</li>
+ *   <li>la limite d’appels simultanés de la clé et d’un mode</li>
+ *   <li>la publication des attentes et des refus</li>
+ * </ul>
+ */
+class DirectionsRateLimiterTest {
+  /**
+   * Registre recevant les métriques.
+   */
+  private SimpleMeterRegistry registry;
+  /**
+   * Métriques du limiteur.
+   */
+  private SearchMetrics metrics;
+
+  /**
+   * Crée des métriques vides avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new SearchMetrics(registry);
+  }
+
+  /**
+   * Compte les refus d’un mode pour une limite.
+   *
+   * @param mode le mode Google Maps
+   * @param reason la limite
+   * @return le nombre de refus
+   */
+  private double rejections(String mode, String reason) {
+    return registry.get("directions.limiter.rejections")
+        .tag("mode", mode)
+        .tag("reason", reason)
+        .counter()
+        .count();
+  }
+
+  /**
+   * Vérifie que le seau se remplit au débit configuré sans dépasser la
+   * rafale, et qu’un jeton réservé à l’avance allonge l’attente suivante.
+   */
+  @Test
+  void tokenBucket_shouldRefillAndReserve() {
+    DirectionsRateLimiter.TokenBucket bucket =
+        new DirectionsRateLimiter.TokenBucket(10, 2, 0);
+
+    assertEquals(0, bucket.waitNanos(0));
+    bucket.take();
+    bucket.take();
+    assertEquals(100_000_000, bucket.waitNanos(0), 1_000);
+    bucket.take();
+    assertEquals(200_000_000, bucket.waitNanos(0), 1_000);
+    assertEquals(0, bucket.waitNanos(300_000_000));
+    assertEquals(0, bucket.waitNanos(10_000_000_000L));
+    bucket.take();
+    bucket.take();
+    assertEquals(100_000_000, bucket.waitNanos(10_000_000_000L), 1_000);
+    bucket.refund();
+    assertEquals(0, bucket.waitNanos(10_000_000_000L));
+  }
+
+  /**
+   * Vérifie qu’un appel interrompu pendant l’attente de son jeton rend ce
+   * jeton : l’appel suivant n’attend qu’un jeton, dans le délai, au lieu de
+   * deux, au-delà.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void acquire_shouldRefundTokenWhenInterrupted() throws Exception {
+    DirectionsRateLimiter limiter = new DirectionsRateLimiter(
+        metrics, true, 150, 10, 1, 0, Map.of(), Map.of());
+
+    limiter.acquire("driving").close();
+    Thread.currentThread().interrupt();
+    assertThrows(InterruptedException.class, () -> limiter.acquire("driving"));
+    limiter.acquire("driving").close();
+  }
+
+  /**
+   * Vérifie qu’un appel attend le prochain jeton quand la rafale est
+   * épuisée, et que l’attente est publiée.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void acquire_shouldWaitForNextToken() throws Exception {
+    DirectionsRateLimiter limiter = new DirectionsRateLimiter(
+        metrics, true, 1000, 10, 2, 0, Map.of(), Map.of());
+
+    limiter.acquire("driving").close();
+    limiter.acquire("driving").close();
+    long start = System.nanoTime();
+    limiter.acquire("driving").close();
+
+    assertTrue(System.nanoTime() - start >= 80_000_000);
+    assertEquals(3, registry.get("directions.limiter.wait")
+                        .tag("mode", "driving")
+                        .timer()
+                        .count());
+  }
+
+  /**
+   * Vérifie qu’un appel dont l’attente dépasserait le délai est refusé sans
+   * attendre.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void acquire_shouldRejectWhenTokenIsBeyondDeadline() throws Exception {
+    DirectionsRateLimiter limiter = new DirectionsRateLimiter(
+        metrics, true, 100, 1, 1, 0, Map.of(), Map.of());
+
+    limiter.acquire("transit").close();
+    long start = System.nanoTime();
+    DirectionsRateLimiter.RejectedException rejected =
+        assertThrows(DirectionsRateLimiter.RejectedException.class,
+                     () -> limiter.acquire("transit"));
+
+    assertTrue(System.nanoTime() - start < 100_000_000);
+    assertEquals("rate", rejected.getReason());
+    assertEquals(1, rejections("transit", "rate"));
+  }
+
+  /**
+   * Vérifie la limite d’appels simultanés de la clé : un appel est refusé à
+   * l’échéance tant que la place n’est pas libérée, et fermer deux fois une
+   * autorisation ne libère qu’une place.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void acquire_shouldBoundConcurrentCalls() throws Exception {
+    DirectionsRateLimiter limiter = new DirectionsRateLimiter(
+        metrics, true, 50, 0, 0, 1, Map.of(), Map.of());
+
+    DirectionsRateLimiter.Permit first = limiter.acquire("driving");
+    assertThrows(DirectionsRateLimiter.RejectedException.class,
+                 () -> limiter.acquire("walking"));
+    first.close();
+    first.close();
+
+    DirectionsRateLimiter.Permit second = limiter.acquire("walking");
+    assertThrows(DirectionsRateLimiter.RejectedException.class,
+                 () -> limiter.acquire("driving"));
+    second.close();
+    assertEquals(1, rejections("walking", "concurrency"));
+    assertEquals(1, rejections("driving", "concurrency"));
+  }
+
+  /**
+   * Vérifie que les limites d’un mode ne s’appliquent qu’à ce mode, et
+   * qu’un refus par le mode libère la place prise sur la clé.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void acquire_shouldApplyModeLimitsToThatModeOnly() throws Exception {
+    DirectionsRateLimiter limiter = new DirectionsRateLimiter(
+        metrics, true, 50, 0, 0, 2, Map.of(), Map.of("transit", 1));
+
+    DirectionsRateLimiter.Permit transit = limiter.acquire("transit");
+    assertThrows(DirectionsRateLimiter.RejectedException.class,
+                 () -> limiter.acquire("transit"));
+    limiter.acquire("driving").close();
+    limiter.acquire("walking").close();
+    transit.close();
+
+    assertEquals(1, rejections("transit", "concurrency"));
+  }
+
+  /**
+   * Vérifie qu’un limiteur désactivé autorise tous les appels.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void unlimited_shouldNeverWaitOrReject() throws Exception {
+    DirectionsRateLimiter limiter = DirectionsRateLimiter.unlimited();
+
+    for (int i = 0; i < 1000; i++) {
+      limiter.acquire("driving");
+    }
+  }
+}
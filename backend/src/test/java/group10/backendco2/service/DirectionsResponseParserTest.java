@@ -0,0 +1,137 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import group10.backendco2.dto.RouteModeResponse;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsResponseParser}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>l’extraction de la distance et de la durée du premier tronçon</li>
+ *   <li>l’ignorance des champs inutiles et de l’ordre des champs</li>
+ *   <li>l’analyse des étapes de transit (sous-modes, libellés)</li>
+ *   <li>le rejet des réponses mal formées ou incomplètes</li>
+ * </ul>
+ */
+class DirectionsResponseParserTest {
+  /**
+   * Analyseur testé.
+   */
+  private final DirectionsResponseParser parser =
+      new DirectionsResponseParser();
+
+  /**
+   * Vérifie qu’un itinéraire simple est correctement analysé, en ignorant les
+   * champs inutiles et les tronçons suivants.
+   */
+  @Test
+  void parse_returnsRoute_whenDrivingResponseIsValid() throws IOException {
+    String json = "{\"geocoded_waypoints\":[{\"place_id\":\"x\"}],"
+                  + "\"routes\":[{\"summary\":\"A7\",\"legs\":["
+                  + "{\"steps\":[{\"html_instructions\":\"<b>Nord</b>\"}],"
+                  + "\"duration\":{\"value\":1800,\"text\":\"30 mins\"},"
+                  + "\"distance\":{\"text\":\"12 km\",\"value\":12000}},"
+                  + "{\"distance\":{\"value\":1},\"duration\":{\"text\":\"x\"}}"
+                  + "],\"overview_polyline\":{\"points\":\"abc\"}}],"
+                  + "\"status\":\"OK\"}";
+
+    List<RouteModeResponse> routes = parser.parse(json, "driving");
+
+    assertEquals(1, routes.size());
+    RouteModeResponse route = routes.get(0);
+    assertEquals("driving", route.getMode());
+    assertEquals(12.0f, route.getDistanceKm());
+    assertEquals("30 mins", route.getEstimatedTime());
+    assertEquals(1800, route.getDurationSeconds());
+    assertNull(route.getTransitModes());
+  }
+
+  /**
+   * Vérifie que les étapes de transit sont agrégées par type de véhicule et
+   * que les libellés sont construits dans l’ordre des étapes.
+   */
+  @Test
+  void parse_aggregatesTransitSteps_whenModeIsTransit() throws IOException {
+    String json =
+        "{\"routes\":[{\"legs\":[{\"distance\":{\"value\":9000},"
+        + "\"duration\":{\"text\":\"40 mins\"},\"steps\":["
+        + "{\"travel_mode\":\"WALKING\",\"distance\":{\"value\":300}},"
+        + transitStep("bus", "C3", "Part-Dieu", "Cordeliers", 2500) + ","
+        + transitStep("BUS", null, "Cordeliers", "Bellecour", 1500) + ","
+        + transitStep("TRAM", "T1", "Bellecour", "Perrache", 4700) + "]}]}],"
+        + "\"status\":\"OK\"}";
+
+    RouteModeResponse route = parser.parse(json, "transit").get(0);
+
+    assertEquals(4.0f, route.getTransitModes().get("BUS"));
+    assertEquals(4.7f, route.getTransitModes().get("TRAM"));
+    assertEquals("WALK + BUS + BUS + TRAM", route.getTransitStepLabels());
+    assertEquals(List.of("WALK", "BUS C3 (Part-Dieu → Cordeliers)",
+                         "BUS Ligne C3 (Cordeliers → Bellecour)",
+                         "TRAM T1 (Bellecour → Perrache)"),
+                 route.getTransitStepLabelsVerbose());
+  }
+
+  /**
+   * Vérifie qu’une réponse sans itinéraire produit une liste vide.
+   */
+  @Test
+  void parse_returnsEmptyList_whenNoRoutes() throws IOException {
+    assertTrue(parser.parse("{\"routes\":[],\"status\":\"ZERO_RESULTS\"}",
+                            "walking")
+                   .isEmpty());
+    assertTrue(parser.parse("{\"status\":\"REQUEST_DENIED\"}", "walking")
+                   .isEmpty());
+  }
+
+  /**
+   * Vérifie qu’une réponse mal formée ou incomplète lève une
+   * {@link IOException}.
+   */
+  @Test
+  void parse_throws_whenResponseIsMalformedOrIncomplete() {
+    assertThrows(IOException.class, () -> parser.parse("[]", "driving"));
+    assertThrows(IOException.class,
+                 () -> parser.parse("{\"routes\":[{\"legs\":[", "driving"));
+    assertThrows(IOException.class,
+                 ()
+                     -> parser.parse("{\"routes\":[{\"legs\":[{\"duration\":"
+                                         + "{\"text\":\"5 mins\"}}]}]}",
+                                     "driving"));
+    assertThrows(IOException.class,
+                 ()
+                     -> parser.parse("{\"routes\":[{\"legs\":[{\"distance\":"
+                                         + "{\"value\":10},\"duration\":"
+                                         + "{\"text\":\"1 min\"}}]}]}",
+                                     "transit"));
+  }
+
+  /**
+   * Construit une étape de transit au format Directions. Si le nom court de la
+   * ligne est null, seul le nom complet « Ligne C3 » est renseigné.
+   *
+   * @param vehicle le type de véhicule
+   * @param shortName le nom court de la ligne, ou null
+   * @param from l’arrêt de départ
+   * @param to l’arrêt d’arrivée
+   * @param meters la distance en mètres
+   * @return l’étape au format JSON
+   */
+  private static String transitStep(String vehicle, String shortName,
+                                    String from, String to, int meters) {
+    String line = shortName != null ? "\"short_name\":\"" + shortName + "\","
+                                    : "\"name\":\"Ligne C3\",";
+    return "{\"travel_mode\":\"TRANSIT\",\"distance\":{\"value\":" + meters +
+        "},\"transit_details\":{\"departure_stop\":{\"name\":\"" + from +
+        "\"},\"arrival_stop\":{\"name\":\"" + to + "\"},\"line\":{" + line +
+        "\"vehicle\":{\"type\":\"" + vehicle + "\"}}}}";
+  }
+}
@@ -0,0 +1,206 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Locale;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link DurationTextParser}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>les formats anglais et français de Google Maps</li>
+ *   <li>sur des durées tirées au hasard, écrites avec des unités, casses et
+ * séparateurs variés, que la durée relue est exacte</li>
+ *   <li>sur des textes tirés au hasard, que l’analyse ne lève jamais
+ * d’exception et ne retourne jamais de durée négative ou débordante</li>
+ * </ul>
+ * Les tirages utilisent des graines fixes, pour des échecs reproductibles.
+ */
+class DurationTextParserTest {
+
+  /**
+   * Nombre de tirages par test aléatoire.
+   */
+  private static final int RUNS = 20_000;
+
+  /**
+   * Séparateurs possibles entre un nombre et son unité, ou entre deux
+   * composantes (dont l’espace insécable de Google Maps en français).
+   */
+  private static final String[] SEPARATORS = {" ", "  ", "\u00a0", "",
+                                              ", ", "\t"};
+
+  /**
+   * Caractères des textes aléatoires : chiffres, lettres des unités,
+   * ponctuation et caractères non ASCII.
+   */
+  private static final String ALPHABET =
+      "0123456789 dayshourminjetr.,-:\u00a0\u00e9\u00c9\u0660DHMJ";
+
+  /**
+   * Vérifie les formats courants, y compris les anciennes valeurs attendues.
+   */
+  @Test
+  void parseMinutes_shouldReadGoogleFormats() {
+    assertEquals(13, DurationTextParser.parseMinutes("13 mins"));
+    assertEquals(1, DurationTextParser.parseMinutes("1 min"));
+    assertEquals(65, DurationTextParser.parseMinutes("1 hour 5 min"));
+    assertEquals(120, DurationTextParser.parseMinutes("2 hours"));
+    assertEquals(1440, DurationTextParser.parseMinutes("1 day"));
+    assertEquals(1505, DurationTextParser.parseMinutes("1 day 1 hour 5 min"));
+    assertEquals(3065,
+                 DurationTextParser.parseMinutes("2 days 3 hours 5 mins"));
+    assertEquals(65, DurationTextParser.parseMinutes("1 h 5 min"));
+    assertEquals(1565,
+                 DurationTextParser.parseMinutes("1 jour 2 heures 5 minutes"));
+    assertEquals(125, DurationTextParser.parseMinutes("2 HOURS 5 MINS"));
+    assertEquals(65, DurationTextParser.parseMinutes("1h5m"));
+  }
+
+  /**
+   * Vérifie qu’un texte sans unité connue est signalé illisible.
+   */
+  @Test
+  void parseMinutes_shouldReportUnreadableText() {
+    assertEquals(DurationTextParser.UNREADABLE,
+                 DurationTextParser.parseMinutes(null));
+    assertEquals(DurationTextParser.UNREADABLE,
+                 DurationTextParser.parseMinutes(""));
+    assertEquals(DurationTextParser.UNREADABLE,
+                 DurationTextParser.parseMinutes("invalid"));
+    assertEquals(DurationTextParser.UNREADABLE,
+                 DurationTextParser.parseMinutes("mins"));
+    assertEquals(DurationTextParser.UNREADABLE,
+                 DurationTextParser.parseMinutes("12 km"));
+    assertEquals(0, DurationTextParser.parseMinutes("0 mins"));
+  }
+
+  /**
+   * Vérifie qu’un nombre sans unité, ou suivi d’un mot inconnu, est ignoré.
+   */
+  @Test
+  void parseMinutes_shouldIgnoreNumbersWithoutUnit() {
+    assertEquals(65, DurationTextParser.parseMinutes("1 hour 5 mins 30"));
+    assertEquals(5, DurationTextParser.parseMinutes("12 km 5 mins"));
+    assertEquals(5, DurationTextParser.parseMinutes("5 minuten 5 mins"));
+  }
+
+  /**
+   * Vérifie que les grands nombres sont plafonnés sans débordement.
+   */
+  @Test
+  void parseMinutes_shouldSaturateHugeDurations() {
+    assertEquals(Integer.MAX_VALUE,
+                 DurationTextParser.parseMinutes("99999999999999999999 days"));
+    assertEquals(Integer.MAX_VALUE,
+                 DurationTextParser.parseMinutes("999999999 days 999999999 "
+                                                 + "days 999999999 days"));
+  }
+
+  /**
+   * Relit des durées tirées au hasard, écrites dans un format choisi au
+   * hasard.
+   */
+  @Test
+  void parseMinutes_shouldReadRandomlyFormattedDurations() {
+    Random random = new Random(20_251_017L);
+    for (int run = 0; run < RUNS; run++) {
+      int days = random.nextInt(3) == 0 ? random.nextInt(40) : 0;
+      int hours = random.nextInt(2) == 0 ? random.nextInt(24) : 0;
+      int minutes = random.nextInt(60);
+      String text = format(random, days, hours, minutes);
+
+      assertEquals(days * 1440 + hours * 60 + minutes,
+                   DurationTextParser.parseMinutes(text), text);
+    }
+  }
+
+  /**
+   * Analyse des textes aléatoires : le résultat est illisible ou une durée
+   * positive, et ne change pas si l’on ajoute un mot inconnu.
+   */
+  @Test
+  void parseMinutes_shouldNeverFailOnRandomText() {
+    Random random = new Random(42L);
+    for (int run = 0; run < RUNS; run++) {
+      StringBuilder text = new StringBuilder();
+      int length = random.nextInt(40);
+      for (int i = 0; i < length; i++) {
+        text.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+
+      int minutes = DurationTextParser.parseMinutes(text);
+
+      assertTrue(minutes == DurationTextParser.UNREADABLE || minutes >= 0,
+                 text::toString);
+      assertEquals(minutes, DurationTextParser.parseMinutes(text + " ~ xyz"),
+                   text::toString);
+    }
+  }
+
+  /**
+   * Écrit une durée dans un format choisi au hasard : langue, unités
+   * abrégées ou non, casse et séparateurs. Les composantes nulles sont
+   * omises, sauf les minutes d’une durée nulle.
+   *
+   * @param random le générateur
+   * @param days le nombre de jours
+   * @param hours le nombre d’heures
+   * @param minutes le nombre de minutes
+   * @return la durée écrite
+   */
+  private static String format(Random random, int days, int hours,
+                               int minutes) {
+    boolean french = random.nextBoolean();
+    StringBuilder text = new StringBuilder();
+    append(random, text, days,
+           french ? pick(random, "j", "jour", "jours")
+                  : pick(random, "d", "day", "days"));
+    append(random, text, hours,
+           french ? pick(random, "h", "heure", "heures")
+                  : pick(random, "h", "hr", "hour", "hours"));
+    append(random, text, minutes,
+           pick(random, "min", "mins", "mn", "minute", "minutes"));
+    if (text.length() == 0) {
+      text.append("0 min");
+    }
+    String result = text.toString();
+    return random.nextBoolean() ? result.toUpperCase(Locale.ROOT) : result;
+  }
+
+  /**
+   * Ajoute une composante non nulle à une durée écrite.
+   *
+   * @param random le générateur
+   * @param text la durée écrite
+   * @param value la valeur de la composante
+   * @param unit l’unité de la composante
+   */
+  private static void append(Random random, StringBuilder text, int value,
+                             String unit) {
+    if (value == 0) {
+      return;
+    }
+    if (text.length() > 0) {
+      text.append(SEPARATORS[random.nextInt(SEPARATORS.length)]);
+    }
+    text.append(value)
+        .append(SEPARATORS[random.nextInt(SEPARATORS.length)])
+        .append(unit);
+  }
+
+  /**
+   * Choisit un mot au hasard.
+   *
+   * @param random le générateur
+   * @param words les mots
+   * @return le mot choisi
+   */
+  private static String pick(Random random, String... words) {
+    return words[random.nextInt(words.length)];
+  }
+}
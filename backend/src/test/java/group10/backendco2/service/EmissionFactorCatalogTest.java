@@ -0,0 +1,141 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.model.CarburantFossile;
+import group10.backendco2.model.ModeTransport;
+import group10.backendco2.model.SourceElectrique;
+import group10.backendco2.model.SourceEnergie;
+import group10.backendco2.repository.CarburantFossileRepository;
+import group10.backendco2.repository.ModeTransportRepository;
+import group10.backendco2.repository.SourceElectriqueRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link EmissionFactorCatalog}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>le chargement paresseux et unique de l’instantané</li>
+ *   <li>la recherche approchée par nom, insensible à la casse</li>
+ *   <li>l’indexation des carburants et sources électriques par source</li>
+ *   <li>le remplacement de l’instantané lors d’un rechargement</li>
+ * </ul>
+ */
+class EmissionFactorCatalogTest {
+  /**
+   * Référentiel simulé des modes de transport.
+   */
+  private ModeTransportRepository modeTransportRepository;
+  /**
+   * Référentiel simulé des carburants fossiles.
+   */
+  private CarburantFossileRepository carburantFossileRepository;
+  /**
+   * Référentiel simulé des sources électriques.
+   */
+  private SourceElectriqueRepository sourceElectriqueRepository;
+  /**
+   * Catalogue testé.
+   */
+  private EmissionFactorCatalog catalog;
+
+  /**
+   * Crée le catalogue et ses référentiels simulés avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    modeTransportRepository = mock(ModeTransportRepository.class);
+    carburantFossileRepository = mock(CarburantFossileRepository.class);
+    sourceElectriqueRepository = mock(SourceElectriqueRepository.class);
+    catalog = new EmissionFactorCatalog(modeTransportRepository,
+                                        carburantFossileRepository,
+                                        sourceElectriqueRepository);
+  }
+
+  /**
+   * Crée un mode de transport.
+   *
+   * @param nom le nom du mode
+   * @param source la source d’énergie
+   * @return le mode de transport
+   */
+  private ModeTransport mode(String nom, SourceEnergie source) {
+    ModeTransport mode = new ModeTransport();
+    mode.setNom(nom);
+    mode.setSourceEnergie(source);
+    return mode;
+  }
+
+  /**
+   * Vérifie que la base n’est interrogée qu’une seule fois quel que soit le
+   * nombre de recherches.
+   */
+  @Test
+  void lookups_shouldLoadSnapshotOnlyOnce() {
+    SourceEnergie diesel = new SourceEnergie(1L, "Diesel", 2390f);
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(mode("Bus articulé", diesel), mode("Bus", diesel),
+                            mode("Tramway", diesel)));
+
+    assertEquals("Bus articulé", catalog.findByNomApprox("BUS").get().getNom());
+    assertEquals("Tramway", catalog.findByNomApprox("tram").get().getNom());
+    assertFalse(catalog.findByNomApprox("Ferry").isPresent());
+    assertEquals(3, catalog.getModes().size());
+    catalog.findByNomApprox("bus");
+
+    verify(modeTransportRepository, times(1)).findAll();
+    verify(carburantFossileRepository, times(1)).findAll();
+    verify(sourceElectriqueRepository, times(1)).findAll();
+  }
+
+  /**
+   * Vérifie que les carburants et sources électriques sont indexés par
+   * identifiant de source d’énergie.
+   */
+  @Test
+  void findBySource_shouldReturnIndexedEntries() {
+    SourceEnergie diesel = new SourceEnergie(1L, "Diesel", 2390f);
+    SourceEnergie electricite = new SourceEnergie(2L, "Électricité", 60f);
+    CarburantFossile gazole = new CarburantFossile("Gazole", 1.75f, 0.84f, diesel);
+    CarburantFossile b7 = new CarburantFossile("B7", 1.90f, 0.84f, diesel);
+    when(carburantFossileRepository.findAll()).thenReturn(List.of(gazole, b7));
+    when(sourceElectriqueRepository.findAll())
+        .thenReturn(List.of(new SourceElectrique(2L, 0.25f, electricite)));
+
+    assertEquals("Gazole", catalog.findCarburant(1L).get().getType());
+    assertFalse(catalog.findCarburant(2L).isPresent());
+    assertEquals(0.25f, catalog.findSourceElectrique(2L).get().getPrixKWH());
+    assertFalse(catalog.findSourceElectrique(1L).isPresent());
+    assertFalse(catalog.findCarburant(null).isPresent());
+  }
+
+  /**
+   * Vérifie qu’un rechargement remplace l’instantané et les résultats de
+   * recherche déjà calculés.
+   */
+  @Test
+  void refresh_shouldReplaceSnapshot() {
+    SourceEnergie diesel = new SourceEnergie(1L, "Diesel", 2390f);
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(mode("Bus", diesel)))
+        .thenReturn(List.of(mode("Bus", diesel), mode("Ferry", diesel)));
+
+    assertFalse(catalog.findByNomApprox("ferry").isPresent());
+    catalog.refresh();
+
+    assertTrue(catalog.findByNomApprox("ferry").isPresent());
+    assertEquals(2, catalog.getModes().size());
+    assertThrows(UnsupportedOperationException.class,
+                 () -> catalog.getModes().add(mode("Taxi", diesel)));
+  }
+}
@@ -2,14 +2,30 @@ package group10.backendco2.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import group10.backendco2.dto.RouteModeResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.http.HttpTimeoutException;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import org.json.JSONArray;
 import org.json.JSONObject;
 import org.junit.jupiter.api.BeforeEach;
@@ -21,7 +37,7 @@ import org.springframework.test.util.ReflectionTestUtils;
  * Tests unitaires pour la classe {@link GoogleMapService}.
  *
  * Ces tests utilisent Mockito pour simuler les appels à l’API Google Maps via
- * `curl`, et valider les comportements des méthodes suivantes : <ul> <li>{@code
+ * le {@link DirectionsClient}, et valider les comportements des méthodes suivantes : <ul> <li>{@code
  * fetchEstimatedTime} — durée estimée d’un trajet</li> <li>{@code
  * fetchDistanceKm} — distance estimée en kilomètres</li> <li>{@code
  * fetchAllTransportModes} — parsing complet des modes de transport</li>
@@ -32,6 +48,10 @@ class GoogleMapServiceTest {
    * Service pour interagir avec l'API Google Maps.
    */
   private GoogleMapService googleMapService;
+  /**
+   * Client HTTP simulé.
+   */
+  private DirectionsClient directionsClient;
   /**
    * Prépare le service GoogleMapService avant chaque test.
    *
@@ -42,6 +62,14 @@ class GoogleMapServiceTest {
   void setUp() {
     googleMapService = Mockito.spy(new GoogleMapService());
     ReflectionTestUtils.setField(googleMapService, "apiKey", "dummy-key");
+    directionsClient = mock(DirectionsClient.class);
+    ReflectionTestUtils.setField(googleMapService, "directionsClient",
+                                 directionsClient);
+    ReflectionTestUtils.setField(googleMapService, "batchTimeoutMs", 2000L);
+    ReflectionTestUtils.setField(
+        googleMapService, "directionsCache",
+        new DirectionsCache(60, 100, 24, new SimpleMeterRegistry(),
+                            mock(DirectionsCacheStore.class)));
   }
   /**
    * Vérifie que {@code fetchEstimatedTime} retourne un message correctement
@@ -54,25 +82,46 @@ class GoogleMapServiceTest {
         new JSONObject()
             .put("routes",
                  new org.json.JSONArray().put(new JSONObject().put(
-                     "legs", new org.json.JSONArray().put(new JSONObject().put(
-                                 "duration",
-                                 new JSONObject().put("text", "15 mins"))))))
+                     "legs",
+                     new org.json.JSONArray().put(
+                         new JSONObject()
+                             .put("distance",
+                                  new JSONObject().put("value", 10000))
+                             .put("duration",
+                                  new JSONObject().put("text", "15 mins"))))))
             .toString();
 
     doReturn(mockResponse)
         .when(googleMapService)
-        .executeCurlCommand(anyString());
+        .executeRequest(anyString());
 
     String result = googleMapService.fetchEstimatedTime("A", "B");
     assertEquals("Temps estimé: 15 mins", result);
   }
+  /**
+   * Vérifie que les requêtes sont envoyées à l’URL de base configurée, par
+   * exemple celle du bouchon local.
+   */
+  @Test
+  void fetchEstimatedTime_usesConfiguredBaseUrl() {
+    ReflectionTestUtils.setField(
+        googleMapService, "baseUrl",
+        "http://127.0.0.1:8089/maps/api/directions/json");
+    doReturn(null).when(googleMapService).executeRequest(anyString());
+
+    googleMapService.fetchEstimatedTime("Lyon", "Villeurbanne");
+
+    verify(googleMapService)
+        .executeRequest(startsWith(
+            "http://127.0.0.1:8089/maps/api/directions/json?origin=Lyon&"));
+  }
   /**
    * Vérifie que {@code fetchEstimatedTime} retourne "Temps estimé inconnu"
    * si la réponse est nulle.
    */
   @Test
   void fetchEstimatedTime_returnsUnknown_whenResponseIsNull() throws Exception {
-    doReturn(null).when(googleMapService).executeCurlCommand(anyString());
+    doReturn(null).when(googleMapService).executeRequest(anyString());
 
     String result = googleMapService.fetchEstimatedTime("A", "B");
     assertEquals("Temps estimé inconnu", result);
@@ -87,7 +136,7 @@ class GoogleMapServiceTest {
         new JSONObject().put("routes", new org.json.JSONArray()).toString();
     doReturn(mockResponse)
         .when(googleMapService)
-        .executeCurlCommand(anyString());
+        .executeRequest(anyString());
 
     String result = googleMapService.fetchEstimatedTime("A", "B");
     assertEquals("Temps estimé inconnu", result);
@@ -100,7 +149,7 @@ class GoogleMapServiceTest {
   void fetchEstimatedTime_returnsError_whenExceptionThrown() throws Exception {
     doThrow(new RuntimeException("API error"))
         .when(googleMapService)
-        .executeCurlCommand(anyString());
+        .executeRequest(anyString());
 
     String result = googleMapService.fetchEstimatedTime("A", "B");
     assertEquals("Erreur lors de la récupération du temps estimé", result);
@@ -116,11 +165,15 @@ class GoogleMapServiceTest {
             .put("routes",
                  new JSONArray().put(new JSONObject().put(
                      "legs",
-                     new JSONArray().put(new JSONObject().put(
-                         "distance", new JSONObject().put("value", 12345))))))
+                     new JSONArray().put(
+                         new JSONObject()
+                             .put("distance",
+                                  new JSONObject().put("value", 12345))
+                             .put("duration",
+                                  new JSONObject().put("text", "12 mins"))))))
             .toString();
 
-    doReturn(response).when(googleMapService).executeCurlCommand(anyString());
+    doReturn(response).when(googleMapService).executeRequest(anyString());
 
     float distance = googleMapService.fetchDistanceKm("Lyon", "Paris");
     assertEquals(12.345f, distance, 0.01);
@@ -162,7 +215,7 @@ class GoogleMapServiceTest {
 
     doReturn(fullResponse)
         .when(googleMapService)
-        .executeCurlCommand(contains("transit"));
+        .executeRequest(contains("transit"));
 
     List<RouteModeResponse> result =
         googleMapService.fetchAllTransportModes("A", "B");
@@ -173,4 +226,461 @@ class GoogleMapServiceTest {
     assertTrue(result.get(0).getTransitModes().containsKey("TRAM"));
     assertEquals("TRAM", result.get(0).getTransitStepLabels());
   }
-}
\ No newline at end of file
+  /**
+   * Vérifie que {@code executeRequest} retourne le corps renvoyé par le
+   * client HTTP.
+   */
+  @Test
+  void executeRequest_returnsBody_whenClientSucceeds() throws Exception {
+    when(directionsClient.get("http://test")).thenReturn("{}");
+
+    assertEquals("{}", googleMapService.executeRequest("http://test"));
+  }
+  /**
+   * Vérifie que {@code executeRequest} retourne null si le client HTTP
+   * échoue.
+   */
+  @Test
+  void executeRequest_returnsNull_whenClientFails() throws Exception {
+    when(directionsClient.get(anyString()))
+        .thenThrow(new IOException("timeout"));
+
+    assertNull(googleMapService.executeRequest("http://test"));
+  }
+  /**
+   * Construit une réponse JSON minimale contenant un seul itinéraire.
+   *
+   * @param meters la distance de l’itinéraire en mètres
+   * @return la réponse JSON sous forme de texte
+   */
+  private String simpleRoute(int meters) {
+    return new JSONObject()
+        .put("routes",
+             new JSONArray().put(new JSONObject().put(
+                 "legs",
+                 new JSONArray().put(
+                     new JSONObject()
+                         .put("distance", new JSONObject().put("value", meters))
+                         .put("duration",
+                              new JSONObject().put("text", "5 mins"))))))
+        .toString();
+  }
+  /**
+   * Construit une réponse JSON minimale contenant un itinéraire en transport
+   * en commun, d’une seule étape en tramway.
+   *
+   * @param meters la distance de l’itinéraire en mètres
+   * @return la réponse JSON sous forme de texte
+   */
+  private String transitRoute(int meters) {
+    JSONObject step =
+        new JSONObject()
+            .put("travel_mode", "TRANSIT")
+            .put("distance", new JSONObject().put("value", meters))
+            .put("transit_details",
+                 new JSONObject()
+                     .put("departure_stop", new JSONObject().put("name", "A"))
+                     .put("arrival_stop", new JSONObject().put("name", "B"))
+                     .put("line", new JSONObject()
+                                      .put("short_name", "T1")
+                                      .put("vehicle", new JSONObject().put(
+                                                          "type", "TRAM"))));
+    JSONObject route = new JSONObject(simpleRoute(meters));
+    route.getJSONArray("routes")
+        .getJSONObject(0)
+        .getJSONArray("legs")
+        .getJSONObject(0)
+        .put("steps", new JSONArray().put(step));
+    return route.toString();
+  }
+  /**
+   * Vérifie que {@code fetchAllTransportModes} conserve l’ordre des modes
+   * malgré l’exécution parallèle des appels.
+   */
+  @Test
+  void fetchAllTransportModes_shouldKeepModeOrder() {
+    doAnswer(invocation -> {
+      Thread.sleep(100);
+      return simpleRoute(1000);
+    })
+        .when(googleMapService)
+        .executeRequest(contains("mode=driving"));
+    doReturn(simpleRoute(2000))
+        .when(googleMapService)
+        .executeRequest(contains("mode=walking"));
+    doReturn(simpleRoute(3000))
+        .when(googleMapService)
+        .executeRequest(contains("mode=bicycling"));
+    doReturn(null)
+        .when(googleMapService)
+        .executeRequest(contains("mode=transit"));
+
+    List<RouteModeResponse> result =
+        googleMapService.fetchAllTransportModes("A", "B");
+
+    assertEquals(3, result.size());
+    assertEquals("driving", result.get(0).getMode());
+    assertEquals("walking", result.get(1).getMode());
+    assertEquals("bicycling", result.get(2).getMode());
+  }
+  /**
+   * Vérifie qu’un mode dépassant le délai global est ignoré sans bloquer les
+   * autres modes.
+   */
+  @Test
+  void fetchAllTransportModes_shouldSkipModeExceedingDeadline() {
+    ReflectionTestUtils.setField(googleMapService, "batchTimeoutMs", 300L);
+    doReturn(simpleRoute(1000))
+        .when(googleMapService)
+        .executeRequest(anyString());
+    doAnswer(invocation -> {
+      Thread.sleep(5000);
+      return simpleRoute(9000);
+    })
+        .when(googleMapService)
+        .executeRequest(contains("mode=transit"));
+
+    long start = System.nanoTime();
+    List<RouteModeResponse> result =
+        googleMapService.fetchAllTransportModes("A", "B");
+    long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+    assertEquals(3, result.size());
+    assertTrue(result.stream().noneMatch(r -> r.getMode().equals("transit")));
+    assertTrue(elapsedMs < 3000);
+  }
+  /**
+   * Vérifie que la synthèse signale comme dégradés un mode en échec sans
+   * itinéraire connu et un mode servi par ses derniers itinéraires connus.
+   */
+  @Test
+  void fetchRouteSummary_shouldReportFailedAndStaleModes() {
+    ReflectionTestUtils.setField(
+        googleMapService, "directionsCache",
+        new DirectionsCache(0, 100, 24, new SimpleMeterRegistry(),
+                            mock(DirectionsCacheStore.class)));
+    doReturn(simpleRoute(1000))
+        .when(googleMapService)
+        .executeRequest(anyString());
+    doReturn(null)
+        .when(googleMapService)
+        .executeRequest(contains("mode=transit"));
+
+    RouteSummary first = googleMapService.fetchRouteSummary("A", "B");
+
+    assertEquals(Set.of("transit"), first.degradedModes());
+
+    doReturn(null)
+        .when(googleMapService)
+        .executeRequest(contains("mode=walking"));
+
+    RouteSummary second = googleMapService.fetchRouteSummary("A", "B");
+
+    assertFalse(second.isComplete());
+    assertEquals(Set.of("walking", "transit"), second.degradedModes());
+    assertEquals(1, second.routes("walking").size());
+  }
+  /**
+   * Vérifie que la distance et le temps estimé d’un même trajet sont servis
+   * par le cache après le premier appel, y compris avec une casse ou des
+   * accents différents.
+   */
+  @Test
+  void fetchDistanceKm_andEstimatedTime_shouldReuseCachedRoute() {
+    doReturn(simpleRoute(4200))
+        .when(googleMapService)
+        .executeRequest(anyString());
+
+    assertEquals(4.2f, googleMapService.fetchDistanceKm("Lyon", "Vénissieux"),
+                 0.01);
+    assertEquals("Temps estimé: 5 mins",
+                 googleMapService.fetchEstimatedTime(" lyon ", "VENISSIEUX"));
+
+    verify(googleMapService, times(1)).executeRequest(anyString());
+  }
+  /**
+   * Vérifie qu’un appel en échec est compté par cause et chronométré avec
+   * l’issue {@code failure}, et qu’un appel réussi publie la taille et la
+   * durée d’analyse de sa réponse.
+   */
+  @Test
+  void fetchDistanceKm_shouldRecordUpstreamMetrics() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ReflectionTestUtils.setField(googleMapService, "searchMetrics",
+                                 new SearchMetrics(registry));
+    when(directionsClient.get(contains("origin=A&")))
+        .thenThrow(new HttpTimeoutException("request timed out"));
+    String route = simpleRoute(1000);
+    when(directionsClient.get(contains("origin=C&"))).thenReturn(route);
+
+    googleMapService.fetchDistanceKm("A", "B");
+    googleMapService.fetchDistanceKm("C", "D");
+
+    assertEquals(1, registry.get("directions.upstream.failures")
+                        .tag("reason", "timeout")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.upstream")
+                        .tag("mode", "driving")
+                        .tag("outcome", "failure")
+                        .timer()
+                        .count());
+    assertEquals(1, registry.get("directions.upstream")
+                        .tag("mode", "driving")
+                        .tag("outcome", "success")
+                        .timer()
+                        .count());
+    assertEquals(route.length(), registry.get("directions.response.size")
+                                     .tag("mode", "driving")
+                                     .summary()
+                                     .totalAmount(),
+                 0.001);
+    assertEquals(1, registry.get("directions.parse")
+                        .tag("mode", "driving")
+                        .timer()
+                        .count());
+  }
+
+  /**
+   * Vérifie que chaque mode de la recherche asynchrone se termine
+   * indépendamment : un mode en échec ou hors délai donne une liste vide, et
+   * les itinéraires obtenus sont mis en cache pour les appels synchrones.
+   */
+  @Test
+  void fetchAllTransportModesAsync_shouldCompleteModesIndependently()
+      throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ReflectionTestUtils.setField(googleMapService, "searchMetrics",
+                                 new SearchMetrics(registry));
+    ReflectionTestUtils.setField(googleMapService, "batchTimeoutMs", 300L);
+    when(directionsClient.getAsync(contains("mode=driving")))
+        .thenReturn(CompletableFuture.completedFuture(simpleRoute(1000)));
+    when(directionsClient.getAsync(contains("mode=walking")))
+        .thenReturn(new CompletableFuture<>());
+    when(directionsClient.getAsync(contains("mode=bicycling")))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("reset")));
+    when(directionsClient.getAsync(contains("mode=transit")))
+        .thenReturn(CompletableFuture.completedFuture(transitRoute(4000)));
+
+    List<CompletableFuture<List<RouteModeResponse>>> modes =
+        googleMapService.fetchAllTransportModesAsync("A", "B");
+
+    assertEquals(4, modes.size());
+    assertEquals(1.0f, modes.get(0).join().get(0).getDistanceKm(), 0.01);
+    assertTrue(modes.get(1).join().isEmpty());
+    assertTrue(modes.get(2).join().isEmpty());
+    assertEquals("transit", modes.get(3).join().get(0).getMode());
+    assertEquals(1, registry.get("directions.batch.timeouts")
+                        .tag("mode", "walking")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.upstream.failures")
+                        .tag("reason", "io")
+                        .counter()
+                        .count());
+
+    assertEquals(1.0f, googleMapService.fetchDistanceKm("A", "B"), 0.01);
+    verify(directionsClient, never()).get(anyString());
+  }
+
+  /**
+   * Vérifie qu’un appel refusé par le limiteur n’atteint pas l’API, est
+   * compté avec la cause {@code rejected} et n’est pas chronométré comme un
+   * appel Directions.
+   */
+  @Test
+  void fetchDistanceKm_shouldSkipCallRejectedByLimiter() throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    SearchMetrics metrics = new SearchMetrics(registry);
+    ReflectionTestUtils.setField(googleMapService, "searchMetrics", metrics);
+    DirectionsRateLimiter limiter = new DirectionsRateLimiter(
+        metrics, true, 50, 0, 0, 1, Map.of(), Map.of());
+    ReflectionTestUtils.setField(googleMapService, "rateLimiter", limiter);
+
+    try (DirectionsRateLimiter.Permit busy = limiter.acquire("driving")) {
+      assertEquals(-1f, googleMapService.fetchDistanceKm("A", "B"), 0.01);
+    }
+
+    verify(directionsClient, never()).get(anyString());
+    assertEquals(1, registry.get("directions.upstream.failures")
+                        .tag("reason", "rejected")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.limiter.rejections")
+                        .tag("mode", "driving")
+                        .tag("reason", "concurrency")
+                        .counter()
+                        .count());
+    assertTrue(registry.find("directions.upstream").timers().isEmpty());
+  }
+
+  /**
+   * Vérifie qu’après un appel en échec les derniers itinéraires connus sont
+   * servis, puis que le disjoncteur ouvert évite l’appel (compté avec la
+   * cause {@code circuit_open}) sans itinéraire connu.
+   */
+  @Test
+  void fetchDistanceKm_shouldServeStaleRoutesWhileCircuitIsOpen()
+      throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ReflectionTestUtils.setField(googleMapService, "searchMetrics",
+                                 new SearchMetrics(registry));
+    ReflectionTestUtils.setField(
+        googleMapService, "directionsCache",
+        new DirectionsCache(0, 100, 24, new SimpleMeterRegistry(),
+                            mock(DirectionsCacheStore.class)));
+    DirectionsCircuitBreaker breaker = new DirectionsCircuitBreaker(
+        null, true, 2, 2, 50, 5000, 100, 60_000, 1, System::nanoTime);
+    ReflectionTestUtils.setField(googleMapService, "circuitBreaker", breaker);
+    when(directionsClient.get(anyString()))
+        .thenReturn(simpleRoute(3000))
+        .thenThrow(new IOException("reset"));
+
+    assertEquals(3.0f, googleMapService.fetchDistanceKm("A", "B"), 0.01);
+    assertEquals(3.0f, googleMapService.fetchDistanceKm("A", "B"), 0.01);
+    assertEquals(DirectionsCircuitBreaker.State.OPEN, breaker.state());
+    assertEquals(3.0f, googleMapService.fetchDistanceKm("A", "B"), 0.01);
+    assertEquals(-1f, googleMapService.fetchDistanceKm("C", "D"), 0.01);
+
+    verify(directionsClient, times(2)).get(anyString());
+    assertEquals(2, registry.get("directions.upstream.failures")
+                        .tag("reason", "circuit_open")
+                        .counter()
+                        .count());
+    assertEquals(2, registry.get("directions.stale.served")
+                        .tag("mode", "driving")
+                        .counter()
+                        .count());
+  }
+
+  /**
+   * Vérifie qu’un appel transit sans réponse au délai de doublement est
+   * envoyé une seconde fois, et que la réponse du doublement l’emporte.
+   */
+  @Test
+  void fetchAllTransportModesAsync_shouldHedgeSlowTransitCall() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ReflectionTestUtils.setField(googleMapService, "searchMetrics",
+                                 new SearchMetrics(registry));
+    DirectionsHedgePolicy policy = new DirectionsHedgePolicy(
+        true, Set.of("transit"), 95, 0, 10, 1, 100, 1);
+    policy.record("transit", 20_000_000);
+    ReflectionTestUtils.setField(googleMapService, "hedgePolicy", policy);
+    when(directionsClient.getAsync(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(simpleRoute(1000)));
+    when(directionsClient.getAsync(contains("mode=transit")))
+        .thenReturn(new CompletableFuture<>())
+        .thenReturn(CompletableFuture.completedFuture(transitRoute(4000)));
+
+    List<CompletableFuture<List<RouteModeResponse>>> modes =
+        googleMapService.fetchAllTransportModesAsync("A", "B");
+
+    assertEquals(4.0f, modes.get(3).join().get(0).getDistanceKm(), 0.01);
+    verify(directionsClient, times(2)).getAsync(contains("mode=transit"));
+    assertEquals(1, registry.get("directions.hedge")
+                        .tag("mode", "transit")
+                        .tag("outcome", "sent")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.hedge")
+                        .tag("mode", "transit")
+                        .tag("outcome", "won")
+                        .counter()
+                        .count());
+  }
+
+  /**
+   * Vérifie qu’un appel transit en échec avant le délai de doublement n’est
+   * pas doublé, et que son échec est rendu sans attendre ce délai.
+   *
+   * @throws Exception si l’attente échoue ou dépasse le délai du test
+   */
+  @Test
+  void fetchAllTransportModesAsync_shouldNotWaitHedgeDelayAfterFailure()
+      throws Exception {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ReflectionTestUtils.setField(googleMapService, "searchMetrics",
+                                 new SearchMetrics(registry));
+    DirectionsHedgePolicy policy = new DirectionsHedgePolicy(
+        true, Set.of("transit"), 95, 1500, 10, 1, 100, 1);
+    policy.record("transit", 20_000_000);
+    ReflectionTestUtils.setField(googleMapService, "hedgePolicy", policy);
+    when(directionsClient.getAsync(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(simpleRoute(1000)));
+    when(directionsClient.getAsync(contains("mode=transit")))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("reset")));
+
+    List<CompletableFuture<List<RouteModeResponse>>> modes =
+        googleMapService.fetchAllTransportModesAsync("A", "B");
+
+    assertTrue(modes.get(3).get(500, TimeUnit.MILLISECONDS).isEmpty());
+    verify(directionsClient, times(1)).getAsync(contains("mode=transit"));
+    assertTrue(registry.find("directions.hedge").counters().isEmpty());
+  }
+
+  /**
+   * Vérifie que la synthèse d’un trajet regroupe ses modes, et que le temps
+   * estimé demandé pendant sa récupération rejoint l’appel en voiture en
+   * cours au lieu d’en envoyer un second.
+   *
+   * @throws Exception si l’attente est interrompue
+   */
+  @Test
+  void fetchRouteSummary_shouldShareDrivingCallWithEstimatedTime()
+      throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    doAnswer(invocation -> {
+      started.countDown();
+      release.await();
+      return simpleRoute(4200);
+    })
+        .when(googleMapService)
+        .executeRequest(contains("mode=driving"));
+    doReturn(simpleRoute(2000))
+        .when(googleMapService)
+        .executeRequest(contains("mode=walking"));
+    doReturn(null).when(googleMapService).executeRequest(
+        contains("mode=bicycling"));
+    doReturn(null).when(googleMapService).executeRequest(
+        contains("mode=transit"));
+
+    CompletableFuture<RouteSummary> summary = CompletableFuture.supplyAsync(
+        () -> googleMapService.fetchRouteSummary("Lyon", "Bron"));
+    started.await();
+    CompletableFuture<String> time = CompletableFuture.supplyAsync(
+        () -> googleMapService.fetchEstimatedTime(" lyon ", "BRON"));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertEquals("Temps estimé: 5 mins", time.get());
+    RouteSummary routes = summary.get();
+    assertEquals(4.2f, routes.distanceKm(), 0.01);
+    assertEquals(1, routes.routes("walking").size());
+    assertTrue(routes.routes("transit").isEmpty());
+    assertEquals(2, routes.routes().size());
+    verify(googleMapService, times(1))
+        .executeRequest(contains("mode=driving"));
+  }
+
+  /**
+   * Vérifie que {@code refreshMode} appelle l’API même si l’itinéraire est en
+   * cache, remplace l’entrée, et signale un appel sans réponse.
+   */
+  @Test
+  void refreshMode_shouldReloadCachedRoute() {
+    doReturn(simpleRoute(4200), simpleRoute(5100))
+        .when(googleMapService)
+        .executeRequest(contains("mode=driving"));
+    doReturn(null).when(googleMapService).executeRequest(
+        contains("mode=transit"));
+
+    assertEquals(4.2f, googleMapService.fetchDistanceKm("Lyon", "Bron"), 0.01);
+    assertTrue(googleMapService.refreshMode("Lyon", "Bron", "driving"));
+    assertFalse(googleMapService.refreshMode("Lyon", "Bron", "transit"));
+
+    assertEquals(5.1f, googleMapService.fetchDistanceKm("Lyon", "Bron"), 0.01);
+    verify(googleMapService, times(2))
+        .executeRequest(contains("mode=driving"));
+  }
+}
@@ -0,0 +1,156 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletionException;
+import java.util.zip.GZIPOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link HttpDirectionsClient}.
+ *
+ * Un serveur HTTP local remplace l’API Google Maps pour vérifier :
+ * <ul>
+ *   <li>la lecture d’une réponse simple</li>
+ *   <li>la décompression d’une réponse gzip</li>
+ *   <li>le rejet des codes HTTP d’erreur</li>
+ *   <li>les mêmes comportements pour la variante asynchrone</li>
+ *   <li>le rejet explicite d’une adresse de proxy invalide</li>
+ * </ul>
+ */
+class HttpDirectionsClientTest {
+  /**
+   * Serveur HTTP local.
+   */
+  private HttpServer server;
+  /**
+   * Client testé, sans proxy.
+   */
+  private HttpDirectionsClient client;
+  /**
+   * URL de base du serveur local.
+   */
+  private String baseUrl;
+
+  /**
+   * Démarre le serveur local et crée le client avant chaque test.
+   *
+   * @throws IOException si le serveur ne peut pas démarrer
+   */
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/plain", exchange -> {
+      byte[] body = "{\"status\":\"OK\"}".getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.createContext("/gzip", exchange -> {
+      ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+      try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+        gzip.write("{\"status\":\"GZIP\"}".getBytes(StandardCharsets.UTF_8));
+      }
+      byte[] body = buffer.toByteArray();
+      exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream out = exchange.getResponseBody()) {
+        out.write(body);
+      }
+    });
+    server.createContext("/error", exchange -> {
+      exchange.sendResponseHeaders(500, -1);
+      exchange.close();
+    });
+    server.start();
+
+    baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    client = new HttpDirectionsClient("", 1000, 2000);
+  }
+
+  /**
+   * Arrête le serveur local après chaque test.
+   */
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  /**
+   * Vérifie qu’une réponse simple est retournée telle quelle.
+   */
+  @Test
+  void get_returnsBody_whenResponseIsOk() throws Exception {
+    assertEquals("{\"status\":\"OK\"}", client.get(baseUrl + "/plain"));
+  }
+
+  /**
+   * Vérifie qu’une réponse compressée en gzip est décompressée.
+   */
+  @Test
+  void get_decompressesBody_whenResponseIsGzip() throws Exception {
+    assertEquals("{\"status\":\"GZIP\"}", client.get(baseUrl + "/gzip"));
+  }
+
+  /**
+   * Vérifie qu’un code HTTP d’erreur lève une {@link IOException}.
+   */
+  @Test
+  void get_throws_whenStatusIsError() {
+    assertThrows(IOException.class, () -> client.get(baseUrl + "/error"));
+  }
+
+  /**
+   * Vérifie que la variante asynchrone décompresse la réponse gzip.
+   */
+  @Test
+  void getAsync_decompressesBody_whenResponseIsGzip() {
+    assertEquals("{\"status\":\"GZIP\"}",
+                 client.getAsync(baseUrl + "/gzip").join());
+  }
+
+  /**
+   * Vérifie que la variante asynchrone échoue avec une {@link IOException}
+   * sur un code HTTP d’erreur.
+   */
+  @Test
+  void getAsync_fails_whenStatusIsError() {
+    CompletionException error = assertThrows(
+        CompletionException.class,
+        () -> client.getAsync(baseUrl + "/error").join());
+    assertInstanceOf(IOException.class, error.getCause());
+  }
+
+  /**
+   * Vérifie la lecture de l’adresse du proxy, et le rejet explicite d’une
+   * adresse sans port ou avec un port invalide.
+   */
+  @Test
+  void proxyAddress_shouldRequireHostAndPort() {
+    InetSocketAddress address =
+        HttpDirectionsClient.proxyAddress(" localhost:3128 ");
+    assertEquals("localhost", address.getHostString());
+    assertEquals(3128, address.getPort());
+
+    for (String invalid : new String[] {"proxy.example", "proxy.example:",
+                                        ":3128", "proxy.example:http",
+                                        "proxy.example:70000"}) {
+      IllegalArgumentException error = assertThrows(
+          IllegalArgumentException.class,
+          () -> new HttpDirectionsClient(invalid, 1000, 2000));
+      assertTrue(error.getMessage().contains(invalid), invalid);
+    }
+  }
+}
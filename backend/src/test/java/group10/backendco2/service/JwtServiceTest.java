@@ -1,8 +1,11 @@
 package group10.backendco2.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import java.util.Date;
@@ -18,6 +21,7 @@ import org.springframework.test.util.ReflectionTestUtils;
  *   <li>Validité d’un token bien formé et non expiré</li>
  *   <li>Détection d’un token invalide</li>
  *   <li>Détection d’un token expiré</li>
+ *   <li>Extraction des claims en une seule lecture</li>
  * </ul>
  */
 class JwtServiceTest {
@@ -79,4 +83,18 @@ class JwtServiceTest {
             .compact();
     assertFalse(jwtService.validateToken(expiredToken));
   }
-}
\ No newline at end of file
+  /**
+   * Vérifie que {@code parseClaims} renvoie le sujet et le rôle d’un token
+   * valide, et rien pour un token invalide.
+   */
+  @Test
+  void testParseClaims_returnsSubjectAndRole() {
+    String token = jwtService.generateToken("test@example.com", "Admin");
+
+    Claims claims = jwtService.parseClaims(token).orElseThrow();
+    assertEquals("test@example.com", claims.getSubject());
+    assertEquals("Admin", claims.get("role", String.class));
+    assertSame(jwtService.getSigningKey(), jwtService.getSigningKey());
+    assertFalse(jwtService.parseClaims("invalid.token.value").isPresent());
+  }
+}
@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,6 +30,11 @@ class ModeTransportServiceTest {
    */
   private ModeTransportRepository modeTransportRepository;
 
+  /**
+   * Catalogue en mémoire simulé.
+   */
+  private EmissionFactorCatalog emissionFactorCatalog;
+
   /**
    * Service pour les modes de transport.
    */
@@ -43,12 +49,17 @@ class ModeTransportServiceTest {
   @BeforeEach
   void setUp() {
     modeTransportRepository = mock(ModeTransportRepository.class);
+    emissionFactorCatalog = mock(EmissionFactorCatalog.class);
     modeTransportService = new ModeTransportService();
     try {
       var field = ModeTransportService.class.getDeclaredField(
           "modeTransportRepository");
       field.setAccessible(true);
       field.set(modeTransportService, modeTransportRepository);
+      var catalogField = ModeTransportService.class.getDeclaredField(
+          "emissionFactorCatalog");
+      catalogField.setAccessible(true);
+      catalogField.set(modeTransportService, emissionFactorCatalog);
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -108,6 +119,7 @@ class ModeTransportServiceTest {
 
     verify(modeTransportRepository).findById(id);
     verify(modeTransportRepository).save(existing);
+    verify(emissionFactorCatalog).refresh();
   }
   /**
    * Vérifie que la méthode {@code update} retourne un {@link Optional#empty()}
@@ -126,5 +138,22 @@ class ModeTransportServiceTest {
     assertFalse(result.isPresent());
     verify(modeTransportRepository).findById(id);
     verify(modeTransportRepository, never()).save(any());
+    verify(emissionFactorCatalog, never()).refresh();
+  }
+
+  /**
+   * Vérifie que l’ajout et la suppression d’un mode de transport rechargent
+   * le catalogue en mémoire.
+   */
+  @Test
+  void saveAndDelete_shouldRefreshCatalog() {
+    ModeTransport mode = new ModeTransport();
+    when(modeTransportRepository.save(mode)).thenReturn(mode);
+
+    assertEquals(mode, modeTransportService.save(mode));
+    modeTransportService.delete(3L);
+
+    verify(modeTransportRepository).deleteById(3L);
+    verify(emissionFactorCatalog, times(2)).refresh();
   }
 }
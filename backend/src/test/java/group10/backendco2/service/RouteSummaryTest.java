@@ -0,0 +1,64 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import group10.backendco2.dto.RouteModeResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link RouteSummary}.
+ */
+class RouteSummaryTest {
+
+  /**
+   * Crée un itinéraire de test.
+   *
+   * @param mode le mode de transport
+   * @param distanceKm la distance en kilomètres
+   * @return l’itinéraire
+   */
+  private RouteModeResponse route(String mode, float distanceKm) {
+    return new RouteModeResponse(mode, distanceKm, "12 mins", null);
+  }
+
+  /**
+   * Vérifie que la distance et la durée sont lues sur le premier itinéraire
+   * en voiture, et que les itinéraires suivent l’ordre des modes.
+   */
+  @Test
+  void summary_shouldReadDrivingRouteAndKeepModeOrder() {
+    Map<String, List<RouteModeResponse>> byMode = new LinkedHashMap<>();
+    byMode.put("driving", List.of(route("driving", 8.5f),
+                                  route("driving", 9.1f)));
+    byMode.put("walking", List.of(route("walking", 7.2f)));
+    RouteSummary summary = new RouteSummary(byMode);
+    byMode.clear();
+
+    assertEquals(8.5f, summary.distanceKm(), 0.01);
+    assertEquals("12 mins", summary.estimatedTime().get());
+    List<RouteModeResponse> routes = summary.routes();
+    assertEquals(3, routes.size());
+    assertEquals("walking", routes.get(2).getMode());
+    assertTrue(summary.routes("transit").isEmpty());
+    assertThrows(UnsupportedOperationException.class,
+                 () -> summary.byMode().put("transit", List.of()));
+  }
+
+  /**
+   * Vérifie les valeurs rendues sans itinéraire en voiture.
+   */
+  @Test
+  void summary_shouldReportMissingDrivingRoute() {
+    RouteSummary summary =
+        new RouteSummary(Map.of("driving", List.of(), "walking",
+                                List.of(route("walking", 1f))));
+
+    assertEquals(-1f, summary.distanceKm(), 0.01);
+    assertTrue(summary.estimatedTime().isEmpty());
+  }
+}
@@ -0,0 +1,218 @@
+package group10.backendco2.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link SearchMetrics}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>l’enregistrement des durées par étape, mode et issue</li>
+ *   <li>le comptage des échecs par cause</li>
+ *   <li>la réutilisation des compteurs d’un même mode</li>
+ *   <li>les attentes et les refus du limiteur</li>
+ *   <li>les derniers itinéraires connus servis</li>
+ *   <li>les doublements d’appels par issue</li>
+ * </ul>
+ */
+class SearchMetricsTest {
+  /**
+   * Registre recevant les métriques.
+   */
+  private SimpleMeterRegistry registry;
+  /**
+   * Métriques testées.
+   */
+  private SearchMetrics metrics;
+
+  /**
+   * Crée des métriques vides avant chaque test.
+   */
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    metrics = new SearchMetrics(registry);
+  }
+
+  /**
+   * Vérifie que les durées des appels Directions sont séparées par mode et
+   * par issue.
+   */
+  @Test
+  void recordUpstream_shouldTagModeAndOutcome() {
+    metrics.recordUpstream("driving", 5_000_000, true);
+    metrics.recordUpstream("driving", 7_000_000, true);
+    metrics.recordUpstream("driving", 1_000_000, false);
+
+    assertEquals(2, registry.get("directions.upstream")
+                        .tag("mode", "driving")
+                        .tag("outcome", "success")
+                        .timer()
+                        .count());
+    assertEquals(12, registry.get("directions.upstream")
+                         .tag("mode", "driving")
+                         .tag("outcome", "success")
+                         .timer()
+                         .totalTime(TimeUnit.MILLISECONDS),
+                 0.001);
+    assertEquals(1, registry.get("directions.upstream")
+                        .tag("outcome", "failure")
+                        .timer()
+                        .count());
+  }
+
+  /**
+   * Vérifie le comptage des échecs, des délais dépassés et des itinéraires en
+   * transport en commun sans sous-mode.
+   */
+  @Test
+  void counters_shouldCountByTag() {
+    metrics.recordUpstreamFailure("timeout");
+    metrics.recordUpstreamFailure("timeout");
+    metrics.recordUpstreamFailure("io");
+    metrics.recordBatchTimeout("transit");
+    metrics.recordEmptyTransit();
+
+    assertEquals(2, registry.get("directions.upstream.failures")
+                        .tag("reason", "timeout")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.upstream.failures")
+                        .tag("reason", "io")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.batch.timeouts")
+                        .tag("mode", "transit")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("search.transit.empty").counter().count());
+  }
+
+  /**
+   * Vérifie l’enregistrement des étapes, des calculs par mode, des durées
+   * d’analyse et des tailles de réponse.
+   */
+  @Test
+  void stagesAndModes_shouldBeRecorded() {
+    metrics.recordStage(SearchMetrics.Stage.FETCH, 3_000_000);
+    metrics.recordStage(SearchMetrics.Stage.TOTAL, 4_000_000);
+    metrics.recordEmission("walking", 10_000);
+    metrics.recordParse("walking", 20_000);
+    metrics.recordResponseSize("walking", 4096);
+    metrics.recordResponseSize("walking", 2048);
+
+    assertEquals(1, registry.get("search.stage")
+                        .tag("stage", "fetch")
+                        .timer()
+                        .count());
+    assertEquals(0, registry.get("search.stage")
+                        .tag("stage", "filter")
+                        .timer()
+                        .count());
+    assertEquals(1, registry.get("search.emission")
+                        .tag("mode", "walking")
+                        .timer()
+                        .count());
+    assertEquals(1, registry.get("directions.parse")
+                        .tag("mode", "walking")
+                        .timer()
+                        .count());
+    assertEquals(6144, registry.get("directions.response.size")
+                           .tag("mode", "walking")
+                           .summary()
+                           .totalAmount(),
+                 0.001);
+  }
+
+  /**
+   * Vérifie l’enregistrement des attentes du limiteur par mode et des refus
+   * par mode et limite.
+   */
+  @Test
+  void limiter_shouldRecordWaitsAndRejections() {
+    metrics.recordLimiterWait("transit", 2_000_000);
+    metrics.recordLimiterWait("transit", 0);
+    metrics.recordLimiterRejection("transit", "rate");
+    metrics.recordLimiterRejection("transit", "rate");
+    metrics.recordLimiterRejection("driving", "concurrency");
+
+    assertEquals(2, registry.get("directions.limiter.wait")
+                        .tag("mode", "transit")
+                        .timer()
+                        .count());
+    assertEquals(2, registry.get("directions.limiter.rejections")
+                        .tag("mode", "transit")
+                        .tag("reason", "rate")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.limiter.rejections")
+                        .tag("mode", "driving")
+                        .tag("reason", "concurrency")
+                        .counter()
+                        .count());
+  }
+
+  /**
+   * Vérifie le comptage par mode des derniers itinéraires connus servis.
+   */
+  @Test
+  void recordStaleServed_shouldCountByMode() {
+    metrics.recordStaleServed("driving");
+    metrics.recordStaleServed("driving");
+    metrics.recordStaleServed("walking");
+
+    assertEquals(2, registry.get("directions.stale.served")
+                        .tag("mode", "driving")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.stale.served")
+                        .tag("mode", "walking")
+                        .counter()
+                        .count());
+  }
+
+  /**
+   * Vérifie le comptage des doublements par mode et issue.
+   */
+  @Test
+  void recordHedge_shouldCountByModeAndOutcome() {
+    metrics.recordHedge("transit", "sent");
+    metrics.recordHedge("transit", "sent");
+    metrics.recordHedge("transit", "won");
+
+    assertEquals(2, registry.get("directions.hedge")
+                        .tag("mode", "transit")
+                        .tag("outcome", "sent")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.hedge")
+                        .tag("mode", "transit")
+                        .tag("outcome", "won")
+                        .counter()
+                        .count());
+  }
+
+  /**
+   * Vérifie le comptage des itinéraires préchauffés par issue.
+   */
+  @Test
+  void recordPrewarm_shouldCountByOutcome() {
+    metrics.recordPrewarm("refreshed");
+    metrics.recordPrewarm("refreshed");
+    metrics.recordPrewarm("skipped");
+
+    assertEquals(2, registry.get("directions.prewarm")
+                        .tag("outcome", "refreshed")
+                        .counter()
+                        .count());
+    assertEquals(1, registry.get("directions.prewarm")
+                        .tag("outcome", "skipped")
+                        .counter()
+                        .count());
+  }
+}
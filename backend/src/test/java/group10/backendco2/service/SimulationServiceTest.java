@@ -2,13 +2,18 @@ package group10.backendco2.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import group10.backendco2.common.KeysetCursor;
+import group10.backendco2.common.KeysetPage;
 import group10.backendco2.dto.SimulationRequest;
 import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.ModeTransport;
@@ -16,6 +21,7 @@ import group10.backendco2.model.Simulation;
 import group10.backendco2.model.Utilisateur;
 import group10.backendco2.repository.SimulationRepository;
 import group10.backendco2.repository.UtilisateurRepository;
+import java.util.Date;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
@@ -189,4 +195,26 @@ class SimulationServiceTest {
 
     assertEquals(15f * 5, saved.getTotalEmission(), 0.0001);
   }
-}
\ No newline at end of file
+
+  /**
+   * Vérifie qu’une page de simulations sans suite n’a pas de curseur suivant
+   * et qu’un curseur sans date reprend après les simulations non datées.
+   */
+  @Test
+  void getSimulationsPage_shouldHandleLastPageAndUndatedCursor() {
+    Simulation simulation = new Simulation();
+    simulation.setId(7L);
+    when(simulationRepository.findUndatedPage(eq(1L), any()))
+        .thenReturn(List.of(simulation));
+
+    KeysetPage<Simulation> page = simulationService.getSimulationsPage(1L, null, 2);
+
+    assertEquals(List.of(simulation), page.items());
+    assertNull(page.nextCursor());
+
+    String undated = KeysetCursor.of((Date) null, 7L).encode();
+    simulationService.getSimulationsPage(1L, undated, 2);
+    verify(simulationRepository).findUndatedPageAfter(eq(1L), eq(7L), any());
+    verify(simulationRepository, times(2)).findDatedPage(eq(1L), any());
+  }
+}
@@ -6,11 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import group10.backendco2.dto.RouteModeResponse;
+import group10.backendco2.dto.TransportEmissionDto;
 import group10.backendco2.model.CarburantFossile;
 import group10.backendco2.model.ModeTransport;
 import group10.backendco2.model.SourceElectrique;
@@ -19,18 +22,28 @@ import group10.backendco2.model.Trajet;
 import group10.backendco2.repository.CarburantFossileRepository;
 import group10.backendco2.repository.ModeTransportRepository;
 import group10.backendco2.repository.SourceElectriqueRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
 /**
  * Test unitaire pour la classe {@link TransportEmissionService}.
  *
@@ -72,6 +85,11 @@ class TransportEmissionServiceTest {
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
+    ReflectionTestUtils.setField(
+        service, "emissionFactorCatalog",
+        new EmissionFactorCatalog(modeTransportRepository,
+                                  carburantFossileRepository,
+                                  sourceElectriqueRepository));
   }
   /**
    * Crée un mode de transport avec les paramètres spécifiés.
@@ -194,8 +212,8 @@ class TransportEmissionServiceTest {
     ModeTransport mode = createModeTransport("Voiture", 0f, 8f, null, 1L);
     CarburantFossile fossile = new CarburantFossile();
     fossile.setPrix(2f);
-    when(carburantFossileRepository.findAllBySourceEnergieId(1L))
-        .thenReturn(List.of(fossile));
+    fossile.setSourceEnergie(mode.getSourceEnergie());
+    when(carburantFossileRepository.findAll()).thenReturn(List.of(fossile));
 
     TransportEmissionService.EnergieEtPrix result =
         service.calculerConsoEtPrix(mode, 50f);
@@ -210,12 +228,12 @@ class TransportEmissionServiceTest {
   @Test
   void testCalculerConsoEtPrix_WithSourceElectrique() {
     ModeTransport mode = createModeTransport("Tram", 0f, 5f, null, 2L);
-    when(carburantFossileRepository.findAllBySourceEnergieId(2L))
+    when(carburantFossileRepository.findAll())
         .thenReturn(Collections.emptyList());
     SourceElectrique elec = new SourceElectrique();
+    elec.setSourceEnergieId(2L);
     elec.setPrixKWH(0.3f);
-    when(sourceElectriqueRepository.findBySourceEnergieId(2L))
-        .thenReturn(Optional.of(elec));
+    when(sourceElectriqueRepository.findAll()).thenReturn(List.of(elec));
 
     TransportEmissionService.EnergieEtPrix result =
         service.calculerConsoEtPrix(mode, 10f);
@@ -273,8 +291,8 @@ class TransportEmissionServiceTest {
     transit.setTransitModes(subModes);
     transit.setTransitStepLabelsVerbose(List.of("BUS Express", "TRAM T1"));
 
-    when(googleMapService.fetchAllTransportModes(any(), any()))
-        .thenReturn(List.of(driving, transit));
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenReturn(summary(driving, transit));
 
     ModeTransport voiture =
         createModeTransport("Voiture thermique", 234f, 6.5f, null, 1L);
@@ -289,8 +307,7 @@ class TransportEmissionServiceTest {
     diesel.setDensite(0.84f);
     diesel.setSourceEnergie(new SourceEnergie(1L, "Diesel", 2390f));
 
-    when(carburantFossileRepository.findAllBySourceEnergieId(anyLong()))
-        .thenReturn(List.of(diesel));
+    when(carburantFossileRepository.findAll()).thenReturn(List.of(diesel));
 
     var result = service.calculateMultiModeEmissions("Lyon", "Grenoble");
 
@@ -300,4 +317,340 @@ class TransportEmissionServiceTest {
     assertTrue(result.stream().anyMatch(
         r -> r.getMode().equals("Transport en commun")));
   }
-}
\ No newline at end of file
+
+  /**
+   * Vérifie que la durée en secondes de Google Maps est préférée au texte,
+   * arrondie à la minute, et que le texte est lu à défaut.
+   */
+  @Test
+  void calculateMultiModeEmissions_shouldPreferDurationSeconds() {
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(100f);
+    driving.setEstimatedTime("1 hour 30 min");
+    driving.setDurationSeconds(5_000);
+
+    RouteModeResponse transit = new RouteModeResponse();
+    transit.setMode("transit");
+    transit.setDistanceKm(120f);
+    transit.setEstimatedTime("2 hours 5 mins");
+    transit.setTransitModes(Map.of("BUS", 120f));
+
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenReturn(summary(driving, transit));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(
+            createModeTransport("Voiture thermique", 234f, 6.5f, null, 1L),
+            createModeTransport("Bus", 100f, 12f, null, 2L)));
+    CarburantFossile diesel = new CarburantFossile();
+    diesel.setType("Diesel");
+    diesel.setPrix(1.75f);
+    diesel.setDensite(0.84f);
+    diesel.setSourceEnergie(new SourceEnergie(1L, "Diesel", 2390f));
+    when(carburantFossileRepository.findAll()).thenReturn(List.of(diesel));
+
+    var result = service.calculateMultiModeEmissions("Lyon", "Grenoble");
+
+    assertEquals(83f, result.stream()
+                          .filter(r -> r.getMode().equals("Voiture thermique"))
+                          .findFirst()
+                          .orElseThrow()
+                          .getDurationMinutes());
+    assertEquals(125f, result.stream()
+                           .filter(r -> r.getMode().equals(
+                                       "Transport en commun"))
+                           .findFirst()
+                           .orElseThrow()
+                           .getDurationMinutes());
+  }
+
+  /**
+   * Vérifie que deux recherches identiques simultanées partagent un seul
+   * appel à Google Maps et reçoivent le même résultat.
+   */
+  @Test
+  void calculateMultiModeEmissions_shouldCoalesceConcurrentIdenticalSearches()
+      throws Exception {
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(10f);
+    driving.setEstimatedTime("15 mins");
+
+    CountDownLatch started = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenAnswer(invocation -> {
+          started.countDown();
+          release.await(1, TimeUnit.SECONDS);
+          return summary(driving);
+        });
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(createModeTransport("Voiture", 200f, 6f, 0.1f, 1L)));
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<TransportEmissionDto>> first = executor.submit(
+          () -> service.calculateMultiModeEmissions("Lyon", "Paris"));
+      started.await(1, TimeUnit.SECONDS);
+      Future<List<TransportEmissionDto>> second = executor.submit(
+          () -> service.calculateMultiModeEmissions("lyon ", "PARIS"));
+      Thread.sleep(100);
+      release.countDown();
+
+      assertEquals(first.get(1, TimeUnit.SECONDS),
+                   second.get(1, TimeUnit.SECONDS));
+      verify(googleMapService, times(1)).fetchRouteSummary(any(), any());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Vérifie que les recherches successives s’appuient sur le catalogue en
+   * mémoire sans interroger de nouveau la base.
+   */
+  @Test
+  void calculateMultiModeEmissions_shouldNotQueryRepositoriesPerSearch() {
+    RouteModeResponse transit = new RouteModeResponse();
+    transit.setMode("transit");
+    transit.setDistanceKm(12f);
+    transit.setEstimatedTime("35 mins");
+    transit.setTransitModes(Map.of("BUS", 5f, "TRAM", 7f));
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenReturn(summary(transit));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(createModeTransport("Bus", 100f, 12f, null, 2L),
+                            createModeTransport("Tram", 80f, 9f, null, 3L)));
+
+    List<TransportEmissionDto> first =
+        service.calculateMultiModeEmissions("Lyon", "Villeurbanne");
+    List<TransportEmissionDto> second =
+        service.calculateMultiModeEmissions("Lyon", "Vaulx-en-Velin");
+
+    assertEquals(1060f, first.get(0).getCo2(), 0.01f);
+    assertEquals(first.get(0).getCo2(), second.get(0).getCo2(), 0.01f);
+    verify(modeTransportRepository, times(1)).findAll();
+    verify(modeTransportRepository, never()).findByNomApprox(any());
+    verify(carburantFossileRepository, times(1)).findAll();
+    verify(sourceElectriqueRepository, times(1)).findAll();
+  }
+
+  /**
+   * Vérifie que chaque recherche publie la durée de ses étapes et de chaque
+   * mode, et compte les itinéraires en transport en commun sans sous-mode.
+   */
+  @Test
+  void calculateMultiModeEmissions_shouldRecordSearchMetrics() {
+    SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    ReflectionTestUtils.setField(service, "searchMetrics",
+                                 new SearchMetrics(registry));
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(10f);
+    driving.setEstimatedTime("15 mins");
+    RouteModeResponse transit = new RouteModeResponse();
+    transit.setMode("transit");
+    transit.setDistanceKm(12f);
+    transit.setEstimatedTime("35 mins");
+    transit.setTransitModes(Map.of());
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenReturn(summary(driving, transit));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(createModeTransport("Voiture thermique", 120f, 6f,
+                                                null, 1L)));
+
+    service.calculateMultiModeEmissions("Lyon", "Villeurbanne");
+
+    for (String stage : List.of("fetch", "catalog", "emission", "filter",
+                                "total")) {
+      assertEquals(1, registry.get("search.stage")
+                          .tag("stage", stage)
+                          .timer()
+                          .count(),
+                   stage);
+    }
+    assertEquals(1, registry.get("search.emission")
+                        .tag("mode", "driving")
+                        .timer()
+                        .count());
+    assertEquals(1, registry.get("search.emission")
+                        .tag("mode", "transit")
+                        .timer()
+                        .count());
+    assertEquals(1, registry.get("search.transit.empty").counter().count());
+  }
+
+  /**
+   * Vérifie que la recherche non bloquante attend tous les modes et renvoie
+   * les mêmes émissions que la recherche synchrone.
+   */
+  @Test
+  void calculateMultiModeEmissionsAsync_shouldMatchSynchronousResult() {
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(10f);
+    driving.setEstimatedTime("15 mins");
+    RouteModeResponse walking = new RouteModeResponse();
+    walking.setMode("walking");
+    walking.setDistanceKm(8f);
+    walking.setEstimatedTime("1 hour 40 mins");
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenReturn(summary(driving, walking));
+    CompletableFuture<GoogleMapService.ModeRoutes> pendingWalking =
+        new CompletableFuture<>();
+    when(googleMapService.fetchModeRoutesAsync(any(), any()))
+        .thenReturn(List.of(CompletableFuture.completedFuture(fresh(driving)),
+                            pendingWalking));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(
+            createModeTransport("Voiture thermique", 120f, 6f, null, 1L),
+            createModeTransport("Marche", 0f, 0f, null, 2L)));
+
+    CompletableFuture<List<TransportEmissionDto>> result =
+        service.calculateMultiModeEmissionsAsync("Lyon", "Villeurbanne");
+    assertFalse(result.isDone());
+
+    pendingWalking.complete(fresh(walking));
+    List<TransportEmissionDto> expected =
+        service.calculateMultiModeEmissions("Lyon", "Villeurbanne");
+
+    List<TransportEmissionDto> actual = result.join();
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      assertEquals(expected.get(i).getMode(), actual.get(i).getMode());
+      assertEquals(expected.get(i).getCo2(), actual.get(i).getCo2(), 0.001);
+    }
+  }
+
+  /**
+   * Vérifie que la recherche progressive transmet les émissions de chaque
+   * mode dès son arrivée, avant la fin de la recherche.
+   */
+  @Test
+  void streamMultiModeEmissions_shouldNotifyEachModeOnArrival() {
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(10f);
+    driving.setEstimatedTime("15 mins");
+    RouteModeResponse walking = new RouteModeResponse();
+    walking.setMode("walking");
+    walking.setDistanceKm(8f);
+    walking.setEstimatedTime("1 hour 40 mins");
+    CompletableFuture<GoogleMapService.ModeRoutes> pendingWalking =
+        new CompletableFuture<>();
+    CompletableFuture<GoogleMapService.ModeRoutes> fetchedDriving =
+        CompletableFuture.completedFuture(fresh(driving));
+    when(googleMapService.fetchModeRoutesAsync(any(), any()))
+        .thenReturn(List.of(pendingWalking, fetchedDriving));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(
+            createModeTransport("Voiture thermique", 120f, 6f, null, 1L),
+            createModeTransport("Marche", 0f, 0f, null, 2L)));
+    List<String> notified = new ArrayList<>();
+
+    CompletableFuture<List<TransportEmissionDto>> result =
+        service.streamMultiModeEmissions(
+            "Lyon", "Villeurbanne",
+            emissions -> emissions.forEach(dto -> notified.add(dto.getMode())));
+
+    assertEquals(List.of("Voiture thermique"), notified);
+    assertFalse(result.isDone());
+
+    pendingWalking.complete(fresh(walking));
+
+    assertEquals(List.of("Voiture thermique", "Marche"), notified);
+    assertEquals(2, result.join().size());
+  }
+
+  /**
+   * Vérifie que la recherche signale les modes dégradés de la synthèse des
+   * itinéraires, sans les retirer des émissions.
+   */
+  @Test
+  void calculateMultiModeEmissionsWithStatus_shouldReportDegradedModes() {
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(10f);
+    driving.setEstimatedTime("15 mins");
+    when(googleMapService.fetchRouteSummary(any(), any()))
+        .thenReturn(new RouteSummary(Map.of("driving", List.of(driving)),
+                                     Set.of("transit")));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(
+            createModeTransport("Voiture thermique", 120f, 6f, null, 1L)));
+
+    MultiModeEmissions result =
+        service.calculateMultiModeEmissionsWithStatus("Lyon", "Villeurbanne");
+
+    assertFalse(result.isComplete());
+    assertEquals(Set.of("transit"), result.degradedModes());
+    assertEquals(1, result.emissions().size());
+  }
+
+  /**
+   * Vérifie que la recherche non bloquante signale les modes en échec à la
+   * recherche synchrone qui la rejoint.
+   */
+  @Test
+  void calculateMultiModeEmissionsWithStatus_shouldShareAsyncDegradedModes()
+      throws InterruptedException {
+    RouteModeResponse driving = new RouteModeResponse();
+    driving.setMode("driving");
+    driving.setDistanceKm(10f);
+    driving.setEstimatedTime("15 mins");
+    CompletableFuture<GoogleMapService.ModeRoutes> pendingTransit =
+        new CompletableFuture<>();
+    when(googleMapService.fetchModeRoutesAsync(any(), any()))
+        .thenReturn(List.of(CompletableFuture.completedFuture(fresh(driving)),
+                            pendingTransit));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(
+            createModeTransport("Voiture thermique", 120f, 6f, null, 1L)));
+
+    CompletableFuture<List<TransportEmissionDto>> async =
+        service.calculateMultiModeEmissionsAsync("Lyon", "Villeurbanne");
+    AtomicReference<MultiModeEmissions> joined = new AtomicReference<>();
+    Thread caller = new Thread(
+        ()
+            -> joined.set(service.calculateMultiModeEmissionsWithStatus(
+                "Lyon", "Villeurbanne")));
+    caller.start();
+    long deadline = System.currentTimeMillis() + 1000;
+    while (caller.getState() != Thread.State.WAITING &&
+           System.currentTimeMillis() < deadline) {
+      Thread.sleep(5);
+    }
+    pendingTransit.complete(GoogleMapService.ModeRoutes.failed("transit"));
+    caller.join(1000);
+
+    assertEquals(1, async.join().size());
+    assertEquals(Set.of("transit"), joined.get().degradedModes());
+    verify(googleMapService, never()).fetchRouteSummary(any(), any());
+  }
+
+  /**
+   * Regroupe des itinéraires par mode dans une synthèse sans mode dégradé.
+   *
+   * @param routes les itinéraires
+   * @return la synthèse
+   */
+  private static RouteSummary summary(RouteModeResponse... routes) {
+    Map<String, List<RouteModeResponse>> byMode = new LinkedHashMap<>();
+    for (RouteModeResponse route : routes) {
+      byMode.computeIfAbsent(route.getMode(), mode -> new ArrayList<>())
+          .add(route);
+    }
+    return new RouteSummary(byMode);
+  }
+
+  /**
+   * Crée le résultat à jour d’un mode ne comportant qu’un itinéraire.
+   *
+   * @param route l’itinéraire
+   * @return le résultat du mode de l’itinéraire
+   */
+  private static GoogleMapService.ModeRoutes fresh(RouteModeResponse route) {
+    return new GoogleMapService.ModeRoutes(route.getMode(), List.of(route),
+                                           false);
+  }
+}
@@ -5,11 +5,13 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import group10.backendco2.common.KeysetPage;
 import group10.backendco2.dto.SignupRequest;
 import group10.backendco2.dto.UserResponseDto;
 import group10.backendco2.dto.UserUpdateRequest;
@@ -37,6 +39,10 @@ class UtilisateurServiceTest {
    * Service pour les utilisateurs.
    */
   private PasswordEncoder passwordEncoder;
+  /**
+   * Cache des utilisateurs authentifiés.
+   */
+  private AuthenticationCache authenticationCache;
   /**
    * Service pour les utilisateurs.
    */
@@ -52,8 +58,9 @@ class UtilisateurServiceTest {
   void setUp() {
     utilisateurRepository = mock(UtilisateurRepository.class);
     passwordEncoder = mock(PasswordEncoder.class);
-    utilisateurService =
-        new UtilisateurService(utilisateurRepository, passwordEncoder);
+    authenticationCache = mock(AuthenticationCache.class);
+    utilisateurService = new UtilisateurService(
+        utilisateurRepository, passwordEncoder, authenticationCache);
   }
 /**
  * Vérifie que l’inscription d’un nouvel utilisateur fonctionne si l’email n’est pas déjà utilisé.
@@ -150,6 +157,29 @@ class UtilisateurServiceTest {
 
     assertEquals(users, result);
   }
+/**
+ * Vérifie que la méthode findPage renvoie une page tronquée avec le curseur
+ * du dernier utilisateur, puis reprend après ce curseur.
+ */
+  @Test
+  void findPage_shouldReturnPageAndResumeAfterCursor() {
+    Utilisateur first = new Utilisateur();
+    first.setId(3L);
+    first.setDateInscription(LocalDate.of(2025, 3, 1));
+    Utilisateur second = new Utilisateur();
+    second.setId(2L);
+    second.setDateInscription(LocalDate.of(2025, 2, 1));
+    when(utilisateurRepository.findDatedPage(any()))
+        .thenReturn(List.of(first, second));
+
+    KeysetPage<Utilisateur> page = utilisateurService.findPage(null, 1);
+
+    assertEquals(List.of(first), page.items());
+    utilisateurService.findPage(page.nextCursor(), 1);
+    verify(utilisateurRepository)
+        .findPageAfter(eq(LocalDate.of(2025, 3, 1)), eq(3L), any());
+    verify(utilisateurRepository, never()).findUndatedPageAfter(any(), any());
+  }
 /**
  * Vérifie que la méthode findById retourne l’utilisateur attendu.
  */
@@ -171,6 +201,7 @@ class UtilisateurServiceTest {
   void supprimer_shouldCallDeleteById() {
     utilisateurService.supprimer(1L);
     verify(utilisateurRepository).deleteById(1L);
+    verify(authenticationCache).invalidateUser(1L);
   }
 /**
  * Vérifie que modifierRole change le rôle d’un utilisateur existant.
@@ -187,6 +218,7 @@ class UtilisateurServiceTest {
 
     assertEquals(Role.Admin, result.getRole());
     verify(utilisateurRepository).save(user);
+    verify(authenticationCache).invalidateUser(1L);
   }
 
 /**
@@ -0,0 +1,137 @@
+package group10.backendco2.stub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import group10.backendco2.dto.RouteModeResponse;
+import group10.backendco2.service.DirectionsResponseParser;
+import group10.backendco2.service.HttpDirectionsClient;
+import java.io.IOException;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * Tests unitaires pour la classe {@link DirectionsStubServer}.
+ *
+ * Le bouchon est démarré sur un port libre et interrogé par le client HTTP
+ * de production pour vérifier :
+ * <ul>
+ *   <li>le service des réponses enregistrées, compressées ou non</li>
+ *   <li>le redimensionnement des réponses</li>
+ *   <li>l’injection d’erreurs</li>
+ * </ul>
+ */
+class DirectionsStubServerTest {
+  /**
+   * Bouchon testé.
+   */
+  private DirectionsStubServer stub;
+
+  /**
+   * Client HTTP de production, sans proxy.
+   */
+  private final HttpDirectionsClient client =
+      new HttpDirectionsClient("", 1000, 2000);
+
+  /**
+   * Démarre un bouchon sans latence.
+   *
+   * @param errorRate proportion de requêtes en erreur
+   * @param routesPerResponse nombre d’itinéraires par réponse
+   * @throws IOException si le bouchon ne peut pas démarrer
+   */
+  private void start(double errorRate, int routesPerResponse)
+      throws IOException {
+    stub = new DirectionsStubServer(0, "classpath:fixtures/directions/",
+                                    "fixed", 0, 0, 0, 0, errorRate,
+                                    routesPerResponse,
+                                    new DefaultResourceLoader());
+    stub.start();
+  }
+
+  /**
+   * Construit l’URL d’une requête Directions vers le bouchon.
+   *
+   * @param mode le mode demandé
+   * @return l’URL
+   */
+  private String url(String mode) {
+    return "http://127.0.0.1:" + stub.getPort() + DirectionsStubServer.PATH +
+        "?origin=Lyon&destination=Villeurbanne&mode=" + mode + "&key=stub";
+  }
+
+  /**
+   * Arrête le bouchon après chaque test.
+   */
+  @AfterEach
+  void tearDown() {
+    if (stub != null) {
+      stub.stop();
+    }
+  }
+
+  /**
+   * Vérifie que les réponses enregistrées sont servies et analysables.
+   *
+   * @throws Exception en cas d’erreur inattendue
+   */
+  @Test
+  void get_shouldServeRecordedResponses() throws Exception {
+    start(0, 0);
+
+    List<RouteModeResponse> transit =
+        new DirectionsResponseParser().parse(client.get(url("transit")),
+                                             "transit");
+
+    assertEquals(3, transit.size());
+    assertTrue(transit.get(0).getTransitModes().containsKey("TRAM"));
+    assertTrue(client.get(url("unknown")).contains("INVALID_REQUEST"));
+    assertEquals(2, stub.getRequestCount());
+  }
+
+  /**
+   * Vérifie que le nombre d’itinéraires par réponse est configurable.
+   *
+   * @throws Exception en cas d’erreur inattendue
+   */
+  @Test
+  void get_shouldResizeResponses() throws Exception {
+    start(0, 7);
+
+    JsonNode json = new ObjectMapper().readTree(client.get(url("driving")));
+
+    assertEquals(7, json.get("routes").size());
+    assertEquals("OK", json.get("status").asText());
+  }
+
+  /**
+   * Vérifie qu’un taux d’erreur de 1 fait échouer toutes les requêtes.
+   *
+   * @throws Exception en cas d’erreur inattendue
+   */
+  @Test
+  void get_shouldInjectErrors() throws Exception {
+    start(1, 0);
+
+    assertThrows(IOException.class, () -> client.get(url("walking")));
+  }
+
+  /**
+   * Vérifie l’extraction des paramètres de la chaîne de requête.
+   */
+  @Test
+  void queryParameter_shouldDecodeValues() {
+    assertEquals("transit", DirectionsStubServer.queryParameter(
+                                "origin=Lyon%20Part-Dieu&mode=transit", "mode"));
+    assertEquals("Lyon Part-Dieu", DirectionsStubServer.queryParameter(
+                                       "origin=Lyon+Part-Dieu", "origin"));
+    assertNull(DirectionsStubServer.queryParameter(null, "mode"));
+    assertNull(DirectionsStubServer.queryParameter("origin=Lyon", "mode"));
+  }
+}
@@ -0,0 +1,73 @@
+package group10.backendco2.stub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests unitaires pour la classe {@link LatencyDistribution}.
+ *
+ * Vérifie la forme des distributions et le respect des bornes.
+ */
+class LatencyDistributionTest {
+
+  /**
+   * Vérifie qu’une distribution fixe renvoie toujours la médiane.
+   */
+  @Test
+  void sample_fixedShouldReturnMedian() {
+    LatencyDistribution fixed = new LatencyDistribution("fixed", 80, 0, 0, 500);
+
+    for (int i = 0; i < 100; i++) {
+      assertEquals(80, fixed.sample());
+    }
+  }
+
+  /**
+   * Vérifie qu’une distribution uniforme reste entre ses bornes.
+   */
+  @Test
+  void sample_uniformShouldStayWithinBounds() {
+    LatencyDistribution uniform =
+        new LatencyDistribution("UNIFORM", 0, 0, 10, 20);
+
+    for (int i = 0; i < 1000; i++) {
+      long value = uniform.sample();
+      assertTrue(value >= 10 && value <= 20);
+    }
+  }
+
+  /**
+   * Vérifie que la médiane observée d’une distribution log-normale est proche
+   * de la médiane configurée, et que les valeurs sont bornées.
+   */
+  @Test
+  void sample_lognormalShouldCenterOnMedian() {
+    LatencyDistribution lognormal =
+        new LatencyDistribution("lognormal", 150, 0.5, 20, 2000);
+
+    long[] values = new long[10_001];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = lognormal.sample();
+      assertTrue(values[i] >= 20 && values[i] <= 2000);
+    }
+    Arrays.sort(values);
+
+    long median = values[values.length / 2];
+    assertTrue(median > 135 && median < 165, "médiane observée " + median);
+  }
+
+  /**
+   * Vérifie le rejet des paramètres invalides.
+   */
+  @Test
+  void constructor_shouldRejectInvalidParameters() {
+    assertThrows(IllegalArgumentException.class,
+                 () -> new LatencyDistribution("pareto", 1, 0, 0, 10));
+    assertThrows(IllegalArgumentException.class,
+                 () -> new LatencyDistribution("fixed", 1, 0, 10, 5));
+  }
+}
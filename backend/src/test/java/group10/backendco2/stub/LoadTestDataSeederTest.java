@@ -0,0 +1,152 @@
+package group10.backendco2.stub;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import group10.backendco2.model.HistoriqueTrajet;
+import group10.backendco2.model.ModeTransport;
+import group10.backendco2.model.Trajet;
+import group10.backendco2.model.Utilisateur;
+import group10.backendco2.repository.CarburantFossileRepository;
+import group10.backendco2.repository.HistoriqueTrajetRepository;
+import group10.backendco2.repository.ModeTransportRepository;
+import group10.backendco2.repository.SourceElectriqueRepository;
+import group10.backendco2.repository.SourceEnergieRepository;
+import group10.backendco2.repository.TrajetRepository;
+import group10.backendco2.repository.TypeTransportRepository;
+import group10.backendco2.repository.UtilisateurRepository;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+/**
+ * Tests unitaires pour la classe {@link LoadTestDataSeeder}.
+ *
+ * Vérifie :
+ * <ul>
+ *   <li>la création du catalogue lorsque la base est vide</li>
+ *   <li>la création des seuls comptes manquants, avec leur historique</li>
+ *   <li>le hachage unique du mot de passe</li>
+ * </ul>
+ */
+class LoadTestDataSeederTest {
+  /**
+   * Repository des modes de transport.
+   */
+  private ModeTransportRepository modeTransportRepository;
+  /**
+   * Repository des sources d’énergie.
+   */
+  private SourceEnergieRepository sourceEnergieRepository;
+  /**
+   * Repository des utilisateurs.
+   */
+  private UtilisateurRepository utilisateurRepository;
+  /**
+   * Repository des trajets.
+   */
+  private TrajetRepository trajetRepository;
+  /**
+   * Repository de l’historique.
+   */
+  private HistoriqueTrajetRepository historiqueTrajetRepository;
+  /**
+   * Encodeur des mots de passe.
+   */
+  private PasswordEncoder passwordEncoder;
+  /**
+   * Jeu de données testé : 3 comptes de 4 trajets.
+   */
+  private LoadTestDataSeeder seeder;
+
+  /**
+   * Crée le jeu de données avec des repositories simulés.
+   */
+  @BeforeEach
+  void setUp() {
+    modeTransportRepository = mock(ModeTransportRepository.class);
+    sourceEnergieRepository = mock(SourceEnergieRepository.class);
+    utilisateurRepository = mock(UtilisateurRepository.class);
+    trajetRepository = mock(TrajetRepository.class);
+    historiqueTrajetRepository = mock(HistoriqueTrajetRepository.class);
+    passwordEncoder = mock(PasswordEncoder.class);
+    when(passwordEncoder.encode("secret")).thenReturn("hash");
+    when(utilisateurRepository.save(any()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(trajetRepository.saveAll(any()))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+    when(modeTransportRepository.findAll())
+        .thenReturn(List.of(new ModeTransport()));
+
+    seeder = new LoadTestDataSeeder(
+        3, 4, "secret", sourceEnergieRepository,
+        mock(TypeTransportRepository.class), modeTransportRepository,
+        mock(CarburantFossileRepository.class),
+        mock(SourceElectriqueRepository.class), utilisateurRepository,
+        trajetRepository, historiqueTrajetRepository, passwordEncoder);
+  }
+
+  /**
+   * Vérifie que le catalogue n’est créé que si la base n’a aucun mode de
+   * transport.
+   */
+  @Test
+  void run_shouldSeedCatalogOnlyWhenEmpty() {
+    when(modeTransportRepository.count()).thenReturn(0L, 12L);
+
+    seeder.run(null);
+    seeder.run(null);
+
+    verify(sourceEnergieRepository, times(4)).save(any());
+    verify(modeTransportRepository, times(1)).saveAll(any());
+  }
+
+  /**
+   * Vérifie que seuls les comptes absents sont créés, chacun avec son
+   * historique, que seul le premier est administrateur, et que le mot de passe
+   * n’est haché qu’une fois.
+   */
+  @Test
+  @SuppressWarnings("unchecked")
+  void run_shouldCreateMissingUsersWithHistory() {
+    when(modeTransportRepository.count()).thenReturn(12L);
+    when(utilisateurRepository.existsByEmail(anyString())).thenReturn(false);
+    when(utilisateurRepository.existsByEmail("loadtest-user-1@co2.test"))
+        .thenReturn(true);
+
+    seeder.run(null);
+
+    ArgumentCaptor<Utilisateur> users =
+        ArgumentCaptor.forClass(Utilisateur.class);
+    verify(utilisateurRepository, times(2)).save(users.capture());
+    assertEquals("loadtest-user-0@co2.test",
+                 users.getAllValues().get(0).getEmail());
+    assertEquals("loadtest-user-2@co2.test",
+                 users.getAllValues().get(1).getEmail());
+    assertEquals("hash", users.getAllValues().get(0).getMotDePasse());
+    assertEquals(Utilisateur.Role.Admin,
+                 users.getAllValues().get(0).getRole());
+    assertEquals(Utilisateur.Role.Normal,
+                 users.getAllValues().get(1).getRole());
+    verify(passwordEncoder, times(1)).encode("secret");
+    verify(sourceEnergieRepository, never()).save(any());
+
+    ArgumentCaptor<List<HistoriqueTrajet>> historique =
+        ArgumentCaptor.forClass(List.class);
+    verify(historiqueTrajetRepository, times(2)).saveAll(historique.capture());
+    List<HistoriqueTrajet> first = historique.getAllValues().get(0);
+    assertEquals(4, first.size());
+    assertSame(users.getAllValues().get(0), first.get(0).getUtilisateur());
+    Trajet trajet = first.get(0).getTrajet();
+    assertEquals(1, trajet.getModesTransport().size());
+  }
+}
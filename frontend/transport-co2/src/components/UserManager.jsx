@@ -2,9 +2,11 @@ import React, { useState, useEffect } from 'react';
 import axios from 'axios';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL;
+const PAGE_SIZE = 50;
 
 const UserManager = () => {
   const [users, setUsers] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [isLoading, setIsLoading] = useState(false);
   const [error, setError] = useState(null);
   const [editingUser, setEditingUser] = useState(null);
@@ -15,19 +17,23 @@ const UserManager = () => {
     if (token) fetchUsers();
   }, [token]);
 
-  const fetchUsers = async () => {
+  // Sans curseur, recharge la première page ; sinon ajoute la page suivante.
+  const fetchUsers = async (cursor = null) => {
     setIsLoading(true);
     setError(null);
     try {
       const response = await axios.get(`${API_BASE_URL}/api/admin/users`, {
         headers: { Authorization: `Bearer ${token}` },
+        params: cursor ? { size: PAGE_SIZE, cursor } : { size: PAGE_SIZE },
       });
-      setUsers(response.data.map(user => ({
+      const page = response.data.map(user => ({
         id: user.id,
         email: user.email,
         nom: user.nom,
         role: user.role ? user.role.toLowerCase() : 'visiteur'
-      })));
+      }));
+      setUsers(prev => (cursor ? [...prev, ...page] : page));
+      setNextCursor(response.headers?.['x-next-cursor'] ?? null);
     } catch (e) {
       console.error("Failed to fetch users:", e);
       setError(`Impossible de charger les utilisateurs. ${e.response?.data?.message || e.message}`);
@@ -226,6 +232,18 @@ const UserManager = () => {
             </tbody>
           </table>
         </div>
+
+        {nextCursor && (
+          <div className="text-center mt-4">
+            <button
+              className="bg-gray-500 text-white px-4 py-1 rounded hover:bg-gray-600"
+              onClick={() => fetchUsers(nextCursor)}
+              disabled={isLoading}
+            >
+              Afficher plus
+            </button>
+          </div>
+        )}
       </div>
     </div>
   );
@@ -2,21 +2,31 @@ import { useEffect, useState } from "react";
 import axios from "axios";
 import React from 'react';
 
+const PAGE_SIZE = 50;
+
 const Historique = () => {
     const [searches, setSearches] = useState([]);
+    const [nextCursor, setNextCursor] = useState(null);
     const token = sessionStorage.getItem("token");
 
-    useEffect(() => {
-        if (!token) return;
+    // Sans curseur, charge la première page ; sinon ajoute la page suivante.
+    const loadPage = (cursor = null) => {
         axios
             .get(`${import.meta.env.VITE_API_URL}/history`, {
                 headers: { Authorization: `Bearer ${token}` },
+                params: cursor ? { size: PAGE_SIZE, cursor } : { size: PAGE_SIZE },
             })
             .then((res) => {
                 console.log("🔍 Données historiques reçues :", res.data);
-                setSearches(res.data);
+                setSearches((prev) => (cursor ? [...prev, ...res.data] : res.data));
+                setNextCursor(res.headers?.["x-next-cursor"] ?? null);
             })
             .catch((err) => console.error("❌ Erreur historique :", err));
+    };
+
+    useEffect(() => {
+        if (!token) return;
+        loadPage();
     }, [token]);
 
     const deleteTrajet = (id) => {
@@ -92,6 +102,17 @@ const Historique = () => {
                     </>
                 )}
 
+                {nextCursor && (
+                    <div className="text-center mt-6">
+                        <button
+                            onClick={() => loadPage(nextCursor)}
+                            className="text-blue-500 font-semibold hover:underline"
+                        >
+                            Afficher plus
+                        </button>
+                    </div>
+                )}
+
                 {recherches.length === 0 && simulations.length === 0 && (
                     <p className="text-center text-gray-500 dark:text-gray-400">
                         Aucun trajet sauvegardé.
@@ -73,4 +73,30 @@ describe("Historique Component", () => {
       expect(screen.queryByText(/nice → marseille/i)).not.toBeInTheDocument();
     });
   });
+
+  it("requests bounded pages and follows the next cursor", async () => {
+    sessionStorage.setItem("token", "mock-token");
+
+    axios.get
+      .mockResolvedValueOnce({
+        data: [{ id: 2, origine: "Paris", destination: "Lyon", date: "2024-04-11T12:00:00Z" }],
+        headers: { "x-next-cursor": "next-page" },
+      })
+      .mockResolvedValueOnce({
+        data: [{ id: 1, origine: "Nice", destination: "Marseille", date: "2024-04-10T12:00:00Z" }],
+        headers: {},
+      });
+
+    render(<Historique />, { wrapper: MemoryRouter });
+
+    fireEvent.click(await screen.findByText(/afficher plus/i));
+
+    await waitFor(() => {
+      expect(screen.getByText(/nice → marseille/i)).toBeInTheDocument();
+    });
+    expect(screen.getByText(/paris → lyon/i)).toBeInTheDocument();
+    expect(axios.get.mock.calls[0][1].params).toEqual({ size: 50 });
+    expect(axios.get.mock.calls[1][1].params).toEqual({ size: 50, cursor: "next-page" });
+    expect(screen.queryByText(/afficher plus/i)).not.toBeInTheDocument();
+  });
 });
@@ -61,4 +61,27 @@ describe("UserManager Component", () => {
       ).toBeInTheDocument();
     });
   });
+
+  it("requests bounded pages and follows the next cursor", async () => {
+    axios.get
+      .mockResolvedValueOnce({
+        data: [{ id: 2, email: "user2@example.com", nom: "User2", role: "Normal" }],
+        headers: { "x-next-cursor": "next-page" },
+      })
+      .mockResolvedValueOnce({
+        data: [{ id: 1, email: "user1@example.com", nom: "User1", role: "Normal" }],
+        headers: {},
+      });
+
+    render(<UserManager />);
+
+    fireEvent.click(await screen.findByText(/afficher plus/i));
+
+    await waitFor(() => {
+      expect(screen.getByText(/user1@example.com/i)).toBeInTheDocument();
+    });
+    expect(screen.getByText(/user2@example.com/i)).toBeInTheDocument();
+    expect(axios.get.mock.calls[0][1].params).toEqual({ size: 50 });
+    expect(axios.get.mock.calls[1][1].params).toEqual({ size: 50, cursor: "next-page" });
+  });
 });